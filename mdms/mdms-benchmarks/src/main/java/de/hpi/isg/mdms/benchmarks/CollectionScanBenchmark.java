@@ -0,0 +1,74 @@
+package de.hpi.isg.mdms.benchmarks;
+
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.constraints.ConstraintPredicate;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures full and filtered scans over a persisted {@link ConstraintCollection} of {@link InclusionDependency}s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CollectionScanBenchmark {
+
+    public static class ScanState extends StoreState {
+
+        @Param({"1000", "100000"})
+        public int numConstraints;
+
+        private ConstraintCollection<InclusionDependency> constraintCollection;
+
+        private int referencedColumnId;
+
+        @Setup(Level.Trial)
+        @SuppressWarnings("unchecked")
+        public void setUp() throws Exception {
+            this.createStore();
+            ConstraintCollection<InclusionDependency> constraintCollection =
+                    this.metadataStore.createConstraintCollection(null, InclusionDependency.class, this.schema);
+            constraintCollection.addAll(
+                    SyntheticSchema.generateInclusionDependencies(this.columnIds, this.numConstraints, SEED)
+            );
+            this.reloadStore();
+            this.constraintCollection = (ConstraintCollection<InclusionDependency>)
+                    this.metadataStore.getConstraintCollection(constraintCollection.getId());
+            this.referencedColumnId = this.columnIds[this.columnIds.length / 2];
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            this.destroyStore();
+        }
+    }
+
+    @Benchmark
+    public void scanConstraints(ScanState state, Blackhole blackhole) {
+        for (InclusionDependency ind : state.constraintCollection.getConstraints()) {
+            blackhole.consume(ind);
+        }
+    }
+
+    @Benchmark
+    public void streamConstraints(ScanState state, Blackhole blackhole) {
+        try (Stream<InclusionDependency> stream = state.constraintCollection.stream()) {
+            stream.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public long streamReferencingConstraints(ScanState state) {
+        ConstraintPredicate<InclusionDependency> predicate = ConstraintPredicate.referencing(state.referencedColumnId);
+        try (Stream<InclusionDependency> stream = state.constraintCollection.stream(predicate)) {
+            return stream.count();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package de.hpi.isg.mdms.benchmarks;
+
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to insert a batch of {@link InclusionDependency}s into a new {@link ConstraintCollection}. The
+ * insert throughput is {@code numConstraints} divided by the reported time. Each measured invocation works on a
+ * fresh store, so that the store does not grow from one invocation to the next.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = 1)
+@Measurement(iterations = 10, batchSize = 1)
+@Fork(1)
+public class ConstraintInsertBenchmark {
+
+    public static class InsertState extends StoreState {
+
+        @Param({"1000", "100000"})
+        public int numConstraints;
+
+        private List<InclusionDependency> inds;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws Exception {
+            this.createStore();
+            this.inds = SyntheticSchema.generateInclusionDependencies(this.columnIds, this.numConstraints, SEED);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            this.destroyStore();
+        }
+    }
+
+    @Benchmark
+    public ConstraintCollection<InclusionDependency> insertOneByOne(InsertState state) {
+        ConstraintCollection<InclusionDependency> constraintCollection =
+                state.metadataStore.createConstraintCollection(null, InclusionDependency.class, state.schema);
+        for (InclusionDependency ind : state.inds) {
+            constraintCollection.add(ind);
+        }
+        return constraintCollection;
+    }
+
+    @Benchmark
+    public ConstraintCollection<InclusionDependency> insertAll(InsertState state) {
+        ConstraintCollection<InclusionDependency> constraintCollection =
+                state.metadataStore.createConstraintCollection(null, InclusionDependency.class, state.schema);
+        constraintCollection.addAll(state.inds);
+        return constraintCollection;
+    }
+
+    @Benchmark
+    public ConstraintCollection<InclusionDependency> insertAllAndFlush(InsertState state) throws Exception {
+        ConstraintCollection<InclusionDependency> constraintCollection = this.insertAll(state);
+        state.metadataStore.flush();
+        return constraintCollection;
+    }
+
+}
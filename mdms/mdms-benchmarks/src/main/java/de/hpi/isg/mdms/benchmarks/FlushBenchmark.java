@@ -0,0 +1,49 @@
+package de.hpi.isg.mdms.benchmarks;
+
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import de.hpi.isg.mdms.model.MetadataStore;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of {@link MetadataStore#flush()} after a batch of {@link InclusionDependency}s has been
+ * inserted into a new {@link ConstraintCollection}. The insertion itself is not measured. Each measured invocation
+ * works on a fresh store, so that the store does not grow from one invocation to the next.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = 1)
+@Measurement(iterations = 10, batchSize = 1)
+@Fork(1)
+public class FlushBenchmark {
+
+    public static class FlushState extends StoreState {
+
+        @Param({"0", "1000", "100000"})
+        public int numConstraints;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws Exception {
+            this.createStore();
+            List<InclusionDependency> inds =
+                    SyntheticSchema.generateInclusionDependencies(this.columnIds, this.numConstraints, SEED);
+            ConstraintCollection<InclusionDependency> constraintCollection =
+                    this.metadataStore.createConstraintCollection(null, InclusionDependency.class, this.schema);
+            constraintCollection.addAll(inds);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            this.destroyStore();
+        }
+    }
+
+    @Benchmark
+    public void flush(FlushState state) throws Exception {
+        state.metadataStore.flush();
+    }
+
+}
@@ -0,0 +1,55 @@
+package de.hpi.isg.mdms.benchmarks;
+
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import de.hpi.isg.mdms.model.MetadataStore;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.targets.Schema;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to load a persisted {@link MetadataStore} and to access its {@link Schema}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReopenBenchmark {
+
+    public static class ReopenState extends StoreState {
+
+        @Param({"1000", "100000"})
+        public int numConstraints;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            this.createStore();
+            ConstraintCollection<InclusionDependency> constraintCollection =
+                    this.metadataStore.createConstraintCollection(null, InclusionDependency.class, this.schema);
+            constraintCollection.addAll(
+                    SyntheticSchema.generateInclusionDependencies(this.columnIds, this.numConstraints, SEED)
+            );
+            this.metadataStore.flush();
+            this.metadataStore.close();
+            this.metadataStore = null;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            this.destroyStore();
+        }
+    }
+
+    @Benchmark
+    public Schema reopen(ReopenState state) throws Exception {
+        MetadataStore metadataStore = state.backend.load(state.directory);
+        try {
+            return metadataStore.getSchemaByName(SyntheticSchema.SCHEMA_NAME);
+        } finally {
+            metadataStore.close();
+        }
+    }
+
+}
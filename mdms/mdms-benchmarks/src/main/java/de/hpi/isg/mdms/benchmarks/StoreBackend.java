@@ -0,0 +1,79 @@
+package de.hpi.isg.mdms.benchmarks;
+
+import de.hpi.isg.mdms.columnar.ColumnarMetadataStore;
+import de.hpi.isg.mdms.domain.RDBMSMetadataStore;
+import de.hpi.isg.mdms.model.DefaultMetadataStore;
+import de.hpi.isg.mdms.model.MetadataStore;
+import de.hpi.isg.mdms.rdbms.SQLiteInterface;
+
+import java.io.File;
+
+/**
+ * The {@link MetadataStore} implementations that can be benchmarked. Each backend persists its store somewhere in a
+ * given directory. New backends should be added here, so that all benchmarks pick them up via their
+ * {@code backend} parameter.
+ */
+public enum StoreBackend {
+
+    /**
+     * A Java-serialized {@link DefaultMetadataStore}.
+     */
+    DEFAULT {
+        @Override
+        public MetadataStore create(File directory) throws Exception {
+            return DefaultMetadataStore.createAndSave(new File(directory, "metadatastore.ser"));
+        }
+
+        @Override
+        public MetadataStore load(File directory) throws Exception {
+            return DefaultMetadataStore.load(new File(directory, "metadatastore.ser"));
+        }
+    },
+
+    /**
+     * A {@link RDBMSMetadataStore} on top of SQLite.
+     */
+    SQLITE {
+        @Override
+        public MetadataStore create(File directory) throws Exception {
+            return RDBMSMetadataStore.createNewInstance(SQLiteInterface.createForFile(new File(directory, "metadatastore.sqlite")));
+        }
+
+        @Override
+        public MetadataStore load(File directory) throws Exception {
+            return RDBMSMetadataStore.load(SQLiteInterface.createForFile(new File(directory, "metadatastore.sqlite")));
+        }
+    },
+
+    /**
+     * A {@link ColumnarMetadataStore}.
+     */
+    COLUMNAR {
+        @Override
+        public MetadataStore create(File directory) throws Exception {
+            return ColumnarMetadataStore.createAndSave(new File(directory, "columnar"));
+        }
+
+        @Override
+        public MetadataStore load(File directory) throws Exception {
+            return ColumnarMetadataStore.load(new File(directory, "columnar"));
+        }
+    };
+
+    /**
+     * Create a new, empty {@link MetadataStore}.
+     *
+     * @param directory in which the store should be persisted
+     * @return the new {@link MetadataStore}
+     */
+    public abstract MetadataStore create(File directory) throws Exception;
+
+    /**
+     * Load a {@link MetadataStore} that has been created via {@link #create(File)} and been flushed.
+     *
+     * @param directory in which the store is persisted
+     * @return the loaded {@link MetadataStore}
+     */
+    public abstract MetadataStore load(File directory) throws Exception;
+
+}
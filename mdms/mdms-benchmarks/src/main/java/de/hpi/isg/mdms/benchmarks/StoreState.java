@@ -0,0 +1,77 @@
+package de.hpi.isg.mdms.benchmarks;
+
+import de.hpi.isg.mdms.model.MetadataStore;
+import de.hpi.isg.mdms.model.targets.Schema;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.nio.file.Files;
+
+/**
+ * Base class for benchmark states that work on a {@link MetadataStore} with a synthetic {@link Schema}. Subclasses
+ * decide when to call {@link #createStore()} and {@link #destroyStore()}.
+ */
+@State(Scope.Thread)
+public abstract class StoreState {
+
+    /**
+     * Seeds the generation of synthetic constraints.
+     */
+    public static final long SEED = 42L;
+
+    @Param({"DEFAULT", "SQLITE", "COLUMNAR"})
+    public StoreBackend backend;
+
+    @Param({"10", "100"})
+    public int numTables;
+
+    @Param({"20"})
+    public int numColumnsPerTable;
+
+    protected File directory;
+
+    protected MetadataStore metadataStore;
+
+    protected Schema schema;
+
+    protected int[] columnIds;
+
+    /**
+     * Create a new {@link MetadataStore} with a synthetic {@link Schema} in a new temporary directory.
+     */
+    protected void createStore() throws Exception {
+        this.directory = Files.createTempDirectory("mdms-benchmark").toFile();
+        this.metadataStore = this.backend.create(this.directory);
+        this.schema = SyntheticSchema.generate(this.metadataStore, this.numTables, this.numColumnsPerTable);
+        this.metadataStore.flush();
+        this.columnIds = SyntheticSchema.getColumnIds(this.schema);
+    }
+
+    /**
+     * Replace the {@link #metadataStore} with a freshly loaded instance, so that subsequent operations cannot be
+     * served from the state that was built up while writing.
+     */
+    protected void reloadStore() throws Exception {
+        this.metadataStore.flush();
+        this.metadataStore.close();
+        this.metadataStore = this.backend.load(this.directory);
+        this.schema = this.metadataStore.getSchemaByName(SyntheticSchema.SCHEMA_NAME);
+    }
+
+    /**
+     * Close the {@link #metadataStore} and delete its directory.
+     */
+    protected void destroyStore() {
+        if (this.metadataStore != null) {
+            this.metadataStore.close();
+            this.metadataStore = null;
+        }
+        if (this.directory != null) {
+            FileUtils.deleteQuietly(this.directory);
+            this.directory = null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package de.hpi.isg.mdms.benchmarks;
+
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import de.hpi.isg.mdms.model.MetadataStore;
+import de.hpi.isg.mdms.model.location.DefaultLocation;
+import de.hpi.isg.mdms.model.targets.Column;
+import de.hpi.isg.mdms.model.targets.Schema;
+import de.hpi.isg.mdms.model.targets.Table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic schemata and constraints over them. All generated data is determined by the given sizes and
+ * seeds, so that benchmark runs are comparable.
+ */
+public class SyntheticSchema {
+
+    public static final String SCHEMA_NAME = "synthetic-schema";
+
+    private SyntheticSchema() {
+    }
+
+    public static String getTableName(int tableNum) {
+        return String.format("table-%04d", tableNum);
+    }
+
+    public static String getColumnName(int columnNum) {
+        return String.format("column-%04d", columnNum);
+    }
+
+    /**
+     * Add a new {@link Schema} named {@link #SCHEMA_NAME} to the given {@link MetadataStore}.
+     *
+     * @param metadataStore      to which the {@link Schema} should be added
+     * @param numTables          the number of {@link Table}s in the {@link Schema}
+     * @param numColumnsPerTable the number of {@link Column}s in each {@link Table}
+     * @return the new {@link Schema}
+     */
+    public static Schema generate(MetadataStore metadataStore, int numTables, int numColumnsPerTable) {
+        Schema schema = metadataStore.addSchema(SCHEMA_NAME, null, new DefaultLocation());
+        for (int tableNum = 0; tableNum < numTables; tableNum++) {
+            Table table = schema.addTable(metadataStore, getTableName(tableNum), null, new DefaultLocation());
+            for (int columnNum = 0; columnNum < numColumnsPerTable; columnNum++) {
+                table.addColumn(metadataStore, getColumnName(columnNum), null, columnNum);
+            }
+        }
+        return schema;
+    }
+
+    /**
+     * @return the sorted IDs of all {@link Column}s in the given {@link Schema}
+     */
+    public static int[] getColumnIds(Schema schema) {
+        int[] columnIds = schema.getTables().stream()
+                .flatMap(table -> table.getColumns().stream())
+                .mapToInt(Column::getId)
+                .toArray();
+        Arrays.sort(columnIds);
+        return columnIds;
+    }
+
+    /**
+     * Generate random unary {@link InclusionDependency}s among the given columns.
+     *
+     * @param columnIds the IDs of the columns to be referenced by the {@link InclusionDependency}s
+     * @param number    the number of {@link InclusionDependency}s to generate
+     * @param seed      seeds the random generation
+     * @return the {@link InclusionDependency}s
+     */
+    public static List<InclusionDependency> generateInclusionDependencies(int[] columnIds, int number, long seed) {
+        Random random = new Random(seed);
+        List<InclusionDependency> inds = new ArrayList<>(number);
+        for (int i = 0; i < number; i++) {
+            int dependentColumnId = columnIds[random.nextInt(columnIds.length)];
+            int referencedColumnId = columnIds[random.nextInt(columnIds.length)];
+            inds.add(new InclusionDependency(dependentColumnId, referencedColumnId));
+        }
+        return inds;
+    }
+}
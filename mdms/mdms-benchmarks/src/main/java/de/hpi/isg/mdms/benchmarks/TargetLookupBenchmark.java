@@ -0,0 +1,96 @@
+package de.hpi.isg.mdms.benchmarks;
+
+import de.hpi.isg.mdms.model.targets.Column;
+import de.hpi.isg.mdms.model.targets.Table;
+import de.hpi.isg.mdms.model.targets.Target;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup of {@link Target}s by their IDs and names in a persisted synthetic schema. Each invocation
+ * performs a single lookup of a random but reproducible {@link Target}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TargetLookupBenchmark {
+
+    /**
+     * Number of precomputed lookup keys.
+     */
+    private static final int NUM_LOOKUP_KEYS = 1024;
+
+    public static class LookupState extends StoreState {
+
+        private int[] lookupColumnIds;
+
+        private String[] lookupTableNames;
+
+        private String[] lookupColumnNames;
+
+        private Table[] lookupTables;
+
+        private int cursor = 0;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            this.createStore();
+            this.reloadStore();
+
+            Random random = new Random(SEED);
+            this.lookupColumnIds = new int[NUM_LOOKUP_KEYS];
+            this.lookupTableNames = new String[NUM_LOOKUP_KEYS];
+            this.lookupColumnNames = new String[NUM_LOOKUP_KEYS];
+            this.lookupTables = new Table[NUM_LOOKUP_KEYS];
+            for (int i = 0; i < NUM_LOOKUP_KEYS; i++) {
+                this.lookupColumnIds[i] = this.columnIds[random.nextInt(this.columnIds.length)];
+                this.lookupTableNames[i] = SyntheticSchema.getTableName(random.nextInt(this.numTables));
+                this.lookupColumnNames[i] = SyntheticSchema.getColumnName(random.nextInt(this.numColumnsPerTable));
+                this.lookupTables[i] = this.schema.getTableByName(this.lookupTableNames[i]);
+            }
+        }
+
+        private int nextKey() {
+            this.cursor = (this.cursor + 1) % NUM_LOOKUP_KEYS;
+            return this.cursor;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            this.destroyStore();
+        }
+    }
+
+    @Benchmark
+    public Target lookUpColumnById(LookupState state) {
+        return state.metadataStore.getTargetById(state.lookupColumnIds[state.nextKey()]);
+    }
+
+    @Benchmark
+    public Column findColumnInSchema(LookupState state) {
+        return state.schema.findColumn(state.lookupColumnIds[state.nextKey()]);
+    }
+
+    @Benchmark
+    public Table lookUpTableByName(LookupState state) {
+        return state.schema.getTableByName(state.lookupTableNames[state.nextKey()]);
+    }
+
+    @Benchmark
+    public Column lookUpColumnByName(LookupState state) {
+        int key = state.nextKey();
+        return state.lookupTables[key].getColumnByName(state.lookupColumnNames[key]);
+    }
+
+    @Benchmark
+    public Target lookUpColumnByQualifiedName(LookupState state) {
+        int key = state.nextKey();
+        return state.metadataStore.getTargetByName(String.format("%s.%s.%s",
+                SyntheticSchema.SCHEMA_NAME, state.lookupTableNames[key], state.lookupColumnNames[key]));
+    }
+
+}
@@ -0,0 +1,76 @@
+package de.hpi.isg.mdms.cassandra;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import de.hpi.isg.mdms.exceptions.MetadataStoreException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes write {@link Statement}s asynchronously while bounding the number of requests in flight, so that writers
+ * are throttled instead of overloading the cluster. Failures are reported on the next call to {@link #write(Statement)}
+ * or {@link #flush()}.
+ */
+class AsyncWriter {
+
+    private final Session session;
+
+    private final int maxRequestsInFlight;
+
+    private final Semaphore permits;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final FutureCallback<ResultSet> callback = new FutureCallback<ResultSet>() {
+
+        @Override
+        public void onSuccess(ResultSet result) {
+            AsyncWriter.this.permits.release();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            AsyncWriter.this.failure.compareAndSet(null, t);
+            AsyncWriter.this.permits.release();
+        }
+    };
+
+    AsyncWriter(Session session, int maxRequestsInFlight) {
+        this.session = session;
+        this.maxRequestsInFlight = maxRequestsInFlight;
+        this.permits = new Semaphore(maxRequestsInFlight);
+    }
+
+    /**
+     * Submits the given statement. Blocks if too many requests are in flight.
+     *
+     * @param statement is the statement to execute
+     */
+    void write(Statement statement) {
+        this.checkFailure();
+        this.permits.acquireUninterruptibly();
+        ResultSetFuture future = this.session.executeAsync(statement);
+        Futures.addCallback(future, this.callback);
+    }
+
+    /**
+     * Waits until all submitted statements have been executed.
+     */
+    void flush() {
+        this.permits.acquireUninterruptibly(this.maxRequestsInFlight);
+        this.permits.release(this.maxRequestsInFlight);
+        this.checkFailure();
+    }
+
+    private void checkFailure() {
+        Throwable t = this.failure.getAndSet(null);
+        if (t != null) {
+            throw new MetadataStoreException("An asynchronous write failed.", t);
+        }
+    }
+}
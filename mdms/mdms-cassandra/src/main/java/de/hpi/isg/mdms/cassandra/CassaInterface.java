@@ -0,0 +1,505 @@
+package de.hpi.isg.mdms.cassandra;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.TupleType;
+import com.datastax.driver.core.TupleValue;
+import de.hpi.isg.mdms.domain.CassaMetadataStore;
+import de.hpi.isg.mdms.domain.constraints.CassaConstraintCollection;
+import de.hpi.isg.mdms.domain.experiment.CassaAlgorithm;
+import de.hpi.isg.mdms.domain.experiment.CassaExperiment;
+import de.hpi.isg.mdms.exceptions.MetadataStoreException;
+import de.hpi.isg.mdms.model.experiment.Algorithm;
+import de.hpi.isg.mdms.model.experiment.Annotation;
+import de.hpi.isg.mdms.model.experiment.Experiment;
+import de.hpi.isg.mdms.model.location.Location;
+import de.hpi.isg.mdms.model.targets.Column;
+import de.hpi.isg.mdms.model.targets.DefaultSchema;
+import de.hpi.isg.mdms.model.targets.DefaultTable;
+import de.hpi.isg.mdms.model.targets.Schema;
+import de.hpi.isg.mdms.model.targets.Table;
+import de.hpi.isg.mdms.model.targets.Target;
+import de.hpi.isg.mdms.rdbms.util.LocationCache;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Encapsulates the CQL access of a {@link CassaMetadataStore}, similar to the
+ * {@link de.hpi.isg.mdms.rdbms.SQLInterface} of the RDBMS-based stores. All statements are prepared once per
+ * connection, so that a token-aware load balancing policy can route them directly to a replica of their partition.
+ * Writes are executed asynchronously (see {@link #flush()}).
+ */
+public class CassaInterface implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CassaInterface.class);
+
+    private static final String SETUP_SCRIPT_RESOURCE_PATH = "/schema_creation.cql";
+
+    public static final int DEFAULT_MAX_REQUESTS_IN_FLIGHT = 1024;
+
+    /**
+     * Number of constraints that are fetched per page when reading a constraint collection.
+     */
+    private static final int FETCH_SIZE = 1000;
+
+    private static final TupleType ANNOTATION_TYPE = TupleType.of(DataType.text(), DataType.text());
+
+    private final Cluster cluster;
+
+    private final String keyspace;
+
+    private final int maxRequestsInFlight;
+
+    private final LocationCache locationCache = new LocationCache();
+
+    private Session session;
+
+    private AsyncWriter writer;
+
+    private PreparedStatement insertConfigurationStatement, insertSchemaStatement, insertTableStatement,
+            insertColumnStatement, deleteSchemaStatement, deleteTableStatement, deleteColumnStatement,
+            insertAlgorithmStatement, deleteAlgorithmStatement, insertExperimentStatement,
+            updateExperimentDescriptionStatement, updateExperimentExecutionTimeStatement,
+            addExperimentParameterStatement, addExperimentAnnotationStatement, deleteExperimentStatement,
+            insertConstraintCollectionStatement, updateConstraintCollectionDescriptionStatement,
+            deleteConstraintCollectionStatement, insertConstraintStatement, selectConstraintsStatement,
+            deleteConstraintsStatement;
+
+    public CassaInterface(Cluster cluster, String keyspace) {
+        this(cluster, keyspace, DEFAULT_MAX_REQUESTS_IN_FLIGHT);
+    }
+
+    public CassaInterface(Cluster cluster, String keyspace, int maxRequestsInFlight) {
+        this.cluster = cluster;
+        this.keyspace = keyspace;
+        this.maxRequestsInFlight = maxRequestsInFlight;
+    }
+
+    /**
+     * @return whether the keyspace of the metadata store exists
+     */
+    public boolean checkKeyspaceExistence() {
+        return this.cluster.getMetadata().getKeyspace(this.keyspace) != null;
+    }
+
+    /**
+     * (Re-)creates the keyspace of the metadata store with all its tables and connects to it.
+     */
+    public void initializeMetadataStore() {
+        try (Session setupSession = this.cluster.connect()) {
+            if (this.checkKeyspaceExistence()) {
+                setupSession.execute(String.format("DROP KEYSPACE %s", this.keyspace));
+            }
+            setupSession.execute(String.format("CREATE KEYSPACE %s WITH replication = %s",
+                    this.keyspace, this.createReplicationSettings()));
+            setupSession.execute(String.format("USE %s", this.keyspace));
+            for (String statement : loadResource(SETUP_SCRIPT_RESOURCE_PATH).split(";")) {
+                if (!statement.trim().isEmpty()) {
+                    setupSession.execute(statement);
+                }
+            }
+        } catch (IOException e) {
+            throw new MetadataStoreException("Could not load the CQL setup script.", e);
+        }
+        this.connect();
+    }
+
+    /**
+     * Uses the {@code SimpleStrategy} if all nodes reside in the same data center and the
+     * {@code NetworkTopologyStrategy} otherwise. Each data center keeps up to three replicas.
+     */
+    private String createReplicationSettings() {
+        Map<String, Integer> numHostsPerDatacenter = new LinkedHashMap<>();
+        for (Host host : this.cluster.getMetadata().getAllHosts()) {
+            numHostsPerDatacenter.merge(host.getDatacenter(), 1, Integer::sum);
+        }
+        if (numHostsPerDatacenter.size() <= 1) {
+            int numHosts = numHostsPerDatacenter.values().stream().findAny().orElse(1);
+            return String.format("{'class':'SimpleStrategy', 'replication_factor':%d}", Math.min(3, numHosts));
+        }
+        StringBuilder sb = new StringBuilder("{'class':'NetworkTopologyStrategy'");
+        for (Map.Entry<String, Integer> entry : numHostsPerDatacenter.entrySet()) {
+            sb.append(String.format(", '%s':%d", entry.getKey(), Math.min(3, entry.getValue())));
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Connects to the keyspace of the metadata store and prepares all statements.
+     */
+    public void connect() {
+        this.session = this.cluster.connect(this.keyspace);
+        this.writer = new AsyncWriter(this.session, this.maxRequestsInFlight);
+
+        this.insertConfigurationStatement = this.prepare("INSERT INTO config (key, value) VALUES (?, ?)");
+        this.insertSchemaStatement = this.prepare("INSERT INTO schemaa (id, name, description, location_type, "
+                + "location_properties) VALUES (?, ?, ?, ?, ?)");
+        this.insertTableStatement = this.prepare("INSERT INTO tablee (id, schema_id, name, description, "
+                + "location_type, location_properties) VALUES (?, ?, ?, ?, ?, ?)");
+        this.insertColumnStatement = this.prepare("INSERT INTO columnn (id, table_id, name, description, "
+                + "location_type, location_properties) VALUES (?, ?, ?, ?, ?, ?)");
+        this.deleteSchemaStatement = this.prepare("DELETE FROM schemaa WHERE id = ?");
+        this.deleteTableStatement = this.prepare("DELETE FROM tablee WHERE id = ?");
+        this.deleteColumnStatement = this.prepare("DELETE FROM columnn WHERE id = ?");
+        this.insertAlgorithmStatement = this.prepare("INSERT INTO algorithm (id, name) VALUES (?, ?)");
+        this.deleteAlgorithmStatement = this.prepare("DELETE FROM algorithm WHERE id = ?");
+        this.insertExperimentStatement = this.prepare("INSERT INTO experiment (id, algorithm_id, description, "
+                + "execution_time, creation_time, parameters, annotations) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        this.updateExperimentDescriptionStatement = this.prepare(
+                "UPDATE experiment SET description = ? WHERE id = ?");
+        this.updateExperimentExecutionTimeStatement = this.prepare(
+                "UPDATE experiment SET execution_time = ? WHERE id = ?");
+        this.addExperimentParameterStatement = this.prepare("UPDATE experiment SET parameters[?] = ? WHERE id = ?");
+        this.addExperimentAnnotationStatement = this.prepare(
+                "UPDATE experiment SET annotations = annotations + ? WHERE id = ?");
+        this.deleteExperimentStatement = this.prepare("DELETE FROM experiment WHERE id = ?");
+        this.insertConstraintCollectionStatement = this.prepare("INSERT INTO constraint_collectionn (id, "
+                + "description, experiment_id, constraint_class, scope) VALUES (?, ?, ?, ?, ?)");
+        this.updateConstraintCollectionDescriptionStatement = this.prepare(
+                "UPDATE constraint_collectionn SET description = ? WHERE id = ?");
+        this.deleteConstraintCollectionStatement = this.prepare("DELETE FROM constraint_collectionn WHERE id = ?");
+        this.insertConstraintStatement = this.prepare(
+                "INSERT INTO constraintt (constraint_collection_id, bucket, data) VALUES (?, ?, ?)");
+        this.selectConstraintsStatement = this.prepare(
+                "SELECT data FROM constraintt WHERE constraint_collection_id = ? AND bucket = ?");
+        this.deleteConstraintsStatement = this.prepare(
+                "DELETE FROM constraintt WHERE constraint_collection_id = ? AND bucket = ?");
+    }
+
+    private PreparedStatement prepare(String cql) {
+        return this.session.prepare(cql);
+    }
+
+    private void write(Statement statement) {
+        this.writer.write(statement);
+    }
+
+    /**
+     * Waits until all asynchronous writes have been executed.
+     *
+     * @throws MetadataStoreException if any of the writes failed
+     */
+    public void flush() {
+        this.writer.flush();
+    }
+
+    public void saveConfiguration(Map<String, String> configuration) {
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        for (Map.Entry<String, String> entry : configuration.entrySet()) {
+            batch.add(this.insertConfigurationStatement.bind(entry.getKey(), entry.getValue()));
+        }
+        this.session.execute(batch);
+    }
+
+    public Map<String, String> loadConfiguration() {
+        Map<String, String> configuration = new HashMap<>();
+        for (Row row : this.session.execute("SELECT key, value FROM config")) {
+            configuration.put(row.getString("key"), row.getString("value"));
+        }
+        return configuration;
+    }
+
+    /**
+     * Writes the given {@link Schema}, {@link Table}, or {@link Column}.
+     */
+    public void writeTarget(Target target) {
+        Location location = target.getLocation();
+        String locationType = location == null ? null : location.getClass().getName();
+        Map<String, String> locationProperties = location == null ?
+                Collections.<String, String>emptyMap() : location.getProperties();
+        if (target instanceof Schema) {
+            this.write(this.insertSchemaStatement.bind(target.getId(), target.getName(), target.getDescription(),
+                    locationType, locationProperties));
+        } else if (target instanceof Table) {
+            this.write(this.insertTableStatement.bind(target.getId(), ((Table) target).getSchema().getId(),
+                    target.getName(), target.getDescription(), locationType, locationProperties));
+        } else if (target instanceof Column) {
+            this.write(this.insertColumnStatement.bind(target.getId(), ((Column) target).getTable().getId(),
+                    target.getName(), target.getDescription(), locationType, locationProperties));
+        } else {
+            throw new IllegalArgumentException(String.format("Unsupported target: %s", target));
+        }
+    }
+
+    /**
+     * Loads all schemas, tables, and columns into the given {@link CassaMetadataStore}.
+     */
+    public void loadTargets(CassaMetadataStore metadataStore) {
+        Map<Integer, DefaultSchema> schemas = new HashMap<>();
+        for (Row row : this.session.execute(
+                "SELECT id, name, description, location_type, location_properties FROM schemaa")) {
+            Schema schema = DefaultSchema.buildAndRegister(metadataStore, row.getInt("id"), row.getString("name"),
+                    row.getString("description"), this.createLocation(row));
+            schemas.put(schema.getId(), (DefaultSchema) schema);
+        }
+
+        Map<Integer, DefaultTable> tables = new HashMap<>();
+        for (Row row : this.session.execute(
+                "SELECT id, schema_id, name, description, location_type, location_properties FROM tablee")) {
+            DefaultSchema schema = schemas.get(row.getInt("schema_id"));
+            if (schema == null) {
+                LOGGER.warn("Skipping table {} of unknown schema {}.", row.getInt("id"), row.getInt("schema_id"));
+                continue;
+            }
+            Table table = schema.restoreTable(metadataStore, row.getInt("id"), row.getString("name"),
+                    row.getString("description"), this.createLocation(row));
+            tables.put(table.getId(), (DefaultTable) table);
+        }
+
+        for (Row row : this.session.execute(
+                "SELECT id, table_id, name, description, location_type, location_properties FROM columnn")) {
+            DefaultTable table = tables.get(row.getInt("table_id"));
+            if (table == null) {
+                LOGGER.warn("Skipping column {} of unknown table {}.", row.getInt("id"), row.getInt("table_id"));
+                continue;
+            }
+            table.restoreColumn(metadataStore, row.getInt("id"), row.getString("name"),
+                    row.getString("description"), this.createLocation(row));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Location createLocation(Row row) {
+        String locationType = row.getString("location_type");
+        if (locationType == null) return null;
+        try {
+            this.locationCache.cacheLocationType((Class<? extends Location>) Class.forName(locationType));
+        } catch (ClassNotFoundException e) {
+            LOGGER.warn("Unknown location type {}.", locationType);
+        }
+        return this.locationCache.createLocation(LocationCache.computeId(locationType),
+                row.getMap("location_properties", String.class, String.class));
+    }
+
+    /**
+     * Deletes the given {@link Schema} with all its tables and columns.
+     */
+    public void removeSchema(Schema schema) {
+        for (Table table : schema.getTables()) {
+            for (Column column : table.getColumns()) {
+                this.write(this.deleteColumnStatement.bind(column.getId()));
+            }
+            this.write(this.deleteTableStatement.bind(table.getId()));
+        }
+        this.write(this.deleteSchemaStatement.bind(schema.getId()));
+    }
+
+    public void writeAlgorithm(Algorithm algorithm) {
+        this.write(this.insertAlgorithmStatement.bind(algorithm.getId(), algorithm.getName()));
+    }
+
+    public void removeAlgorithm(Algorithm algorithm) {
+        this.write(this.deleteAlgorithmStatement.bind(algorithm.getId()));
+    }
+
+    public Collection<CassaAlgorithm> loadAlgorithms(CassaMetadataStore metadataStore) {
+        Collection<CassaAlgorithm> algorithms = new ArrayList<>();
+        for (Row row : this.session.execute("SELECT id, name FROM algorithm")) {
+            algorithms.add(new CassaAlgorithm(row.getInt("id"), row.getString("name"), metadataStore));
+        }
+        return algorithms;
+    }
+
+    public void writeExperiment(Experiment experiment) {
+        List<TupleValue> annotations = new ArrayList<>();
+        for (Annotation annotation : experiment.getAnnotations()) {
+            annotations.add(ANNOTATION_TYPE.newValue(annotation.getTag(), annotation.getText()));
+        }
+        this.write(this.insertExperimentStatement.bind(experiment.getId(), experiment.getAlgorithm().getId(),
+                experiment.getDescription(), experiment.getExecutionTime(), experiment.getTimestamp(),
+                experiment.getParameters(), annotations));
+    }
+
+    public void setExperimentDescription(Experiment experiment, String description) {
+        this.write(this.updateExperimentDescriptionStatement.bind(description, experiment.getId()));
+    }
+
+    public void setExecutionTimeToExperiment(Experiment experiment, long executionTime) {
+        this.write(this.updateExperimentExecutionTimeStatement.bind(executionTime, experiment.getId()));
+    }
+
+    public void addParameterToExperiment(Experiment experiment, String key, String value) {
+        this.write(this.addExperimentParameterStatement.bind(key, value, experiment.getId()));
+    }
+
+    public void addAnnotation(Experiment experiment, String tag, String text) {
+        this.write(this.addExperimentAnnotationStatement.bind(
+                Collections.singletonList(ANNOTATION_TYPE.newValue(tag, text)), experiment.getId()));
+    }
+
+    public void removeExperiment(Experiment experiment) {
+        this.write(this.deleteExperimentStatement.bind(experiment.getId()));
+    }
+
+    public Collection<CassaExperiment> loadExperiments(CassaMetadataStore metadataStore) {
+        Collection<CassaExperiment> experiments = new ArrayList<>();
+        for (Row row : this.session.execute("SELECT id, algorithm_id, description, execution_time, creation_time, "
+                + "parameters, annotations FROM experiment")) {
+            Algorithm algorithm = metadataStore.getAlgorithmById(row.getInt("algorithm_id"));
+            if (algorithm == null) {
+                LOGGER.warn("Skipping experiment {} of unknown algorithm {}.", row.getInt("id"),
+                        row.getInt("algorithm_id"));
+                continue;
+            }
+            Set<Annotation> annotations = new HashSet<>();
+            for (TupleValue annotation : row.getList("annotations", TupleValue.class)) {
+                annotations.add(new Annotation(annotation.getString(0), annotation.getString(1)));
+            }
+            experiments.add(new CassaExperiment(row.getInt("id"), row.getString("description"),
+                    row.isNull("execution_time") ? null : row.getLong("execution_time"), algorithm,
+                    new HashMap<>(row.getMap("parameters", String.class, String.class)), annotations,
+                    row.getString("creation_time"), metadataStore));
+        }
+        return experiments;
+    }
+
+    public void writeConstraintCollection(CassaConstraintCollection<?> constraintCollection) {
+        Set<Integer> scope = new HashSet<>();
+        for (Target target : constraintCollection.getScope()) {
+            scope.add(target.getId());
+        }
+        Experiment experiment = constraintCollection.getExperiment();
+        this.write(this.insertConstraintCollectionStatement.bind(constraintCollection.getId(),
+                constraintCollection.getDescription(), experiment == null ? null : experiment.getId(),
+                constraintCollection.getConstraintClass().getName(), scope));
+    }
+
+    public void setConstraintCollectionDescription(CassaConstraintCollection<?> constraintCollection,
+                                                   String description) {
+        this.write(this.updateConstraintCollectionDescriptionStatement.bind(description,
+                constraintCollection.getId()));
+    }
+
+    /**
+     * Deletes the given {@link CassaConstraintCollection} with all its constraints.
+     */
+    public void removeConstraintCollection(CassaConstraintCollection<?> constraintCollection) {
+        for (int bucket = 0; bucket < constraintCollection.getNumBuckets(); bucket++) {
+            this.write(this.deleteConstraintsStatement.bind(constraintCollection.getId(), bucket));
+        }
+        this.write(this.deleteConstraintCollectionStatement.bind(constraintCollection.getId()));
+    }
+
+    public Collection<CassaConstraintCollection<?>> loadConstraintCollections(CassaMetadataStore metadataStore) {
+        Collection<CassaConstraintCollection<?>> constraintCollections = new ArrayList<>();
+        for (Row row : this.session.execute(
+                "SELECT id, description, experiment_id, constraint_class, scope FROM constraint_collectionn")) {
+            Class<?> constraintClass;
+            try {
+                constraintClass = Class.forName(row.getString("constraint_class"));
+            } catch (ClassNotFoundException e) {
+                LOGGER.warn("Skipping constraint collection {} with unknown constraint class {}.",
+                        row.getInt("id"), row.getString("constraint_class"));
+                continue;
+            }
+            Set<Target> scope = new HashSet<>();
+            for (int targetId : row.getSet("scope", Integer.class)) {
+                Target target = metadataStore.getTargetById(targetId);
+                if (target != null) scope.add(target);
+            }
+            Experiment experiment = row.isNull("experiment_id") ?
+                    null : metadataStore.getExperimentById(row.getInt("experiment_id"));
+            constraintCollections.add(new CassaConstraintCollection<>(row.getInt("id"),
+                    row.getString("description"), experiment, scope, constraintClass, metadataStore));
+        }
+        return constraintCollections;
+    }
+
+    /**
+     * Writes a serialized constraint to the given bucket of a constraint collection.
+     */
+    public void writeConstraint(int constraintCollectionId, int bucket, ByteBuffer data) {
+        this.write(this.insertConstraintStatement.bind(constraintCollectionId, bucket, data));
+    }
+
+    /**
+     * Reads the serialized constraints in the given bucket of a constraint collection. Pages are fetched ahead of
+     * time while the current one is processed.
+     *
+     * @return an {@link Iterator} over the serialized constraints
+     */
+    public Iterator<ByteBuffer> scanConstraints(int constraintCollectionId, int bucket) {
+        final ResultSet resultSet = this.session.execute(
+                this.selectConstraintsStatement.bind(constraintCollectionId, bucket).setFetchSize(FETCH_SIZE));
+        return new Iterator<ByteBuffer>() {
+
+            @Override
+            public boolean hasNext() {
+                return !resultSet.isExhausted();
+            }
+
+            @Override
+            public ByteBuffer next() {
+                if (resultSet.getAvailableWithoutFetching() == FETCH_SIZE / 2 && !resultSet.isFullyFetched()) {
+                    resultSet.fetchMoreResults();
+                }
+                Row row = resultSet.one();
+                if (row == null) throw new NoSuchElementException();
+                return row.getBytes("data");
+            }
+        };
+    }
+
+    public Cluster getCluster() {
+        return this.cluster;
+    }
+
+    public String getKeyspace() {
+        return this.keyspace;
+    }
+
+    /**
+     * Loads the given resource as String.
+     *
+     * @param resourcePath is the path of the resource
+     * @return a {@link String} with the contents of the resource
+     * @throws java.io.IOException
+     */
+    static String loadResource(String resourcePath) throws IOException {
+        try (InputStream resourceStream = CassaInterface.class.getResourceAsStream(resourcePath)) {
+            return IOUtils.toString(resourceStream, "UTF-8");
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (this.writer != null) {
+                this.writer.flush();
+            }
+        } finally {
+            if (this.session != null) {
+                this.session.close();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CassaInterface[%s, %s]", this.cluster.getClusterName(), this.keyspace);
+    }
+}
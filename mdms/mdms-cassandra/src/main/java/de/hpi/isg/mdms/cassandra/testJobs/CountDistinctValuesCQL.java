@@ -17,11 +17,14 @@ import com.beust.jcommander.ParametersDelegate;
 import de.hpi.isg.mdms.cassandra.testJobs.CountDistinctValuesCQL.Parameters;
 import de.hpi.isg.mdms.clients.parameters.JCommanderParser;
 import de.hpi.isg.mdms.clients.parameters.MetadataStoreParameters;
+import de.hpi.isg.mdms.domain.CassaMetadataStore;
+import de.hpi.isg.mdms.domain.constraints.CassaConstraintCollection;
 import de.hpi.isg.mdms.domain.constraints.DistinctValueCount;
 import de.hpi.isg.mdms.flink.apps.FlinkAppTemplate;
 import de.hpi.isg.mdms.flink.parameters.FlinkParameters;
 import de.hpi.isg.mdms.flink.readwrite.RemoteCollectorImpl;
 import de.hpi.isg.mdms.flink.util.PlanBuildingUtils;
+import de.hpi.isg.mdms.hadoop.cassandra.ConstraintBulkLoader;
 import de.hpi.isg.mdms.hadoop.cassandra.CqlFlinkOutputFormat;
 import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
 import de.hpi.isg.mdms.model.targets.Schema;
@@ -39,7 +42,6 @@ import java.io.Serializable;
 import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -82,40 +84,26 @@ public class CountDistinctValuesCQL extends FlinkAppTemplate<Parameters> {
 
         DataSet<Tuple2<String, ArrayList<Object>>> distinctValueCounts;
 
-        distinctValueCounts = distinctCells
-                .groupBy(0)
-                .reduceGroup(new CountColumnGroup());
-
-
         LOG.info("Adding constraint collection.");
 
         String constraintsDescription = String.format("DVCs for %s (%s)",
                 this.schema.getName(), DateFormat.getInstance().format(new Date()));
         this.constraintCollection = this.metadataStore.createConstraintCollection(constraintsDescription, DistinctValueCount.class, this.schema);
+        int numBuckets = this.metadataStore instanceof CassaMetadataStore ?
+                ((CassaMetadataStore) this.metadataStore).getNumConstraintBuckets() :
+                CassaMetadataStore.DEFAULT_NUM_CONSTRAINT_BUCKETS;
+
+        distinctValueCounts = distinctCells
+                .groupBy(0)
+                .reduceGroup(new CountColumnGroup(this.constraintCollection.getId(), numBuckets));
+
 
 
         HadoopOutputFormat<String, ArrayList<Object>> hadoopOutputFormat =
                 new HadoopOutputFormat<String, ArrayList<Object>>(
                         new CqlFlinkOutputFormat(), new JobConf());
-        hadoopOutputFormat.getJobConf().set("cassandra.output.keyspace", "metadatastore");
-        hadoopOutputFormat.getJobConf().set("mapreduce.output.basename", "constraintt");
-        hadoopOutputFormat.getJobConf().set("cassandra.columnfamily.schema.constraintt",
-                "CREATE TABLE metadatastore.constraintt ("
-                        + "id uuid PRIMARY KEY,"
-                        + "type text,"
-                        + "constraint_collection_id int,"
-                        + "lhs_FD set<int>,"
-                        + "rhs_FD int,"
-                        + "pair_IND map<int, int>," //lhs_rhs
-                        + "UCC set<int>,"
-                        + "countt text,"
-                        + "count_columnID text);");
-        hadoopOutputFormat.getJobConf().set("cassandra.columnfamily.insert.constraintt",
-                "INSERT INTO metadatastore.constraintt (id, type, constraint_collection_id, countt, count_columnID) VALUES (?,'DVC'," + constraintCollection.getId() + ",?,?);");
-        // OrderPreservingPartitioner as an alternative
-        hadoopOutputFormat.getJobConf().set("cassandra.output.partitioner.class", "org.apache.cassandra.dht.Murmur3Partitioner");
-        hadoopOutputFormat.getJobConf().set("cassandra.output.thrift.port", "9160");    // default
-        hadoopOutputFormat.getJobConf().set("cassandra.output.thrift.address", "172.16.18.18"); //localhost
+        ConstraintBulkLoader.configure(hadoopOutputFormat.getJobConf(), "172.16.18.18", //localhost
+                ConstraintBulkLoader.DEFAULT_THRIFT_PORT, CassaMetadataStore.DEFAULT_KEYSPACE);
         hadoopOutputFormat.getJobConf().set("mapreduce.output.bulkoutputformat.streamthrottlembits", "400");
 
         distinctValueCounts.output(hadoopOutputFormat);
@@ -157,10 +145,19 @@ public class CountDistinctValuesCQL extends FlinkAppTemplate<Parameters> {
     @SuppressWarnings("serial")
     private static final class CountColumnGroup extends RichGroupReduceFunction<Tuple2<Integer, String>, Tuple2<String, ArrayList<Object>>> {
 
+        private final int constraintCollectionId;
+
+        private final int numBuckets;
+
+        private CountColumnGroup(int constraintCollectionId, int numBuckets) {
+            this.constraintCollectionId = constraintCollectionId;
+            this.numBuckets = numBuckets;
+        }
+
         @Override
         public void reduce(Iterable<Tuple2<Integer, String>> values, Collector<Tuple2<String, ArrayList<Object>>> out) throws Exception {
             Tuple2<Integer, String> anyInValue = null;
-            Integer groupCount = 0;
+            int groupCount = 0;
             for (Tuple2<Integer, String> value : values) {
                 anyInValue = value;
                 if (anyInValue.f1 != null && !anyInValue.f1.isEmpty()) {
@@ -168,23 +165,18 @@ public class CountDistinctValuesCQL extends FlinkAppTemplate<Parameters> {
                 }
             }
 
+            byte[] data = CassaConstraintCollection.serializeConstraint(new DistinctValueCount(anyInValue.f0, groupCount));
             ArrayList<Object> columnsToAdd = new ArrayList<Object>();
-            UUID id = getNextID();
-            //(id, type, constraint_collection_id, countt, count_columnID)
-            columnsToAdd.add(id);
-            columnsToAdd.add(groupCount.toString());
-            columnsToAdd.add(anyInValue.f0.toString());
-            LOG.info("Add value: " + columnsToAdd.get(0) + " " + columnsToAdd.get(1) + " " + columnsToAdd.get(2));
+            //(constraint_collection_id, bucket, data)
+            columnsToAdd.add(this.constraintCollectionId);
+            columnsToAdd.add(CassaConstraintCollection.getBucket(data, this.numBuckets));
+            columnsToAdd.add(data);
+            LOG.info("Add value: " + anyInValue.f0 + " " + groupCount);
             out.collect(new Tuple2<>("", columnsToAdd));
         }
 
     }
 
-    private static UUID getNextID() {
-        UUID id = UUID.randomUUID();
-        return id;
-    }
-
     /**
      * Parameters for the execution of the surrounding class.
      *
@@ -1,55 +1,75 @@
 package de.hpi.isg.mdms.domain;
 
+import com.datastax.driver.core.AtomicMonotonicTimestampGenerator;
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.policies.DCAwareRoundRobinPolicy;
+import com.datastax.driver.core.policies.DefaultRetryPolicy;
+import com.datastax.driver.core.policies.TokenAwarePolicy;
+import de.hpi.isg.mdms.cassandra.CassaInterface;
+import de.hpi.isg.mdms.domain.constraints.CassaConstraintCollection;
+import de.hpi.isg.mdms.domain.experiment.CassaAlgorithm;
+import de.hpi.isg.mdms.domain.experiment.CassaExperiment;
+import de.hpi.isg.mdms.exceptions.IdAlreadyInUseException;
+import de.hpi.isg.mdms.exceptions.NameAmbigousException;
+import de.hpi.isg.mdms.model.MetadataStore;
+import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
+import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
 import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
 import de.hpi.isg.mdms.model.experiment.Algorithm;
 import de.hpi.isg.mdms.model.experiment.Experiment;
 import de.hpi.isg.mdms.model.location.Location;
-import de.hpi.isg.mdms.model.MetadataStore;
-import de.hpi.isg.mdms.model.targets.Target;
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
-import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
+import de.hpi.isg.mdms.model.targets.Column;
+import de.hpi.isg.mdms.model.targets.DefaultSchema;
 import de.hpi.isg.mdms.model.targets.Schema;
+import de.hpi.isg.mdms.model.targets.Table;
+import de.hpi.isg.mdms.model.targets.Target;
 import de.hpi.isg.mdms.model.util.IdUtils;
-import de.hpi.isg.mdms.rdbms.util.LocationCache;
-import de.hpi.isg.mdms.exceptions.NameAmbigousException;
-
-import org.apache.commons.io.IOUtils;
-import org.apache.flink.hadoop.shaded.com.google.common.collect.Constraints;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.datastax.driver.core.Cluster;
-import com.datastax.driver.core.KeyspaceMetadata;
-import com.datastax.driver.core.Session;
-import com.datastax.driver.core.policies.DCAwareRoundRobinPolicy;
-import com.datastax.driver.core.policies.DefaultRetryPolicy;
-import com.datastax.driver.core.policies.TokenAwarePolicy;
-
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
- * The cassandra implementation of the {@link MetadataStore} for storing the data inside of a cassandra database.
+ * The Cassandra implementation of the {@link MetadataStore} for storing the data inside of a Cassandra database.
+ * <p>Schemas, tables, columns, algorithms, experiments, and the descriptions of the constraint collections form a
+ * catalog that is read completely when the store is loaded and kept in memory. Changes to the catalog are written
+ * through to the database. The constraints themselves are only kept in the database (see
+ * {@link CassaConstraintCollection}). All writes are asynchronous; {@link #flush()} waits for them to complete.</p>
  */
-
 public class CassaMetadataStore extends AbstractHashCodeAndEquals implements MetadataStore {
 
     private static final String NUM_COLUMN_BITS_IN_IDS_KEY = "numColumnBitsInIds";
 
     private static final String NUM_TABLE_BITS_IN_IDS_KEY = "numTableBitsInIds";
 
+    private static final String NUM_CONSTRAINT_BUCKETS_KEY = "numConstraintBuckets";
+
+    public static final String DEFAULT_KEYSPACE = "metadatastore";
+
+    public static final int DEFAULT_PORT = 9042;
+
+    public static final int DEFAULT_NUM_CONSTRAINT_BUCKETS = 32;
+
     private static final long serialVersionUID = 400271996998552017L;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CassaMetadataStore.class);
 
-	private static final String SETUP_SCRIPT_RESOURCE_PATH = "/schema_creation.cql";;
+    private final String clusterName;
+
+    private final String keyspace;
+
+    @ExcludeHashCodeEquals
+    transient final CassaInterface cassaInterface;
 
-    
-	static Cluster cluster;
-	static Session session;
-	
-	static String host = "localhost";
+    /**
+     * Whether the {@link Cluster} has been created by this store and should therefore be closed with it.
+     */
+    @ExcludeHashCodeEquals
+    transient final boolean isOwningCluster;
 
     @ExcludeHashCodeEquals
     transient final Random randomGenerator = new Random();
@@ -58,100 +78,162 @@ public class CassaMetadataStore extends AbstractHashCodeAndEquals implements Met
     transient final IdUtils idUtils;
 
     @ExcludeHashCodeEquals
-    transient final LocationCache locationCache = new LocationCache();
+    transient final int numConstraintBuckets;
+
+    @ExcludeHashCodeEquals
+    transient final Int2ObjectMap<Target> targets = new Int2ObjectOpenHashMap<>();
+
+    @ExcludeHashCodeEquals
+    transient final Collection<Schema> schemas = Collections.synchronizedSet(new HashSet<>());
+
+    @ExcludeHashCodeEquals
+    transient final Map<Integer, Algorithm> algorithms = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    @ExcludeHashCodeEquals
+    transient final Map<Integer, Experiment> experiments = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    @ExcludeHashCodeEquals
+    transient final Map<Integer, ConstraintCollection<?>> constraintCollections =
+            Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Tells whether the catalog is currently being loaded, so that registered targets need not be written.
+     */
+    @ExcludeHashCodeEquals
+    transient boolean isLoading = false;
 
     public static CassaMetadataStore createNewInstance(String host) {
         return createNewInstance(host, IdUtils.DEFAULT_NUM_TABLE_BITS, IdUtils.DEFAULT_NUM_COLUMN_BITS);
     }
 
     public static CassaMetadataStore createNewInstance(String host, int numTableBitsInIds,
-            int numColumnBitsInIds) {
+                                                       int numColumnBitsInIds) {
         Map<String, String> configuration = new HashMap<>();
         configuration.put(NUM_TABLE_BITS_IN_IDS_KEY, String.valueOf(numTableBitsInIds));
         configuration.put(NUM_COLUMN_BITS_IN_IDS_KEY, String.valueOf(numColumnBitsInIds));
         return CassaMetadataStore.createNewInstance(host, configuration);
     }
 
-    public static CassaMetadataStore createNewInstance(String host,
-            Map<String, String> configuration) {
-    	
-		cluster = Cluster.builder().addContactPoint(host).withPort(9042)
-				.withRetryPolicy(DefaultRetryPolicy.INSTANCE)
-				.withLoadBalancingPolicy(new TokenAwarePolicy(new DCAwareRoundRobinPolicy()))
-				.build();
-
-		cluster.getConfiguration().getSocketOptions().setConnectTimeoutMillis(3000);
-		for ( KeyspaceMetadata keyspace : cluster.getMetadata().getKeyspaces()) {
-			if (keyspace.getName().equals("metadatastore")){
-				LOGGER.warn("The metadata store will be overwritten.");
-				session = cluster.connect();
-				session.execute("DROP KEYSPACE metadatastore");
-			};
-		}
-		
-		 try {
-			String cqlCreateTables = loadResource(SETUP_SCRIPT_RESOURCE_PATH);
-			session = cluster.connect();
-
-			if (host.equals("localhost")){
-				session.execute("CREATE KEYSPACE metadatastore WITH replication = {'class':'SimpleStrategy', 'replication_factor':1};");	
-			} else {
-				session.execute("CREATE KEYSPACE metadatastore WITH replication = {'class':'NetworkTopologyStrategy', 'DC1':1};");				
-			}
-			
-			
-			session = cluster.connect("metadatastore");
-			String[] statements = cqlCreateTables.split(";");
-			for (String statement : statements){
-				session.execute(statement);				
-			}
-		 } catch (IOException e) {
-			 System.out.println("exception");
-			e.printStackTrace();
-		}
-		session = cluster.connect("metadatastore");
-        CassaMetadataStore metadataStore = new CassaMetadataStore(host);
-        return metadataStore;
+    public static CassaMetadataStore createNewInstance(String host, Map<String, String> configuration) {
+        return createNewInstance(new CassaInterface(buildCluster(host, DEFAULT_PORT), DEFAULT_KEYSPACE),
+                configuration, true);
+    }
+
+    /**
+     * Creates a new {@link CassaMetadataStore} in the given keyspace. An existing keyspace will be overwritten.
+     *
+     * @param cluster       is the {@link Cluster} to store the metadata in; it is not closed along with the store
+     * @param keyspace      is the keyspace to store the metadata in
+     * @param configuration configures the store, e.g., the number of bits in IDs to use for tables
+     * @return the new {@link CassaMetadataStore}
+     */
+    public static CassaMetadataStore createNewInstance(Cluster cluster, String keyspace,
+                                                       Map<String, String> configuration) {
+        return createNewInstance(new CassaInterface(cluster, keyspace), configuration, false);
+    }
+
+    private static CassaMetadataStore createNewInstance(CassaInterface cassaInterface,
+                                                        Map<String, String> configuration, boolean isOwningCluster) {
+        if (cassaInterface.checkKeyspaceExistence()) {
+            LOGGER.warn("The metadata store will be overwritten.");
+        }
+        cassaInterface.initializeMetadataStore();
+        Map<String, String> completeConfiguration = new HashMap<>(configuration);
+        completeConfiguration.putIfAbsent(NUM_TABLE_BITS_IN_IDS_KEY, String.valueOf(IdUtils.DEFAULT_NUM_TABLE_BITS));
+        completeConfiguration.putIfAbsent(NUM_COLUMN_BITS_IN_IDS_KEY, String.valueOf(IdUtils.DEFAULT_NUM_COLUMN_BITS));
+        completeConfiguration.putIfAbsent(NUM_CONSTRAINT_BUCKETS_KEY, String.valueOf(DEFAULT_NUM_CONSTRAINT_BUCKETS));
+        cassaInterface.saveConfiguration(completeConfiguration);
+        return new CassaMetadataStore(cassaInterface, completeConfiguration, isOwningCluster);
     }
 
     public static CassaMetadataStore load(String host) {
-    	cluster = Cluster.builder().addContactPoint(host)
-				.withRetryPolicy(DefaultRetryPolicy.INSTANCE)
-				.withLoadBalancingPolicy(new TokenAwarePolicy(new DCAwareRoundRobinPolicy()))
-				.build();
-    	session = cluster.connect("metadatastore");
-
-    	CassaMetadataStore metadataStore = new CassaMetadataStore(host);
-        metadataStore.fillLocationCache();
+        return load(new CassaInterface(buildCluster(host, DEFAULT_PORT), DEFAULT_KEYSPACE), true);
+    }
+
+    /**
+     * Loads a {@link CassaMetadataStore} from the given keyspace.
+     *
+     * @param cluster  is the {@link Cluster} that contains the metadata store; it is not closed along with the store
+     * @param keyspace is the keyspace of the metadata store
+     * @return the loaded {@link CassaMetadataStore}
+     */
+    public static CassaMetadataStore load(Cluster cluster, String keyspace) {
+        return load(new CassaInterface(cluster, keyspace), false);
+    }
+
+    private static CassaMetadataStore load(CassaInterface cassaInterface, boolean isOwningCluster) {
+        if (!cassaInterface.checkKeyspaceExistence()) {
+            throw new IllegalStateException("The metadata store does not seem to be initialized.");
+        }
+        cassaInterface.connect();
+        CassaMetadataStore metadataStore = new CassaMetadataStore(cassaInterface,
+                cassaInterface.loadConfiguration(), isOwningCluster);
+        metadataStore.loadCatalog();
         return metadataStore;
     }
 
-    private CassaMetadataStore(String host) {
-    	this.host = host;
-    	this.cluster = Cluster.builder().addContactPoint(host).withPort(9042)
-				.withRetryPolicy(DefaultRetryPolicy.INSTANCE)
-				.withLoadBalancingPolicy(new TokenAwarePolicy(new DCAwareRoundRobinPolicy()))
-				.build();
-    	this.cluster.getConfiguration().getSocketOptions().setConnectTimeoutMillis(1000);
-    	this.session = cluster.connect("metadatastore");
-        this.idUtils = new IdUtils(IdUtils.DEFAULT_NUM_TABLE_BITS, IdUtils.DEFAULT_NUM_COLUMN_BITS);
+    /**
+     * Creates a {@link Cluster} that routes requests directly to replicas of the affected partitions and assigns
+     * client-side timestamps, so that asynchronous writes are applied in the order of their submission.
+     *
+     * @param host is a contact point of the cluster
+     * @param port is the native transport port
+     * @return the {@link Cluster}
+     */
+    public static Cluster buildCluster(String host, int port) {
+        Cluster cluster = Cluster.builder().addContactPoint(host).withPort(port)
+                .withRetryPolicy(DefaultRetryPolicy.INSTANCE)
+                .withLoadBalancingPolicy(new TokenAwarePolicy(new DCAwareRoundRobinPolicy()))
+                .withTimestampGenerator(new AtomicMonotonicTimestampGenerator())
+                .build();
+        cluster.getConfiguration().getSocketOptions().setConnectTimeoutMillis(3000);
+        return cluster;
+    }
+
+    private CassaMetadataStore(CassaInterface cassaInterface, Map<String, String> configuration,
+                               boolean isOwningCluster) {
+        this.cassaInterface = cassaInterface;
+        this.isOwningCluster = isOwningCluster;
+        this.clusterName = cassaInterface.getCluster().getMetadata().getClusterName();
+        this.keyspace = cassaInterface.getKeyspace();
+        int numTableBitsInIds = Integer.valueOf(configuration.get(NUM_TABLE_BITS_IN_IDS_KEY));
+        int numColumnBitsInIds = Integer.valueOf(configuration.get(NUM_COLUMN_BITS_IN_IDS_KEY));
+        this.idUtils = new IdUtils(numTableBitsInIds, numColumnBitsInIds);
+        this.numConstraintBuckets = Integer.valueOf(configuration.getOrDefault(NUM_CONSTRAINT_BUCKETS_KEY,
+                String.valueOf(DEFAULT_NUM_CONSTRAINT_BUCKETS)));
     }
 
-    @SuppressWarnings("unchecked")
-    private void fillLocationCache() {
-    	//TODO: implement
+    /**
+     * Reads the catalog from the database.
+     */
+    private void loadCatalog() {
+        this.isLoading = true;
+        try {
+            this.cassaInterface.loadTargets(this);
+        } finally {
+            this.isLoading = false;
+        }
+        for (CassaAlgorithm algorithm : this.cassaInterface.loadAlgorithms(this)) {
+            this.algorithms.put(algorithm.getId(), algorithm);
+        }
+        for (CassaExperiment experiment : this.cassaInterface.loadExperiments(this)) {
+            this.experiments.put(experiment.getId(), experiment);
+        }
+        for (CassaConstraintCollection<?> constraintCollection : this.cassaInterface.loadConstraintCollections(this)) {
+            this.constraintCollections.put(constraintCollection.getId(), constraintCollection);
+        }
     }
 
     @Override
     public Schema addSchema(final String name, final String description, final Location location) {
-        //TODO
-    	return null;
+        final int id = this.getUnusedSchemaId();
+        return DefaultSchema.buildAndRegister(this, id, name, description, location);
     }
 
     @Override
     public int generateRandomId() {
         final int id = Math.abs(this.randomGenerator.nextInt(Integer.MAX_VALUE));
-        if (this.idIsInUse(id)) {
+        if (this.hasTargetWithId(id)) {
             return this.generateRandomId();
         }
         return id;
@@ -159,116 +241,259 @@ public class CassaMetadataStore extends AbstractHashCodeAndEquals implements Met
 
     @Override
     public Schema getSchemaByName(final String schemaName) throws NameAmbigousException {
-        //TODO
-    	return null;
+        Collection<Schema> schemas = this.getSchemasByName(schemaName);
+        if (schemas.isEmpty()) return null;
+        if (schemas.size() == 1) return schemas.iterator().next();
+        throw new NameAmbigousException(String.format("Found %d schemas named \"%s\".", schemas.size(), schemaName));
     }
 
     @Override
     public Collection<Schema> getSchemas() {
-        //TODO
-    	return null;
+        return Collections.unmodifiableCollection(this.schemas);
+    }
+
+    @Override
+    public Collection<Schema> getSchemasByName(String schemaName) {
+        synchronized (this.schemas) {
+            return this.schemas.stream()
+                    .filter(schema -> schema.getName().equals(schemaName))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Schema getSchemaById(int schemaId) {
+        Target target = this.getTargetById(schemaId);
+        return target instanceof Schema ? (Schema) target : null;
+    }
+
+    @Override
+    public Target getTargetById(int targetId) {
+        synchronized (this.targets) {
+            return this.targets.get(targetId);
+        }
     }
 
     @Override
     public int getUnusedSchemaId() {
-        //TODO
-    	return 0;
+        final int searchOffset = this.getSchemas().size();
+        for (int baseSchemaNumber = this.idUtils.getMinSchemaNumber(); baseSchemaNumber <= this.idUtils
+                .getMaxSchemaNumber(); baseSchemaNumber++) {
+            int schemaNumber = baseSchemaNumber + searchOffset;
+            schemaNumber = schemaNumber > this.idUtils.getMaxSchemaNumber() ? schemaNumber
+                    - (this.idUtils.getMaxSchemaNumber() - this.idUtils.getMinSchemaNumber()) : schemaNumber;
+            final int id = this.idUtils.createGlobalId(schemaNumber);
+            if (!this.hasTargetWithId(id)) {
+                return id;
+            }
+        }
+        throw new IllegalStateException(String.format("No free schema ID left within schema."));
+    }
+
+    @Override
+    public int getUnusedTableId(final Schema schema) {
+        Validate.isTrue(this.schemas.contains(schema));
+        final int schemaNumber = this.idUtils.getLocalSchemaId(schema.getId());
+        final int searchOffset = schema.getTables().size();
+        for (int baseTableNumber = this.idUtils.getMinTableNumber(); baseTableNumber <= this.idUtils
+                .getMaxTableNumber(); baseTableNumber++) {
+            int tableNumber = baseTableNumber + searchOffset;
+            tableNumber = tableNumber > this.idUtils.getMaxTableNumber() ? tableNumber
+                    - (this.idUtils.getMaxTableNumber() - this.idUtils.getMinTableNumber()) : tableNumber;
+            final int id = this.idUtils.createGlobalId(schemaNumber, tableNumber);
+            if (!this.hasTargetWithId(id)) {
+                return id;
+            }
+        }
+        throw new IllegalStateException(String.format("No free table ID left within schema %s.", schema));
     }
 
     @Override
     public int getUnusedAlgorithmId() {
-        return 0;
+        int id;
+        do {
+            id = this.randomGenerator.nextInt(Integer.MAX_VALUE);
+        } while (this.algorithms.containsKey(id));
+        return id;
     }
 
     @Override
     public int getUnusedExperimentId() {
-        return 0;
+        int id;
+        do {
+            id = this.randomGenerator.nextInt(Integer.MAX_VALUE);
+        } while (this.experiments.containsKey(id));
+        return id;
     }
 
     @Override
-    public int getUnusedTableId(final Schema schema) {
-        //TODO
-    	return 0;
+    public int getUnusedConstraintCollectonId() {
+        int id;
+        do {
+            id = this.randomGenerator.nextInt(Integer.MAX_VALUE);
+        } while (this.constraintCollections.containsKey(id));
+        return id;
     }
 
     @Override
     public boolean hasTargetWithId(int id) {
-        return idIsInUse(id);
-    }
-
-    private boolean idIsInUse(final int id) {
-        //TODO
-    	return false;
+        synchronized (this.targets) {
+            return this.targets.containsKey(id);
+        }
     }
 
     @Override
     public void registerTargetObject(final Target target) {
-        // Register the Location type of the target.
-    	//TODO
+        synchronized (this.targets) {
+            if (this.targets.containsKey(target.getId())) {
+                throw new IdAlreadyInUseException("Id is already in use: " + target.getId());
+            }
+            this.targets.put(target.getId(), target);
+        }
+        if (target instanceof Schema) {
+            this.schemas.add((Schema) target);
+        }
+        if (!this.isLoading) {
+            this.cassaInterface.writeTarget(target);
+        }
     }
 
     @Override
-    public String toString() {
-        return "MetadataStore[" + this.host + "]";
+    public void removeSchema(Schema schema) {
+        // Remove all constraint collections that are scoped on the schema, as does the RDBMSMetadataStore.
+        for (ConstraintCollection<?> constraintCollection : new ArrayList<>(this.getConstraintCollections())) {
+            for (Target target : constraintCollection.getScope()) {
+                if (this.idUtils.isContained(target.getId(), schema.getId())) {
+                    this.removeConstraintCollection(constraintCollection);
+                    break;
+                }
+            }
+        }
+        synchronized (this.targets) {
+            for (Table table : schema.getTables()) {
+                for (Column column : table.getColumns()) {
+                    this.targets.remove(column.getId());
+                }
+                this.targets.remove(table.getId());
+            }
+            this.targets.remove(schema.getId());
+        }
+        this.schemas.remove(schema);
+        this.cassaInterface.removeSchema(schema);
     }
 
     @Override
     public Collection<ConstraintCollection<?>> getConstraintCollections() {
-    	//TODO
-    	return null;
+        synchronized (this.constraintCollections) {
+            return Collections.unmodifiableList(new ArrayList<>(this.constraintCollections.values()));
+        }
     }
 
     @Override
     public ConstraintCollection<?> getConstraintCollection(int id) {
-    	//TODO
-    	return null;
+        return this.constraintCollections.get(id);
     }
 
+    @Override
+    public <T> ConstraintCollection<T> createConstraintCollection(String description, Class<T> cls,
+                                                                  Target... scope) {
+        return this.createConstraintCollection(description, null, cls, scope);
+    }
 
     @Override
-    public int getUnusedConstraintCollectonId() {
-        return this.randomGenerator.nextInt(Integer.MAX_VALUE);
+    public <T> ConstraintCollection<T> createConstraintCollection(String description, Experiment experiment,
+                                                                  Class<T> cls, Target... scope) {
+        CassaConstraintCollection<T> constraintCollection = new CassaConstraintCollection<>(
+                this.getUnusedConstraintCollectonId(), description, experiment,
+                new HashSet<>(Arrays.asList(scope)), cls, this);
+        this.constraintCollections.put(constraintCollection.getId(), constraintCollection);
+        this.cassaInterface.writeConstraintCollection(constraintCollection);
+        if (experiment != null) {
+            experiment.add(constraintCollection);
+        }
+        return constraintCollection;
+    }
+
+    @Override
+    public void removeConstraintCollection(ConstraintCollection<?> constraintCollection) {
+        ConstraintCollection<?> removedConstraintCollection = this.constraintCollections.remove(
+                constraintCollection.getId());
+        if (removedConstraintCollection != null) {
+            this.cassaInterface.removeConstraintCollection((CassaConstraintCollection<?>) removedConstraintCollection);
+        }
     }
 
     @Override
     public Algorithm createAlgorithm(String name) {
-        return null;
+        CassaAlgorithm algorithm = new CassaAlgorithm(this.getUnusedAlgorithmId(), name, this);
+        this.algorithms.put(algorithm.getId(), algorithm);
+        this.cassaInterface.writeAlgorithm(algorithm);
+        return algorithm;
     }
 
     @Override
     public Algorithm getAlgorithmById(int algorithmId) {
-        return null;
+        return this.algorithms.get(algorithmId);
     }
 
     @Override
     public Algorithm getAlgorithmByName(String name) {
+        synchronized (this.algorithms) {
+            for (Algorithm algorithm : this.algorithms.values()) {
+                if (algorithm.getName().equals(name)) {
+                    return algorithm;
+                }
+            }
+        }
         return null;
     }
 
     @Override
     public Collection<Algorithm> getAlgorithms() {
-        return null;
+        synchronized (this.algorithms) {
+            return Collections.unmodifiableList(new ArrayList<>(this.algorithms.values()));
+        }
     }
 
     @Override
-    public Collection<Experiment> getExperiments() {
-        return null;
+    public void removeAlgorithm(Algorithm algorithm) {
+        for (Experiment experiment : algorithm.getExperiments()) {
+            this.removeExperiment(experiment);
+        }
+        if (this.algorithms.remove(algorithm.getId()) != null) {
+            this.cassaInterface.removeAlgorithm(algorithm);
+        }
     }
 
     @Override
     public Experiment createExperiment(String description, Algorithm algorithm) {
-        return null;
+        CassaExperiment experiment = new CassaExperiment(this.getUnusedExperimentId(), description, algorithm, this);
+        this.experiments.put(experiment.getId(), experiment);
+        this.cassaInterface.writeExperiment(experiment);
+        algorithm.addExperiment(experiment);
+        return experiment;
     }
 
     @Override
-    public <T> ConstraintCollection<T> createConstraintCollection(String description, Experiment experiment, Class<T> cls, Target... scope) {
-        return null;
+    public Experiment getExperimentById(int experimentId) {
+        return this.experiments.get(experimentId);
     }
 
     @Override
-    public <T> ConstraintCollection<T> createConstraintCollection(String description, Class<T> cls, Target... scope) {
-    	//TODO
-    	return null;
+    public Collection<Experiment> getExperiments() {
+        synchronized (this.experiments) {
+            return Collections.unmodifiableList(new ArrayList<>(this.experiments.values()));
+        }
+    }
+
+    @Override
+    public void removeExperiment(Experiment experiment) {
+        for (ConstraintCollection<?> constraintCollection : experiment.getConstraintCollections()) {
+            this.removeConstraintCollection(constraintCollection);
+        }
+        if (this.experiments.remove(experiment.getId()) != null) {
+            this.cassaInterface.removeExperiment(experiment);
+        }
     }
 
     /**
@@ -276,14 +501,21 @@ public class CassaMetadataStore extends AbstractHashCodeAndEquals implements Met
      */
     @Override
     public IdUtils getIdUtils() {
-        return idUtils;
+        return this.idUtils;
+    }
+
+    /**
+     * @return the {@link CassaInterface} that this store uses to access the database
+     */
+    public CassaInterface getCassaInterface() {
+        return this.cassaInterface;
     }
 
     /**
-     * @return the locationCache
+     * @return the number of buckets across which the constraints of each {@link ConstraintCollection} are spread
      */
-    public LocationCache getLocationCache() {
-        return locationCache;
+    public int getNumConstraintBuckets() {
+        return this.numConstraintBuckets;
     }
 
     /**
@@ -293,6 +525,7 @@ public class CassaMetadataStore extends AbstractHashCodeAndEquals implements Met
         Map<String, String> configuration = new HashMap<String, String>();
         configuration.put(NUM_TABLE_BITS_IN_IDS_KEY, String.valueOf(this.idUtils.getNumTableBits()));
         configuration.put(NUM_COLUMN_BITS_IN_IDS_KEY, String.valueOf(this.idUtils.getNumColumnBits()));
+        configuration.put(NUM_CONSTRAINT_BUCKETS_KEY, String.valueOf(this.numConstraintBuckets));
         return configuration;
     }
 
@@ -306,74 +539,27 @@ public class CassaMetadataStore extends AbstractHashCodeAndEquals implements Met
         }
     }
 
-    @Override
-    public void flush() throws Exception {
-    	//TODO
-    }
-
-    @Override
-    public Collection<Schema> getSchemasByName(String schemaName) {
-    	//TODO
-    	return null;
-    }
-
-    @Override
-    public Schema getSchemaById(int schemaId) {
-    	//TODO
-    	return null;
-    }
-
-    @Override
-    public Target getTargetById(int targetId) {
-        throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public void removeSchema(Schema schema) {
-        //TODO
-    }
-
-
-    @Override
-    public void removeConstraintCollection(ConstraintCollection<?> constraintCollection) {
-       //TODO
-    }
-
     /**
-     * Loads the given resource as String.
-     *
-     * @param resourcePath is the path of the resource
-     * @return a {@link String} with the contents of the resource
-     * @throws java.io.IOException
+     * Waits until all asynchronous writes have been executed.
      */
-    static String loadResource(String resourcePath) throws IOException {
-        try (InputStream resourceStream = CassaMetadataStore.class.getResourceAsStream(resourcePath)) {
-            return IOUtils.toString(resourceStream, "UTF-8");
-        }
-    }
-
-	@Override
-	public void close() {
-		CassaMetadataStore.cluster.close();
-		CassaMetadataStore.session.close();
-
-		
-	}
-
     @Override
-    public void removeAlgorithm(Algorithm algorithm) {
-
+    public void flush() throws Exception {
+        this.cassaInterface.flush();
     }
 
     @Override
-    public void removeExperiment(Experiment experiment) {
-
+    public void close() {
+        try {
+            this.cassaInterface.close();
+        } finally {
+            if (this.isOwningCluster) {
+                this.cassaInterface.getCluster().close();
+            }
+        }
     }
 
     @Override
-    public Experiment getExperimentById(int experimentId) {
-        return null;
+    public String toString() {
+        return "MetadataStore[" + this.clusterName + ", " + this.keyspace + "]";
     }
-
-
 }
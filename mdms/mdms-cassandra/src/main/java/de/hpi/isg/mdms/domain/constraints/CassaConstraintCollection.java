@@ -0,0 +1,184 @@
+package de.hpi.isg.mdms.domain.constraints;
+
+import de.hpi.isg.mdms.cassandra.CassaInterface;
+import de.hpi.isg.mdms.domain.CassaMetadataStore;
+import de.hpi.isg.mdms.exceptions.MetadataStoreException;
+import de.hpi.isg.mdms.exceptions.NotAllTargetsInStoreException;
+import de.hpi.isg.mdms.model.common.AbstractIdentifiable;
+import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
+import de.hpi.isg.mdms.model.constraints.Constraint;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.constraints.ConstraintPredicate;
+import de.hpi.isg.mdms.model.experiment.Experiment;
+import de.hpi.isg.mdms.model.targets.Target;
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The implementation of a {@link ConstraintCollection} that is used in {@link CassaMetadataStore}s. The constraints
+ * are not kept in memory. Instead, they are Java-serialized and hash-partitioned into a fixed number of buckets, each
+ * of which forms a partition of the {@code constraintt} table. This spreads large collections over the cluster, and
+ * because equal constraints end up in the same row, writes are idempotent and can safely be retried.
+ *
+ * @param <T> the type of constraints in the collection
+ */
+public class CassaConstraintCollection<T> extends AbstractIdentifiable implements ConstraintCollection<T> {
+
+    private static final long serialVersionUID = -5339627380418383405L;
+
+    private final Set<Target> scope;
+
+    private String description;
+
+    private final Experiment experiment;
+
+    private final Class<T> constraintClass;
+
+    @ExcludeHashCodeEquals
+    private final CassaMetadataStore metadataStore;
+
+    public CassaConstraintCollection(int id, String description, Experiment experiment, Set<Target> scope,
+                                     Class<T> constraintClass, CassaMetadataStore metadataStore) {
+        super(id);
+        this.description = description != null ? description : "";
+        this.experiment = experiment;
+        this.scope = scope;
+        this.constraintClass = constraintClass;
+        this.metadataStore = metadataStore;
+    }
+
+    @Override
+    public Collection<T> getConstraints() {
+        try (Stream<T> stream = this.stream()) {
+            return Collections.unmodifiableList(stream.collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Pending writes are flushed before the buckets are read one after another.</p>
+     */
+    @Override
+    public Stream<T> stream(ConstraintPredicate<? super T> predicate) {
+        final CassaInterface cassaInterface = this.metadataStore.getCassaInterface();
+        cassaInterface.flush();
+        return IntStream.range(0, this.getNumBuckets()).boxed()
+                .flatMap(bucket -> StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                        cassaInterface.scanConstraints(this.getId(), bucket), Spliterator.NONNULL), false))
+                .map(this::deserialize)
+                .filter(predicate);
+    }
+
+    @Override
+    public Collection<Target> getScope() {
+        return Collections.unmodifiableCollection(this.scope);
+    }
+
+    @Override
+    public void add(T constraint) {
+        this.checkTargets(constraint);
+        byte[] data = serializeConstraint(constraint);
+        this.metadataStore.getCassaInterface().writeConstraint(this.getId(), getBucket(data, this.getNumBuckets()),
+                ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Serializes a constraint as it is stored in the {@code constraintt} table.
+     *
+     * @param constraint is the constraint to serialize
+     * @return the serialized constraint
+     */
+    public static byte[] serializeConstraint(Object constraint) {
+        if (!(constraint instanceof Serializable)) {
+            throw new IllegalArgumentException(String.format("%s is not serializable.", constraint));
+        }
+        return SerializationUtils.serialize((Serializable) constraint);
+    }
+
+    /**
+     * Determines the bucket of a serialized constraint.
+     *
+     * @param data       is the serialized constraint (see {@link #serializeConstraint(Object)})
+     * @param numBuckets is the number of buckets of the constraint collection
+     * @return the bucket
+     */
+    public static int getBucket(byte[] data, int numBuckets) {
+        return (Arrays.hashCode(data) & Integer.MAX_VALUE) % numBuckets;
+    }
+
+    /**
+     * Verifies that all targets of the given constraint exist in the metadata store.
+     *
+     * @throws NotAllTargetsInStoreException if a target does not exist
+     */
+    public void checkTargets(T constraint) {
+        if (constraint instanceof Constraint) {
+            for (int id : ((Constraint) constraint).getAllTargetIds()) {
+                if (!this.metadataStore.hasTargetWithId(id)) {
+                    throw new NotAllTargetsInStoreException(id);
+                }
+            }
+        }
+    }
+
+    private T deserialize(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        try {
+            return this.constraintClass.cast(SerializationUtils.deserialize(bytes));
+        } catch (SerializationException e) {
+            throw new MetadataStoreException(String.format("Could not read a constraint of %s.", this), e);
+        }
+    }
+
+    /**
+     * @return the number of buckets across which the constraints are spread
+     */
+    public int getNumBuckets() {
+        return this.metadataStore.getNumConstraintBuckets();
+    }
+
+    @Override
+    public CassaMetadataStore getMetadataStore() {
+        return this.metadataStore;
+    }
+
+    @Override
+    public String getDescription() {
+        return this.description;
+    }
+
+    @Override
+    public void setDescription(String description) {
+        this.description = description;
+        this.metadataStore.getCassaInterface().setConstraintCollectionDescription(this, description);
+    }
+
+    @Override
+    public Experiment getExperiment() {
+        return this.experiment;
+    }
+
+    @Override
+    public Class<T> getConstraintClass() {
+        return this.constraintClass;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CassaConstraintCollection[%d, %s]", this.getId(), this.constraintClass.getSimpleName());
+    }
+}
@@ -0,0 +1,52 @@
+package de.hpi.isg.mdms.domain.experiment;
+
+import de.hpi.isg.mdms.domain.CassaMetadataStore;
+import de.hpi.isg.mdms.model.common.AbstractIdentifiable;
+import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
+import de.hpi.isg.mdms.model.experiment.Algorithm;
+import de.hpi.isg.mdms.model.experiment.Experiment;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * The implementation of an {@link Algorithm} that is used in {@link CassaMetadataStore}s. Its experiments are not
+ * kept in the algorithm itself but are looked up in the metadata store.
+ */
+public class CassaAlgorithm extends AbstractIdentifiable implements Algorithm {
+
+    private static final long serialVersionUID = -1542153318425326934L;
+
+    private final String name;
+
+    @ExcludeHashCodeEquals
+    private final CassaMetadataStore metadataStore;
+
+    public CassaAlgorithm(int id, String name, CassaMetadataStore metadataStore) {
+        super(id);
+        this.name = name;
+        this.metadataStore = metadataStore;
+    }
+
+    @Override
+    public Collection<Experiment> getExperiments() {
+        return this.metadataStore.getExperiments().stream()
+                .filter(experiment -> experiment.getAlgorithm().getId() == this.getId())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public void addExperiment(Experiment experiment) {
+        // Nothing to do: the experiment references this algorithm and is registered with the metadata store.
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CassaAlgorithm[%d, %s]", this.getId(), this.name);
+    }
+}
@@ -0,0 +1,137 @@
+package de.hpi.isg.mdms.domain.experiment;
+
+import de.hpi.isg.mdms.domain.CassaMetadataStore;
+import de.hpi.isg.mdms.model.common.AbstractIdentifiable;
+import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.experiment.Algorithm;
+import de.hpi.isg.mdms.model.experiment.Annotation;
+import de.hpi.isg.mdms.model.experiment.Experiment;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The implementation of an {@link Experiment} that is used in {@link CassaMetadataStore}s. All changes are written
+ * through to the database.
+ */
+public class CassaExperiment extends AbstractIdentifiable implements Experiment {
+
+    private static final long serialVersionUID = 6306297485546185925L;
+
+    private final Algorithm algorithm;
+
+    private final Map<String, String> parameters;
+
+    private final Set<Annotation> annotations;
+
+    private String description;
+
+    private Long executionTime;
+
+    private final String timestamp;
+
+    @ExcludeHashCodeEquals
+    private final CassaMetadataStore metadataStore;
+
+    public CassaExperiment(int id, String description, Algorithm algorithm, CassaMetadataStore metadataStore) {
+        this(id, description, null, algorithm, new HashMap<>(), new HashSet<>(),
+                new Timestamp(new java.util.Date().getTime()).toString(), metadataStore);
+    }
+
+    public CassaExperiment(int id, String description, Long executionTime, Algorithm algorithm,
+                           Map<String, String> parameters, Set<Annotation> annotations, String timestamp,
+                           CassaMetadataStore metadataStore) {
+        super(id);
+        this.description = description;
+        this.executionTime = executionTime;
+        this.algorithm = algorithm;
+        this.parameters = parameters;
+        this.annotations = annotations;
+        this.timestamp = timestamp;
+        this.metadataStore = metadataStore;
+    }
+
+    @Override
+    public String getDescription() {
+        return this.description;
+    }
+
+    @Override
+    public void setDescription(String description) {
+        this.description = description;
+        this.metadataStore.getCassaInterface().setExperimentDescription(this, description);
+    }
+
+    @Override
+    public Map<String, String> getParameters() {
+        return Collections.unmodifiableMap(this.parameters);
+    }
+
+    @Override
+    public Collection<Annotation> getAnnotations() {
+        return Collections.unmodifiableCollection(this.annotations);
+    }
+
+    @Override
+    public Algorithm getAlgorithm() {
+        return this.algorithm;
+    }
+
+    @Override
+    public void addParameter(String key, String value) {
+        this.parameters.put(key, value);
+        this.metadataStore.getCassaInterface().addParameterToExperiment(this, key, value);
+    }
+
+    @Override
+    public Long getExecutionTime() {
+        return this.executionTime;
+    }
+
+    @Override
+    public void setExecutionTime(long executionTime) {
+        this.executionTime = executionTime;
+        this.metadataStore.getCassaInterface().setExecutionTimeToExperiment(this, executionTime);
+    }
+
+    @Override
+    public Collection<ConstraintCollection<?>> getConstraintCollections() {
+        return this.metadataStore.getConstraintCollections().stream()
+                .filter(constraintCollection -> constraintCollection.getExperiment() != null
+                        && constraintCollection.getExperiment().getId() == this.getId())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void add(ConstraintCollection<?> constraintCollection) {
+        // Nothing to do: the constraint collection references this experiment and is registered with the store.
+    }
+
+    @Override
+    public CassaMetadataStore getMetadataStore() {
+        return this.metadataStore;
+    }
+
+    @Override
+    public void addAnnotation(String tag, String text) {
+        this.annotations.add(new Annotation(tag, text));
+        this.metadataStore.getCassaInterface().addAnnotation(this, tag, text);
+    }
+
+    @Override
+    public String getTimestamp() {
+        return this.timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CassaExperiment[%d, %s]", this.getId(), this.description);
+    }
+}
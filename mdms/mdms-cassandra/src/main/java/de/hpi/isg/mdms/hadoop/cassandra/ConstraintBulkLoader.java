@@ -0,0 +1,110 @@
+package de.hpi.isg.mdms.hadoop.cassandra;
+
+import de.hpi.isg.mdms.domain.constraints.CassaConstraintCollection;
+import org.apache.cassandra.db.marshal.Int32Type;
+import org.apache.cassandra.dht.Murmur3Partitioner;
+import org.apache.cassandra.hadoop.ConfigHelper;
+import org.apache.cassandra.hadoop.cql3.CqlBulkOutputFormat;
+import org.apache.hadoop.conf.Configuration;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Loads large amounts of constraints into a {@link CassaConstraintCollection}. Instead of inserting the constraints
+ * one by one, it writes them into local SSTables with a {@link CqlBulkRecordWriter} and streams those to the cluster
+ * when it is closed.
+ * <p>Note that the {@link CqlBulkRecordWriter} puts the Cassandra configuration of the JVM into client mode, so this
+ * class must not be used in a JVM that also runs a Cassandra node.</p>
+ *
+ * @param <T> the type of constraints to load
+ */
+public class ConstraintBulkLoader<T> implements Closeable {
+
+    public static final String CONSTRAINT_TABLE = "constraintt";
+
+    public static final int DEFAULT_THRIFT_PORT = 9160;
+
+    private final CassaConstraintCollection<T> constraintCollection;
+
+    private final CqlBulkRecordWriter writer;
+
+    private final ByteBuffer serializedConstraintCollectionId;
+
+    /**
+     * Configures a {@link CqlBulkRecordWriter} to write to the constraint table of a
+     * {@link de.hpi.isg.mdms.domain.CassaMetadataStore}. Rows consist of the constraint collection ID, the bucket,
+     * and the serialized constraint (see {@link CassaConstraintCollection#serializeConstraint(Object)} and
+     * {@link CassaConstraintCollection#getBucket(byte[], int)}).
+     *
+     * @param conf       is the {@link Configuration} to set up
+     * @param host       is a Cassandra node that accepts Thrift connections
+     * @param thriftPort is the Thrift port of the node
+     * @param keyspace   is the keyspace of the metadata store
+     */
+    public static void configure(Configuration conf, String host, int thriftPort, String keyspace) {
+        ConfigHelper.setOutputInitialAddress(conf, host);
+        ConfigHelper.setOutputRpcPort(conf, String.valueOf(thriftPort));
+        ConfigHelper.setOutputPartitioner(conf, Murmur3Partitioner.class.getName());
+        ConfigHelper.setOutputColumnFamily(conf, keyspace, CONSTRAINT_TABLE);
+        CqlBulkOutputFormat.setColumnFamilySchema(conf, CONSTRAINT_TABLE, String.format(
+                "CREATE TABLE %s.%s (constraint_collection_id int, bucket int, data blob, "
+                        + "PRIMARY KEY ((constraint_collection_id, bucket), data))", keyspace, CONSTRAINT_TABLE));
+        CqlBulkOutputFormat.setColumnFamilyInsertStatement(conf, CONSTRAINT_TABLE, String.format(
+                "INSERT INTO %s.%s (constraint_collection_id, bucket, data) VALUES (?, ?, ?)",
+                keyspace, CONSTRAINT_TABLE));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param constraintCollection is the collection to load the constraints into
+     * @param host                 is a Cassandra node that accepts Thrift connections
+     * @param thriftPort           is the Thrift port of the node
+     * @param tempDirectory        is a local directory for the SSTables
+     * @throws IOException if the {@link CqlBulkRecordWriter} could not be created
+     */
+    public ConstraintBulkLoader(CassaConstraintCollection<T> constraintCollection, String host, int thriftPort,
+                                File tempDirectory) throws IOException {
+        this.constraintCollection = constraintCollection;
+        Configuration conf = new Configuration();
+        configure(conf, host, thriftPort, constraintCollection.getMetadataStore().getCassaInterface().getKeyspace());
+        conf.set(AbstractBulkRecordWriter.OUTPUT_LOCATION, tempDirectory.getAbsolutePath());
+        CqlBulkOutputFormat.setDeleteSourceOnSuccess(conf, true);
+        this.writer = new CqlBulkRecordWriter(conf);
+        this.serializedConstraintCollectionId = Int32Type.instance.decompose(constraintCollection.getId());
+    }
+
+    /**
+     * Adds a constraint. It is not sent to the cluster before this instance is closed.
+     *
+     * @param constraint is the constraint to add
+     * @throws IOException if the constraint could not be written
+     */
+    public void add(T constraint) throws IOException {
+        this.constraintCollection.checkTargets(constraint);
+        byte[] data = CassaConstraintCollection.serializeConstraint(constraint);
+        int bucket = CassaConstraintCollection.getBucket(data, this.constraintCollection.getNumBuckets());
+        this.writer.write(null, Arrays.asList(
+                this.serializedConstraintCollectionId.duplicate(),
+                Int32Type.instance.decompose(bucket),
+                ByteBuffer.wrap(data)
+        ));
+    }
+
+    /**
+     * Streams the written constraints to the cluster and waits for the transfer to complete.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.writer.close((org.apache.hadoop.mapreduce.TaskAttemptContext) null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while streaming the constraints.", e);
+        }
+    }
+}
@@ -57,8 +57,13 @@ implements org.apache.hadoop.mapred.RecordWriter<String,ArrayList<Object>>
 				Integer integer = (Integer) value;
 				ByteBuffer intBuff = ByteBuffer.allocate(4);
 				intBuff.putInt(integer);
+				intBuff.flip();
 				byteValues.add(intBuff);
 			}
+			//blob
+			if (value.getClass() == byte[].class) {
+				byteValues.add(ByteBuffer.wrap((byte[]) value));
+			}
 			//uuid
 			if (value.getClass() == UUID.class){
 				UUID uuid = (UUID) value;
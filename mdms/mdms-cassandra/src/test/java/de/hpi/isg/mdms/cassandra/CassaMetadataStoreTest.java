@@ -0,0 +1,180 @@
+package de.hpi.isg.mdms.cassandra;
+
+import com.datastax.driver.core.Cluster;
+import de.hpi.isg.mdms.domain.CassaMetadataStore;
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import de.hpi.isg.mdms.exceptions.NotAllTargetsInStoreException;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.experiment.Algorithm;
+import de.hpi.isg.mdms.model.experiment.Annotation;
+import de.hpi.isg.mdms.model.experiment.Experiment;
+import de.hpi.isg.mdms.model.location.DefaultLocation;
+import de.hpi.isg.mdms.model.targets.Column;
+import de.hpi.isg.mdms.model.targets.Schema;
+import de.hpi.isg.mdms.model.targets.Table;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link CassaMetadataStore} against an {@link EmbeddedCassandra}.
+ */
+public class CassaMetadataStoreTest {
+
+    private static final String KEYSPACE = "mdms_test";
+
+    private Cluster cluster;
+
+    private CassaMetadataStore store;
+
+    @BeforeClass
+    public static void startCassandra() throws IOException {
+        EmbeddedCassandra.start();
+    }
+
+    @Before
+    public void setUp() {
+        this.cluster = CassaMetadataStore.buildCluster(EmbeddedCassandra.HOST, EmbeddedCassandra.PORT);
+        this.store = CassaMetadataStore.createNewInstance(this.cluster, KEYSPACE, Collections.emptyMap());
+    }
+
+    @After
+    public void tearDown() {
+        this.store.close();
+        this.cluster.close();
+    }
+
+    private List<Column> addTable(Schema schema, String name, int numColumns) {
+        Table table = schema.addTable(this.store, name, null, new DefaultLocation());
+        List<Column> columns = new ArrayList<>();
+        for (int i = 0; i < numColumns; i++) {
+            columns.add(table.addColumn(this.store, String.format("column-%d", i), null, i));
+        }
+        return columns;
+    }
+
+    @Test
+    public void testLoadingOfTargets() throws Exception {
+        Schema schema = this.store.addSchema("schema", "a schema", DefaultLocation.createForFile("/data"));
+        List<Column> columns = this.addTable(schema, "table", 3);
+        this.store.flush();
+
+        CassaMetadataStore loadedStore = CassaMetadataStore.load(this.cluster, KEYSPACE);
+        assertEquals(this.store, loadedStore);
+        Schema loadedSchema = loadedStore.getSchemaByName("schema");
+        assertEquals(schema, loadedSchema);
+        assertEquals("/data", loadedSchema.getLocation().get(DefaultLocation.PATH));
+        Table loadedTable = loadedSchema.getTableByName("table");
+        assertEquals(schema.getTableByName("table").getId(), loadedTable.getId());
+        for (Column column : columns) {
+            assertEquals(column.getName(), ((Column) loadedStore.getTargetById(column.getId())).getName());
+        }
+        assertTrue(loadedStore.hasTargetWithId(columns.get(2).getId()));
+        loadedStore.close();
+    }
+
+    @Test
+    public void testAddingAndStreamingOfConstraints() throws Exception {
+        Schema schema = this.store.addSchema("schema", null, new DefaultLocation());
+        List<Column> columns = this.addTable(schema, "table", 20);
+        ConstraintCollection<InclusionDependency> inds =
+                this.store.createConstraintCollection("INDs", InclusionDependency.class, schema);
+
+        Set<InclusionDependency> expectedInds = new HashSet<>();
+        for (Column dep : columns) {
+            for (Column ref : columns) {
+                if (dep != ref) expectedInds.add(new InclusionDependency(dep.getId(), ref.getId()));
+            }
+        }
+        inds.addAll(expectedInds);
+        // Adding a constraint again must not duplicate it.
+        inds.add(expectedInds.iterator().next());
+        assertEquals(expectedInds.size(), inds.getConstraints().size());
+
+        int firstColumnId = columns.get(0).getId();
+        Set<InclusionDependency> indsWithFirstColumn = inds
+                .stream(ind -> ind.getDependentColumnIds()[0] == firstColumnId)
+                .collect(Collectors.toSet());
+        assertEquals(columns.size() - 1, indsWithFirstColumn.size());
+
+        CassaMetadataStore loadedStore = CassaMetadataStore.load(this.cluster, KEYSPACE);
+        ConstraintCollection<?> loadedInds = loadedStore.getConstraintCollection(inds.getId());
+        assertEquals(inds, loadedInds);
+        assertEquals(expectedInds, new HashSet<>(loadedInds.getConstraints()));
+        loadedStore.close();
+    }
+
+    @Test(expected = NotAllTargetsInStoreException.class)
+    public void testAddingOfConstraintWithUnknownTarget() {
+        Schema schema = this.store.addSchema("schema", null, new DefaultLocation());
+        List<Column> columns = this.addTable(schema, "table", 1);
+        ConstraintCollection<InclusionDependency> inds =
+                this.store.createConstraintCollection(null, InclusionDependency.class, schema);
+        inds.add(new InclusionDependency(columns.get(0).getId(), columns.get(0).getId() + 1));
+    }
+
+    @Test
+    public void testLoadingOfExperiments() throws Exception {
+        Schema schema = this.store.addSchema("schema", null, new DefaultLocation());
+        this.addTable(schema, "table", 2);
+        Algorithm algorithm = this.store.createAlgorithm("algorithm");
+        Experiment experiment = this.store.createExperiment("experiment", algorithm);
+        experiment.addParameter("key", "value");
+        experiment.setExecutionTime(42L);
+        experiment.addAnnotation("tag", "text");
+        ConstraintCollection<InclusionDependency> inds =
+                this.store.createConstraintCollection("INDs", experiment, InclusionDependency.class, schema);
+        this.store.flush();
+
+        CassaMetadataStore loadedStore = CassaMetadataStore.load(this.cluster, KEYSPACE);
+        Algorithm loadedAlgorithm = loadedStore.getAlgorithmByName("algorithm");
+        assertEquals(algorithm, loadedAlgorithm);
+        assertEquals(1, loadedAlgorithm.getExperiments().size());
+        Experiment loadedExperiment = loadedAlgorithm.getExperiments().iterator().next();
+        assertEquals(experiment.getId(), loadedExperiment.getId());
+        assertEquals("value", loadedExperiment.getParameters().get("key"));
+        assertEquals(Long.valueOf(42L), loadedExperiment.getExecutionTime());
+        assertEquals(experiment.getTimestamp(), loadedExperiment.getTimestamp());
+        Annotation annotation = loadedExperiment.getAnnotations().iterator().next();
+        assertEquals("tag", annotation.getTag());
+        assertEquals("text", annotation.getText());
+        assertEquals(Collections.singletonList(inds.getId()), loadedExperiment.getConstraintCollections().stream()
+                .map(ConstraintCollection::getId)
+                .collect(Collectors.toList()));
+        loadedStore.close();
+    }
+
+    @Test
+    public void testRemovalOfSchema() throws Exception {
+        Schema schema = this.store.addSchema("schema", null, new DefaultLocation());
+        List<Column> columns = this.addTable(schema, "table", 2);
+        ConstraintCollection<InclusionDependency> inds =
+                this.store.createConstraintCollection(null, InclusionDependency.class, schema);
+        inds.add(new InclusionDependency(columns.get(0).getId(), columns.get(1).getId()));
+        this.store.removeSchema(schema);
+        assertNull(this.store.getSchemaByName("schema"));
+        assertNull(this.store.getConstraintCollection(inds.getId()));
+        this.store.flush();
+
+        CassaMetadataStore loadedStore = CassaMetadataStore.load(this.cluster, KEYSPACE);
+        assertTrue(loadedStore.getSchemas().isEmpty());
+        assertTrue(loadedStore.getConstraintCollections().isEmpty());
+        assertTrue(!loadedStore.hasTargetWithId(columns.get(0).getId()));
+        assertNotNull(loadedStore.getIdUtils());
+        loadedStore.close();
+    }
+}
@@ -0,0 +1,38 @@
+package de.hpi.isg.mdms.cassandra;
+
+import org.apache.cassandra.service.EmbeddedCassandraService;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Runs a single Cassandra node within the test JVM. It is configured by the {@code cassandra.yaml} test resource and
+ * keeps its data below {@code target/embedded-cassandra}.
+ */
+public class EmbeddedCassandra {
+
+    public static final String HOST = "127.0.0.1";
+
+    /**
+     * The native transport port as configured in {@code cassandra.yaml}.
+     */
+    public static final int PORT = 19042;
+
+    private static boolean isStarted = false;
+
+    /**
+     * Starts the node unless it is already running. The node is stopped when the JVM exits.
+     */
+    public static synchronized void start() throws IOException {
+        if (isStarted) return;
+        for (String directory : new String[]{"data", "commitlog", "saved_caches"}) {
+            new File("target/embedded-cassandra", directory).mkdirs();
+        }
+        System.setProperty("cassandra.config", EmbeddedCassandra.class.getResource("/cassandra.yaml").toString());
+        System.setProperty("cassandra-foreground", "true");
+        System.setProperty("cassandra.storagedir", "target/embedded-cassandra");
+        new EmbeddedCassandraService().start();
+        isStarted = true;
+    }
+
+}
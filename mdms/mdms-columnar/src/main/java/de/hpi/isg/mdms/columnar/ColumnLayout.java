@@ -0,0 +1,141 @@
+package de.hpi.isg.mdms.columnar;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link ColumnLayout} describes how constraints of a certain class are decomposed into the columns of a
+ * {@link ColumnarFile}. Columns that hold target IDs are dictionary-encoded and carry min/max statistics, so that
+ * scans can skip row groups that do not reference the targets of interest.
+ * <p>Layouts are recorded by their class name in the files, so implementations need a public no-arg constructor.</p>
+ *
+ * @param <T> the type of constraints described by the layout
+ */
+public abstract class ColumnLayout<T> {
+
+    /**
+     * The types of values that can be stored in a column.
+     */
+    public enum ColumnType {
+
+        /**
+         * A (possibly empty) list of target IDs per row. IDs are dictionary-encoded per row group.
+         */
+        IDS,
+
+        /**
+         * A single number per row.
+         */
+        LONG,
+
+        /**
+         * Arbitrary bytes per row.
+         */
+        BYTES
+
+    }
+
+    /**
+     * The class of constraints that is described by this layout.
+     */
+    private final Class<T> constraintClass;
+
+    /**
+     * The names and types of the columns.
+     */
+    private final List<String> columnNames = new ArrayList<>();
+
+    private final List<ColumnType> columnTypes = new ArrayList<>();
+
+    protected ColumnLayout(Class<T> constraintClass) {
+        this.constraintClass = constraintClass;
+    }
+
+    /**
+     * @return the class of constraints that is described by this layout
+     */
+    public Class<T> getConstraintClass() {
+        return this.constraintClass;
+    }
+
+    /**
+     * Declares a further column. Subclasses should declare all their columns in their constructor.
+     *
+     * @param name the name of the column
+     * @param type the type of the column
+     */
+    protected void declareColumn(String name, ColumnType type) {
+        this.columnNames.add(name);
+        this.columnTypes.add(type);
+    }
+
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(this.columnNames);
+    }
+
+    public List<ColumnType> getColumnTypes() {
+        return Collections.unmodifiableList(this.columnTypes);
+    }
+
+    /**
+     * Appends the given constraint to the given {@link RowGroup}. Implementations must append exactly one value to
+     * each declared column.
+     *
+     * @param constraint that shall be written
+     * @param rowGroup   to which the constraint shall be appended
+     */
+    public abstract void write(T constraint, RowGroup rowGroup);
+
+    /**
+     * Reads a constraint from the given {@link RowGroup}.
+     *
+     * @param rowGroup contains the constraint
+     * @param row      the index of the constraint within the row group
+     * @return the constraint
+     */
+    public abstract T read(RowGroup rowGroup, int row);
+
+    /**
+     * Encodes a full {@link RowGroup} into one chunk per column. By default, each column is encoded on its own (see
+     * {@link RowGroup}). Layouts can override this method along with {@link #decodeRowGroup(ByteBuffer[], int)} to
+     * encode their columns jointly; the first chunk then holds all columns and the other chunks are empty.
+     *
+     * @param rowGroup the row group to encode
+     * @return the encoded chunks
+     */
+    public byte[][] encodeRowGroup(RowGroup rowGroup) {
+        byte[][] chunks = new byte[this.columnTypes.size()][];
+        for (int column = 0; column < chunks.length; column++) {
+            chunks[column] = rowGroup.encode(column);
+        }
+        return chunks;
+    }
+
+    /**
+     * Decodes the constraints of a row group that has been encoded via {@link #encodeRowGroup(RowGroup)}.
+     *
+     * @param chunks  the encoded chunks
+     * @param numRows the number of encoded rows
+     * @return the decoded constraints
+     */
+    public List<T> decodeRowGroup(ByteBuffer[] chunks, int numRows) {
+        RowGroup rowGroup = new RowGroup(this.columnTypes);
+        for (int column = 0; column < chunks.length; column++) {
+            rowGroup.decode(column, chunks[column], numRows);
+        }
+        rowGroup.setSize(numRows);
+
+        List<T> constraints = new ArrayList<>(numRows);
+        for (int row = 0; row < numRows; row++) {
+            constraints.add(this.read(rowGroup, row));
+        }
+        return constraints;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s", this.getClass().getSimpleName(), this.columnNames);
+    }
+}
@@ -0,0 +1,182 @@
+package de.hpi.isg.mdms.columnar;
+
+import de.hpi.isg.mdms.exceptions.NotAllTargetsInStoreException;
+import de.hpi.isg.mdms.model.common.AbstractIdentifiable;
+import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
+import de.hpi.isg.mdms.model.constraints.Constraint;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.constraints.ConstraintPredicate;
+import de.hpi.isg.mdms.model.experiment.Experiment;
+import de.hpi.isg.mdms.model.targets.Target;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A {@link ConstraintCollection} of a {@link ColumnarMetadataStore}. Its constraints are not kept in memory but in a
+ * {@link ColumnarFile} of its own. Only the description of the collection is part of the store's catalog.
+ *
+ * @param <T> the type of constraints in the collection
+ */
+public class ColumnarConstraintCollection<T> extends AbstractIdentifiable implements ConstraintCollection<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<Target> scope;
+
+    private String description;
+
+    private final Experiment experiment;
+
+    private final Class<T> constraintClass;
+
+    @ExcludeHashCodeEquals
+    private final ColumnarMetadataStore metadataStore;
+
+    /**
+     * Stores the constraints. It is opened lazily.
+     */
+    @ExcludeHashCodeEquals
+    private transient ColumnarFile<T> constraintFile;
+
+    public ColumnarConstraintCollection(ColumnarMetadataStore metadataStore, int id, Set<Target> scope,
+                                        Experiment experiment, Class<T> constraintClass) {
+        super(id);
+        this.metadataStore = metadataStore;
+        this.scope = scope;
+        this.experiment = experiment;
+        this.constraintClass = constraintClass;
+    }
+
+    /**
+     * @return the {@link ColumnarFile} that stores the constraints of this collection
+     */
+    public synchronized ColumnarFile<T> getConstraintFile() {
+        if (this.constraintFile == null) {
+            try {
+                this.constraintFile = ColumnarFile.open(
+                        this.metadataStore.getConstraintFile(this.getId()),
+                        this.metadataStore.getColumnLayout(this.constraintClass),
+                        this.metadataStore.getRowGroupSize()
+                );
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this.constraintFile;
+    }
+
+    @Override
+    public Collection<T> getConstraints() {
+        try (Stream<T> stream = this.stream()) {
+            return Collections.unmodifiableList(stream.collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>{@link TargetRangePredicate}s are evaluated on the row group statistics, so that row groups without matching
+     * constraints are not read.</p>
+     */
+    @Override
+    public Stream<T> stream(ConstraintPredicate<? super T> predicate) {
+        if (predicate instanceof TargetRangePredicate) {
+            TargetRangePredicate<?> rangePredicate = (TargetRangePredicate<?>) predicate;
+            return this.getConstraintFile().scan(rangePredicate.getMinId(), rangePredicate.getMaxId(), predicate);
+        }
+        return this.getConstraintFile().scan(predicate);
+    }
+
+    @Override
+    public Collection<Target> getScope() {
+        return Collections.unmodifiableCollection(this.scope);
+    }
+
+    @Override
+    public void add(T constraint) {
+        this.checkTargets(constraint);
+        try {
+            this.getConstraintFile().append(constraint);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void addAll(Iterable<? extends T> constraints) {
+        ColumnarFile<T> constraintFile = this.getConstraintFile();
+        try {
+            for (T constraint : constraints) {
+                this.checkTargets(constraint);
+                constraintFile.append(constraint);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkTargets(T constraint) {
+        if (constraint instanceof Constraint) {
+            for (int id : ((Constraint) constraint).getAllTargetIds()) {
+                if (!this.metadataStore.hasTargetWithId(id)) {
+                    throw new NotAllTargetsInStoreException(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all buffered constraints to disk.
+     */
+    synchronized void flush() throws IOException {
+        if (this.constraintFile != null) {
+            this.constraintFile.flush();
+        }
+    }
+
+    /**
+     * Closes the {@link ColumnarFile} of this collection. It is reopened on demand.
+     */
+    synchronized void close() throws IOException {
+        if (this.constraintFile != null) {
+            this.constraintFile.close();
+            this.constraintFile = null;
+        }
+    }
+
+    @Override
+    public ColumnarMetadataStore getMetadataStore() {
+        return this.metadataStore;
+    }
+
+    @Override
+    public String getDescription() {
+        return this.description;
+    }
+
+    @Override
+    public void setDescription(String description) {
+        this.description = description;
+        this.metadataStore.handleDescriptionChanged(this);
+    }
+
+    @Override
+    public Experiment getExperiment() {
+        return this.experiment;
+    }
+
+    @Override
+    public Class<T> getConstraintClass() {
+        return this.constraintClass;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ColumnarConstraintCollection[%d, %s]", this.getId(), this.constraintClass.getSimpleName());
+    }
+}
@@ -0,0 +1,512 @@
+package de.hpi.isg.mdms.columnar;
+
+import de.hpi.isg.mdms.columnar.ColumnLayout.ColumnType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stores constraints of a single class in a file, column by column. The data file and its footer file are laid out
+ * as follows:
+ * <pre>
+ * data file:   magic | row group 1 | ... | row group n
+ * footer file: footer | data end (long) | magic
+ * </pre>
+ * Each row group consists of one encoded chunk per column (see {@link ColumnLayout#encodeRowGroup(RowGroup)}). The
+ * footer describes the {@link ColumnLayout} and, for each row group, its position, size, and the minimum and maximum
+ * value of each column. Scans use these statistics to skip row groups.
+ * <p>New rows are buffered until a row group is full or the file is {@link #flush() flushed}. Row groups are only
+ * appended to the data file, and a flush atomically replaces the footer file once the row groups are durable. Hence, a
+ * crash loses at most the row groups that have been written since the last flush; they are discarded when the file is
+ * opened again.</p>
+ * <p>This class is thread-safe.</p>
+ *
+ * @param <T> the type of constraints in the file
+ */
+public class ColumnarFile<T> implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarFile.class);
+
+    private static final byte[] MAGIC = "MDMSCOL1".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Size of the trailer of the footer file, i.e., the data end and the magic.
+     */
+    private static final int TRAILER_SIZE = 8 + MAGIC.length;
+
+    private static final String FOOTER_FILE_SUFFIX = ".footer";
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 8192;
+
+    private final File file;
+
+    private final ColumnLayout<T> layout;
+
+    private final int rowGroupSize;
+
+    private final FileChannel channel;
+
+    /**
+     * Describes the row groups that have been written to the file.
+     */
+    private final List<RowGroupMetadata> rowGroups = new ArrayList<>();
+
+    /**
+     * The position after the last row group, where the next row group is appended.
+     */
+    private long dataEnd;
+
+    /**
+     * Rows that have not yet been written.
+     */
+    private RowGroup buffer;
+
+    /**
+     * Whether the footer file does not describe all written row groups.
+     */
+    private boolean isFooterOutdated = false;
+
+    /**
+     * Opens a {@link ColumnarFile} or creates it if it does not exist.
+     *
+     * @param file         the file to open
+     * @param layout       the {@link ColumnLayout} for a new file; existing files use the layout they have been
+     *                     created with
+     * @param rowGroupSize the maximum number of rows per row group
+     * @return the opened file
+     * @throws IOException if the file could not be opened
+     */
+    public static <T> ColumnarFile<T> open(File file, ColumnLayout<T> layout, int rowGroupSize) throws IOException {
+        if (getFooterFile(file).exists()) {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                return new ColumnarFile<>(file, channel, layout, rowGroupSize);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        // Without a footer file, the file has never been flushed completely, so its content is discarded.
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(0);
+        writeFully(channel, ByteBuffer.wrap(MAGIC), 0);
+        ColumnarFile<T> columnarFile = new ColumnarFile<>(file, channel, layout, rowGroupSize, MAGIC.length);
+        columnarFile.isFooterOutdated = true;
+        return columnarFile;
+    }
+
+    private ColumnarFile(File file, FileChannel channel, ColumnLayout<T> layout, int rowGroupSize, long dataEnd) {
+        this.file = file;
+        this.channel = channel;
+        this.layout = layout;
+        this.rowGroupSize = rowGroupSize;
+        this.dataEnd = dataEnd;
+        this.buffer = new RowGroup(layout.getColumnTypes());
+    }
+
+    /**
+     * Opens an existing file by reading its footer file. Row groups that have been appended after the footer file
+     * was last written are discarded.
+     */
+    @SuppressWarnings("unchecked")
+    private ColumnarFile(File file, FileChannel channel, ColumnLayout<T> defaultLayout, int rowGroupSize)
+            throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.rowGroupSize = rowGroupSize;
+
+        byte[] footer = Files.readAllBytes(getFooterFile(file).toPath());
+        if (footer.length < TRAILER_SIZE) {
+            throw new IOException(String.format("%s has no complete footer.", file));
+        }
+        ByteBuffer trailer = ByteBuffer.wrap(footer, footer.length - TRAILER_SIZE, TRAILER_SIZE);
+        long dataEnd = trailer.getLong();
+        byte[] magic = new byte[MAGIC.length];
+        trailer.get(magic);
+        if (!Arrays.equals(magic, MAGIC) || dataEnd < MAGIC.length || dataEnd > channel.size()) {
+            throw new IOException(String.format("%s has no complete footer.", file));
+        }
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length);
+        readFully(channel, header, 0);
+        if (!Arrays.equals(header.array(), MAGIC)) {
+            throw new IOException(String.format("%s is not a columnar file.", file));
+        }
+        if (channel.size() > dataEnd) {
+            LOGGER.info("Discarding {} bytes of unflushed row groups in {}.", channel.size() - dataEnd, file);
+            channel.truncate(dataEnd);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer, 0, footer.length - TRAILER_SIZE));
+        String layoutClassName = in.readUTF();
+        String constraintClassName = in.readUTF();
+        if (layoutClassName.equals(defaultLayout.getClass().getName())
+                && constraintClassName.equals(defaultLayout.getConstraintClass().getName())) {
+            this.layout = defaultLayout;
+        } else {
+            this.layout = (ColumnLayout<T>) instantiateLayout(layoutClassName, constraintClassName);
+        }
+        int numColumns = in.readInt();
+        List<ColumnType> columnTypes = this.layout.getColumnTypes();
+        if (numColumns != columnTypes.size()) {
+            throw new IOException(String.format("%s does not match the columns of %s.", this.layout, file));
+        }
+        for (int column = 0; column < numColumns; column++) {
+            String columnName = in.readUTF();
+            ColumnType columnType = ColumnType.values()[in.readByte()];
+            if (columnType != columnTypes.get(column)
+                    || !columnName.equals(this.layout.getColumnNames().get(column))) {
+                throw new IOException(String.format("%s does not match the columns of %s.", this.layout, file));
+            }
+        }
+        int numRowGroups = in.readInt();
+        for (int i = 0; i < numRowGroups; i++) {
+            this.rowGroups.add(RowGroupMetadata.read(in, numColumns));
+        }
+        this.dataEnd = dataEnd;
+        this.buffer = new RowGroup(columnTypes);
+    }
+
+    /**
+     * Instantiates a {@link ColumnLayout} via its constructor that takes the constraint class or its no-arg
+     * constructor.
+     */
+    private static ColumnLayout<?> instantiateLayout(String layoutClassName, String constraintClassName)
+            throws IOException {
+        try {
+            Class<?> layoutClass = Class.forName(layoutClassName);
+            try {
+                Class<?> constraintClass = Class.forName(constraintClassName);
+                return (ColumnLayout<?>) layoutClass.getConstructor(Class.class).newInstance(constraintClass);
+            } catch (NoSuchMethodException e) {
+                return (ColumnLayout<?>) layoutClass.newInstance();
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IOException(String.format("Could not instantiate %s.", layoutClassName), e);
+        }
+    }
+
+    /**
+     * Appends a constraint to this file. It is buffered until its row group is full or the file is flushed.
+     *
+     * @param constraint the constraint to append
+     */
+    public synchronized void append(T constraint) throws IOException {
+        this.layout.write(constraint, this.buffer);
+        this.buffer.endRow();
+        if (this.buffer.size() >= this.rowGroupSize) {
+            this.writeRowGroup();
+        }
+    }
+
+    /**
+     * Writes all buffered constraints and the footer to disk.
+     */
+    public synchronized void flush() throws IOException {
+        if (this.buffer.size() > 0) {
+            this.writeRowGroup();
+        }
+        if (this.isFooterOutdated) {
+            this.writeFooter();
+        }
+    }
+
+    private void writeRowGroup() throws IOException {
+        final int numColumns = this.layout.getColumnTypes().size();
+        RowGroupMetadata metadata = new RowGroupMetadata(this.dataEnd, this.buffer.size(), numColumns);
+        long position = this.dataEnd;
+        byte[][] chunks = this.layout.encodeRowGroup(this.buffer);
+        for (int column = 0; column < numColumns; column++) {
+            byte[] chunk = chunks[column];
+            writeFully(this.channel, ByteBuffer.wrap(chunk), position);
+            position += chunk.length;
+            metadata.chunkLengths[column] = chunk.length;
+            metadata.statistics[column] = this.buffer.computeStatistics(column);
+        }
+        this.rowGroups.add(metadata);
+        this.dataEnd = position;
+        this.buffer = new RowGroup(this.layout.getColumnTypes());
+        this.isFooterOutdated = true;
+    }
+
+    private void writeFooter() throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(byteArrayOutputStream);
+        out.writeUTF(this.layout.getClass().getName());
+        out.writeUTF(this.layout.getConstraintClass().getName());
+        List<String> columnNames = this.layout.getColumnNames();
+        List<ColumnType> columnTypes = this.layout.getColumnTypes();
+        out.writeInt(columnNames.size());
+        for (int column = 0; column < columnNames.size(); column++) {
+            out.writeUTF(columnNames.get(column));
+            out.writeByte(columnTypes.get(column).ordinal());
+        }
+        out.writeInt(this.rowGroups.size());
+        for (RowGroupMetadata rowGroup : this.rowGroups) {
+            rowGroup.write(out);
+        }
+        out.writeLong(this.dataEnd);
+        out.write(MAGIC);
+        out.close();
+
+        // The row groups must be durable before the footer refers to them.
+        this.channel.force(false);
+        File footerFile = getFooterFile(this.file);
+        File tempFile = new File(footerFile.getPath() + ".tmp");
+        try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+            byteArrayOutputStream.writeTo(fileOutputStream);
+            fileOutputStream.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), footerFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.isFooterOutdated = false;
+    }
+
+    /**
+     * Scans all constraints in this file.
+     *
+     * @param predicate selects the constraints to return
+     * @return a lazy {@link Stream} of the selected constraints
+     */
+    public Stream<T> scan(Predicate<? super T> predicate) {
+        return this.scan(Integer.MIN_VALUE, Integer.MAX_VALUE, predicate);
+    }
+
+    /**
+     * Scans the constraints in this file, thereby skipping row groups that do not contain any target ID in the given
+     * range.
+     *
+     * @param minId     the minimum target ID of interest
+     * @param maxId     the maximum target ID of interest
+     * @param predicate selects the constraints to return; it must only accept constraints that reference a target
+     *                  ID in the given range
+     * @return a lazy {@link Stream} of the selected constraints
+     */
+    public Stream<T> scan(int minId, int maxId, Predicate<? super T> predicate) {
+        final List<RowGroupMetadata> rowGroups;
+        final List<T> bufferedConstraints = new ArrayList<>();
+        synchronized (this) {
+            rowGroups = new ArrayList<>(this.rowGroups);
+            for (int row = 0; row < this.buffer.size(); row++) {
+                bufferedConstraints.add(this.layout.read(this.buffer, row));
+            }
+        }
+        final List<ColumnType> columnTypes = this.layout.getColumnTypes();
+
+        Iterator<T> iterator = new Iterator<T>() {
+
+            private final Iterator<RowGroupMetadata> rowGroupIterator = rowGroups.iterator();
+
+            private Iterator<T> rowIterator = Collections.emptyIterator();
+
+            private boolean isScanningBuffer = false;
+
+            private int numSkippedRowGroups = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (!this.rowIterator.hasNext()) {
+                    if (this.rowGroupIterator.hasNext()) {
+                        RowGroupMetadata metadata = this.rowGroupIterator.next();
+                        if (metadata.mayContainIdsWithin(minId, maxId, columnTypes)) {
+                            this.rowIterator = readRowGroup(metadata).iterator();
+                        } else {
+                            this.numSkippedRowGroups++;
+                        }
+                    } else if (!this.isScanningBuffer) {
+                        LOGGER.debug("Skipped {} of {} row groups in {}.", this.numSkippedRowGroups, rowGroups.size(),
+                                ColumnarFile.this.file);
+                        this.isScanningBuffer = true;
+                        this.rowIterator = bufferedConstraints.iterator();
+                    } else {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public T next() {
+                if (!this.hasNext()) throw new NoSuchElementException();
+                return this.rowIterator.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .filter(predicate);
+    }
+
+    private List<T> readRowGroup(RowGroupMetadata metadata) {
+        final List<ColumnType> columnTypes = this.layout.getColumnTypes();
+        int length = 0;
+        for (int chunkLength : metadata.chunkLengths) length += chunkLength;
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        try {
+            readFully(this.channel, bytes, metadata.offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ByteBuffer[] chunks = new ByteBuffer[columnTypes.size()];
+        for (int column = 0; column < columnTypes.size(); column++) {
+            chunks[column] = bytes.slice();
+            chunks[column].limit(metadata.chunkLengths[column]);
+            bytes.position(bytes.position() + metadata.chunkLengths[column]);
+        }
+        return this.layout.decodeRowGroup(chunks, metadata.numRows);
+    }
+
+    /**
+     * @return the number of constraints in this file including buffered ones
+     */
+    public synchronized long getNumRows() {
+        long numRows = this.buffer.size();
+        for (RowGroupMetadata rowGroup : this.rowGroups) {
+            numRows += rowGroup.numRows;
+        }
+        return numRows;
+    }
+
+    /**
+     * @return the number of row groups that have been written
+     */
+    public synchronized int getNumRowGroups() {
+        return this.rowGroups.size();
+    }
+
+    public ColumnLayout<T> getLayout() {
+        return this.layout;
+    }
+
+    public File getFile() {
+        return this.file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.channel.isOpen()) {
+            try {
+                this.flush();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    /**
+     * @param file a data file
+     * @return the footer file that belongs to the data file
+     */
+    static File getFooterFile(File file) {
+        return new File(file.getPath() + FOOTER_FILE_SUFFIX);
+    }
+
+    /**
+     * Deletes a closed {@link ColumnarFile}, i.e., its footer file and its data file.
+     *
+     * @param file the data file
+     * @return whether the files do not exist anymore
+     */
+    public static boolean delete(File file) {
+        // Delete the footer first, so that a partial deletion leaves a file that is opened as empty file.
+        File footerFile = getFooterFile(file);
+        boolean isFooterDeleted = !footerFile.exists() || footerFile.delete();
+        return isFooterDeleted && (!file.exists() || file.delete());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int numReadBytes = channel.read(buffer, position);
+            if (numReadBytes < 0) throw new EOFException();
+            position += numReadBytes;
+        }
+        buffer.flip();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ColumnarFile[%s, %s]", this.file, this.layout);
+    }
+
+    /**
+     * Describes a row group in the footer.
+     */
+    private static class RowGroupMetadata {
+
+        private final long offset;
+
+        private final int numRows;
+
+        private final int[] chunkLengths;
+
+        /**
+         * The minimum and maximum value of each column or {@code null} if there are none.
+         */
+        private final long[][] statistics;
+
+        private RowGroupMetadata(long offset, int numRows, int numColumns) {
+            this.offset = offset;
+            this.numRows = numRows;
+            this.chunkLengths = new int[numColumns];
+            this.statistics = new long[numColumns][];
+        }
+
+        /**
+         * Tells whether any {@link ColumnType#IDS} column might contain an ID in the given range. If there are no such
+         * columns, this method conservatively returns {@code true}.
+         */
+        private boolean mayContainIdsWithin(int minId, int maxId, List<ColumnType> columnTypes) {
+            boolean hasIdColumns = false;
+            for (int column = 0; column < columnTypes.size(); column++) {
+                if (columnTypes.get(column) != ColumnType.IDS) continue;
+                hasIdColumns = true;
+                long[] minMax = this.statistics[column];
+                if (minMax != null && minMax[0] <= maxId && minMax[1] >= minId) {
+                    return true;
+                }
+            }
+            return !hasIdColumns;
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeLong(this.offset);
+            out.writeInt(this.numRows);
+            for (int column = 0; column < this.chunkLengths.length; column++) {
+                out.writeInt(this.chunkLengths[column]);
+                out.writeBoolean(this.statistics[column] != null);
+                if (this.statistics[column] != null) {
+                    out.writeLong(this.statistics[column][0]);
+                    out.writeLong(this.statistics[column][1]);
+                }
+            }
+        }
+
+        private static RowGroupMetadata read(DataInputStream in, int numColumns) throws IOException {
+            RowGroupMetadata metadata = new RowGroupMetadata(in.readLong(), in.readInt(), numColumns);
+            for (int column = 0; column < numColumns; column++) {
+                metadata.chunkLengths[column] = in.readInt();
+                if (in.readBoolean()) {
+                    metadata.statistics[column] = new long[]{in.readLong(), in.readLong()};
+                }
+            }
+            return metadata;
+        }
+    }
+}
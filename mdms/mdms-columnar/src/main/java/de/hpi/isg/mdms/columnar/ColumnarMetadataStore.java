@@ -0,0 +1,270 @@
+package de.hpi.isg.mdms.columnar;
+
+import de.hpi.isg.mdms.columnar.layouts.DistinctValueCountLayout;
+import de.hpi.isg.mdms.columnar.layouts.FunctionalDependencyLayout;
+import de.hpi.isg.mdms.columnar.layouts.InclusionDependencyLayout;
+import de.hpi.isg.mdms.columnar.layouts.SerializedLayout;
+import de.hpi.isg.mdms.columnar.layouts.TupleCountLayout;
+import de.hpi.isg.mdms.columnar.layouts.UniqueColumnCombinationLayout;
+import de.hpi.isg.mdms.exceptions.MetadataStoreNotFoundException;
+import de.hpi.isg.mdms.model.DefaultMetadataStore;
+import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.experiment.Experiment;
+import de.hpi.isg.mdms.model.targets.Target;
+import de.hpi.isg.mdms.model.util.IdUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link de.hpi.isg.mdms.model.MetadataStore} that persists its constraints in a directory of columnar files, one
+ * per {@link ConstraintCollection} (see {@link ColumnarFile}). Schemas, algorithms, experiments, and the descriptions
+ * of the constraint collections form a small catalog that is maintained like a {@link DefaultMetadataStore}.
+ * <p>The directory has the following layout:</p>
+ * <pre>
+ * catalog.ms                  the catalog
+ * catalog.ms.log              changes to the catalog since its last snapshot
+ * constraints/&lt;id&gt;.col        the constraints of the collection with the given ID
+ * constraints/&lt;id&gt;.col.footer the footer of the constraint file
+ * </pre>
+ */
+public class ColumnarMetadataStore extends DefaultMetadataStore {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarMetadataStore.class);
+
+    public static final String CATALOG_FILE_NAME = "catalog.ms";
+
+    public static final String CONSTRAINTS_DIRECTORY_NAME = "constraints";
+
+    private static final String CONSTRAINT_FILE_SUFFIX = ".col";
+
+    /**
+     * Maps constraint classes to their {@link ColumnLayout}s. Not serialized but rebuilt on demand.
+     */
+    @ExcludeHashCodeEquals
+    private transient Map<Class<?>, ColumnLayout<?>> columnLayouts;
+
+    @ExcludeHashCodeEquals
+    private transient int rowGroupSize = ColumnarFile.DEFAULT_ROW_GROUP_SIZE;
+
+    /**
+     * Creates a new {@link ColumnarMetadataStore} in the given directory.
+     *
+     * @param directory the directory to store the metadata store in
+     * @return the {@link ColumnarMetadataStore}
+     * @throws IOException if the store could not be saved
+     */
+    public static ColumnarMetadataStore createAndSave(File directory) throws IOException {
+        return createAndSave(directory, IdUtils.DEFAULT_NUM_TABLE_BITS, IdUtils.DEFAULT_NUM_COLUMN_BITS);
+    }
+
+    /**
+     * Creates a new {@link ColumnarMetadataStore} in the given directory.
+     *
+     * @param directory          the directory to store the metadata store in
+     * @param numTableBitsInIds  is the number of bits in object IDs to use for tables
+     * @param numColumnBitsInIds is the number of bits in object IDs to use for columns
+     * @return the {@link ColumnarMetadataStore}
+     * @throws IOException if the store could not be saved
+     */
+    public static ColumnarMetadataStore createAndSave(File directory, int numTableBitsInIds, int numColumnBitsInIds)
+            throws IOException {
+        ColumnarMetadataStore metadataStore = new ColumnarMetadataStore(directory, numTableBitsInIds, numColumnBitsInIds);
+        metadataStore.compact();
+        return metadataStore;
+    }
+
+    /**
+     * Loads a {@link ColumnarMetadataStore} from the given directory. Constraint files that do not belong to any
+     * constraint collection are deleted.
+     *
+     * @param directory contains the metadata store
+     * @return the loaded metadata store
+     * @throws MetadataStoreNotFoundException if no metadata store could be loaded from the given directory
+     */
+    public static ColumnarMetadataStore load(File directory) throws MetadataStoreNotFoundException {
+        DefaultMetadataStore metadataStore = DefaultMetadataStore.load(new File(directory, CATALOG_FILE_NAME));
+        if (!(metadataStore instanceof ColumnarMetadataStore)) {
+            throw new MetadataStoreNotFoundException(new IllegalArgumentException(
+                    String.format("%s contains no columnar metadata store.", directory)));
+        }
+        ColumnarMetadataStore columnarMetadataStore = (ColumnarMetadataStore) metadataStore;
+        columnarMetadataStore.deleteOrphanedConstraintFiles();
+        return columnarMetadataStore;
+    }
+
+    public ColumnarMetadataStore(File directory, int numTableBitsInIds, int numColumnBitsInIds) {
+        super(new File(directory, CATALOG_FILE_NAME), numTableBitsInIds, numColumnBitsInIds);
+    }
+
+    /**
+     * @return the directory of this store
+     */
+    public File getDirectory() {
+        return this.getStoreLocation().getAbsoluteFile().getParentFile();
+    }
+
+    /**
+     * @param constraintCollectionId the ID of a {@link ConstraintCollection}
+     * @return the file that stores the constraints of the {@link ConstraintCollection}
+     */
+    File getConstraintFile(int constraintCollectionId) {
+        return new File(new File(this.getDirectory(), CONSTRAINTS_DIRECTORY_NAME),
+                constraintCollectionId + CONSTRAINT_FILE_SUFFIX);
+    }
+
+    /**
+     * Registers a {@link ColumnLayout} for its constraint class. It is used for constraint collections that are
+     * created afterwards. Constraint classes without a layout are Java-serialized (see {@link SerializedLayout}).
+     *
+     * @param columnLayout the {@link ColumnLayout} to register
+     */
+    public synchronized void registerColumnLayout(ColumnLayout<?> columnLayout) {
+        this.getColumnLayouts().put(columnLayout.getConstraintClass(), columnLayout);
+    }
+
+    /**
+     * Provides the {@link ColumnLayout} for the given constraint class.
+     *
+     * @param constraintClass the constraint class
+     * @return the registered {@link ColumnLayout} or a {@link SerializedLayout}
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> ColumnLayout<T> getColumnLayout(Class<T> constraintClass) {
+        ColumnLayout<?> columnLayout = this.getColumnLayouts().get(constraintClass);
+        return columnLayout == null ? new SerializedLayout<>(constraintClass) : (ColumnLayout<T>) columnLayout;
+    }
+
+    private Map<Class<?>, ColumnLayout<?>> getColumnLayouts() {
+        if (this.columnLayouts == null) {
+            this.columnLayouts = new HashMap<>();
+            for (ColumnLayout<?> columnLayout : new ColumnLayout<?>[]{
+                    new InclusionDependencyLayout(),
+                    new UniqueColumnCombinationLayout(),
+                    new FunctionalDependencyLayout(),
+                    new DistinctValueCountLayout(),
+                    new TupleCountLayout()
+            }) {
+                this.columnLayouts.put(columnLayout.getConstraintClass(), columnLayout);
+            }
+        }
+        return this.columnLayouts;
+    }
+
+    public int getRowGroupSize() {
+        return this.rowGroupSize <= 0 ? ColumnarFile.DEFAULT_ROW_GROUP_SIZE : this.rowGroupSize;
+    }
+
+    /**
+     * @param rowGroupSize the maximum number of constraints per row group for files that are opened afterwards
+     */
+    public void setRowGroupSize(int rowGroupSize) {
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    @Override
+    protected <T> ConstraintCollection<T> newConstraintCollection(int id, Experiment experiment, Class<T> cls,
+                                                                  Set<Target> scope) {
+        return new ColumnarConstraintCollection<>(this, id, scope, experiment, cls);
+    }
+
+    @Override
+    public void removeConstraintCollection(ConstraintCollection<?> constraintCollection) {
+        super.removeConstraintCollection(constraintCollection);
+        if (constraintCollection instanceof ColumnarConstraintCollection) {
+            try {
+                ((ColumnarConstraintCollection<?>) constraintCollection).close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close {}.", constraintCollection, e);
+            }
+        }
+
+        // While the removal is being replayed, flushing would write a snapshot that misses the remainder of the log.
+        // The orphaned file is deleted once the store is loaded.
+        if (this.isReplayingMutationLog()) return;
+
+        // Persist the removal before deleting the file, so that the catalog never refers to a missing file. Should we
+        // crash in between, the orphaned file is deleted when the store is loaded the next time.
+        try {
+            super.flush();
+        } catch (Exception e) {
+            LOGGER.error("Could not persist the removal of {}, so its file is retained.", constraintCollection, e);
+            return;
+        }
+        File constraintFile = this.getConstraintFile(constraintCollection.getId());
+        if (!ColumnarFile.delete(constraintFile)) {
+            LOGGER.warn("Could not delete {}.", constraintFile);
+        }
+    }
+
+    /**
+     * Deletes constraint files that do not belong to any {@link ConstraintCollection} in the catalog, e.g., because
+     * the store crashed while removing a collection. Otherwise, a new collection with the same ID would pick them up.
+     */
+    private void deleteOrphanedConstraintFiles() {
+        File[] files = new File(this.getDirectory(), CONSTRAINTS_DIRECTORY_NAME).listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            // Consider the data files as well as their footer files.
+            String fileName = file.getName();
+            int suffixPos = fileName.indexOf(CONSTRAINT_FILE_SUFFIX);
+            if (suffixPos == -1) continue;
+            int id;
+            try {
+                id = Integer.parseInt(fileName.substring(0, suffixPos));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (this.getConstraintCollection(id) == null) {
+                LOGGER.info("Deleting orphaned constraint file {}.", file);
+                if (!file.delete()) {
+                    LOGGER.warn("Could not delete {}.", file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered constraints of all {@link ConstraintCollection}s and then the catalog.
+     */
+    @Override
+    public void flush() throws Exception {
+        for (ConstraintCollection<?> constraintCollection : new ArrayList<>(this.getConstraintCollections())) {
+            if (constraintCollection instanceof ColumnarConstraintCollection) {
+                ((ColumnarConstraintCollection<?>) constraintCollection).flush();
+            }
+        }
+        super.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+        } finally {
+            for (ConstraintCollection<?> constraintCollection : new ArrayList<>(this.getConstraintCollections())) {
+                if (constraintCollection instanceof ColumnarConstraintCollection) {
+                    try {
+                        ((ColumnarConstraintCollection<?>) constraintCollection).close();
+                    } catch (IOException e) {
+                        LOGGER.error("Could not close {}.", constraintCollection, e);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ColumnarMetadataStore[%s]", this.getStoreLocation());
+    }
+}
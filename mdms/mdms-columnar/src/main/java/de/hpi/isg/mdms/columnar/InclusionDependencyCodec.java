@@ -0,0 +1,213 @@
+package de.hpi.isg.mdms.columnar;
+
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import it.unimi.dsi.fastutil.io.FastByteArrayOutputStream;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Encodes whole collections of {@link InclusionDependency}s into a compact binary format. The INDs are sorted by
+ * their dependent columns and then stored in pages of a fixed number of bytes, so that individual pages can be
+ * located without an index. Only the last page is not padded to that size. Each page is laid out as follows:
+ * <pre>
+ * number of INDs (int) | number of column IDs per side (int) | IND 1 | ... | IND n | zero padding
+ * </pre>
+ * Each IND consists of its arity followed by its dependent and its referenced column IDs. The first dependent
+ * column ID is stored as delta to the one of the preceding IND in the same page, which is small due to the sorting;
+ * further dependent column IDs are stored as delta to their predecessor in the IND. Referenced column IDs are
+ * stored as zig-zag encoded deltas in the same fashion. All numbers within the INDs are variable-length integers
+ * (see {@link VarInts}), so that a unary IND usually takes only a few bytes.
+ * <p>Pages are decoded into an {@link InclusionDependencyPage}, which keeps the column IDs in primitive arrays and
+ * can be reused across pages.</p>
+ */
+public class InclusionDependencyCodec {
+
+    public static final int DEFAULT_PAGE_SIZE = 64 * 1024;
+
+    /**
+     * The size of the page header, i.e., the number of INDs and column IDs.
+     */
+    static final int PAGE_HEADER_SIZE = 8;
+
+    /**
+     * Orders {@link InclusionDependency}s lexicographically by their dependent and then their referenced columns.
+     */
+    private static final Comparator<InclusionDependency> IND_ORDER = (ind1, ind2) -> {
+        int result = compare(ind1.getDependentColumnIds(), ind2.getDependentColumnIds());
+        return result != 0 ? result : compare(ind1.getReferencedColumnIds(), ind2.getReferencedColumnIds());
+    };
+
+    private final int pageSize;
+
+    /**
+     * Creates a new instance with the {@link #DEFAULT_PAGE_SIZE}.
+     */
+    public InclusionDependencyCodec() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param pageSize the number of bytes per page
+     */
+    public InclusionDependencyCodec(int pageSize) {
+        Validate.isTrue(pageSize > PAGE_HEADER_SIZE, "Illegal page size %d.", pageSize);
+        this.pageSize = pageSize;
+    }
+
+    public int getPageSize() {
+        return this.pageSize;
+    }
+
+    /**
+     * Encodes the given {@link InclusionDependency}s.
+     *
+     * @param inds the INDs to encode; they need not be sorted
+     * @return the encoded pages, each of which but the last has {@link #getPageSize()} bytes
+     */
+    public List<byte[]> encode(Collection<InclusionDependency> inds) {
+        InclusionDependency[] sortedInds = inds.toArray(new InclusionDependency[inds.size()]);
+        Arrays.sort(sortedInds, IND_ORDER);
+
+        List<byte[]> pages = new ArrayList<>();
+        FastByteArrayOutputStream out = new FastByteArrayOutputStream(this.pageSize);
+        InclusionDependency previousInd = null;
+        int numInds = 0, numIds = 0;
+        for (InclusionDependency ind : sortedInds) {
+            int pageEnd = (int) out.position();
+            writeInclusionDependency(ind, previousInd, out);
+            if (out.position() > this.pageSize - PAGE_HEADER_SIZE) {
+                // The IND does not fit into the page anymore, so move it to a new page.
+                Validate.isTrue(numInds > 0, "%s does not fit into a page of %d bytes.", ind, this.pageSize);
+                pages.add(this.completePage(out.array, pageEnd, numInds, numIds, this.pageSize));
+                out.reset();
+                numInds = numIds = 0;
+                writeInclusionDependency(ind, null, out);
+                Validate.isTrue(out.position() <= this.pageSize - PAGE_HEADER_SIZE,
+                        "%s does not fit into a page of %d bytes.", ind, this.pageSize);
+            }
+            previousInd = ind;
+            numInds++;
+            numIds += ind.getArity();
+        }
+        if (numInds > 0) {
+            int payloadLength = (int) out.position();
+            pages.add(this.completePage(out.array, payloadLength, numInds, numIds, PAGE_HEADER_SIZE + payloadLength));
+        }
+        return pages;
+    }
+
+    /**
+     * Encodes the given {@link InclusionDependency}s and writes the pages to the given {@link OutputStream}.
+     *
+     * @param inds the INDs to encode; they need not be sorted
+     * @param out  to which the pages shall be written
+     * @return the number of written pages
+     * @throws IOException if the pages could not be written
+     */
+    public int write(Collection<InclusionDependency> inds, OutputStream out) throws IOException {
+        List<byte[]> pages = this.encode(inds);
+        for (byte[] page : pages) {
+            out.write(page);
+        }
+        return pages.size();
+    }
+
+    private byte[] completePage(byte[] payload, int payloadLength, int numInds, int numIds, int size) {
+        ByteBuffer page = ByteBuffer.allocate(size);
+        page.putInt(numInds).putInt(numIds).put(payload, 0, payloadLength);
+        return page.array();
+    }
+
+    private static void writeInclusionDependency(InclusionDependency ind, InclusionDependency previousInd,
+                                                 FastByteArrayOutputStream out) {
+        int[] dependentColumnIds = ind.getDependentColumnIds(), referencedColumnIds = ind.getReferencedColumnIds();
+        VarInts.writeVarInt(ind.getArity(), out);
+        if (ind.getArity() == 0) return;
+
+        // The INDs are sorted by their first dependent column, so the delta to the previous IND is not negative.
+        if (previousInd == null || previousInd.getArity() == 0) {
+            VarInts.writeVarLong(VarInts.zigZag(dependentColumnIds[0]), out);
+        } else {
+            VarInts.writeVarLong((long) dependentColumnIds[0] - previousInd.getDependentColumnIds()[0], out);
+        }
+        for (int i = 1; i < dependentColumnIds.length; i++) {
+            VarInts.writeVarLong((long) dependentColumnIds[i] - dependentColumnIds[i - 1], out);
+        }
+
+        long previousId = previousInd == null || previousInd.getArity() == 0 ?
+                0 : previousInd.getReferencedColumnIds()[0];
+        for (int referencedColumnId : referencedColumnIds) {
+            VarInts.writeVarLong(VarInts.zigZag(referencedColumnId - previousId), out);
+            previousId = referencedColumnId;
+        }
+    }
+
+    /**
+     * Decodes the page at the given position.
+     *
+     * @param pages contains the encoded pages
+     * @param index the index of the page to decode
+     * @param page  into which the page shall be decoded; it is reset before
+     * @return the given {@link InclusionDependencyPage}
+     */
+    public InclusionDependencyPage decodePage(ByteBuffer pages, int index, InclusionDependencyPage page) {
+        Validate.isTrue(index >= 0 && index < this.getNumPages(pages), "Illegal page index %d.", index);
+        ByteBuffer in = pages.duplicate();
+        in.position(pages.position() + index * this.pageSize);
+        in.limit(Math.min(in.position() + this.pageSize, pages.limit()));
+        page.decode(in.slice());
+        return page;
+    }
+
+    /**
+     * Decodes all pages.
+     *
+     * @param pages contains the encoded pages
+     * @return the decoded {@link InclusionDependency}s in the order of the pages
+     */
+    public List<InclusionDependency> decodeAll(ByteBuffer pages) {
+        List<InclusionDependency> inds = new ArrayList<>();
+        InclusionDependencyPage page = new InclusionDependencyPage();
+        for (int index = 0; index < this.getNumPages(pages); index++) {
+            this.decodePage(pages, index, page);
+            for (int i = 0; i < page.size(); i++) {
+                inds.add(page.getInclusionDependency(i));
+            }
+        }
+        return inds;
+    }
+
+    /**
+     * @param pages contains the encoded pages
+     * @return the number of pages
+     */
+    public int getNumPages(ByteBuffer pages) {
+        return (pages.remaining() + this.pageSize - 1) / this.pageSize;
+    }
+
+    /**
+     * Compares two ID arrays lexicographically, whereby shorter prefixes come first.
+     */
+    private static int compare(int[] ids1, int[] ids2) {
+        for (int i = 0; i < ids1.length && i < ids2.length; i++) {
+            int result = Integer.compare(ids1[i], ids2[i]);
+            if (result != 0) return result;
+        }
+        return Integer.compare(ids1.length, ids2.length);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InclusionDependencyCodec[pageSize=%d]", this.pageSize);
+    }
+}
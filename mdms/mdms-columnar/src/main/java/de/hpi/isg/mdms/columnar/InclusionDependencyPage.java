@@ -0,0 +1,137 @@
+package de.hpi.isg.mdms.columnar;
+
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A decoded page of {@link InclusionDependency}s as produced by the {@link InclusionDependencyCodec}. The column IDs
+ * of all INDs are kept back to back in primitive arrays, so that scans need not materialize
+ * {@link InclusionDependency} objects. The arrays are reused when a further page is decoded into the same instance.
+ */
+public class InclusionDependencyPage {
+
+    private int numInds = 0;
+
+    /**
+     * The offset of each IND's column IDs in {@link #dependentColumnIds} and {@link #referencedColumnIds}. The last
+     * entry marks the end of the last IND.
+     */
+    private int[] offsets = new int[]{0};
+
+    private int[] dependentColumnIds = new int[0], referencedColumnIds = new int[0];
+
+    /**
+     * Decodes a page into this instance, thereby replacing its current content.
+     *
+     * @param page contains the encoded page
+     */
+    void decode(ByteBuffer page) {
+        int numInds = page.getInt(), numIds = page.getInt();
+        if (this.offsets.length < numInds + 1) this.offsets = new int[numInds + 1];
+        if (this.dependentColumnIds.length < numIds) {
+            this.dependentColumnIds = new int[numIds];
+            this.referencedColumnIds = new int[numIds];
+        }
+
+        int pos = 0;
+        boolean hasPrevious = false;
+        int previousFirstDependentId = 0, previousFirstReferencedId = 0;
+        for (int ind = 0; ind < numInds; ind++) {
+            this.offsets[ind] = pos;
+            int arity = VarInts.readVarInt(page);
+            if (arity == 0) {
+                hasPrevious = false;
+                continue;
+            }
+
+            int id = hasPrevious ?
+                    (int) (previousFirstDependentId + VarInts.readVarLong(page)) :
+                    (int) VarInts.unZigZag(VarInts.readVarLong(page));
+            this.dependentColumnIds[pos] = id;
+            for (int i = 1; i < arity; i++) {
+                id = (int) (id + VarInts.readVarLong(page));
+                this.dependentColumnIds[pos + i] = id;
+            }
+
+            long previousId = hasPrevious ? previousFirstReferencedId : 0;
+            for (int i = 0; i < arity; i++) {
+                previousId = (int) (previousId + VarInts.unZigZag(VarInts.readVarLong(page)));
+                this.referencedColumnIds[pos + i] = (int) previousId;
+            }
+
+            previousFirstDependentId = this.dependentColumnIds[pos];
+            previousFirstReferencedId = this.referencedColumnIds[pos];
+            hasPrevious = true;
+            pos += arity;
+        }
+        this.offsets[numInds] = pos;
+        this.numInds = numInds;
+    }
+
+    /**
+     * @return the number of {@link InclusionDependency}s in this page
+     */
+    public int size() {
+        return this.numInds;
+    }
+
+    /**
+     * @param ind the index of an IND within this page
+     * @return the arity of the IND
+     */
+    public int getArity(int ind) {
+        return this.offsets[ind + 1] - this.offsets[ind];
+    }
+
+    /**
+     * @param ind the index of an IND within this page
+     * @return the offset of the column IDs of the IND in {@link #getDependentColumnIds()} and
+     * {@link #getReferencedColumnIds()}
+     */
+    public int getOffset(int ind) {
+        return this.offsets[ind];
+    }
+
+    /**
+     * Provides the dependent column IDs of all INDs in this page back to back. The array may be longer than needed
+     * and is overwritten when the next page is decoded.
+     *
+     * @return the dependent column IDs
+     * @see #getOffset(int)
+     */
+    public int[] getDependentColumnIds() {
+        return this.dependentColumnIds;
+    }
+
+    /**
+     * Provides the referenced column IDs of all INDs in this page back to back. The array may be longer than needed
+     * and is overwritten when the next page is decoded.
+     *
+     * @return the referenced column IDs
+     * @see #getOffset(int)
+     */
+    public int[] getReferencedColumnIds() {
+        return this.referencedColumnIds;
+    }
+
+    /**
+     * Materializes an {@link InclusionDependency} from this page.
+     *
+     * @param ind the index of the IND within this page
+     * @return the {@link InclusionDependency}
+     */
+    public InclusionDependency getInclusionDependency(int ind) {
+        int from = this.offsets[ind], to = this.offsets[ind + 1];
+        return new InclusionDependency(
+                Arrays.copyOfRange(this.dependentColumnIds, from, to),
+                Arrays.copyOfRange(this.referencedColumnIds, from, to)
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InclusionDependencyPage[%d INDs]", this.numInds);
+    }
+}
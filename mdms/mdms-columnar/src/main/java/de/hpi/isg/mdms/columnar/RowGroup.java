@@ -0,0 +1,264 @@
+package de.hpi.isg.mdms.columnar;
+
+import de.hpi.isg.mdms.columnar.ColumnLayout.ColumnType;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.io.FastByteArrayOutputStream;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A horizontal partition of a {@link ColumnarFile} whose values are kept column by column. It is used both to buffer
+ * rows before they are written and to hold the rows that have been read.
+ * <p>The columns are encoded as follows:</p>
+ * <ul>
+ * <li>{@link ColumnType#IDS}: a dictionary of the distinct IDs (count, first ID, and deltas), followed by the number of
+ * IDs and their dictionary indexes for each row</li>
+ * <li>{@link ColumnType#LONG}: the zig-zag encoded value of each row</li>
+ * <li>{@link ColumnType#BYTES}: the length and the bytes of each row</li>
+ * </ul>
+ * All numbers are variable-length integers (see {@link VarInts}).
+ */
+public class RowGroup {
+
+    private final ColumnType[] columnTypes;
+
+    /**
+     * For {@link ColumnType#IDS} columns: the offset of each row's IDs in {@link #ids}.
+     */
+    private final IntArrayList[] idOffsets;
+
+    /**
+     * For {@link ColumnType#IDS} columns: the IDs of all rows.
+     */
+    private final IntArrayList[] ids;
+
+    /**
+     * For {@link ColumnType#LONG} columns: the values of all rows.
+     */
+    private final LongArrayList[] longs;
+
+    /**
+     * For {@link ColumnType#BYTES} columns: the values of all rows.
+     */
+    private final List<byte[]>[] bytes;
+
+    private int numRows = 0;
+
+    @SuppressWarnings("unchecked")
+    RowGroup(List<ColumnType> columnTypes) {
+        this.columnTypes = columnTypes.toArray(new ColumnType[columnTypes.size()]);
+        this.idOffsets = new IntArrayList[this.columnTypes.length];
+        this.ids = new IntArrayList[this.columnTypes.length];
+        this.longs = new LongArrayList[this.columnTypes.length];
+        this.bytes = new List[this.columnTypes.length];
+        for (int column = 0; column < this.columnTypes.length; column++) {
+            switch (this.columnTypes[column]) {
+                case IDS:
+                    this.idOffsets[column] = new IntArrayList();
+                    this.idOffsets[column].add(0);
+                    this.ids[column] = new IntArrayList();
+                    break;
+                case LONG:
+                    this.longs[column] = new LongArrayList();
+                    break;
+                case BYTES:
+                    this.bytes[column] = new ArrayList<>();
+                    break;
+            }
+        }
+    }
+
+    public void appendIds(int column, int... ids) {
+        this.ids[column].addElements(this.ids[column].size(), ids);
+        this.idOffsets[column].add(this.ids[column].size());
+    }
+
+    public void appendLong(int column, long value) {
+        this.longs[column].add(value);
+    }
+
+    public void appendBytes(int column, byte[] value) {
+        this.bytes[column].add(value);
+    }
+
+    public int[] getIds(int column, int row) {
+        int from = this.idOffsets[column].getInt(row), to = this.idOffsets[column].getInt(row + 1);
+        int[] result = new int[to - from];
+        this.ids[column].getElements(from, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * @return the only ID of the given row
+     */
+    public int getId(int column, int row) {
+        return this.ids[column].getInt(this.idOffsets[column].getInt(row));
+    }
+
+    public long getLong(int column, int row) {
+        return this.longs[column].getLong(row);
+    }
+
+    public byte[] getBytes(int column, int row) {
+        return this.bytes[column].get(row);
+    }
+
+    /**
+     * Completes a row after a value has been appended to each column.
+     */
+    void endRow() {
+        this.numRows++;
+    }
+
+    /**
+     * @return the number of rows in this row group
+     */
+    public int size() {
+        return this.numRows;
+    }
+
+    /**
+     * Computes the minimum and maximum value of the given column.
+     *
+     * @param column the index of the column
+     * @return an array with the minimum and maximum or {@code null} if the column has no statistics
+     */
+    long[] computeStatistics(int column) {
+        switch (this.columnTypes[column]) {
+            case IDS:
+                if (this.ids[column].isEmpty()) return null;
+                int minId = Integer.MAX_VALUE, maxId = Integer.MIN_VALUE;
+                for (int i = 0; i < this.ids[column].size(); i++) {
+                    int id = this.ids[column].getInt(i);
+                    minId = Math.min(minId, id);
+                    maxId = Math.max(maxId, id);
+                }
+                return new long[]{minId, maxId};
+            case LONG:
+                if (this.longs[column].isEmpty()) return null;
+                long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+                for (int i = 0; i < this.longs[column].size(); i++) {
+                    long value = this.longs[column].getLong(i);
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+                return new long[]{min, max};
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Encodes the given column.
+     *
+     * @param column the index of the column
+     * @return the encoded column
+     */
+    byte[] encode(int column) {
+        FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+        switch (this.columnTypes[column]) {
+            case IDS:
+                int[] dictionary = this.ids[column].toIntArray();
+                Arrays.sort(dictionary);
+                int dictionarySize = 0;
+                for (int i = 0; i < dictionary.length; i++) {
+                    if (i == 0 || dictionary[i] != dictionary[dictionarySize - 1]) {
+                        dictionary[dictionarySize++] = dictionary[i];
+                    }
+                }
+                VarInts.writeVarInt(dictionarySize, out);
+                for (int i = 0; i < dictionarySize; i++) {
+                    if (i == 0) {
+                        VarInts.writeVarLong(VarInts.zigZag(dictionary[0]), out);
+                    } else {
+                        VarInts.writeVarLong((long) dictionary[i] - dictionary[i - 1], out);
+                    }
+                }
+                for (int row = 0; row < this.numRows; row++) {
+                    int from = this.idOffsets[column].getInt(row), to = this.idOffsets[column].getInt(row + 1);
+                    VarInts.writeVarInt(to - from, out);
+                    for (int i = from; i < to; i++) {
+                        int index = Arrays.binarySearch(dictionary, 0, dictionarySize, this.ids[column].getInt(i));
+                        VarInts.writeVarInt(index, out);
+                    }
+                }
+                break;
+            case LONG:
+                for (int row = 0; row < this.numRows; row++) {
+                    VarInts.writeVarLong(VarInts.zigZag(this.longs[column].getLong(row)), out);
+                }
+                break;
+            case BYTES:
+                for (int row = 0; row < this.numRows; row++) {
+                    byte[] value = this.bytes[column].get(row);
+                    VarInts.writeVarInt(value.length, out);
+                    try {
+                        out.write(value, 0, value.length);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // Does not happen for in-memory streams.
+                    }
+                }
+                break;
+        }
+        return Arrays.copyOf(out.array, out.length);
+    }
+
+    /**
+     * Decodes a column that has been encoded via {@link #encode(int)} into this (empty) instance.
+     *
+     * @param column  the index of the column
+     * @param in      contains the encoded column
+     * @param numRows the number of encoded rows
+     */
+    void decode(int column, ByteBuffer in, int numRows) {
+        switch (this.columnTypes[column]) {
+            case IDS:
+                int[] dictionary = new int[VarInts.readVarInt(in)];
+                for (int i = 0; i < dictionary.length; i++) {
+                    if (i == 0) {
+                        dictionary[0] = (int) VarInts.unZigZag(VarInts.readVarLong(in));
+                    } else {
+                        dictionary[i] = (int) (dictionary[i - 1] + VarInts.readVarLong(in));
+                    }
+                }
+                for (int row = 0; row < numRows; row++) {
+                    int numIds = VarInts.readVarInt(in);
+                    for (int i = 0; i < numIds; i++) {
+                        this.ids[column].add(dictionary[VarInts.readVarInt(in)]);
+                    }
+                    this.idOffsets[column].add(this.ids[column].size());
+                }
+                break;
+            case LONG:
+                for (int row = 0; row < numRows; row++) {
+                    this.longs[column].add(VarInts.unZigZag(VarInts.readVarLong(in)));
+                }
+                break;
+            case BYTES:
+                for (int row = 0; row < numRows; row++) {
+                    byte[] value = new byte[VarInts.readVarInt(in)];
+                    in.get(value);
+                    this.bytes[column].add(value);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Sets the number of rows after all columns have been {@link #decode(int, ByteBuffer, int) decoded}.
+     */
+    void setSize(int numRows) {
+        this.numRows = numRows;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RowGroup[%d rows]", this.numRows);
+    }
+}
@@ -0,0 +1,73 @@
+package de.hpi.isg.mdms.columnar;
+
+import de.hpi.isg.mdms.model.constraints.Constraint;
+import de.hpi.isg.mdms.model.constraints.ConstraintPredicate;
+import de.hpi.isg.mdms.model.targets.Target;
+import de.hpi.isg.mdms.model.util.IdUtils;
+
+/**
+ * A {@link ConstraintPredicate} that accepts {@link Constraint}s that reference any target within a given
+ * {@link Target}, e.g., any column of a table. Because the IDs of all targets within a schema or table form a
+ * contiguous range (see {@link IdUtils}), {@link ColumnarConstraintCollection}s can evaluate this predicate on the
+ * min/max statistics of their row groups and skip row groups without reading them.
+ *
+ * @param <T> the type of constraints to test
+ */
+public class TargetRangePredicate<T extends Constraint> implements ConstraintPredicate<T> {
+
+    private final int minId, maxId;
+
+    /**
+     * Creates a new instance that accepts {@link Constraint}s referencing the given {@link Target} or any target
+     * within it.
+     *
+     * @param idUtils describes the ID layout
+     * @param target  the containing {@link Target}
+     * @return the new instance
+     */
+    public static <T extends Constraint> TargetRangePredicate<T> within(IdUtils idUtils, Target target) {
+        final int id = target.getId();
+        final int schemaNumber = idUtils.getLocalSchemaId(id);
+        switch (idUtils.getIdType(id)) {
+            case SCHEMA:
+                return new TargetRangePredicate<>(idUtils.createGlobalId(schemaNumber, 0, 0), id);
+            case TABLE:
+                return new TargetRangePredicate<>(
+                        idUtils.createGlobalId(schemaNumber, idUtils.getLocalTableId(id), 0), id);
+            default:
+                return new TargetRangePredicate<>(id, id);
+        }
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param minId the minimum ID of the targets of interest
+     * @param maxId the maximum ID of the targets of interest
+     */
+    public TargetRangePredicate(int minId, int maxId) {
+        this.minId = minId;
+        this.maxId = maxId;
+    }
+
+    @Override
+    public boolean test(T constraint) {
+        for (int id : constraint.getAllTargetIds()) {
+            if (id >= this.minId && id <= this.maxId) return true;
+        }
+        return false;
+    }
+
+    public int getMinId() {
+        return this.minId;
+    }
+
+    public int getMaxId() {
+        return this.maxId;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TargetRangePredicate[%d..%d]", this.minId, this.maxId);
+    }
+}
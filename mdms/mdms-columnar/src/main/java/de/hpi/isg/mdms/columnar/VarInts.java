@@ -0,0 +1,52 @@
+package de.hpi.isg.mdms.columnar;
+
+import it.unimi.dsi.fastutil.io.FastByteArrayOutputStream;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes integers with a variable number of bytes (7 bits per byte, least significant group first), so that small
+ * values take little space. Signed values should be zig-zag encoded before.
+ */
+class VarInts {
+
+    private VarInts() {
+    }
+
+    static void writeVarLong(long value, FastByteArrayOutputStream out) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeVarInt(int value, FastByteArrayOutputStream out) {
+        writeVarLong(value & 0xFFFFFFFFL, out);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static int readVarInt(ByteBuffer in) {
+        return (int) readVarLong(in);
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
@@ -0,0 +1,28 @@
+package de.hpi.isg.mdms.columnar.layouts;
+
+import de.hpi.isg.mdms.columnar.ColumnLayout;
+import de.hpi.isg.mdms.columnar.RowGroup;
+import de.hpi.isg.mdms.domain.constraints.DistinctValueCount;
+
+/**
+ * Stores {@link DistinctValueCount}s in the columns {@code column} and {@code numDistinctValues}.
+ */
+public class DistinctValueCountLayout extends ColumnLayout<DistinctValueCount> {
+
+    public DistinctValueCountLayout() {
+        super(DistinctValueCount.class);
+        this.declareColumn("column", ColumnType.IDS);
+        this.declareColumn("numDistinctValues", ColumnType.LONG);
+    }
+
+    @Override
+    public void write(DistinctValueCount distinctValueCount, RowGroup rowGroup) {
+        rowGroup.appendIds(0, distinctValueCount.getColumnId());
+        rowGroup.appendLong(1, distinctValueCount.getNumDistinctValues());
+    }
+
+    @Override
+    public DistinctValueCount read(RowGroup rowGroup, int row) {
+        return new DistinctValueCount(rowGroup.getId(0, row), (int) rowGroup.getLong(1, row));
+    }
+}
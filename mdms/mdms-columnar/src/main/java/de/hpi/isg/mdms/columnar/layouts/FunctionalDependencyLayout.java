@@ -0,0 +1,28 @@
+package de.hpi.isg.mdms.columnar.layouts;
+
+import de.hpi.isg.mdms.columnar.ColumnLayout;
+import de.hpi.isg.mdms.columnar.RowGroup;
+import de.hpi.isg.mdms.domain.constraints.FunctionalDependency;
+
+/**
+ * Stores {@link FunctionalDependency}s in the columns {@code lhsColumns} and {@code rhsColumn}.
+ */
+public class FunctionalDependencyLayout extends ColumnLayout<FunctionalDependency> {
+
+    public FunctionalDependencyLayout() {
+        super(FunctionalDependency.class);
+        this.declareColumn("lhsColumns", ColumnType.IDS);
+        this.declareColumn("rhsColumn", ColumnType.IDS);
+    }
+
+    @Override
+    public void write(FunctionalDependency fd, RowGroup rowGroup) {
+        rowGroup.appendIds(0, fd.getLhsColumnIds());
+        rowGroup.appendIds(1, fd.getRhsColumnId());
+    }
+
+    @Override
+    public FunctionalDependency read(RowGroup rowGroup, int row) {
+        return new FunctionalDependency(rowGroup.getIds(0, row), rowGroup.getId(1, row));
+    }
+}
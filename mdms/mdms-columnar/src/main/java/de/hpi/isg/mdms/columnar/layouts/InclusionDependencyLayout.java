@@ -0,0 +1,58 @@
+package de.hpi.isg.mdms.columnar.layouts;
+
+import de.hpi.isg.mdms.columnar.ColumnLayout;
+import de.hpi.isg.mdms.columnar.InclusionDependencyCodec;
+import de.hpi.isg.mdms.columnar.RowGroup;
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores {@link InclusionDependency}s in the columns {@code dependentColumns} and {@code referencedColumns}. The
+ * columns provide the row group statistics, but are encoded jointly via the {@link InclusionDependencyCodec}. Hence,
+ * the INDs of a row group are read back sorted by their dependent columns.
+ */
+public class InclusionDependencyLayout extends ColumnLayout<InclusionDependency> {
+
+    private final InclusionDependencyCodec codec = new InclusionDependencyCodec();
+
+    public InclusionDependencyLayout() {
+        super(InclusionDependency.class);
+        this.declareColumn("dependentColumns", ColumnType.IDS);
+        this.declareColumn("referencedColumns", ColumnType.IDS);
+    }
+
+    @Override
+    public void write(InclusionDependency ind, RowGroup rowGroup) {
+        rowGroup.appendIds(0, ind.getDependentColumnIds());
+        rowGroup.appendIds(1, ind.getReferencedColumnIds());
+    }
+
+    @Override
+    public InclusionDependency read(RowGroup rowGroup, int row) {
+        return new InclusionDependency(rowGroup.getIds(0, row), rowGroup.getIds(1, row));
+    }
+
+    @Override
+    public byte[][] encodeRowGroup(RowGroup rowGroup) {
+        List<InclusionDependency> inds = new ArrayList<>(rowGroup.size());
+        for (int row = 0; row < rowGroup.size(); row++) {
+            inds.add(this.read(rowGroup, row));
+        }
+        List<byte[]> pages = this.codec.encode(inds);
+        ByteBuffer chunk = ByteBuffer.allocate(pages.stream().mapToInt(page -> page.length).sum());
+        pages.forEach(chunk::put);
+        return new byte[][]{chunk.array(), new byte[0]};
+    }
+
+    @Override
+    public List<InclusionDependency> decodeRowGroup(ByteBuffer[] chunks, int numRows) {
+        List<InclusionDependency> inds = this.codec.decodeAll(chunks[0]);
+        if (inds.size() != numRows) {
+            throw new IllegalStateException(String.format("Expected %d INDs, but decoded %d.", numRows, inds.size()));
+        }
+        return inds;
+    }
+}
@@ -0,0 +1,43 @@
+package de.hpi.isg.mdms.columnar.layouts;
+
+import de.hpi.isg.mdms.columnar.ColumnLayout;
+import de.hpi.isg.mdms.columnar.RowGroup;
+import de.hpi.isg.mdms.model.constraints.Constraint;
+
+import java.io.*;
+
+/**
+ * Fallback layout for constraint classes without a dedicated {@link ColumnLayout}. It stores the Java-serialized
+ * constraints in the column {@code constraint}. For {@link Constraint}s, the column {@code targets} additionally
+ * holds all referenced target IDs, so that scans can still skip row groups.
+ */
+public class SerializedLayout<T> extends ColumnLayout<T> {
+
+    public SerializedLayout(Class<T> constraintClass) {
+        super(constraintClass);
+        this.declareColumn("targets", ColumnType.IDS);
+        this.declareColumn("constraint", ColumnType.BYTES);
+    }
+
+    @Override
+    public void write(T constraint, RowGroup rowGroup) {
+        rowGroup.appendIds(0, constraint instanceof Constraint ? ((Constraint) constraint).getAllTargetIds() : new int[0]);
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(constraint);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not serialize " + constraint, e);
+        }
+        rowGroup.appendBytes(1, byteArrayOutputStream.toByteArray());
+    }
+
+    @Override
+    public T read(RowGroup rowGroup, int row) {
+        try (ObjectInputStream objectInputStream =
+                     new ObjectInputStream(new ByteArrayInputStream(rowGroup.getBytes(1, row)))) {
+            return this.getConstraintClass().cast(objectInputStream.readObject());
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException("Could not deserialize constraint.", e);
+        }
+    }
+}
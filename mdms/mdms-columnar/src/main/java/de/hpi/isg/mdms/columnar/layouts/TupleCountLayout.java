@@ -0,0 +1,28 @@
+package de.hpi.isg.mdms.columnar.layouts;
+
+import de.hpi.isg.mdms.columnar.ColumnLayout;
+import de.hpi.isg.mdms.columnar.RowGroup;
+import de.hpi.isg.mdms.domain.constraints.TupleCount;
+
+/**
+ * Stores {@link TupleCount}s in the columns {@code table} and {@code numTuples}.
+ */
+public class TupleCountLayout extends ColumnLayout<TupleCount> {
+
+    public TupleCountLayout() {
+        super(TupleCount.class);
+        this.declareColumn("table", ColumnType.IDS);
+        this.declareColumn("numTuples", ColumnType.LONG);
+    }
+
+    @Override
+    public void write(TupleCount tupleCount, RowGroup rowGroup) {
+        rowGroup.appendIds(0, tupleCount.getTableId());
+        rowGroup.appendLong(1, tupleCount.getNumTuples());
+    }
+
+    @Override
+    public TupleCount read(RowGroup rowGroup, int row) {
+        return new TupleCount(rowGroup.getId(0, row), (int) rowGroup.getLong(1, row));
+    }
+}
@@ -0,0 +1,26 @@
+package de.hpi.isg.mdms.columnar.layouts;
+
+import de.hpi.isg.mdms.columnar.ColumnLayout;
+import de.hpi.isg.mdms.columnar.RowGroup;
+import de.hpi.isg.mdms.domain.constraints.UniqueColumnCombination;
+
+/**
+ * Stores {@link UniqueColumnCombination}s in the column {@code columns}.
+ */
+public class UniqueColumnCombinationLayout extends ColumnLayout<UniqueColumnCombination> {
+
+    public UniqueColumnCombinationLayout() {
+        super(UniqueColumnCombination.class);
+        this.declareColumn("columns", ColumnType.IDS);
+    }
+
+    @Override
+    public void write(UniqueColumnCombination ucc, RowGroup rowGroup) {
+        rowGroup.appendIds(0, ucc.getColumnIds());
+    }
+
+    @Override
+    public UniqueColumnCombination read(RowGroup rowGroup, int row) {
+        return new UniqueColumnCombination(rowGroup.getIds(0, row));
+    }
+}
@@ -0,0 +1,65 @@
+package de.hpi.isg.mdms.columnar;
+
+import de.hpi.isg.mdms.columnar.layouts.InclusionDependencyLayout;
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarFileTest {
+
+    private final File dir = new File("test-columnar-file/");
+
+    @Before
+    public void setUp() throws IOException {
+        FileUtils.deleteDirectory(this.dir);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.dir);
+    }
+
+    @Test
+    public void testCrashAfterUnflushedRowGroups() throws IOException {
+        File file = new File(this.dir, "inds.col");
+        ColumnarFile<InclusionDependency> columnarFile = ColumnarFile.open(file, new InclusionDependencyLayout(), 2);
+        Set<InclusionDependency> flushedInds = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            InclusionDependency ind = new InclusionDependency(i, i + 1);
+            columnarFile.append(ind);
+            flushedInds.add(ind);
+        }
+        columnarFile.flush();
+
+        // Fill further row groups, but "crash" before the next flush, i.e., never close the file.
+        for (int i = 10; i < 16; i++) {
+            columnarFile.append(new InclusionDependency(i, i + 1));
+        }
+        assertTrue(columnarFile.getNumRowGroups() > 3);
+
+        ColumnarFile<InclusionDependency> reopenedFile = ColumnarFile.open(file, new InclusionDependencyLayout(), 2);
+        assertEquals(3, reopenedFile.getNumRowGroups());
+        assertEquals(flushedInds, reopenedFile.scan(ind -> true).collect(Collectors.toSet()));
+
+        // The discarded row groups are overwritten by new ones.
+        InclusionDependency newInd = new InclusionDependency(20, 21);
+        reopenedFile.append(newInd);
+        reopenedFile.close();
+        flushedInds.add(newInd);
+        reopenedFile = ColumnarFile.open(file, new InclusionDependencyLayout(), 2);
+        assertEquals(flushedInds, reopenedFile.scan(ind -> true).collect(Collectors.toSet()));
+        reopenedFile.close();
+    }
+
+}
@@ -0,0 +1,227 @@
+package de.hpi.isg.mdms.columnar;
+
+import de.hpi.isg.mdms.domain.constraints.DistinctValueCount;
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import de.hpi.isg.mdms.domain.constraints.TypeConstraint;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.location.DefaultLocation;
+import de.hpi.isg.mdms.model.targets.Column;
+import de.hpi.isg.mdms.model.targets.Schema;
+import de.hpi.isg.mdms.model.targets.Table;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarMetadataStoreTest {
+
+    private final File dir = new File("test-columnar/");
+
+    @Before
+    public void setUp() throws IOException {
+        FileUtils.deleteDirectory(this.dir);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.dir);
+    }
+
+    private List<Column> addTable(ColumnarMetadataStore store, Schema schema, String name, int numColumns) {
+        Table table = schema.addTable(store, name, null, new DefaultLocation());
+        List<Column> columns = new ArrayList<>();
+        for (int i = 0; i < numColumns; i++) {
+            columns.add(table.addColumn(store, String.format("column-%d", i), null, i));
+        }
+        return columns;
+    }
+
+    @Test
+    public void testPersistenceOfConstraints() throws Exception {
+        ColumnarMetadataStore store = ColumnarMetadataStore.createAndSave(this.dir);
+        store.setRowGroupSize(4);
+        Schema schema = store.addSchema("schema", null, new DefaultLocation());
+        List<Column> columns = this.addTable(store, schema, "table", 5);
+
+        ConstraintCollection<InclusionDependency> inds =
+                store.createConstraintCollection("INDs", InclusionDependency.class, schema);
+        ConstraintCollection<DistinctValueCount> dvcs =
+                store.createConstraintCollection("DVCs", DistinctValueCount.class, schema);
+        Set<InclusionDependency> expectedInds = new HashSet<>();
+        Set<DistinctValueCount> expectedDvcs = new HashSet<>();
+        for (Column dep : columns) {
+            for (Column ref : columns) {
+                if (dep != ref) expectedInds.add(new InclusionDependency(dep.getId(), ref.getId()));
+            }
+            expectedDvcs.add(new DistinctValueCount(dep.getId(), dep.getId() % 1000));
+        }
+        inds.addAll(expectedInds);
+        dvcs.addAll(expectedDvcs);
+        store.flush();
+        store.close();
+
+        ColumnarMetadataStore loadedStore = ColumnarMetadataStore.load(this.dir);
+        assertEquals(store, loadedStore);
+        assertEquals(expectedInds, new HashSet<>(
+                loadedStore.getConstraintCollection(inds.getId()).getConstraints()));
+        assertEquals(expectedDvcs, new HashSet<>(
+                loadedStore.getConstraintCollection(dvcs.getId()).getConstraints()));
+        loadedStore.close();
+    }
+
+    @Test
+    public void testSkippingOfRowGroups() throws Exception {
+        ColumnarMetadataStore store = ColumnarMetadataStore.createAndSave(this.dir);
+        store.setRowGroupSize(4);
+        Schema schema = store.addSchema("schema", null, new DefaultLocation());
+        List<Column> columns1 = this.addTable(store, schema, "table1", 4);
+        List<Column> columns2 = this.addTable(store, schema, "table2", 4);
+        Table table2 = schema.getTableByName("table2");
+
+        ColumnarConstraintCollection<InclusionDependency> inds = (ColumnarConstraintCollection<InclusionDependency>)
+                store.createConstraintCollection(null, InclusionDependency.class, schema);
+        Set<InclusionDependency> expectedInds = new HashSet<>();
+        for (List<Column> columns : Arrays.asList(columns1, columns2)) {
+            for (Column dep : columns) {
+                for (Column ref : columns) {
+                    if (dep == ref) continue;
+                    InclusionDependency ind = new InclusionDependency(dep.getId(), ref.getId());
+                    inds.add(ind);
+                    if (columns == columns2) expectedInds.add(ind);
+                }
+            }
+        }
+        store.flush();
+        assertTrue(inds.getConstraintFile().getNumRowGroups() > 1);
+
+        Set<InclusionDependency> actualInds = inds
+                .stream(TargetRangePredicate.<InclusionDependency>within(store.getIdUtils(), table2))
+                .collect(Collectors.toSet());
+        assertEquals(expectedInds, actualInds);
+        store.close();
+    }
+
+    @Test
+    public void testSerializedLayout() throws Exception {
+        ColumnarMetadataStore store = ColumnarMetadataStore.createAndSave(this.dir);
+        Schema schema = store.addSchema("schema", null, new DefaultLocation());
+        List<Column> columns = this.addTable(store, schema, "table", 3);
+
+        ConstraintCollection<TypeConstraint> types =
+                store.createConstraintCollection(null, TypeConstraint.class, schema);
+        for (Column column : columns) {
+            types.add(new TypeConstraint(column.getId(), "VARCHAR"));
+        }
+        store.flush();
+        store.close();
+
+        ColumnarMetadataStore loadedStore = ColumnarMetadataStore.load(this.dir);
+        Set<TypeConstraint> expectedTypes = new HashSet<>(types.getConstraints());
+        assertEquals(3, expectedTypes.size());
+        assertEquals(expectedTypes, new HashSet<>(
+                loadedStore.getConstraintCollection(types.getId()).getConstraints()));
+        loadedStore.close();
+    }
+
+    @Test
+    public void testRemovalOfConstraintCollections() throws Exception {
+        ColumnarMetadataStore store = ColumnarMetadataStore.createAndSave(this.dir);
+        Schema schema = store.addSchema("schema", null, new DefaultLocation());
+        List<Column> columns = this.addTable(store, schema, "table", 2);
+        ConstraintCollection<InclusionDependency> inds =
+                store.createConstraintCollection(null, InclusionDependency.class, schema);
+        inds.add(new InclusionDependency(columns.get(0).getId(), columns.get(1).getId()));
+        store.flush();
+        File constraintFile = store.getConstraintFile(inds.getId());
+        assertTrue(constraintFile.exists());
+
+        // The removal is persisted without a further flush and only then the file is deleted.
+        store.removeConstraintCollection(inds);
+        assertFalse(constraintFile.exists());
+        ColumnarMetadataStore loadedStore = ColumnarMetadataStore.load(this.dir);
+        assertNull(loadedStore.getConstraintCollection(inds.getId()));
+        loadedStore.close();
+        store.close();
+
+        // Files that the catalog does not know of are cleaned up upon loading.
+        File orphanedFile = store.getConstraintFile(inds.getId() + 1);
+        FileUtils.writeByteArrayToFile(orphanedFile, new byte[]{1, 2, 3});
+        ColumnarMetadataStore.load(this.dir).close();
+        assertFalse(orphanedFile.exists());
+    }
+
+    @Test
+    public void testReplayingOfRemovedConstraintCollections() throws Exception {
+        ColumnarMetadataStore store = ColumnarMetadataStore.createAndSave(this.dir);
+        Schema schema = store.addSchema("schema", null, new DefaultLocation());
+        List<Column> columns = this.addTable(store, schema, "table", 2);
+        ConstraintCollection<InclusionDependency> inds =
+                store.createConstraintCollection(null, InclusionDependency.class, schema);
+        inds.add(new InclusionDependency(columns.get(0).getId(), columns.get(1).getId()));
+        store.flush();
+        store.removeConstraintCollection(inds);
+        store.addSchema("other-schema", null, new DefaultLocation());
+        store.close();
+
+        // Replaying the removal must not persist the store before the rest of the log is replayed.
+        ColumnarMetadataStore loadedStore = ColumnarMetadataStore.load(this.dir);
+        assertEquals(1, loadedStore.getSchemasByName("other-schema").size());
+        ColumnarMetadataStore reloadedStore = ColumnarMetadataStore.load(this.dir);
+        assertEquals(1, reloadedStore.getSchemasByName("other-schema").size());
+        assertNull(reloadedStore.getConstraintCollection(inds.getId()));
+        assertFalse(store.getConstraintFile(inds.getId()).exists());
+        reloadedStore.close();
+        loadedStore.close();
+    }
+
+    @Test
+    public void testInclusionDependencyPages() throws Exception {
+        ColumnarMetadataStore store = ColumnarMetadataStore.createAndSave(this.dir);
+        store.setRowGroupSize(1000);
+        Schema schema = store.addSchema("schema", null, new DefaultLocation());
+        List<Column> columns = this.addTable(store, schema, "table", 60);
+
+        ConstraintCollection<InclusionDependency> inds =
+                store.createConstraintCollection(null, InclusionDependency.class, schema);
+        Set<InclusionDependency> expectedInds = new HashSet<>();
+        for (Column dep : columns) {
+            for (Column ref : columns) {
+                if (dep == ref) continue;
+                // Mix unary and binary INDs.
+                if (dep.getId() < ref.getId()) {
+                    int[] depIds = {dep.getId(), ref.getId()}, refIds = {ref.getId(), dep.getId()};
+                    expectedInds.add(new InclusionDependency(depIds, refIds));
+                } else {
+                    expectedInds.add(new InclusionDependency(dep.getId(), ref.getId()));
+                }
+            }
+        }
+        List<InclusionDependency> shuffledInds = new ArrayList<>(expectedInds);
+        Collections.shuffle(shuffledInds, new Random(42));
+        inds.addAll(shuffledInds);
+        store.close();
+
+        ColumnarMetadataStore loadedStore = ColumnarMetadataStore.load(this.dir);
+        ColumnarConstraintCollection<?> loadedInds =
+                (ColumnarConstraintCollection<?>) loadedStore.getConstraintCollection(inds.getId());
+        assertTrue(loadedInds.getConstraintFile().getNumRowGroups() > 1);
+        assertEquals(expectedInds, new HashSet<>(loadedInds.getConstraints()));
+        loadedStore.close();
+    }
+}
@@ -0,0 +1,130 @@
+package de.hpi.isg.mdms.columnar;
+
+import de.hpi.isg.mdms.columnar.layouts.InclusionDependencyLayout;
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InclusionDependencyCodecTest {
+
+    private static List<InclusionDependency> createInds(int numInds, Random random) {
+        List<InclusionDependency> inds = new ArrayList<>();
+        for (int i = 0; i < numInds; i++) {
+            int arity = 1 + random.nextInt(3);
+            int[] dependentColumnIds = new int[arity], referencedColumnIds = new int[arity];
+            int dependentColumnId = random.nextInt(1 << 20);
+            for (int j = 0; j < arity; j++) {
+                dependentColumnIds[j] = dependentColumnId;
+                dependentColumnId += 1 + random.nextInt(10);
+                referencedColumnIds[j] = random.nextInt(1 << 20);
+            }
+            inds.add(new InclusionDependency(dependentColumnIds, referencedColumnIds));
+        }
+        return inds;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<InclusionDependency> inds = createInds(10000, new Random(42));
+        inds.add(new InclusionDependency(new int[]{Integer.MIN_VALUE, -1}, new int[]{Integer.MAX_VALUE, 0}));
+        inds.add(new InclusionDependency(new int[0], new int[0]));
+        InclusionDependencyCodec codec = new InclusionDependencyCodec(1024);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int numPages = codec.write(inds, out);
+        assertTrue(numPages > 1);
+        assertTrue(out.size() > (numPages - 1) * 1024 && out.size() <= numPages * 1024);
+
+        List<InclusionDependency> decodedInds = codec.decodeAll(ByteBuffer.wrap(out.toByteArray()));
+        assertEquals(inds.size(), decodedInds.size());
+        assertEquals(new HashSet<>(inds), new HashSet<>(decodedInds));
+    }
+
+    @Test
+    public void testPagesAreSortedByDependentColumns() {
+        List<InclusionDependency> inds = Arrays.asList(
+                new InclusionDependency(7, 1),
+                new InclusionDependency(new int[]{3, 5}, new int[]{9, 8}),
+                new InclusionDependency(3, 2)
+        );
+        InclusionDependencyCodec codec = new InclusionDependencyCodec();
+        List<byte[]> pages = codec.encode(inds);
+        assertEquals(1, pages.size());
+
+        InclusionDependencyPage page = codec.decodePage(ByteBuffer.wrap(pages.get(0)), 0, new InclusionDependencyPage());
+        assertEquals(3, page.size());
+        assertEquals(1, page.getArity(0));
+        assertEquals(2, page.getArity(1));
+        assertEquals(new InclusionDependency(3, 2), page.getInclusionDependency(0));
+        assertEquals(new InclusionDependency(new int[]{3, 5}, new int[]{9, 8}), page.getInclusionDependency(1));
+        assertEquals(new InclusionDependency(7, 1), page.getInclusionDependency(2));
+
+        // Column IDs are available without materializing the INDs.
+        assertEquals(3, page.getOffset(2));
+        assertEquals(7, page.getDependentColumnIds()[page.getOffset(2)]);
+        assertEquals(1, page.getReferencedColumnIds()[page.getOffset(2)]);
+    }
+
+    @Test
+    public void testPageReuse() {
+        InclusionDependencyCodec codec = new InclusionDependencyCodec(64);
+        List<InclusionDependency> inds = createInds(100, new Random(7));
+        ByteBuffer pages = ByteBuffer.wrap(concat(codec.encode(inds)));
+
+        InclusionDependencyPage page = new InclusionDependencyPage();
+        List<InclusionDependency> decodedInds = new ArrayList<>();
+        for (int index = codec.getNumPages(pages) - 1; index >= 0; index--) {
+            codec.decodePage(pages, index, page);
+            for (int i = 0; i < page.size(); i++) {
+                decodedInds.add(page.getInclusionDependency(i));
+            }
+        }
+        assertEquals(new HashSet<>(inds), new HashSet<>(decodedInds));
+    }
+
+    @Test
+    public void testCompactness() {
+        // Unary INDs among neighboring columns are the common case.
+        List<InclusionDependency> inds = new ArrayList<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 10000; i++) {
+            inds.add(new InclusionDependency(i, random.nextInt(10000)));
+        }
+        Collections.shuffle(inds, random);
+
+        List<byte[]> pages = new InclusionDependencyCodec(4096).encode(inds);
+        int numBytes = pages.stream().mapToInt(page -> page.length).sum();
+        // Two raw ints per IND would take 8 bytes.
+        assertTrue(String.format("%d bytes for %d INDs", numBytes, inds.size()), numBytes < inds.size() * 6);
+    }
+
+    @Test
+    public void testLayoutIsSmallerThanColumnwiseEncoding() {
+        InclusionDependencyLayout layout = new InclusionDependencyLayout();
+        RowGroup rowGroup = new RowGroup(layout.getColumnTypes());
+        for (InclusionDependency ind : createInds(8192, new Random(3))) {
+            layout.write(ind, rowGroup);
+            rowGroup.endRow();
+        }
+        int pagedSize = Arrays.stream(layout.encodeRowGroup(rowGroup)).mapToInt(chunk -> chunk.length).sum();
+        int columnwiseSize = rowGroup.encode(0).length + rowGroup.encode(1).length;
+        assertTrue(String.format("%d bytes vs. %d bytes", pagedSize, columnwiseSize), pagedSize < columnwiseSize);
+    }
+
+    private static byte[] concat(List<byte[]> pages) {
+        ByteBuffer buffer = ByteBuffer.allocate(pages.stream().mapToInt(page -> page.length).sum());
+        pages.forEach(buffer::put);
+        return buffer.array();
+    }
+}
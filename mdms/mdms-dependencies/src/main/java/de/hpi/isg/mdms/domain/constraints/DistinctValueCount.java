@@ -12,7 +12,6 @@
  **********************************************************************************************************************/
 package de.hpi.isg.mdms.domain.constraints;
 
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.targets.Column;
 
@@ -21,7 +20,9 @@ import de.hpi.isg.mdms.model.targets.Column;
  *
  * @author Sebastian Kruse
  */
-public class DistinctValueCount extends AbstractHashCodeAndEquals implements Constraint {
+public class DistinctValueCount implements Constraint {
+
+    private static final long serialVersionUID = -2971869034573735348L;
 
     private int columnId;
 
@@ -65,4 +66,21 @@ public class DistinctValueCount extends AbstractHashCodeAndEquals implements Con
         );
     }
 
-}
\ No newline at end of file
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+
+        DistinctValueCount that = (DistinctValueCount) o;
+
+        return this.columnId == that.columnId
+                && this.numDistinctValues == that.numDistinctValues;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.columnId;
+        result = 31 * result + this.numDistinctValues;
+        return result;
+    }
+}
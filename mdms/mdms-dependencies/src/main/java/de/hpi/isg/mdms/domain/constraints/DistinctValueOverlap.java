@@ -12,7 +12,6 @@
  **********************************************************************************************************************/
 package de.hpi.isg.mdms.domain.constraints;
 
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.targets.Column;
 
@@ -21,7 +20,9 @@ import de.hpi.isg.mdms.model.targets.Column;
  *
  * @author Sebastian Kruse
  */
-public class DistinctValueOverlap extends AbstractHashCodeAndEquals implements Constraint {
+public class DistinctValueOverlap implements Constraint {
+
+    private static final long serialVersionUID = -1812465195346159536L;
 
     private final int columnId1, columnId2;
 
@@ -56,4 +57,24 @@ public class DistinctValueOverlap extends AbstractHashCodeAndEquals implements C
                 this.getClass().getSimpleName(), this.columnId1, this.columnId2, this.overlap
         );
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+
+        DistinctValueOverlap that = (DistinctValueOverlap) o;
+
+        return this.columnId1 == that.columnId1
+                && this.columnId2 == that.columnId2
+                && this.overlap == that.overlap;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.columnId1;
+        result = 31 * result + this.columnId2;
+        result = 31 * result + this.overlap;
+        return result;
+    }
+}
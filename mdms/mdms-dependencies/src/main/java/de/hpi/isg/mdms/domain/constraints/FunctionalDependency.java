@@ -12,7 +12,6 @@
  **********************************************************************************************************************/
 package de.hpi.isg.mdms.domain.constraints;
 
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.util.ReferenceUtils;
 import org.apache.commons.lang3.Validate;
@@ -22,7 +21,9 @@ import java.util.Arrays;
 /**
  * Constraint implementation for a functional dependency.
  */
-public class FunctionalDependency extends AbstractHashCodeAndEquals implements Constraint {
+public class FunctionalDependency implements Constraint {
+
+    private static final long serialVersionUID = -8121395360575866864L;
 
     private final int[] lhsColumnIds;
 
@@ -57,4 +58,22 @@ public class FunctionalDependency extends AbstractHashCodeAndEquals implements C
     public String toString() {
         return String.format("%s \u2192 %d", Arrays.toString(this.lhsColumnIds), this.rhsColumnId);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+
+        FunctionalDependency that = (FunctionalDependency) o;
+
+        return Arrays.equals(this.lhsColumnIds, that.lhsColumnIds)
+                && this.rhsColumnId == that.rhsColumnId;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(this.lhsColumnIds);
+        result = 31 * result + this.rhsColumnId;
+        return result;
+    }
+}
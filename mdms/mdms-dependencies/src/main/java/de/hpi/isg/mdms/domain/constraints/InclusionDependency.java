@@ -12,7 +12,6 @@
  **********************************************************************************************************************/
 package de.hpi.isg.mdms.domain.constraints;
 
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.util.ReferenceUtils;
 import org.apache.commons.lang3.Validate;
@@ -24,8 +23,9 @@ import java.util.Arrays;
  *
  * @author Sebastian Kruse
  */
-public class InclusionDependency extends AbstractHashCodeAndEquals implements Constraint {
+public class InclusionDependency implements Constraint {
 
+    private static final long serialVersionUID = 5099959201610405245L;
 
     private final int[] dependentColumnIds, referencedColumnIds;
 
@@ -108,4 +108,21 @@ public class InclusionDependency extends AbstractHashCodeAndEquals implements Co
         return Arrays.equals(this.dependentColumnIds, this.referencedColumnIds);
     }
 
-}
\ No newline at end of file
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+
+        InclusionDependency that = (InclusionDependency) o;
+
+        return Arrays.equals(this.dependentColumnIds, that.dependentColumnIds)
+                && Arrays.equals(this.referencedColumnIds, that.referencedColumnIds);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(this.dependentColumnIds);
+        result = 31 * result + Arrays.hashCode(this.referencedColumnIds);
+        return result;
+    }
+}
@@ -12,7 +12,6 @@
  **********************************************************************************************************************/
 package de.hpi.isg.mdms.domain.constraints;
 
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.util.ReferenceUtils;
 import org.apache.commons.lang3.Validate;
@@ -24,8 +23,9 @@ import java.util.Arrays;
  *
  * @author Sebastian Kruse
  */
-public class OrderDependency extends AbstractHashCodeAndEquals implements Constraint {
+public class OrderDependency implements Constraint {
 
+    private static final long serialVersionUID = 7418796118488100763L;
 
     private final int[] determinantColumns, dependentColumns;
 
@@ -108,4 +108,21 @@ public class OrderDependency extends AbstractHashCodeAndEquals implements Constr
         return Arrays.equals(this.determinantColumns, this.dependentColumns);
     }
 
-}
\ No newline at end of file
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+
+        OrderDependency that = (OrderDependency) o;
+
+        return Arrays.equals(this.determinantColumns, that.determinantColumns)
+                && Arrays.equals(this.dependentColumns, that.dependentColumns);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(this.determinantColumns);
+        result = 31 * result + Arrays.hashCode(this.dependentColumns);
+        return result;
+    }
+}
@@ -12,7 +12,6 @@
  **********************************************************************************************************************/
 package de.hpi.isg.mdms.domain.constraints;
 
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.util.ReferenceUtils;
 import org.apache.commons.lang3.Validate;
@@ -22,7 +21,9 @@ import java.util.Arrays;
 /**
  * Constraint implementation for a partial functional dependency.
  */
-public class PartialFunctionalDependency extends AbstractHashCodeAndEquals implements Constraint {
+public class PartialFunctionalDependency implements Constraint {
+
+    private static final long serialVersionUID = -219217265768566127L;
 
     private final int[] lhsColumnIds;
 
@@ -69,4 +70,26 @@ public class PartialFunctionalDependency extends AbstractHashCodeAndEquals imple
     public String toString() {
         return String.format("%s \u2192 %d", Arrays.toString(this.lhsColumnIds), this.rhsColumnId);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+
+        PartialFunctionalDependency that = (PartialFunctionalDependency) o;
+
+        return Arrays.equals(this.lhsColumnIds, that.lhsColumnIds)
+                && this.rhsColumnId == that.rhsColumnId
+                && Double.compare(this.error, that.error) == 0
+                && Double.compare(this.score, that.score) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(this.lhsColumnIds);
+        result = 31 * result + this.rhsColumnId;
+        result = 31 * result + Double.hashCode(this.error);
+        result = 31 * result + Double.hashCode(this.score);
+        return result;
+    }
+}
@@ -12,7 +12,6 @@
  **********************************************************************************************************************/
 package de.hpi.isg.mdms.domain.constraints;
 
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.util.ReferenceUtils;
 import org.apache.commons.lang3.Validate;
@@ -24,8 +23,9 @@ import java.util.Arrays;
  *
  * @author Sebastian Kruse
  */
-public class PartialInclusionDependency extends AbstractHashCodeAndEquals implements Constraint {
+public class PartialInclusionDependency implements Constraint {
 
+    private static final long serialVersionUID = -8803925140157309296L;
 
     private final int[] dependentColumnIds, referencedColumnIds;
 
@@ -112,4 +112,25 @@ public class PartialInclusionDependency extends AbstractHashCodeAndEquals implem
         return Arrays.equals(this.dependentColumnIds, this.referencedColumnIds);
     }
 
-}
\ No newline at end of file
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+
+        PartialInclusionDependency that = (PartialInclusionDependency) o;
+
+        return Arrays.equals(this.dependentColumnIds, that.dependentColumnIds)
+                && Arrays.equals(this.referencedColumnIds, that.referencedColumnIds)
+                && Double.compare(this.error, that.error) == 0
+                && Double.compare(this.dependentSize, that.dependentSize) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(this.dependentColumnIds);
+        result = 31 * result + Arrays.hashCode(this.referencedColumnIds);
+        result = 31 * result + Double.hashCode(this.error);
+        result = 31 * result + Double.hashCode(this.dependentSize);
+        return result;
+    }
+}
@@ -12,17 +12,20 @@
  **********************************************************************************************************************/
 package de.hpi.isg.mdms.domain.constraints;
 
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.util.ReferenceUtils;
 import org.apache.commons.lang3.Validate;
 
+import java.util.Arrays;
+
 /**
  * Constraint implementation for a partial n-ary unique column combination.
  *
  * @author Sebastian Kruse
  */
-public class PartialUniqueColumnCombination extends AbstractHashCodeAndEquals implements Constraint {
+public class PartialUniqueColumnCombination implements Constraint {
+
+    private static final long serialVersionUID = 3761390369265957582L;
 
     private final int[] columnIds;
 
@@ -55,4 +58,24 @@ public class PartialUniqueColumnCombination extends AbstractHashCodeAndEquals im
     public double getScore() {
         return this.score;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+
+        PartialUniqueColumnCombination that = (PartialUniqueColumnCombination) o;
+
+        return Arrays.equals(this.columnIds, that.columnIds)
+                && Double.compare(this.error, that.error) == 0
+                && Double.compare(this.score, that.score) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(this.columnIds);
+        result = 31 * result + Double.hashCode(this.error);
+        result = 31 * result + Double.hashCode(this.score);
+        return result;
+    }
+}
@@ -12,7 +12,6 @@
  **********************************************************************************************************************/
 package de.hpi.isg.mdms.domain.constraints;
 
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 
 /**
@@ -20,7 +19,7 @@ import de.hpi.isg.mdms.model.constraints.Constraint;
  *
  * @author Sebastian Kruse
  */
-public class TupleCount extends AbstractHashCodeAndEquals implements Constraint {
+public class TupleCount implements Constraint {
 
     private static final long serialVersionUID = -932394088609862495L;
 
@@ -56,4 +55,21 @@ public class TupleCount extends AbstractHashCodeAndEquals implements Constraint
         this.numTuples = numDistinctValues;
     }
 
-}
\ No newline at end of file
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+
+        TupleCount that = (TupleCount) o;
+
+        return this.tableId == that.tableId
+                && this.numTuples == that.numTuples;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.tableId;
+        result = 31 * result + this.numTuples;
+        return result;
+    }
+}
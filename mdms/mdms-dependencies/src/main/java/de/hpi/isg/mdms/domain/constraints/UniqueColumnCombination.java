@@ -12,17 +12,20 @@
  **********************************************************************************************************************/
 package de.hpi.isg.mdms.domain.constraints;
 
-import de.hpi.isg.mdms.model.common.AbstractHashCodeAndEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.util.ReferenceUtils;
 import org.apache.commons.lang3.Validate;
 
+import java.util.Arrays;
+
 /**
  * Constraint implementation for an n-ary unique column combination.
  *
  * @author Sebastian Kruse
  */
-public class UniqueColumnCombination extends AbstractHashCodeAndEquals implements Constraint {
+public class UniqueColumnCombination implements Constraint {
+
+    private static final long serialVersionUID = 5018373725431623617L;
 
     private final int[] columnIds;
 
@@ -44,4 +47,18 @@ public class UniqueColumnCombination extends AbstractHashCodeAndEquals implement
         return this.columnIds.length;
     }
 
-}
\ No newline at end of file
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || this.getClass() != o.getClass()) return false;
+
+        UniqueColumnCombination that = (UniqueColumnCombination) o;
+
+        return Arrays.equals(this.columnIds, that.columnIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.columnIds);
+    }
+}
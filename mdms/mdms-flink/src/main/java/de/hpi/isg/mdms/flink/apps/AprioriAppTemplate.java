@@ -11,17 +11,24 @@ import de.hpi.isg.mdms.flink.data.apriori.ItemSet;
 import de.hpi.isg.mdms.flink.functions.apriori.*;
 import de.hpi.isg.mdms.flink.parameters.FlinkParameters;
 import de.hpi.isg.mdms.flink.readwrite.RemoteCollectorImpl;
+import de.hpi.isg.mdms.flink.readwrite.SocketCollectorServer;
 import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
 import org.apache.flink.api.common.JobExecutionResult;
 import org.apache.flink.api.java.DataSet;
 import org.apache.flink.api.java.Utils;
 import org.apache.flink.api.java.io.DiscardingOutputFormat;
+import org.apache.flink.api.java.tuple.Tuple1;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.tuple.Tuple3;
 import org.apache.flink.util.AbstractID;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -29,7 +36,7 @@ import java.util.concurrent.TimeUnit;
 /**
  * This job is an abstract class that can be used to find association rules with apriori.
  * The user provides a min-support and a min-confidence.
- * The algorithm uses the apriori-algorithm.
+ * The algorithm uses the apriori-algorithm or, if requested, FP-growth to find the frequent itemsets.
  * The output {@link #associationRulesLevels} can be further processed afterwards.
  * <p>
  * An implementation needs to provide:
@@ -63,6 +70,38 @@ public abstract class AprioriAppTemplate extends FlinkAppTemplate<AprioriAppTemp
         this.transactions = retrieveTransactions();
 
         // CANDIDATE GENERATION
+        HashMap<Integer, DataSet<Tuple2<ItemSet, Double>>> candidates = this.parameters.isUseFpGrowth ?
+                this.calculateFrequentItemSetsWithFpGrowth() :
+                this.calculateFrequentItemSetsWithApriori();
+
+        //GENERATE ASSOCIATION RULES
+        this.associationRulesLevels = new HashMap<>();
+        if (candidates.get(2) == null) {
+            this.logger.info("Found no frequent itemsets with more than one item.");
+        } else {
+            this.generateAssociationRules(candidates);
+        }
+
+        RemoteCollectorImpl.shutdownAll();
+        SocketCollectorServer.shutdownAll();
+
+        this.logger.debug("Shutting down mdms executor.");
+        executorService.shutdown();
+        this.logger.debug("Awaiting termination of mdms executor.");
+        executorService.awaitTermination(365, TimeUnit.DAYS);
+
+        this.metadataStore.flush();
+    }
+
+    /**
+     * Finds the frequent itemsets level by level with the Apriori algorithm. Each level is calculated in its own
+     * Flink job.
+     *
+     * @return the frequent itemsets with their support by their size
+     */
+    private HashMap<Integer, DataSet<Tuple2<ItemSet, Double>>> calculateFrequentItemSetsWithApriori()
+            throws Exception {
+
         HashMap<Integer, DataSet<Tuple2<ItemSet, Double>>> candidates = new HashMap<>();
 
         //generate candidates k=1
@@ -101,8 +140,70 @@ public abstract class AprioriAppTemplate extends FlinkAppTemplate<AprioriAppTemp
             }
         }
 
-        //GENERATE ASSOCIATION RULES
-        this.associationRulesLevels = new HashMap<>();
+        return candidates;
+    }
+
+    /**
+     * Finds the frequent itemsets with a parallel FP-growth within a single Flink job: The frequent items are
+     * partitioned into groups and each group mines its own FP-tree that is built from the group-dependent
+     * transactions. The frequent itemsets are then collected, so that the rule generation need not mine them again.
+     *
+     * @return the frequent itemsets with their support by their size
+     */
+    private HashMap<Integer, DataSet<Tuple2<ItemSet, Double>>> calculateFrequentItemSetsWithFpGrowth()
+            throws Exception {
+
+        int numGroups = Math.max(1, this.parameters.numFpGrowthGroups);
+
+        DataSet<Tuple1<Integer>> numTransactions = this.transactions.map(new CountTransactions()).sum(0);
+
+        DataSet<Tuple2<Integer, Integer>> frequentItems = this.transactions
+                .flatMap(new SplitTransactionItems())
+                .groupBy(0).sum(1)
+                .filter(new FilterFrequentItems(this.parameters.minSupport))
+                .withBroadcastSet(numTransactions, "numTransactions");
+
+        DataSet<Tuple2<int[], Double>> frequentItemSets = this.transactions
+                .flatMap(new GenerateGroupTransactions(numGroups)).withBroadcastSet(frequentItems, "frequentItems")
+                .groupBy(0)
+                .reduceGroup(new MineFPTree(this.parameters.minSupport, numGroups))
+                .withBroadcastSet(frequentItems, "frequentItems")
+                .withBroadcastSet(numTransactions, "numTransactions");
+
+        List<Tuple2<int[], Double>> collectedItemSets = Collections.synchronizedList(new ArrayList<>());
+        SocketCollectorServer.collectLocal(frequentItemSets, collectedItemSets::addAll);
+
+        this.logger.info("Mine frequent itemsets with FP-growth (" + numGroups + " groups)");
+        this.executionEnvironment.execute();
+
+        // Sort the frequent itemsets by their size.
+        Map<Integer, List<Tuple2<ItemSet, Double>>> itemSetsByLevel = new TreeMap<>();
+        synchronized (collectedItemSets) {
+            for (Tuple2<int[], Double> collectedItemSet : collectedItemSets) {
+                ArrayList<Item> items = new ArrayList<>(collectedItemSet.f0.length);
+                for (int itemId : collectedItemSet.f0) {
+                    items.add(new Item(itemId));
+                }
+                itemSetsByLevel.computeIfAbsent(items.size(), level -> new ArrayList<>())
+                        .add(new Tuple2<>(new ItemSet(items), collectedItemSet.f1));
+            }
+        }
+
+        HashMap<Integer, DataSet<Tuple2<ItemSet, Double>>> candidates = new HashMap<>();
+        for (Map.Entry<Integer, List<Tuple2<ItemSet, Double>>> entry : itemSetsByLevel.entrySet()) {
+            candidates.put(entry.getKey(), this.executionEnvironment.fromCollection(entry.getValue()));
+        }
+        return candidates;
+    }
+
+    /**
+     * Generates the association rules from the frequent itemsets level by level and stores them in
+     * {@link #associationRulesLevels}.
+     *
+     * @param candidates are the frequent itemsets with their support by their size
+     */
+    private void generateAssociationRules(HashMap<Integer, DataSet<Tuple2<ItemSet, Double>>> candidates)
+            throws Exception {
 
         //generate first level association rules
         DataSet<Tuple3<AssociationRule, Double, Double>> associationRules = candidates.get(2).flatMap(new MapCandidateToAssociationRule())
@@ -114,8 +215,8 @@ public abstract class AprioriAppTemplate extends FlinkAppTemplate<AprioriAppTemp
         //iterate until no new association rules
         boolean newRulesCreated = true;
 
-        k = 1;
-        while (newRulesCreated) {
+        int k = 1;
+        while (newRulesCreated && candidates.get(k + 2) != null) {
             k = k + 1;
 
             DataSet<Tuple3<AssociationRule, Double, Double>> newRules = this.associationRulesLevels.get(k - 1)
@@ -135,21 +236,13 @@ public abstract class AprioriAppTemplate extends FlinkAppTemplate<AprioriAppTemp
             JobExecutionResult res = this.executionEnvironment.execute();
             long count = res.<Long>getAccumulatorResult(countId);
 
-            if (count == 0 || candidates.get(k + 2) == null) {
+            if (count == 0) {
                 newRulesCreated = false;
             } else {
                 this.associationRulesLevels.put(k, newRules);
             }
         }
 
-        RemoteCollectorImpl.shutdownAll();
-
-        this.logger.debug("Shutting down mdms executor.");
-        executorService.shutdown();
-        this.logger.debug("Awaiting termination of mdms executor.");
-        executorService.awaitTermination(365, TimeUnit.DAYS);
-
-        this.metadataStore.flush();
     }
 
     protected abstract DataSet<ItemSet> retrieveTransactions();
@@ -189,6 +282,12 @@ public abstract class AprioriAppTemplate extends FlinkAppTemplate<AprioriAppTemp
         @Parameter(names = {"--min-confidence"}, required = false)
         public double minConfidence;
 
+        @Parameter(names = {"--fp-growth"}, description = "find frequent itemsets with FP-growth instead of apriori")
+        public boolean isUseFpGrowth = false;
+
+        @Parameter(names = {"--fp-growth-groups"}, description = "number of item groups for FP-growth")
+        public int numFpGrowthGroups = 32;
+
         @ParametersDelegate
         public final MetadataStoreParameters metadataStoreParameters = new MetadataStoreParameters();
 
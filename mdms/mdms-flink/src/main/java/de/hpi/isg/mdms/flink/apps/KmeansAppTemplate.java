@@ -11,26 +11,28 @@ import de.hpi.isg.mdms.flink.parameters.FlinkParameters;
 import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
 import org.apache.flink.api.common.JobExecutionResult;
 import org.apache.flink.api.java.DataSet;
-import org.apache.flink.api.java.Utils;
 import org.apache.flink.api.java.io.DiscardingOutputFormat;
 import org.apache.flink.api.java.operators.IterativeDataSet;
 import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple4;
 import org.apache.flink.api.java.utils.DataSetUtils;
 import org.apache.flink.util.AbstractID;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 
 /**
  * This job is an abstract class that can be used to cluster datapoints using an iterative k-means appraoch.
  * The user can provide a fixed number of clusters (k) and/or a minimal similarity that each datapoint must have to its cluster center.
- * The algorithm increases the number of clusters until the minimal similarity is achieved.
+ * The algorithm increases the number of clusters until the minimal similarity is achieved. Thereby, several
+ * consecutive k are clustered within a single job (see {@link Parameters#kBatchSize}).
  * The output {@link #clusteredPoints} and {@link #finalCentroids} can be further processed afterwards.
  * <p>
  * An implementation needs to provide:
  * - retrieveInputData() that returns a Dataset of Tuples as an input for the clustering
+ * - getDataPointFactory() that converts these Tuples into DataPoints
  * - a DataPoint class that provide functions add and div to calculate cluster centroids
  * - a Centroid class that provides a getSimilarity function
  * <p>
@@ -70,71 +72,99 @@ public abstract class KmeansAppTemplate<T extends Tuple, D extends DataPoint<T>,
         this.logger.info("Planning cell data set.");
         DataSet<T> inputData = retrieveInputData();
 
-        DataSet<D> datapoints = (DataSet<D>) DataSetUtils.zipWithIndex(inputData)
-                .map(new TuplePointConverter<>());
+        DataSet<D> datapoints = DataSetUtils.zipWithIndex(inputData)
+                .map(new TuplePointConverter<>(getDataPointFactory()));
 
         if (this.parameters.k > 0) k = this.parameters.k;
 
-        //select first centroids
-        List<Long> keepIDs = new ArrayList<>();
-        for (long i = 0; i < k; i++) {
-            keepIDs.add(i);
-        }
+        // Without a minimum similarity, the first k is already valid, so there is no need to try several k at once.
+        int kBatchSize = this.parameters.similarity > 0 ? Math.max(1, this.parameters.kBatchSize) : 1;
 
-        // TODO: Use Flink's DataSet#iterate(...) instead of a while loop.
         while (this.foundInvalid) {
 
-            PointCentroidConverter<T, D, C> centroidConverter = new PointCentroidConverter<>();
-            centroidConverter.setKeepIDs(keepIDs);
-            DataSet<C> centroids = (DataSet<C>) datapoints.flatMap(centroidConverter);
-
-            //Loop over finding cluster centers
-            IterativeDataSet<C> loop = centroids.iterate(this.parameters.numIterations);
-
-            DataSet<C> newCentroids = (DataSet<C>) datapoints
-                    // compute closest centroid for each point
-                    .map(new SelectNearestCenter<D, C>()).withBroadcastSet(loop, "centroids")
-                    // count and sum point coordinates for each centroid
-                    .map(new CountAppender<D>())
-                    .groupBy(0).reduce(new CentroidAccumulator<D>())
-                    // compute new centroids from point counts and coordinate sums
-                    .map(new CentroidAverager<T, D, C>());
-
-            // feed new centroids back into next iteration
-            finalCentroids = loop.closeWith(newCentroids);
-
-            clusteredPoints = datapoints
-                    // assign points to final clusters
-                    .map(new SelectNearestCenterReturnSimilarity<T, D, C>()).withBroadcastSet(finalCentroids, "centroids");
+            // Cluster the data points for several k side by side in a single job.
+            final int maxK = k + kBatchSize - 1;
+            DataSet<Tuple4<Integer, Long, D, Double>> clusteredPointsByK =
+                    assignToCentroids(datapoints, calculateCentroids(datapoints, k, maxK));
 
             //check whether min similarity reached
-            FilterMinSimilarity<T, D> filterMinSim = new FilterMinSimilarity<>(this.parameters.similarity);
-            DataSet<Tuple3<Long, D, Double>> invalids = clusteredPoints.filter(filterMinSim);
-
-            final String countId = new AbstractID().toString();
-            invalids.flatMap(new Utils.CountHelper<>(countId))
+            final String invalidsId = new AbstractID().toString();
+            clusteredPointsByK
+                    .filter(new FilterMinSimilarity<T, D>(this.parameters.similarity, invalidsId))
                     .output(new DiscardingOutputFormat<>());
 
-            this.logger.info("Cluster UCCs with KMeans (k=" + k + ")");
+            this.logger.info("Cluster UCCs with KMeans (k=" + k + ".." + maxK + ")");
             JobExecutionResult res = executionEnvironment.execute();
 
-            long count = res.<Long>getAccumulatorResult(countId);
-
-            if (count == 0) {
-                this.foundInvalid = false;
-            } else {
+            // Pick the smallest k without invalid points.
+            Map<Integer, Integer> numInvalidsByK = res.getAccumulatorResult(invalidsId);
+            while (k <= maxK && numInvalidsByK.containsKey(k)) {
                 k = k + 1;
-                keepIDs.add((long) keepIDs.size());
             }
+            this.foundInvalid = k > maxK;
 
         }
 
+        // Provide the clustering for the chosen k only.
+        DataSet<Tuple2<Integer, Centroid<T, D>>> centroidsByK = calculateCentroids(datapoints, k, k);
+        finalCentroids = (DataSet<C>) (DataSet) centroidsByK.map(new CentroidExtractor<T, D>());
+        clusteredPoints = assignToCentroids(datapoints, centroidsByK).<Tuple3<Long, D, Double>>project(1, 2, 3);
+
+    }
+
+    /**
+     * Plans the k-means clustering for a range of k. All k are processed within a single bulk iteration, whereby
+     * the centroids are tagged with their k.
+     *
+     * @param datapoints are the data points to cluster
+     * @param minK       is the smallest k to cluster for
+     * @param maxK       is the largest k to cluster for
+     * @return the final centroids tagged with their k
+     */
+    private DataSet<Tuple2<Integer, Centroid<T, D>>> calculateCentroids(DataSet<D> datapoints, int minK, int maxK) {
+        //select first centroids
+        DataSet<Tuple2<Integer, Centroid<T, D>>> centroids =
+                datapoints.flatMap(new PointCentroidConverter<T, D, C>(minK, maxK));
+
+        //Loop over finding cluster centers
+        IterativeDataSet<Tuple2<Integer, Centroid<T, D>>> loop = centroids.iterate(this.parameters.numIterations);
+
+        DataSet<Tuple2<Integer, Centroid<T, D>>> newCentroids = datapoints
+                // compute closest centroid for each point and k
+                .flatMap(new SelectNearestCenter<D, C>()).withBroadcastSet(loop, "centroids")
+                // count and sum point coordinates for each centroid
+                .map(new CountAppender<D>())
+                .groupBy(0, 1).reduce(new CentroidAccumulator<D>())
+                // compute new centroids from point counts and coordinate sums
+                .map(new CentroidAverager<T, D, C>());
+
+        // feed new centroids back into next iteration
+        return loop.closeWith(newCentroids);
+    }
+
+    /**
+     * Assigns each data point to its closest centroid for each k.
+     *
+     * @param datapoints   are the data points to assign
+     * @param centroidsByK are the centroids tagged with their k
+     * @return the k, centroid ID, data point, and similarity of each assignment
+     */
+    private DataSet<Tuple4<Integer, Long, D, Double>> assignToCentroids(
+            DataSet<D> datapoints, DataSet<Tuple2<Integer, Centroid<T, D>>> centroidsByK) {
+        return datapoints
+                // assign points to final clusters
+                .flatMap(new SelectNearestCenterReturnSimilarity<T, D, C>()).withBroadcastSet(centroidsByK, "centroids");
     }
 
     //OPERATORS    
 
     protected abstract DataSet<T> retrieveInputData();
 
+    /**
+     * @return a {@link DataPoint.Factory} that converts the input data into data points
+     */
+    protected abstract DataPoint.Factory<T, D> getDataPointFactory();
+
     @Override
     protected MetadataStoreParameters getMetadataStoreParameters() {
         return this.parameters.metadataStoreParameters;
@@ -167,6 +197,9 @@ public abstract class KmeansAppTemplate<T extends Tuple, D extends DataPoint<T>,
         @Parameter(names = {"--num-iterations"}, required = true)
         public int numIterations;
 
+        @Parameter(names = {"--k-batch-size"}, required = false)
+        public int kBatchSize = 4;
+
         @ParametersDelegate
         public final MetadataStoreParameters metadataStoreParameters = new MetadataStoreParameters();
 
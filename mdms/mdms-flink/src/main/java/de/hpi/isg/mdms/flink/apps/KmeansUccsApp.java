@@ -103,5 +103,10 @@ public class KmeansUccsApp extends KmeansAppTemplate<Tuple1<int[]>, UCCDataPoint
                 this.executionEnvironment, this.metadataStore, this.constraintCollection, new UCCFlinkSerializer());
     }
 
+    @Override
+    protected UCCDataPoint.Factory getDataPointFactory() {
+        return new UCCDataPoint.Factory();
+    }
+
 
 }
\ No newline at end of file
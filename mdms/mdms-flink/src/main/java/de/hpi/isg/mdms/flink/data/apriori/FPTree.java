@@ -0,0 +1,158 @@
+package de.hpi.isg.mdms.flink.data.apriori;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * A frequent pattern tree as used by the FP-growth algorithm. The items are represented by their frequency ranks,
+ * i.e., the most frequent item has rank {@code 0}. Transactions must be added with their items in ascending rank
+ * order, so that frequent items share the upper tree nodes.
+ */
+public class FPTree {
+
+    private final Node root = new Node(-1, null);
+
+    /**
+     * Links the nodes of each item.
+     */
+    private final Int2ObjectMap<List<Node>> nodesByItem = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * Counts the occurrences of each item in this tree.
+     */
+    private final Int2IntMap itemCounts = new Int2IntOpenHashMap();
+
+    /**
+     * Adds a transaction to this tree.
+     *
+     * @param items  are the items of the transaction in ascending rank order
+     * @param length is the number of items to take from the {@code items}
+     * @param count  is the number of occurrences of the transaction
+     */
+    public void add(int[] items, int length, int count) {
+        Node node = this.root;
+        for (int i = 0; i < length; i++) {
+            int item = items[i];
+            Node child = node.children == null ? null : node.children.get(item);
+            if (child == null) {
+                child = new Node(item, node);
+                if (node.children == null) node.children = new Int2ObjectOpenHashMap<>(4);
+                node.children.put(item, child);
+                List<Node> itemNodes = this.nodesByItem.get(item);
+                if (itemNodes == null) {
+                    itemNodes = new ArrayList<>();
+                    this.nodesByItem.put(item, itemNodes);
+                }
+                itemNodes.add(child);
+            }
+            child.count += count;
+            this.itemCounts.put(item, this.itemCounts.get(item) + count);
+            node = child;
+        }
+    }
+
+    /**
+     * Mines all frequent itemsets from this tree.
+     *
+     * @param minCount   is the minimum number of occurrences of a frequent itemset
+     * @param itemFilter tells for which items the itemsets that have them as least frequent item should be mined
+     * @param consumer   receives the frequent itemsets
+     */
+    public void mine(int minCount, IntPredicate itemFilter, ItemSetConsumer consumer) {
+        this.mine(new int[0], minCount, itemFilter, consumer);
+    }
+
+    private void mine(int[] suffix, int minCount, IntPredicate itemFilter, ItemSetConsumer consumer) {
+        for (Int2IntMap.Entry entry : this.itemCounts.int2IntEntrySet()) {
+            int item = entry.getIntKey();
+            int count = entry.getIntValue();
+            if (count < minCount || !itemFilter.test(item)) continue;
+
+            int[] itemSet = Arrays.copyOf(suffix, suffix.length + 1);
+            itemSet[suffix.length] = item;
+            consumer.accept(itemSet, count);
+
+            FPTree conditionalTree = this.createConditionalTree(item, minCount);
+            if (!conditionalTree.itemCounts.isEmpty()) {
+                conditionalTree.mine(itemSet, minCount, anyItem -> true, consumer);
+            }
+        }
+    }
+
+    /**
+     * Creates the tree over the prefix paths of the given item, thereby leaving out infrequent items.
+     */
+    private FPTree createConditionalTree(int item, int minCount) {
+        List<Node> itemNodes = this.nodesByItem.get(item);
+
+        // Count the items in the prefix paths.
+        Int2IntMap prefixItemCounts = new Int2IntOpenHashMap();
+        for (Node itemNode : itemNodes) {
+            for (Node node = itemNode.parent; node != this.root; node = node.parent) {
+                prefixItemCounts.put(node.item, prefixItemCounts.get(node.item) + itemNode.count);
+            }
+        }
+
+        // Add the frequent parts of the prefix paths.
+        FPTree conditionalTree = new FPTree();
+        IntArrayList path = new IntArrayList();
+        for (Node itemNode : itemNodes) {
+            path.clear();
+            for (Node node = itemNode.parent; node != this.root; node = node.parent) {
+                if (prefixItemCounts.get(node.item) >= minCount) path.add(node.item);
+            }
+            if (path.isEmpty()) continue;
+            int[] pathItems = path.toIntArray();
+            reverse(pathItems);
+            conditionalTree.add(pathItems, pathItems.length, itemNode.count);
+        }
+
+        return conditionalTree;
+    }
+
+    private static void reverse(int[] array) {
+        for (int i = 0, j = array.length - 1; i < j; i++, j--) {
+            int temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+    }
+
+    /**
+     * Receives frequent itemsets.
+     */
+    public interface ItemSetConsumer {
+
+        /**
+         * @param itemSet the items of the frequent itemset
+         * @param count   the number of occurrences of the itemset
+         */
+        void accept(int[] itemSet, int count);
+
+    }
+
+    private static final class Node {
+
+        private final int item;
+
+        private final Node parent;
+
+        private int count;
+
+        private Int2ObjectMap<Node> children;
+
+        private Node(int item, Node parent) {
+            this.item = item;
+            this.parent = parent;
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+package de.hpi.isg.mdms.flink.data.kmeans;
+
+import java.util.Arrays;
+
+/**
+ * A compressed bitmap over column IDs. Only the non-empty 64-bit words of the bitmap are stored, so that the sparse
+ * global column IDs take little space, while set operations such as the Jaccard similarity boil down to popcounts.
+ */
+public class ColumnBitmap {
+
+    /**
+     * The (unsigned) indices of the non-empty words in ascending order.
+     */
+    private int[] wordIndices;
+
+    /**
+     * The non-empty words, aligned with {@link #wordIndices}.
+     */
+    private long[] words;
+
+    private int cardinality;
+
+    /**
+     * Creates an empty bitmap. Required for deserialization.
+     */
+    private ColumnBitmap() {
+        this(new int[0], new long[0]);
+    }
+
+    private ColumnBitmap(int[] wordIndices, long[] words) {
+        this.wordIndices = wordIndices;
+        this.words = words;
+        for (long word : words) {
+            this.cardinality += Long.bitCount(word);
+        }
+    }
+
+    /**
+     * Creates a new bitmap.
+     *
+     * @param columnIds are the IDs of the columns to be contained in the bitmap; duplicates are allowed
+     * @return the new bitmap
+     */
+    public static ColumnBitmap of(int... columnIds) {
+        // Column IDs can be negative, so we treat them as unsigned values.
+        long[] sortedIds = new long[columnIds.length];
+        for (int i = 0; i < columnIds.length; i++) {
+            sortedIds[i] = columnIds[i] & 0xFFFFFFFFL;
+        }
+        Arrays.sort(sortedIds);
+
+        int[] wordIndices = new int[sortedIds.length];
+        long[] words = new long[sortedIds.length];
+        int numWords = 0;
+        for (long id : sortedIds) {
+            int wordIndex = (int) (id >>> 6);
+            if (numWords == 0 || wordIndices[numWords - 1] != wordIndex) {
+                wordIndices[numWords++] = wordIndex;
+            }
+            words[numWords - 1] |= 1L << (id & 63);
+        }
+
+        return new ColumnBitmap(Arrays.copyOf(wordIndices, numWords), Arrays.copyOf(words, numWords));
+    }
+
+    /**
+     * @return the number of columns in this bitmap
+     */
+    public int cardinality() {
+        return this.cardinality;
+    }
+
+    /**
+     * Tests whether a column is contained in this bitmap.
+     *
+     * @param columnId is the ID of the column
+     * @return whether the column is contained
+     */
+    public boolean contains(int columnId) {
+        int pos = Arrays.binarySearch(this.wordIndices, columnId >>> 6);
+        return pos >= 0 && (this.words[pos] & (1L << (columnId & 63))) != 0;
+    }
+
+    /**
+     * Counts the columns that are contained in both this and the given bitmap.
+     *
+     * @param that is the other bitmap
+     * @return the size of the intersection
+     */
+    public int intersectionCardinality(ColumnBitmap that) {
+        int intersectionCardinality = 0;
+        int thisPos = 0, thatPos = 0;
+        while (thisPos < this.wordIndices.length && thatPos < that.wordIndices.length) {
+            int thisWordIndex = this.wordIndices[thisPos], thatWordIndex = that.wordIndices[thatPos];
+            if (thisWordIndex < thatWordIndex) {
+                thisPos++;
+            } else if (thisWordIndex > thatWordIndex) {
+                thatPos++;
+            } else {
+                intersectionCardinality += Long.bitCount(this.words[thisPos++] & that.words[thatPos++]);
+            }
+        }
+        return intersectionCardinality;
+    }
+
+    /**
+     * Calculates the Jaccard similarity of this and the given bitmap.
+     *
+     * @param that is the other bitmap
+     * @return the Jaccard similarity or {@code 0} if both bitmaps are empty
+     */
+    public double jaccard(ColumnBitmap that) {
+        int intersectionCardinality = this.intersectionCardinality(that);
+        int unionCardinality = this.cardinality + that.cardinality - intersectionCardinality;
+        return unionCardinality == 0 ? 0d : ((double) intersectionCardinality) / unionCardinality;
+    }
+
+    /**
+     * @return the IDs of the contained columns in ascending unsigned order
+     */
+    public int[] toArray() {
+        int[] columnIds = new int[this.cardinality];
+        int pos = 0;
+        for (int i = 0; i < this.words.length; i++) {
+            long word = this.words[i];
+            while (word != 0) {
+                columnIds[pos++] = (this.wordIndices[i] << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return columnIds;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.toArray());
+    }
+}
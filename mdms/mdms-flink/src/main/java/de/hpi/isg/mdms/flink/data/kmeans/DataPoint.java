@@ -1,5 +1,7 @@
 package de.hpi.isg.mdms.flink.data.kmeans;
 
+import java.io.Serializable;
+
 /**
  * A data point with an id and a some data.
  */
@@ -17,7 +19,7 @@ public class DataPoint<T extends org.apache.flink.api.java.tuple.Tuple> {
         this.tupleData = x;
     }
 
-    public DataPoint add(DataPoint p){
+    public DataPoint<T> add(DataPoint<T> p){
         return this;
     }
 
@@ -29,8 +31,31 @@ public class DataPoint<T extends org.apache.flink.api.java.tuple.Tuple> {
         return this.tupleData;
     }
 
+    /**
+     * Creates a centroid that fits to this kind of data point.
+     *
+     * @param id   is the ID of the new centroid
+     * @param data is the data of the new centroid
+     * @return the new centroid
+     */
+    public Centroid<T, ? extends DataPoint<T>> createCentroid(long id, T data) {
+        return new Centroid<>(id, data);
+    }
+
     public static <T extends org.apache.flink.api.java.tuple.Tuple> DataPoint createNewPoint(long id, T x){
         return new DataPoint<>(id, x);
     }
 
+    /**
+     * Creates data points of a certain type from input tuples.
+     */
+    public interface Factory<T extends org.apache.flink.api.java.tuple.Tuple, D extends DataPoint<T>>
+            extends Serializable {
+
+        D createDataPoint(long id, T data);
+
+        Class<D> getDataPointClass();
+
+    }
+
 }
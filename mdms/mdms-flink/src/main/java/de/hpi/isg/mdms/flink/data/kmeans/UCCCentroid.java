@@ -2,34 +2,24 @@ package de.hpi.isg.mdms.flink.data.kmeans;
 
 import org.apache.flink.api.java.tuple.Tuple1;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * A ucc centroid using jaccard similarity.
  */
 public class UCCCentroid extends Centroid<Tuple1<int[]>, UCCDataPoint> {
 
-    public Set<Integer> columns = new HashSet<>();
+    public ColumnBitmap columns;
 
     public UCCCentroid(long id, UCCDataPoint d) {
-        super(id, d.getData());
-        int[] x = d.getData().f0;
-        for (int i = 0; i < x.length; i++) {
-            this.columns.add(x[i]);
-        }
+        this(id, d.getData().f0);
     }
 
     public UCCCentroid(long id, int[] x) {
-        super(id);
-        for (int i = 0; i < x.length; i++) {
-            this.columns.add(x[i]);
-        }
+        super(id, new Tuple1<>(x));
+        this.columns = ColumnBitmap.of(x);
     }
 
-    public UCCCentroid(long id, Set<Integer> x) {
-        super(id);
-        this.columns = x;
+    public UCCCentroid(long id, ColumnBitmap x) {
+        this(id, x.toArray());
     }
 
     public UCCCentroid(Centroid<Tuple1<int[]>, UCCDataPoint> c) {
@@ -37,16 +27,12 @@ public class UCCCentroid extends Centroid<Tuple1<int[]>, UCCDataPoint> {
     }
 
     public double getSimilarity(UCCDataPoint p) {
+        return this.columns.jaccard(p.columns);
+    }
 
-        //jaccard similarity
-
-        Set<Integer> intersection = new HashSet<>(p.columns);
-        intersection.retainAll(this.columns);
-
-        Set<Integer> union = new HashSet<>(p.columns);
-        union.addAll(this.columns);
-
-        return ((double) intersection.size()) / (union.size());
+    @Override
+    public UCCCentroid createCentroid(long id, Tuple1<int[]> data) {
+        return new UCCCentroid(id, data.f0);
     }
 
     @Override
@@ -2,27 +2,35 @@ package de.hpi.isg.mdms.flink.data.kmeans;
 
 import org.apache.flink.api.java.tuple.Tuple1;
 
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * A ucc data point with an id and a set of columns.
  */
 public class UCCDataPoint extends DataPoint<Tuple1<int[]>> {
 
-    public Set<Integer> columns = new HashSet<Integer>();
+    public ColumnBitmap columns;
 
-    public HashMap<Integer, Integer> summedColumns = new HashMap<Integer, Integer>();
+    /**
+     * The IDs of all columns that have been summed up in this data point in ascending unsigned order.
+     */
+    public int[] summedColumns;
+
+    /**
+     * The number of occurrences of the {@link #summedColumns}.
+     */
+    public int[] columnCounts;
 
     public UCCDataPoint(long id) {
-        super(id);
+        this(id, new int[0]);
     }
 
     public UCCDataPoint(long id, int[] x) {
-        super(id);
-        for (int i = 0; i < x.length; i++) {
-            this.columns.add(x[i]);
-            this.summedColumns.put(x[i], 1);
-        }
+        super(id, new Tuple1<>(x));
+        this.columns = ColumnBitmap.of(x);
+        this.summedColumns = this.columns.toArray();
+        this.columnCounts = new int[this.summedColumns.length];
+        Arrays.fill(this.columnCounts, 1);
     }
 
     public UCCDataPoint(DataPoint<Tuple1<int[]>> d) {
@@ -30,48 +38,83 @@ public class UCCDataPoint extends DataPoint<Tuple1<int[]>> {
 
     }
 
-    public UCCDataPoint add(UCCDataPoint p) {
-        for (Map.Entry<Integer, Integer> entry : p.summedColumns.entrySet()) {
-            Integer count = this.summedColumns.get(entry.getKey());
-            if (count == null) count = 0;
-            this.summedColumns.put(entry.getKey(), count + entry.getValue());
+    @Override
+    public UCCDataPoint add(DataPoint<Tuple1<int[]>> d) {
+        UCCDataPoint p = (UCCDataPoint) d;
+
+        // Merge the sorted column counts.
+        int[] mergedColumns = new int[this.summedColumns.length + p.summedColumns.length];
+        int[] mergedCounts = new int[mergedColumns.length];
+        int thisPos = 0, thatPos = 0, mergedPos = 0;
+        while (thisPos < this.summedColumns.length || thatPos < p.summedColumns.length) {
+            int cmp;
+            if (thisPos == this.summedColumns.length) cmp = 1;
+            else if (thatPos == p.summedColumns.length) cmp = -1;
+            else cmp = Integer.compareUnsigned(this.summedColumns[thisPos], p.summedColumns[thatPos]);
+
+            if (cmp <= 0) {
+                mergedColumns[mergedPos] = this.summedColumns[thisPos];
+                mergedCounts[mergedPos] += this.columnCounts[thisPos++];
+            }
+            if (cmp >= 0) {
+                mergedColumns[mergedPos] = p.summedColumns[thatPos];
+                mergedCounts[mergedPos] += p.columnCounts[thatPos++];
+            }
+            mergedPos++;
         }
+        this.summedColumns = Arrays.copyOf(mergedColumns, mergedPos);
+        this.columnCounts = Arrays.copyOf(mergedCounts, mergedPos);
 
         return this;
     }
 
     public Tuple1<int[]> div(int count) {
-        int[] newColumns;
-        int indexCounter = 0;
         int totalColumns = 0;
-
-        SortedMap<Integer, List<Integer>> sorted = new TreeMap<>(Collections.reverseOrder());
-        for (Map.Entry<Integer, Integer> entry : this.summedColumns.entrySet()) {
-            totalColumns = totalColumns + entry.getValue();
-            List<Integer> columns = sorted.get(entry.getValue());
-            if (columns == null) columns = new ArrayList<>();
-            columns.add(entry.getKey());
-            sorted.put(entry.getValue(), columns);
+        for (int columnCount : this.columnCounts) {
+            totalColumns += columnCount;
         }
+        int numberOfNewColumns = Math.min(Math.round((float) totalColumns / count), this.summedColumns.length);
 
-        int numberOfNewColumns = Math.round((float) totalColumns / count);
-        newColumns = new int[numberOfNewColumns];
-
-        outerloop:
-        for (Map.Entry<Integer, List<Integer>> entry : sorted.entrySet()) {
-            for (Integer column : entry.getValue()) {
-                newColumns[indexCounter] = column;
-                indexCounter++;
-                if (indexCounter > numberOfNewColumns) break outerloop;
-            }
+        // Pick the most frequent columns.
+        Integer[] positions = new Integer[this.summedColumns.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        Arrays.sort(positions, (pos1, pos2) -> Integer.compare(this.columnCounts[pos2], this.columnCounts[pos1]));
+        int[] newColumns = new int[numberOfNewColumns];
+        for (int i = 0; i < numberOfNewColumns; i++) {
+            newColumns[i] = this.summedColumns[positions[i]];
         }
 
         return new Tuple1<>(newColumns);
     }
 
+    @Override
+    public UCCCentroid createCentroid(long id, Tuple1<int[]> data) {
+        return new UCCCentroid(id, data.f0);
+    }
+
     @Override
     public String toString() {
         return "UCC " + id + ": " + this.columns;
     }
 
+    /**
+     * Creates {@link UCCDataPoint}s from UCC tuples.
+     */
+    public static class Factory implements DataPoint.Factory<Tuple1<int[]>, UCCDataPoint> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public UCCDataPoint createDataPoint(long id, Tuple1<int[]> data) {
+            return new UCCDataPoint(id, data.f0);
+        }
+
+        @Override
+        public Class<UCCDataPoint> getDataPointClass() {
+            return UCCDataPoint.class;
+        }
+    }
+
 }
@@ -1,7 +1,8 @@
 package de.hpi.isg.mdms.flink.functions;
 
+import de.hpi.isg.mdms.Encoding;
 import de.hpi.isg.mdms.flink.data.Tuple;
-import de.hpi.isg.mdms.flink.util.CsvParser;
+import de.hpi.isg.mdms.flink.util.ByteCsvParser;
 import de.hpi.isg.mdms.util.ArrayHeap;
 import org.apache.flink.api.common.functions.MapFunction;
 import org.apache.flink.api.java.functions.FunctionAnnotation;
@@ -9,15 +10,14 @@ import org.apache.flink.api.java.tuple.Tuple2;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-
 /**
- * Parses a CSV row into a {@link Tuple}.
+ * Parses a CSV row into a {@link Tuple}. The row is given as raw bytes (see
+ * {@link de.hpi.isg.mdms.flink.readwrite.MultiFileByteInputFormat}).
  * 
  * @author Sebastian Kruse
  */
 @FunctionAnnotation.ForwardedFields("0 -> minColumnId")
-public class ParseCsvRows implements MapFunction<Tuple2<Integer, String>, Tuple> {
+public class ParseCsvRows implements MapFunction<Tuple2<Integer, byte[]>, Tuple> {
 
     private static final long serialVersionUID = 1377116120504051734L;
 
@@ -26,21 +26,27 @@ public class ParseCsvRows implements MapFunction<Tuple2<Integer, String>, Tuple>
 
     private final Tuple outputTuple = new Tuple();
 
-    private final CsvParser parser;
+    private final ByteCsvParser parser;
 
     private final ArrayHeap<String> arrayHeap = new ArrayHeap<>(String.class);
 
     public ParseCsvRows(final char fieldSeparator, final char quoteChar, String nullString) {
-        this.parser = new CsvParser(fieldSeparator, quoteChar, nullString);
+        this(fieldSeparator, quoteChar, nullString, Encoding.DEFAULT_ENCODING);
+    }
+
+    public ParseCsvRows(final char fieldSeparator, final char quoteChar, String nullString, Encoding encoding) {
+        this.parser = new ByteCsvParser(fieldSeparator, quoteChar, nullString, -1, -1, encoding);
     }
 
     @Override
-    public Tuple map(final Tuple2<Integer, String> fileLine)
+    public Tuple map(final Tuple2<Integer, byte[]> fileLine)
             throws Exception {
 
-        final List<String> fields = this.parser.parse(fileLine.f1);
-        final String[] fieldArray = this.arrayHeap.yield(fields.size());
-        fields.toArray(fieldArray);
+        final int numFields = this.parser.parse(fileLine.f1, 0, fileLine.f1.length);
+        final String[] fieldArray = this.arrayHeap.yield(numFields);
+        for (int i = 0; i < numFields; i++) {
+            fieldArray[i] = this.parser.getField(i);
+        }
 
         this.outputTuple.setMinColumnId(fileLine.f0);
         this.outputTuple.setFields(fieldArray);
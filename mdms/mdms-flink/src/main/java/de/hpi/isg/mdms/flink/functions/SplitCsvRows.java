@@ -1,21 +1,20 @@
 package de.hpi.isg.mdms.flink.functions;
 
-import de.hpi.isg.mdms.flink.util.CsvParser;
+import de.hpi.isg.mdms.Encoding;
+import de.hpi.isg.mdms.flink.util.ByteCsvParser;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import org.apache.flink.api.common.functions.RichFlatMapFunction;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.util.Collector;
 
-import java.util.Iterator;
-import java.util.List;
-
 /**
  * This function splits a given CSV row into its fields. The given first integer field will be offset by the field
- * index.
+ * index. The row is given as raw bytes (see {@link de.hpi.isg.mdms.flink.readwrite.MultiFileByteInputFormat}), and
+ * only the forwarded fields are decoded.
  *
  * @author Sebastian Kruse
  */
-public class SplitCsvRows extends RichFlatMapFunction<Tuple2<Integer, String>, Tuple2<Integer, String>> {
+public class SplitCsvRows extends RichFlatMapFunction<Tuple2<Integer, byte[]>, Tuple2<Integer, String>> {
 
     private static final long serialVersionUID = 1377116120504051734L;
 
@@ -29,7 +28,7 @@ public class SplitCsvRows extends RichFlatMapFunction<Tuple2<Integer, String>, T
 
     private final boolean isSupressingEmptyCells;
 
-    private final CsvParser csvParser;
+    private final ByteCsvParser csvParser;
 
     /**
      * Creates a new instance without checks of the number of fields in the rows and limitation of used fields but with
@@ -89,8 +88,36 @@ public class SplitCsvRows extends RichFlatMapFunction<Tuple2<Integer, String>, T
     public SplitCsvRows(final char fieldSeparator, final char quoteChar, final Int2IntMap numFieldsPerFile,
                         final int lenientPolicy, final int maxColumns, final String nullString,
                         boolean isSupressingEmptyCells) {
+        this(fieldSeparator, quoteChar, numFieldsPerFile, lenientPolicy, maxColumns, nullString,
+                isSupressingEmptyCells, Encoding.DEFAULT_ENCODING);
+    }
+
+    /**
+     * Creates a new instance for rows in the given {@link Encoding}.
+     *
+     * @param fieldSeparator
+     *        is the character that separates fields
+     * @param quoteChar
+     *        is the character that is used to quote fields (although unquoted fields are allowed as well)
+     * @param numFieldsPerFile
+     *        is a mapping of file IDs to the number of expected fields contained within each row of the respective file
+     * @param lenientPolicy
+     *        describes the behavior of the parser on illegal number of fields in a row
+     * @param maxColumns
+     *        is the maximum number of fields to extract from each line (the checkings still apply, though; always the
+     *        first fields will be taken)
+     * @param nullString
+     *        the {@link String} representation of null values or {@code null} if none
+     * @param isSupressingEmptyCells
+     *        tells whether null fields will be forwarded by this operator or supressed
+     * @param encoding
+     *        is the {@link Encoding} of the rows
+     */
+    public SplitCsvRows(final char fieldSeparator, final char quoteChar, final Int2IntMap numFieldsPerFile,
+                        final int lenientPolicy, final int maxColumns, final String nullString,
+                        boolean isSupressingEmptyCells, Encoding encoding) {
 
-        this.csvParser = new CsvParser(fieldSeparator, quoteChar, nullString, -1, lenientPolicy);
+        this.csvParser = new ByteCsvParser(fieldSeparator, quoteChar, nullString, -1, lenientPolicy, encoding);
         this.numFieldsPerFile = numFieldsPerFile;
         this.maxFields = maxColumns;
         this.nullString = nullString;
@@ -98,11 +125,11 @@ public class SplitCsvRows extends RichFlatMapFunction<Tuple2<Integer, String>, T
     }
 
     @Override
-    public void flatMap(final Tuple2<Integer, String> fileLine, final Collector<Tuple2<Integer, String>> out)
+    public void flatMap(final Tuple2<Integer, byte[]> fileLine, final Collector<Tuple2<Integer, String>> out)
             throws Exception {
 
         this.outputTuple.f0 = fileLine.f0;
-        final String row = fileLine.f1;
+        final byte[] row = fileLine.f1;
 
         // Configure and run the parser.
         int numRequiredFields = -1;
@@ -111,24 +138,26 @@ public class SplitCsvRows extends RichFlatMapFunction<Tuple2<Integer, String>, T
             csvParser.setNumExpectedFields(numRequiredFields);
         }
 
-        List<String> fields;
+        int numFields;
         try {
-            fields = this.csvParser.parse(row);
+            numFields = this.csvParser.parse(row, 0, row.length);
         } catch (IllegalArgumentException e) {
-            throw new RuntimeException(String.format("Could not parse tuple %s.", fileLine), e);
+            throw new RuntimeException(String.format("Could not parse a row of file %d.", fileLine.f0), e);
         }
 
         // Forward the parsed values.
-        int numFieldsToRead = (this.maxFields >= 0) ? this.maxFields : fields.size();
-        for (Iterator<String> i = fields.iterator(); i.hasNext() && numFieldsToRead > 0; numFieldsToRead--) {
-            String field = i.next();
-            if (field == null) {
+        int numFieldsToRead = (this.maxFields >= 0) ? Math.min(this.maxFields, numFields) : numFields;
+        for (int i = 0; i < numFieldsToRead; i++) {
+            String field;
+            if (this.csvParser.isNull(i)) {
                 if (this.isSupressingEmptyCells) {
                     this.outputTuple.f0++;
                     continue;
                 } else {
                     field = "\1";
                 }
+            } else {
+                field = this.csvParser.getField(i);
             }
             this.outputTuple.f1 = field;
             out.collect(this.outputTuple);
@@ -1,5 +1,7 @@
 package de.hpi.isg.mdms.flink.functions;
 
+import de.hpi.isg.mdms.Encoding;
+import de.hpi.isg.mdms.flink.util.ByteCsvParser;
 import de.hpi.isg.mdms.flink.util.CsvParser;
 import de.hpi.isg.mdms.model.util.IdUtils;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
@@ -10,16 +12,14 @@ import org.apache.flink.util.Collector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
-import java.util.List;
-
 /**
  * This function splits a given merged CSV row into its fields. The given first integer field will be discarded and the
- * output field IDs are solely computed from the CSV rows.
+ * output field IDs are solely computed from the CSV rows. The rows are given as raw bytes (see
+ * {@link de.hpi.isg.mdms.flink.readwrite.MultiFileByteInputFormat}), and only the forwarded fields are decoded.
  * 
  * @author Sebastian Kruse
  */
-public class SplitMergedCsvRows extends RichFlatMapFunction<Tuple2<Integer, String>, Tuple2<Integer, String>> {
+public class SplitMergedCsvRows extends RichFlatMapFunction<Tuple2<Integer, byte[]>, Tuple2<Integer, String>> {
 
 	private static final long serialVersionUID = 1377116120504051734L;
 
@@ -29,7 +29,7 @@ public class SplitMergedCsvRows extends RichFlatMapFunction<Tuple2<Integer, Stri
 
 	private final boolean isSupressingEmptyFields;
 
-	private final CsvParser csvRowParser;
+	private final ByteCsvParser csvRowParser;
 
 	private int lenientPolicy;
 
@@ -86,7 +86,8 @@ public class SplitMergedCsvRows extends RichFlatMapFunction<Tuple2<Integer, Stri
 							  String nullString,
 							  boolean isSupressingEmptyFields, Int2IntMap idDictionary, IdUtils idUtils) {
 
-		this.csvRowParser = new CsvParser(fieldSeparator, quoteChar, nullString, -1, lenientPolicy);
+		this.csvRowParser = new ByteCsvParser(fieldSeparator, quoteChar, nullString, -1, lenientPolicy,
+				Encoding.DEFAULT_ENCODING);
 		this.isSupressingEmptyFields = isSupressingEmptyFields;
 		this.lenientPolicy = lenientPolicy;
 
@@ -109,15 +110,15 @@ public class SplitMergedCsvRows extends RichFlatMapFunction<Tuple2<Integer, Stri
 	}
 
 	@Override
-	public void flatMap(final Tuple2<Integer, String> fileLine, final Collector<Tuple2<Integer, String>> out)
+	public void flatMap(final Tuple2<Integer, byte[]> fileLine, final Collector<Tuple2<Integer, String>> out)
 			throws Exception {
 
-		final String row = fileLine.f1;
+		final byte[] row = fileLine.f1;
 
 		// Configure and run the parser.
-		List<String> fields;
+		int numFields;
 		try {
-			fields = this.csvRowParser.parse(row);
+			numFields = this.csvRowParser.parse(row, 0, row.length);
 		} catch (Exception e) {
 			switch (this.lenientPolicy) {
 			case CsvParser.WARN_ON_ILLEGAL_LINES:
@@ -131,10 +132,9 @@ public class SplitMergedCsvRows extends RichFlatMapFunction<Tuple2<Integer, Stri
 		}
 
 		// Forward the parsed values.
-		Iterator<String> i = fields.iterator();
 		// TODO: This is unsafe if a table has more than 2^6 = 64 columns. Outsource the ID setting to the CSV merge
 		// process. Attention with the sampling then.
-		int tableId = Integer.parseInt(i.next());
+		int tableId = this.csvRowParser.getIntField(0);
 		int minAttributeId;
 		if (this.idDictionary != null) {
 			minAttributeId = this.idDictionary.get(tableId);
@@ -146,16 +146,18 @@ public class SplitMergedCsvRows extends RichFlatMapFunction<Tuple2<Integer, Stri
 		}
 		
 		minAttributeId--;
-		while (i.hasNext()) {
+		for (int i = 1; i < numFields; i++) {
 		    minAttributeId++;
 
-		    String field = i.next();
-			if (field == null) {
+			String field;
+			if (this.csvRowParser.isNull(i)) {
 				if (this.isSupressingEmptyFields) {
 					continue;
 				} else {
 					field = "";
 				}
+			} else {
+				field = this.csvRowParser.getField(i);
 			}
 			this.outputTuple.f0 = minAttributeId;
 			this.outputTuple.f1 = field;
@@ -0,0 +1,17 @@
+package de.hpi.isg.mdms.flink.functions.apriori;
+
+import de.hpi.isg.mdms.flink.data.apriori.ItemSet;
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+
+/**
+ * Maps each transaction to a count of {@code 1}.
+ */
+@SuppressWarnings("serial")
+public final class CountTransactions implements MapFunction<ItemSet, Tuple1<Integer>> {
+
+    @Override
+    public Tuple1<Integer> map(ItemSet transaction) throws Exception {
+        return new Tuple1<>(1);
+    }
+}
@@ -0,0 +1,32 @@
+package de.hpi.isg.mdms.flink.functions.apriori;
+
+import org.apache.flink.api.common.functions.RichFilterFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+
+/**
+ * Filters item counts whose support exceeds the minimum support. The number of transactions is read from the
+ * broadcast variable {@code numTransactions}.
+ */
+@SuppressWarnings("serial")
+public final class FilterFrequentItems extends RichFilterFunction<Tuple2<Integer, Integer>> {
+
+    private final double minSupport;
+
+    private int numTransactions;
+
+    public FilterFrequentItems(double minSupport) {
+        this.minSupport = minSupport;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        this.numTransactions = getRuntimeContext().<Tuple1<Integer>>getBroadcastVariable("numTransactions").get(0).f0;
+    }
+
+    @Override
+    public boolean filter(Tuple2<Integer, Integer> itemCount) throws Exception {
+        return ((double) itemCount.f1) / this.numTransactions > this.minSupport;
+    }
+}
@@ -0,0 +1,84 @@
+package de.hpi.isg.mdms.flink.functions.apriori;
+
+import de.hpi.isg.mdms.flink.data.apriori.Item;
+import de.hpi.isg.mdms.flink.data.apriori.ItemSet;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Generates the group-dependent transactions for a parallel FP-growth: The frequent items of a transaction are
+ * translated into their frequency ranks (read from the broadcast variable {@code frequentItems}) and sorted. Then,
+ * for each item group, the transaction prefix up to the last item of that group is emitted. Thereby, each group
+ * receives all the information required to mine the itemsets whose least frequent item belongs to the group.
+ */
+@SuppressWarnings("serial")
+public final class GenerateGroupTransactions extends RichFlatMapFunction<ItemSet, Tuple2<Integer, int[]>> {
+
+    private final int numGroups;
+
+    private Int2IntMap itemRanks;
+
+    public GenerateGroupTransactions(int numGroups) {
+        this.numGroups = numGroups;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        Collection<Tuple2<Integer, Integer>> frequentItems = getRuntimeContext().getBroadcastVariable("frequentItems");
+        int[] rankedItems = rankItems(frequentItems);
+        this.itemRanks = new Int2IntOpenHashMap(rankedItems.length);
+        this.itemRanks.defaultReturnValue(-1);
+        for (int rank = 0; rank < rankedItems.length; rank++) {
+            this.itemRanks.put(rankedItems[rank], rank);
+        }
+    }
+
+    /**
+     * Orders frequent items by their descending count.
+     *
+     * @param frequentItems are the item IDs with their counts
+     * @return the item IDs, whereby the index of each item is its rank
+     */
+    static int[] rankItems(Collection<Tuple2<Integer, Integer>> frequentItems) {
+        List<Tuple2<Integer, Integer>> sortedItems = new ArrayList<>(frequentItems);
+        sortedItems.sort((item1, item2) -> {
+            int result = Integer.compare(item2.f1, item1.f1);
+            return result != 0 ? result : Integer.compare(item1.f0, item2.f0);
+        });
+        int[] rankedItems = new int[sortedItems.size()];
+        for (int rank = 0; rank < rankedItems.length; rank++) {
+            rankedItems[rank] = sortedItems.get(rank).f0;
+        }
+        return rankedItems;
+    }
+
+    @Override
+    public void flatMap(ItemSet transaction, Collector<Tuple2<Integer, int[]>> out) throws Exception {
+        int[] ranks = new int[transaction.items.size()];
+        int numRanks = 0;
+        for (Item item : transaction.items) {
+            int rank = this.itemRanks.get(item.id);
+            if (rank != -1) ranks[numRanks++] = rank;
+        }
+        Arrays.sort(ranks, 0, numRanks);
+
+        IntSet servedGroups = new IntOpenHashSet();
+        for (int i = numRanks - 1; i >= 0; i--) {
+            int group = ranks[i] % this.numGroups;
+            if (servedGroups.add(group)) {
+                out.collect(new Tuple2<>(group, Arrays.copyOf(ranks, i + 1)));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package de.hpi.isg.mdms.flink.functions.apriori;
+
+import de.hpi.isg.mdms.flink.data.apriori.FPTree;
+import org.apache.flink.api.common.functions.RichGroupReduceFunction;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Builds an {@link FPTree} from the group-dependent transactions of an item group and mines all frequent itemsets
+ * whose least frequent item belongs to that group (cf. {@link GenerateGroupTransactions}). The itemsets are emitted
+ * as sorted item IDs along with their support.
+ */
+@SuppressWarnings("serial")
+public final class MineFPTree extends RichGroupReduceFunction<Tuple2<Integer, int[]>, Tuple2<int[], Double>> {
+
+    private final double minSupport;
+
+    private final int numGroups;
+
+    private int[] rankedItems;
+
+    private int numTransactions;
+
+    public MineFPTree(double minSupport, int numGroups) {
+        this.minSupport = minSupport;
+        this.numGroups = numGroups;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        Collection<Tuple2<Integer, Integer>> frequentItems = getRuntimeContext().getBroadcastVariable("frequentItems");
+        this.rankedItems = GenerateGroupTransactions.rankItems(frequentItems);
+        this.numTransactions = getRuntimeContext().<Tuple1<Integer>>getBroadcastVariable("numTransactions").get(0).f0;
+    }
+
+    @Override
+    public void reduce(Iterable<Tuple2<Integer, int[]>> groupTransactions, Collector<Tuple2<int[], Double>> out)
+            throws Exception {
+
+        FPTree tree = new FPTree();
+        int group = -1;
+        for (Tuple2<Integer, int[]> groupTransaction : groupTransactions) {
+            group = groupTransaction.f0;
+            tree.add(groupTransaction.f1, groupTransaction.f1.length, 1);
+        }
+
+        // Itemsets must have a support greater than the minimum support (cf. FilterMinSupport). The minimum count is
+        // only a lower bound to be safe from rounding errors.
+        final int minCount = Math.max(1, (int) (this.minSupport * this.numTransactions));
+        final int treeGroup = group;
+        tree.mine(minCount, rank -> rank % this.numGroups == treeGroup, (ranks, count) -> {
+            double support = ((double) count) / this.numTransactions;
+            if (support <= this.minSupport) return;
+            int[] items = new int[ranks.length];
+            for (int i = 0; i < ranks.length; i++) {
+                items[i] = this.rankedItems[ranks[i]];
+            }
+            Arrays.sort(items);
+            out.collect(new Tuple2<>(items, support));
+        });
+    }
+}
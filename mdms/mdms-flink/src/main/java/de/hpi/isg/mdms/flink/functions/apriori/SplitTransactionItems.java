@@ -0,0 +1,21 @@
+package de.hpi.isg.mdms.flink.functions.apriori;
+
+import de.hpi.isg.mdms.flink.data.apriori.Item;
+import de.hpi.isg.mdms.flink.data.apriori.ItemSet;
+import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.util.Collector;
+
+/**
+ * Emits each item of a transaction with a count of {@code 1}.
+ */
+@SuppressWarnings("serial")
+public final class SplitTransactionItems implements FlatMapFunction<ItemSet, Tuple2<Integer, Integer>> {
+
+    @Override
+    public void flatMap(ItemSet transaction, Collector<Tuple2<Integer, Integer>> out) throws Exception {
+        for (Item item : transaction.items) {
+            out.collect(new Tuple2<>(item.id, 1));
+        }
+    }
+}
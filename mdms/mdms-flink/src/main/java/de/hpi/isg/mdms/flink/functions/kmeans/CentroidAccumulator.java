@@ -2,15 +2,17 @@ package de.hpi.isg.mdms.flink.functions.kmeans;
 
 import de.hpi.isg.mdms.flink.data.kmeans.DataPoint;
 import org.apache.flink.api.common.functions.ReduceFunction;
-import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple4;
 
 /**
  * Sums and counts point coordinates.
  */
-public final class CentroidAccumulator<D extends DataPoint> implements ReduceFunction<Tuple3<Long, D, Integer>> {
+public final class CentroidAccumulator<D extends DataPoint> implements ReduceFunction<Tuple4<Integer, Long, D, Integer>> {
 
+    @SuppressWarnings("unchecked")
     @Override
-    public Tuple3<Long, D, Integer> reduce(Tuple3<Long, D, Integer> val1, Tuple3<Long, D, Integer> val2) {
-        return new Tuple3<>(val1.f0, (D) val1.f1.add(val2.f1), val1.f2 + val2.f2);
+    public Tuple4<Integer, Long, D, Integer> reduce(Tuple4<Integer, Long, D, Integer> val1,
+                                                    Tuple4<Integer, Long, D, Integer> val2) {
+        return new Tuple4<>(val1.f0, val1.f1, (D) val1.f2.add(val2.f2), val1.f3 + val2.f3);
     }
 }
@@ -4,15 +4,18 @@ import de.hpi.isg.mdms.flink.data.kmeans.Centroid;
 import de.hpi.isg.mdms.flink.data.kmeans.DataPoint;
 import org.apache.flink.api.common.functions.MapFunction;
 import org.apache.flink.api.java.tuple.Tuple;
-import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple4;
 
 /**
  * Computes new centroid from coordinate sum and count of points.
  */
-public final class CentroidAverager<T extends Tuple, D extends DataPoint<T>, C extends Centroid> implements MapFunction<Tuple3<Long, D, Integer>, Centroid<T, D>> {
+public final class CentroidAverager<T extends Tuple, D extends DataPoint<T>, C extends Centroid>
+        implements MapFunction<Tuple4<Integer, Long, D, Integer>, Tuple2<Integer, Centroid<T, D>>> {
 
+    @SuppressWarnings("unchecked")
     @Override
-    public Centroid<T, D> map(Tuple3<Long, D, Integer> value) {
-        return C.createNewCentroid(value.f0, value.f1.div(value.f2));
+    public Tuple2<Integer, Centroid<T, D>> map(Tuple4<Integer, Long, D, Integer> value) {
+        return new Tuple2<>(value.f0, (Centroid<T, D>) value.f2.createCentroid(value.f1, value.f2.div(value.f3)));
     }
 }
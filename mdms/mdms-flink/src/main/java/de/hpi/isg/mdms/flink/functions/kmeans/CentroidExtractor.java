@@ -0,0 +1,19 @@
+package de.hpi.isg.mdms.flink.functions.kmeans;
+
+import de.hpi.isg.mdms.flink.data.kmeans.Centroid;
+import de.hpi.isg.mdms.flink.data.kmeans.DataPoint;
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.api.java.tuple.Tuple2;
+
+/**
+ * Removes the k tag from centroids.
+ */
+public final class CentroidExtractor<T extends Tuple, D extends DataPoint<T>>
+        implements MapFunction<Tuple2<Integer, Centroid<T, D>>, Centroid<T, D>> {
+
+    @Override
+    public Centroid<T, D> map(Tuple2<Integer, Centroid<T, D>> value) throws Exception {
+        return value.f1;
+    }
+}
@@ -21,7 +21,7 @@ public final class CentroidMapper extends RichMapFunction<UCCCentroid, Tuple2<Lo
     public Tuple2<Long, HashSet<String>> map(UCCCentroid c) throws Exception {
 
         HashSet<String> columns = new HashSet<>();
-        for (Integer columnId : c.columns) {
+        for (int columnId : c.columns.toArray()) {
             String name = columnNames.get(columnId);
             if (name == null) {
                 name = Integer.toString(columnId);
@@ -1,24 +1,42 @@
 package de.hpi.isg.mdms.flink.functions.kmeans;
 
 import de.hpi.isg.mdms.flink.data.kmeans.DataPoint;
-import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.api.common.accumulators.Histogram;
+import org.apache.flink.api.common.functions.RichFilterFunction;
 import org.apache.flink.api.java.tuple.Tuple;
-import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple4;
+import org.apache.flink.configuration.Configuration;
 
 /**
- * Filters and leaves only points which similarity to cluster center is below the threshold,
+ * Filters and leaves only points which similarity to cluster center is below the threshold. The number of these
+ * points per k is counted in a {@link Histogram} accumulator.
  */
-public final class FilterMinSimilarity<T extends Tuple, D extends DataPoint<T>> implements FilterFunction<Tuple3<Long, D, Double>> {
+public final class FilterMinSimilarity<T extends Tuple, D extends DataPoint<T>>
+        extends RichFilterFunction<Tuple4<Integer, Long, D, Double>> {
 
     double minSimilarity = 0;
 
-    public FilterMinSimilarity(double minSimilarity) {
+    private final String accumulatorName;
+
+    private Histogram invalidPointsPerK;
+
+    public FilterMinSimilarity(double minSimilarity, String accumulatorName) {
         this.minSimilarity = minSimilarity;
+        this.accumulatorName = accumulatorName;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        this.invalidPointsPerK = getRuntimeContext().getHistogram(this.accumulatorName);
     }
 
     @Override
-    public boolean filter(Tuple3<Long, D, Double> c) throws Exception {
-        return c.f2 < minSimilarity;
+    public boolean filter(Tuple4<Integer, Long, D, Double> c) throws Exception {
+        if (c.f3 < minSimilarity) {
+            this.invalidPointsPerK.add(c.f0);
+            return true;
+        }
+        return false;
     }
 
 }
@@ -4,21 +4,27 @@ import de.hpi.isg.mdms.flink.data.kmeans.Centroid;
 import de.hpi.isg.mdms.flink.data.kmeans.DataPoint;
 import org.apache.flink.api.common.functions.FlatMapFunction;
 import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.util.Collector;
 
-import java.util.List;
+/**
+ * Selects the first {@code k} data points as initial centroids for each {@code k} in a range. The centroids are
+ * tagged with their {@code k}.
+ */
+public final class PointCentroidConverter<T extends Tuple, D extends DataPoint<T>, C extends Centroid<T, D>>
+        implements FlatMapFunction<D, Tuple2<Integer, Centroid<T, D>>> {
 
-public final class PointCentroidConverter<T extends Tuple, D extends DataPoint<T>, C extends Centroid<T, D>> implements FlatMapFunction<D, Centroid<T, D>> {
+    private final int minK, maxK;
 
-    private List<Long> keepIDs;
-
-    public void setKeepIDs(List<Long> ids) {
-        keepIDs = ids;
+    public PointCentroidConverter(int minK, int maxK) {
+        this.minK = minK;
+        this.maxK = maxK;
     }
 
-    public void flatMap(D t, Collector<Centroid<T, D>> out) {
-        if (keepIDs.contains(t.id)) {
-            out.collect(Centroid.createNewCentroid(t.id, t.getData()));
+    @SuppressWarnings("unchecked")
+    public void flatMap(D t, Collector<Tuple2<Integer, Centroid<T, D>>> out) {
+        for (long k = Math.max(this.minK, t.id + 1); k <= this.maxK; k++) {
+            out.collect(new Tuple2<>((int) k, (Centroid<T, D>) t.createCentroid(t.id, t.getData())));
         }
     }
 }
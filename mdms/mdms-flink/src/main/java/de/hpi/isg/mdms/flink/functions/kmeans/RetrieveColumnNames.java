@@ -22,7 +22,7 @@ public final class RetrieveColumnNames extends RichMapFunction<Tuple3<Long, UCCD
     public Tuple3<Long, HashSet<String>, Double> map(Tuple3<Long, UCCDataPoint, Double> t) throws Exception {
 
         HashSet<String> columns = new HashSet<>();
-        for (Integer columnId : t.f1.columns) {
+        for (int columnId : t.f1.columns.toArray()) {
             String name = columnNames.get(columnId);
             if (name == null) {
                 name = Integer.toString(columnId);
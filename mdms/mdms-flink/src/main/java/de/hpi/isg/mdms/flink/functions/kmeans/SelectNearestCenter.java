@@ -2,45 +2,54 @@ package de.hpi.isg.mdms.flink.functions.kmeans;
 
 import de.hpi.isg.mdms.flink.data.kmeans.Centroid;
 import de.hpi.isg.mdms.flink.data.kmeans.DataPoint;
-import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple3;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Determines the closest cluster center for a data point.
+ * Determines the closest cluster center for a data point for each k.
  */
-public final class SelectNearestCenter<D extends DataPoint, C extends Centroid> extends RichMapFunction<D, Tuple2<Long, D>> {
-    private Collection<C> centroids;
+public final class SelectNearestCenter<D extends DataPoint, C extends Centroid>
+        extends RichFlatMapFunction<D, Tuple3<Integer, Long, D>> {
+
+    private Map<Integer, List<C>> centroidsByK;
 
     /**
-     * Reads the centroid values from a broadcast variable into a collection.
+     * Reads the centroid values from a broadcast variable and groups them by their k.
      */
     @Override
     public void open(Configuration parameters) throws Exception {
-        this.centroids = getRuntimeContext().getBroadcastVariable("centroids");
+        Collection<Tuple2<Integer, C>> centroids = getRuntimeContext().getBroadcastVariable("centroids");
+        this.centroidsByK = SelectNearestCenterReturnSimilarity.groupByK(centroids);
     }
 
+    @SuppressWarnings("unchecked")
     @Override
-    public Tuple2<Long, D> map(D p) throws Exception {
-
-        double maxSimilarity = -1;
-        long closestCentroidId = -1;
-
-        // check all cluster centers
-        for (C centroid : centroids) {
-            // compute distance
-            double similarity = centroid.getSimilarity(p);
-
-            // update nearest cluster if necessary
-            if (similarity > maxSimilarity) {
-                maxSimilarity = similarity;
-                closestCentroidId = centroid.id;
+    public void flatMap(D p, Collector<Tuple3<Integer, Long, D>> out) throws Exception {
+        for (Map.Entry<Integer, List<C>> entry : this.centroidsByK.entrySet()) {
+            double maxSimilarity = -1;
+            long closestCentroidId = -1;
+
+            // check all cluster centers
+            for (C centroid : entry.getValue()) {
+                // compute distance
+                double similarity = centroid.getSimilarity(p);
+
+                // update nearest cluster if necessary
+                if (similarity > maxSimilarity) {
+                    maxSimilarity = similarity;
+                    closestCentroidId = centroid.id;
+                }
             }
-        }
 
-        // emit a new record with the center id and the data point.
-        return new Tuple2<Long, D>(closestCentroidId, p);
+            // emit a new record with the k, the center id, and the data point.
+            out.collect(new Tuple3<>(entry.getKey(), closestCentroidId, p));
+        }
     }
 }
@@ -2,46 +2,67 @@ package de.hpi.isg.mdms.flink.functions.kmeans;
 
 import de.hpi.isg.mdms.flink.data.kmeans.Centroid;
 import de.hpi.isg.mdms.flink.data.kmeans.DataPoint;
-import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
 import org.apache.flink.api.java.tuple.Tuple;
-import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.tuple.Tuple4;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
- * Determines the closest cluster center for a data point.
+ * Determines the closest cluster center for a data point for each k.
  */
-public final class SelectNearestCenterReturnSimilarity<T extends Tuple, D extends DataPoint<T>, C extends Centroid<T, D>> extends RichMapFunction<D, Tuple3<Long, D, Double>> {
-    private Collection<C> centroids;
+public final class SelectNearestCenterReturnSimilarity<T extends Tuple, D extends DataPoint<T>, C extends Centroid<T, D>>
+        extends RichFlatMapFunction<D, Tuple4<Integer, Long, D, Double>> {
+
+    private Map<Integer, List<C>> centroidsByK;
 
     /**
-     * Reads the centroid values from a broadcast variable into a collection.
+     * Reads the centroid values from a broadcast variable and groups them by their k.
      */
     @Override
     public void open(Configuration parameters) throws Exception {
-        this.centroids = getRuntimeContext().getBroadcastVariable("centroids");
+        Collection<Tuple2<Integer, C>> centroids = getRuntimeContext().getBroadcastVariable("centroids");
+        this.centroidsByK = groupByK(centroids);
     }
 
-    @Override
-    public Tuple3<Long, D, Double> map(D p) throws Exception {
+    /**
+     * Groups k-tagged centroids by their k.
+     */
+    static <C> Map<Integer, List<C>> groupByK(Collection<Tuple2<Integer, C>> centroids) {
+        Map<Integer, List<C>> centroidsByK = new TreeMap<>();
+        for (Tuple2<Integer, C> centroid : centroids) {
+            centroidsByK.computeIfAbsent(centroid.f0, k -> new ArrayList<>()).add(centroid.f1);
+        }
+        return centroidsByK;
+    }
 
-        double maxSimilarity = -1;
-        long closestCentroidId = -1;
+    @Override
+    public void flatMap(D p, Collector<Tuple4<Integer, Long, D, Double>> out) throws Exception {
+        for (Map.Entry<Integer, List<C>> entry : this.centroidsByK.entrySet()) {
+            double maxSimilarity = -1;
+            long closestCentroidId = -1;
 
-        // check all cluster centers
-        for (C centroid : centroids) {
-            // compute distance
-            double similarity = centroid.getSimilarity(p);
+            // check all cluster centers
+            for (C centroid : entry.getValue()) {
+                // compute distance
+                double similarity = centroid.getSimilarity(p);
 
-            // update nearest cluster if necessary
-            if (similarity > maxSimilarity) {
-                maxSimilarity = similarity;
-                closestCentroidId = centroid.id;
+                // update nearest cluster if necessary
+                if (similarity > maxSimilarity) {
+                    maxSimilarity = similarity;
+                    closestCentroidId = centroid.id;
+                }
             }
-        }
 
-        // emit a new record with the center id and the data point.
-        return new Tuple3<>(closestCentroidId, p, maxSimilarity);
+            // emit a new record with the k, the center id, the data point, and the similarity.
+            out.collect(new Tuple4<>(entry.getKey(), closestCentroidId, p, maxSimilarity));
+        }
     }
 }
@@ -2,13 +2,27 @@ package de.hpi.isg.mdms.flink.functions.kmeans;
 
 import de.hpi.isg.mdms.flink.data.kmeans.DataPoint;
 import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.GenericTypeInfo;
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
 
-public final class TuplePointConverter<T extends org.apache.flink.api.java.tuple.Tuple>
-        implements MapFunction<Tuple2<Long, T>, DataPoint<T>> {
+public final class TuplePointConverter<T extends org.apache.flink.api.java.tuple.Tuple, D extends DataPoint<T>>
+        implements MapFunction<Tuple2<Long, T>, D>, ResultTypeQueryable<D> {
+
+    private final DataPoint.Factory<T, D> dataPointFactory;
+
+    public TuplePointConverter(DataPoint.Factory<T, D> dataPointFactory) {
+        this.dataPointFactory = dataPointFactory;
+    }
+
+    @Override
+    public D map(Tuple2<Long, T> t) throws Exception {
+        return this.dataPointFactory.createDataPoint(t.f0, t.f1);
+    }
 
     @Override
-    public DataPoint<T> map(Tuple2<Long, T> t) throws Exception {
-        return DataPoint.createNewPoint(t.f0, t.f1);
+    public TypeInformation<D> getProducedType() {
+        return new GenericTypeInfo<>(this.dataPointFactory.getDataPointClass());
     }
 }
@@ -16,6 +16,7 @@ import de.hpi.isg.mdms.Encoding;
 import de.hpi.isg.mdms.clients.parameters.CsvParameters;
 import de.hpi.isg.mdms.flink.data.Tuple;
 import de.hpi.isg.mdms.flink.functions.FilterIncompleteTuples;
+import de.hpi.isg.mdms.flink.readwrite.MultiFileByteInputFormat;
 import de.hpi.isg.mdms.flink.readwrite.MultiFileTextInputFormat;
 import de.hpi.isg.mdms.flink.functions.ParseCsvRows;
 import de.hpi.isg.mdms.flink.functions.SplitCsvRows;
@@ -74,14 +75,13 @@ public class CsvFileLocation extends AbstractCsvLocation implements CellLocation
 
                 List<Table> tables = partitionEntry.getValue();
                 // Check if any of the files has a compression suffix.
-                DataSet<Tuple2<Integer, String>> source;
+                DataSet<Tuple2<Integer, byte[]>> source;
 
                 Object2IntMap<String> pathIds = collectPathIds(tables, metadataStore.getIdUtils());
                 String inputPath = FileUtils.findCommonParent(pathIds.keySet());
                 final MultiFileTextInputFormat.ListBasedFileIdRetriever fileIdRetriever = new MultiFileTextInputFormat.ListBasedFileIdRetriever(pathIds);
-                MultiFileTextInputFormat inputFormat;
-                inputFormat = new MultiFileTextInputFormat(fileIdRetriever, fileIdRetriever, null);
-                inputFormat.setEncoding(encoding);
+                MultiFileByteInputFormat inputFormat;
+                inputFormat = new MultiFileByteInputFormat(fileIdRetriever, fileIdRetriever);
                 // TODO: Enable if needed.
                 inputFormat.setFilePath(inputPath);
 //                inputFormat.setRecordDetector(new CsvRecordStateMachine(csvParameters.getFieldSeparatorChar(),
@@ -114,7 +114,8 @@ public class CsvFileLocation extends AbstractCsvLocation implements CellLocation
                         -1,
                         -1, // this.parameters.maxColumns,
                         csvParameters.getNullString(),
-                        !isAllowingEmptyFields // !this.parameters.isAllowingEmptyFields
+                        !isAllowingEmptyFields, // !this.parameters.isAllowingEmptyFields
+                        encoding
                 );
                 // }
 
@@ -148,15 +149,14 @@ public class CsvFileLocation extends AbstractCsvLocation implements CellLocation
 
                 List<Table> tables = partitionEntry.getValue();
                 // Check if any of the files has a compression suffix.
-                DataSet<Tuple2<Integer, String>> source;
+                DataSet<Tuple2<Integer, byte[]>> source;
 
                 Object2IntMap<String> pathIds = collectPathIds(tables, metadataStore.getIdUtils());
                 String inputPath = FileUtils.findCommonParent(pathIds.keySet());
                 final MultiFileTextInputFormat.ListBasedFileIdRetriever fileIdRetriever =
                         new MultiFileTextInputFormat.ListBasedFileIdRetriever(pathIds);
-                MultiFileTextInputFormat inputFormat;
-                inputFormat = new MultiFileTextInputFormat(fileIdRetriever, fileIdRetriever, null);
-                inputFormat.setEncoding(encoding);
+                MultiFileByteInputFormat inputFormat;
+                inputFormat = new MultiFileByteInputFormat(fileIdRetriever, fileIdRetriever);
                 inputFormat.setFilePath(inputPath);
                 // TODO: Enable as needed.
                 // inputFormat.setRecordDetector(new CsvRecordStateMachine(csvParameters.getFieldSeparatorChar(),
@@ -185,7 +185,8 @@ public class CsvFileLocation extends AbstractCsvLocation implements CellLocation
                 parseRows = new ParseCsvRows(
                         csvParameters.getFieldSeparatorChar(),
                         csvParameters.getQuoteChar(),
-                        csvParameters.getNullString()
+                        csvParameters.getNullString(),
+                        encoding
                 );
                 // }
 
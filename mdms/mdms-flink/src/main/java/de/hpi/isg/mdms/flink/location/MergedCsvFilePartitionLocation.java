@@ -14,6 +14,7 @@ package de.hpi.isg.mdms.flink.location;
 
 import de.hpi.isg.mdms.clients.parameters.CsvParameters;
 import de.hpi.isg.mdms.flink.data.Tuple;
+import de.hpi.isg.mdms.flink.readwrite.MultiFileByteInputFormat;
 import de.hpi.isg.mdms.flink.readwrite.MultiFileTextInputFormat;
 import de.hpi.isg.mdms.flink.functions.ParseCsvRows;
 import de.hpi.isg.mdms.flink.functions.SplitMergedCsvRows;
@@ -104,10 +105,10 @@ public class MergedCsvFilePartitionLocation extends DefaultLocation implements C
                 }
                 final MultiFileTextInputFormat.ListBasedFileIdRetriever fileIdRetriever = new MultiFileTextInputFormat.ListBasedFileIdRetriever(
                         pathIds);
-                MultiFileTextInputFormat inputFormat;
-                inputFormat = new MultiFileTextInputFormat(fileIdRetriever, fileIdRetriever);
+                MultiFileByteInputFormat inputFormat;
+                inputFormat = new MultiFileByteInputFormat(fileIdRetriever, fileIdRetriever);
                 inputFormat.setFilePath(path.toString());
-                DataSet<Tuple2<Integer, String>> source = env.createInput(inputFormat);
+                DataSet<Tuple2<Integer, byte[]>> source = env.createInput(inputFormat);
 
                 // if (this.parameters.sampleRows > 0) {
                 // source = source.filter(new SampleWithHashes<Tuple2<Integer, String>>(this.parameters.sampleRows,
@@ -214,10 +215,10 @@ public class MergedCsvFilePartitionLocation extends DefaultLocation implements C
                 }
                 final MultiFileTextInputFormat.ListBasedFileIdRetriever fileIdRetriever = new MultiFileTextInputFormat.ListBasedFileIdRetriever(
                         pathIds);
-                MultiFileTextInputFormat inputFormat;
-                inputFormat = new MultiFileTextInputFormat(fileIdRetriever, fileIdRetriever);
+                MultiFileByteInputFormat inputFormat;
+                inputFormat = new MultiFileByteInputFormat(fileIdRetriever, fileIdRetriever);
                 inputFormat.setFilePath(path.toString());
-                DataSet<Tuple2<Integer, String>> source = env.createInput(inputFormat);
+                DataSet<Tuple2<Integer, byte[]>> source = env.createInput(inputFormat);
 
                 Int2IntMap idDictionary = createIdDictionary(tables, metadataStore.getIdUtils());
                 DataSet<Tuple> tuples = source
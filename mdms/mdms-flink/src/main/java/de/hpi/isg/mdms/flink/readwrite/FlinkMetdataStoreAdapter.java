@@ -8,8 +8,6 @@ import org.apache.flink.api.java.ExecutionEnvironment;
 import org.apache.flink.api.java.tuple.Tuple;
 
 import java.io.Serializable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 
 public class FlinkMetdataStoreAdapter implements Serializable {
@@ -17,30 +15,32 @@ public class FlinkMetdataStoreAdapter implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
+     * Same as {@link #save(DataSet, ConstraintCollection, AbstractFlinkSerializer)}: the batches are added on the
+     * thread of the {@link SocketCollectorServer} anyway. Handing them off to yet another thread would acknowledge
+     * them before they are added, thereby defeat the backpressure on the tasks, and lose any failures.
+     *
      * @deprecated Don't use this method unless thread leaks are acceptable (e.g., in short-lived apps).
      */
     public static <T extends Tuple> void saveAsync(DataSet<T> constraints,
                                                    final ConstraintCollection constraintCollection,
                                                    final AbstractFlinkSerializer flinkSerializer) {
 
-        final ExecutorService executorService = Executors.newSingleThreadExecutor();
-        RemoteCollectorImpl.collectLocal(constraints, tuple -> {
-            executorService.execute(flinkSerializer.getAddRunnable(tuple, constraintCollection));
-        });
+        save(constraints, constraintCollection, flinkSerializer);
     }
 
     /**
+     * Writes the constraints into the given {@link ConstraintCollection} when the Flink job is executed. The tasks
+     * send the constraints in batches to a {@link SocketCollectorServer}, which adds them to the collection one
+     * batch at a time.
+     *
      * @deprecated Don't use this method unless thread leaks are acceptable (e.g., in short-lived apps).
      */
     public static <T extends Tuple> void save(DataSet<T> constraints,
                                               final ConstraintCollection constraintCollection,
                                               final AbstractFlinkSerializer flinkSerializer) {
 
-        RemoteCollectorImpl.collectLocal(constraints, tuple -> {
-            synchronized (flinkSerializer) {
-                flinkSerializer.getAddRunnable(tuple, constraintCollection).run();;
-            }
-        });
+        SocketCollectorServer.collectLocal(constraints,
+                batch -> flinkSerializer.addAll(batch, constraintCollection));
     }
 
     public static <T extends Tuple> DataSet<T> getConstraintsFromCollection(
@@ -0,0 +1,99 @@
+package de.hpi.isg.mdms.flink.readwrite;
+
+import de.hpi.isg.mdms.flink.util.FileUtils;
+import org.apache.flink.api.common.io.DelimitedInputFormat;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.PrimitiveArrayTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.core.fs.FileInputSplit;
+import org.apache.flink.core.fs.FileStatus;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This file input format reads the lines of multiple files like the {@link MultiFileTextInputFormat}, but it does not
+ * decode them. Instead, each line is emitted as a copy of its raw bytes from the read buffer, so that it can be
+ * parsed with a {@link de.hpi.isg.mdms.flink.util.ByteCsvParser} without creating a {@link String} for the whole line.
+ */
+public class MultiFileByteInputFormat extends DelimitedInputFormat<Tuple2<Integer, byte[]>>
+        implements ResultTypeQueryable<Tuple2<Integer, byte[]>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiFileByteInputFormat.class);
+
+    private Integer fileId;
+
+    /**
+     * Can be used to filter the files from an input directory.
+     */
+    private final MultiFileTextInputFormat.FileFilter fileFilter;
+
+    /**
+     * Used to map a {@link FileInputSplit} to an ID.
+     */
+    private final MultiFileTextInputFormat.FileIdRetriever fileIdRetriever;
+
+    public MultiFileByteInputFormat(final MultiFileTextInputFormat.FileFilter fileFilter,
+                                    final MultiFileTextInputFormat.FileIdRetriever fileIdRetriever) {
+        super();
+        this.fileFilter = fileFilter;
+        this.fileIdRetriever = fileIdRetriever;
+    }
+
+    @Override
+    public void open(final FileInputSplit split) throws IOException {
+        LOGGER.trace("Opening {}.", split);
+        super.open(split);
+
+        // Remember the ID of this split to output it with the read values.
+        this.fileId = this.fileIdRetriever.retrieve(split);
+    }
+
+    @Override
+    public Tuple2<Integer, byte[]> readRecord(final Tuple2<Integer, byte[]> reuse, final byte[] bytes,
+                                              final int offset, final int numBytes) {
+
+        reuse.f0 = this.fileId;
+        reuse.f1 = Arrays.copyOfRange(bytes, offset, offset + numBytes);
+
+        return reuse;
+    }
+
+    @Override
+    protected boolean acceptFile(final FileStatus fileStatus) {
+        // The base directory must pass the file filter (cf. MultiFileTextInputFormat).
+        boolean isBaseDir = false;
+        try {
+            final Path path = getFilePath();
+            final FileSystem fileSystem = path.getFileSystem();
+            isBaseDir = fileSystem.getFileStatus(path).getPath().equals(fileStatus.getPath());
+        } catch (final IOException e) {
+            // Without the status of the base directory, let the file filter decide.
+            LOGGER.warn("Could not determine whether {} is the base directory.", fileStatus.getPath(), e);
+        }
+        return isBaseDir || this.fileFilter.accept(fileStatus);
+    }
+
+    @Override
+    protected boolean testForUnsplittable(FileStatus pathFile) {
+        boolean isFileUnsplittable = super.testForUnsplittable(pathFile) ||
+                FileUtils.findInflaterInputStreamFactory(pathFile.getPath()) != null;
+        this.unsplittable |= isFileUnsplittable;
+        return isFileUnsplittable;
+    }
+
+    @Override
+    public TypeInformation<Tuple2<Integer, byte[]>> getProducedType() {
+        return new TupleTypeInfo<>(BasicTypeInfo.INT_TYPE_INFO, PrimitiveArrayTypeInfo.BYTE_PRIMITIVE_ARRAY_TYPE_INFO);
+    }
+
+}
@@ -76,28 +76,7 @@ public class RemoteCollectorImpl<T> extends UnicastRemoteObject implements
      */
     public static <T> DataSink<T> collectLocal(DataSet<T> source,
                                                RemoteCollectorConsumer<T> consumer) {
-        // if the RMI parameter was not set by the user make a "good guess"
-        String ip = System.getProperty("java.rmi.server.hostname");
-        if (ip == null) {
-            Enumeration<NetworkInterface> networkInterfaces;
-            try {
-                networkInterfaces = NetworkInterface.getNetworkInterfaces();
-            } catch (Throwable t) {
-                throw new RuntimeException(t);
-            }
-            while (networkInterfaces.hasMoreElements()) {
-                NetworkInterface networkInterface = networkInterfaces.nextElement();
-                Enumeration<InetAddress> inetAddresses = networkInterface.getInetAddresses();
-                while (inetAddresses.hasMoreElements()) {
-                    InetAddress inetAddress = inetAddresses.nextElement();
-                    if (!inetAddress.isLoopbackAddress()
-                            && inetAddress instanceof Inet4Address) {
-                        ip = inetAddress.getHostAddress();
-                        System.setProperty("java.rmi.server.hostname", ip);
-                    }
-                }
-            }
-        }
+        String ip = guessLocalAddress();
 
         // get some random free port
         Integer randomPort;
@@ -122,6 +101,37 @@ public class RemoteCollectorImpl<T> extends UnicastRemoteObject implements
         return source.output(remoteCollectorOutputFormat);
     }
 
+    /**
+     * Determines an address under which remote tasks can reach this machine. If the RMI parameter
+     * {@code java.rmi.server.hostname} was not set by the user, we make a "good guess" and set it.
+     *
+     * @return the address
+     */
+    static String guessLocalAddress() {
+        String ip = System.getProperty("java.rmi.server.hostname");
+        if (ip == null) {
+            Enumeration<NetworkInterface> networkInterfaces;
+            try {
+                networkInterfaces = NetworkInterface.getNetworkInterfaces();
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+            while (networkInterfaces.hasMoreElements()) {
+                NetworkInterface networkInterface = networkInterfaces.nextElement();
+                Enumeration<InetAddress> inetAddresses = networkInterface.getInetAddresses();
+                while (inetAddresses.hasMoreElements()) {
+                    InetAddress inetAddress = inetAddresses.nextElement();
+                    if (!inetAddress.isLoopbackAddress()
+                            && inetAddress instanceof Inet4Address) {
+                        ip = inetAddress.getHostAddress();
+                        System.setProperty("java.rmi.server.hostname", ip);
+                    }
+                }
+            }
+        }
+        return ip;
+    }
+
     /**
      * Writes a DataSet to a local {@link Collection} through an
      * {@link RemoteCollector} and a standard {@link RemoteCollectorConsumer}
@@ -0,0 +1,188 @@
+package de.hpi.isg.mdms.flink.readwrite;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.flink.api.common.io.OutputFormat;
+import org.apache.flink.configuration.Configuration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+
+/**
+ * An output format that sends its records to a {@link SocketCollectorServer}. Instead of making one remote call per
+ * record (as the {@link RemoteCollectorOutputFormat} does), records are buffered and sent as Kryo-serialized,
+ * length-prefixed frames. The server acknowledges each frame once it has been consumed. At most
+ * {@link #maxUnacknowledgedFrames} frames may be in flight, so that a slow consumer throttles the sending tasks.
+ * When {@link #close()} returns, all records of the task have been consumed.
+ */
+public class SocketCollectorOutputFormat<T> implements OutputFormat<T> {
+
+    private static final long serialVersionUID = -5616599394478286683L;
+
+    /**
+     * Config parameter for the server's port number
+     */
+    public static final String PORT = "port";
+
+    /**
+     * Config parameter for the server's address
+     */
+    public static final String REMOTE = "remote";
+
+    /**
+     * Config parameter for the number of records per frame
+     */
+    public static final String BATCH_SIZE = "batchSize";
+
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    public static final int DEFAULT_MAX_UNACKNOWLEDGED_FRAMES = 4;
+
+    private String remote;
+
+    private int port;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private int maxUnacknowledgedFrames = DEFAULT_MAX_UNACKNOWLEDGED_FRAMES;
+
+    private transient Socket socket;
+
+    private transient DataOutputStream out;
+
+    private transient DataInputStream in;
+
+    private transient Kryo kryo;
+
+    private transient Output kryoOutput;
+
+    private transient ArrayList<T> buffer;
+
+    /**
+     * Number of the next frame to send and of the next frame that is to be acknowledged.
+     */
+    private transient int nextFrame, nextAcknowledgedFrame;
+
+    /**
+     * Creates a new instance that sends its records to the {@link SocketCollectorServer} at the given address.
+     */
+    public SocketCollectorOutputFormat(String remote, int port) {
+        this.remote = remote;
+        this.port = port;
+
+        if (this.remote == null) {
+            throw new IllegalStateException(String.format("No remote configured for %s.", this));
+        }
+    }
+
+    @Override
+    public void configure(Configuration parameters) {
+        this.remote = parameters.getString(REMOTE, this.remote);
+        this.port = parameters.getInteger(PORT, this.port);
+        this.batchSize = parameters.getInteger(BATCH_SIZE, this.batchSize);
+
+        if (this.remote == null) {
+            throw new IllegalStateException(String.format("No remote configured for %s.", this));
+        }
+    }
+
+    @Override
+    public void open(int taskNumber, int numTasks) throws IOException {
+        this.socket = new Socket(this.remote, this.port);
+        this.socket.setTcpNoDelay(true);
+        this.out = new DataOutputStream(new BufferedOutputStream(this.socket.getOutputStream()));
+        this.in = new DataInputStream(new BufferedInputStream(this.socket.getInputStream()));
+        this.kryo = SocketCollectorServer.createKryo();
+        this.kryoOutput = new Output(64 * 1024, -1);
+        this.buffer = new ArrayList<>(this.batchSize);
+        this.nextFrame = 0;
+        this.nextAcknowledgedFrame = 0;
+    }
+
+    @Override
+    public void writeRecord(T record) throws IOException {
+        this.buffer.add(record);
+        if (this.buffer.size() >= this.batchSize) {
+            this.sendFrame();
+        }
+    }
+
+    /**
+     * Sends the buffered records as a frame. Blocks if there are too many unacknowledged frames.
+     */
+    private void sendFrame() throws IOException {
+        this.kryoOutput.clear();
+        this.kryo.writeClassAndObject(this.kryoOutput, this.buffer);
+        this.out.writeInt(this.kryoOutput.position());
+        this.out.write(this.kryoOutput.getBuffer(), 0, this.kryoOutput.position());
+        this.out.flush();
+        this.buffer.clear();
+        this.nextFrame++;
+
+        while (this.nextFrame - this.nextAcknowledgedFrame > this.maxUnacknowledgedFrames) {
+            this.awaitAcknowledgement();
+        }
+    }
+
+    /**
+     * Reads the acknowledgement for the oldest unacknowledged frame.
+     */
+    private void awaitAcknowledgement() throws IOException {
+        int acknowledgedFrame;
+        try {
+            acknowledgedFrame = this.in.readInt();
+        } catch (EOFException e) {
+            throw new IOException(String.format(
+                    "The server of %s closed the connection. Did the consumer fail?", this), e);
+        }
+        if (acknowledgedFrame != this.nextAcknowledgedFrame) {
+            throw new IOException(String.format("Expected acknowledgement for frame %d, but got %d.",
+                    this.nextAcknowledgedFrame, acknowledgedFrame));
+        }
+        this.nextAcknowledgedFrame++;
+    }
+
+    /**
+     * Sends the remaining records and waits until the server has acknowledged all frames.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.socket == null) {
+            return;
+        }
+        try {
+            if (!this.buffer.isEmpty()) {
+                this.sendFrame();
+            }
+            // An empty frame tells the server that this task is done.
+            this.out.writeInt(0);
+            this.out.flush();
+            while (this.nextAcknowledgedFrame < this.nextFrame) {
+                this.awaitAcknowledgement();
+            }
+        } finally {
+            this.socket.close();
+            this.socket = null;
+        }
+    }
+
+    public void setMaxUnacknowledgedFrames(int maxUnacknowledgedFrames) {
+        this.maxUnacknowledgedFrames = maxUnacknowledgedFrames;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String toString() {
+        return "SocketCollectorOutputFormat(" + this.remote + ":" + this.port + ")";
+    }
+
+}
@@ -0,0 +1,284 @@
+package de.hpi.isg.mdms.flink.readwrite;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.operators.DataSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * This class provides the counterpart for the {@link SocketCollectorOutputFormat}. It accepts connections from any
+ * number of tasks on a single NIO thread, decodes their frames, and passes each frame as a batch to a
+ * {@link BatchConsumer}. A frame is acknowledged only after the consumer has returned, so that the acknowledgements
+ * can serve as checkpoints for the tasks. As the consumer runs on the NIO thread, batches are never consumed
+ * concurrently.
+ */
+public class SocketCollectorServer<T> implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SocketCollectorServer.class);
+
+    /**
+     * Frames larger than this are considered corrupt.
+     */
+    private static final int MAX_FRAME_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * Stores all created servers to close them in the shutdown phase.
+     */
+    private static final List<SocketCollectorServer<?>> servers = new ArrayList<>();
+
+    /**
+     * Receives the batches of records.
+     */
+    @FunctionalInterface
+    public interface BatchConsumer<T> {
+
+        /**
+         * Consumes a batch of records. When this method returns, the batch is acknowledged to the sending task.
+         *
+         * @throws Exception if the batch could not be consumed; the server then shuts down and the tasks fail
+         */
+        void consume(List<T> batch) throws Exception;
+
+    }
+
+    private final BatchConsumer<T> consumer;
+
+    private final ServerSocketChannel serverChannel;
+
+    private final Selector selector;
+
+    private final Thread thread;
+
+    private final Kryo kryo = createKryo();
+
+    private volatile Throwable failure;
+
+    /**
+     * Writes a DataSet to a {@link BatchConsumer} through a new {@link SocketCollectorServer} that is fed by a
+     * {@link SocketCollectorOutputFormat}.
+     *
+     * @return The DataSink that writes the DataSet.
+     */
+    public static <T> DataSink<T> collectLocal(DataSet<T> source, BatchConsumer<T> consumer) {
+        String ip = RemoteCollectorImpl.guessLocalAddress();
+        SocketCollectorServer<T> server;
+        try {
+            server = new SocketCollectorServer<>(consumer);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not start the collector server.", e);
+        }
+        synchronized (servers) {
+            servers.add(server);
+        }
+        return source.output(new SocketCollectorOutputFormat<>(ip, server.getPort()));
+    }
+
+    /**
+     * Creates a {@link Kryo} instance as used to encode and decode the frames.
+     */
+    static Kryo createKryo() {
+        Kryo kryo = new Kryo();
+        kryo.setClassLoader(Thread.currentThread().getContextClassLoader());
+        return kryo;
+    }
+
+    /**
+     * Creates a new instance that listens on a free port and starts serving right away.
+     *
+     * @param consumer receives the batches of records
+     * @throws IOException if the server socket could not be set up
+     */
+    public SocketCollectorServer(BatchConsumer<T> consumer) throws IOException {
+        this.consumer = consumer;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(0));
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+
+        this.thread = new Thread(this::serve, "socket-collector-" + this.getPort());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void serve() {
+        try {
+            while (this.serverChannel.isOpen()) {
+                this.selector.select();
+                Iterator<SelectionKey> keyIterator = this.selector.selectedKeys().iterator();
+                while (keyIterator.hasNext()) {
+                    SelectionKey key = keyIterator.next();
+                    keyIterator.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        SocketChannel channel = this.serverChannel.accept();
+                        if (channel != null) {
+                            channel.configureBlocking(false);
+                            channel.register(this.selector, SelectionKey.OP_READ, new Connection());
+                        }
+                    } else if (key.isReadable()) {
+                        this.read(key);
+                    }
+                }
+            }
+        } catch (Throwable t) {
+            if (this.serverChannel.isOpen()) {
+                LOGGER.error("{} failed.", this, t);
+                this.failure = t;
+            }
+        } finally {
+            this.closeChannels();
+        }
+    }
+
+    /**
+     * Reads from a task's connection and consumes all complete frames.
+     */
+    @SuppressWarnings("unchecked")
+    private void read(SelectionKey key) throws Exception {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        while (true) {
+            ByteBuffer buffer = connection.frameLength == -1 ? connection.lengthBuffer : connection.frameBuffer;
+            int numReadBytes = channel.read(buffer);
+            if (numReadBytes == -1) {
+                LOGGER.warn("A task disconnected from {} without completing.", this);
+                key.cancel();
+                channel.close();
+                return;
+            }
+            if (buffer.hasRemaining()) {
+                return;
+            }
+
+            if (connection.frameLength == -1) {
+                // We have read a frame header.
+                connection.lengthBuffer.flip();
+                int frameLength = connection.lengthBuffer.getInt();
+                connection.lengthBuffer.clear();
+                if (frameLength == 0) {
+                    // The task is done. Its frames have all been acknowledged, so we are done, too.
+                    key.cancel();
+                    channel.close();
+                    return;
+                } else if (frameLength < 0 || frameLength > MAX_FRAME_SIZE) {
+                    throw new IOException(String.format("Illegal frame length: %d", frameLength));
+                }
+                connection.frameLength = frameLength;
+                if (connection.frameBuffer == null || connection.frameBuffer.capacity() < frameLength) {
+                    connection.frameBuffer = ByteBuffer.allocate(frameLength);
+                }
+                connection.frameBuffer.clear().limit(frameLength);
+
+            } else {
+                // We have read a complete frame.
+                List<T> batch = (List<T>) this.kryo.readClassAndObject(
+                        new Input(connection.frameBuffer.array(), 0, connection.frameLength));
+                this.consumer.consume(batch);
+                connection.frameLength = -1;
+
+                // Acknowledge the frame. The task reads its acknowledgements only when it has too many frames in
+                // flight, so these few bytes should always fit into the socket buffer.
+                ByteBuffer acknowledgement = ByteBuffer.allocate(4).putInt(connection.numConsumedFrames++);
+                acknowledgement.flip();
+                while (acknowledgement.hasRemaining()) {
+                    channel.write(acknowledgement);
+                }
+            }
+        }
+    }
+
+    private void closeChannels() {
+        for (SelectionKey key : this.selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close {}.", key.channel(), e);
+            }
+        }
+        try {
+            this.selector.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not close the selector of {}.", this, e);
+        }
+    }
+
+    /**
+     * @return the port that this server listens on
+     */
+    public int getPort() {
+        return this.serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return the error that caused this server to shut down or {@code null} if none
+     */
+    public Throwable getFailure() {
+        return this.failure;
+    }
+
+    /**
+     * Stops serving and waits for the serving thread to terminate. Open task connections are closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.serverChannel.close();
+        this.selector.wakeup();
+        try {
+            this.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Closes all servers that have been created by {@link #collectLocal(DataSet, BatchConsumer)}.
+     */
+    public static void shutdownAll() throws IOException {
+        synchronized (servers) {
+            for (SocketCollectorServer<?> server : servers) {
+                server.close();
+            }
+            servers.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SocketCollectorServer(" + this.serverChannel.socket().getLocalPort() + ")";
+    }
+
+    /**
+     * Describes the state of a connection from a task.
+     */
+    private static final class Connection {
+
+        private final ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+
+        private ByteBuffer frameBuffer;
+
+        /**
+         * The length of the frame that is currently being read or {@code -1} if the next frame header is read.
+         */
+        private int frameLength = -1;
+
+        private int numConsumedFrames = 0;
+
+    }
+}
@@ -1,348 +1,434 @@
 package de.hpi.isg.mdms.flink.readwrite;
 
-import java.io.IOException;
-
-import org.apache.flink.api.java.io.jdbc.JDBCInputFormat;
+import org.apache.flink.api.common.io.DefaultInputSplitAssigner;
+import org.apache.flink.api.common.io.RichInputFormat;
+import org.apache.flink.api.common.io.statistics.BaseStatistics;
 import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.io.GenericInputSplit;
 import org.apache.flink.core.io.InputSplit;
+import org.apache.flink.core.io.InputSplitAssigner;
+import org.apache.flink.types.NullValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Properties;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-	 import org.apache.flink.api.common.io.DefaultInputSplitAssigner;
-import org.apache.flink.api.common.io.statistics.BaseStatistics;
-import org.apache.flink.configuration.Configuration;
-import org.apache.flink.core.io.GenericInputSplit;
-import org.apache.flink.core.io.InputSplitAssigner;
-import org.apache.flink.types.NullValue;
+/**
+ * InputFormat to read data from a SQLite database and generate tuples.
+ * The InputFormat has to be configured using the supplied InputFormatBuilder.
+ * <p>If a split table is configured, the input is divided into ranges of the {@code rowid} of that table, which can
+ * be read in parallel. The query must then contain two parameters that bound the {@code rowid}, e.g.,
+ * {@code select ... from INDPart where ... and INDPart.rowid between ? and ?}. Otherwise, the query is read as
+ * a whole in a single split.</p>
+ *
+ * @param <OUT>
+ * @see Tuple
+ * @see DriverManager
+ */
+public class SqLiteJDBCInputFormat<OUT extends Tuple> extends RichInputFormat<OUT, InputSplit> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SqLiteJDBCInputFormat.class);
+
+    private String username;
+    private String password;
+    private String drivername;
+    private String dbURL;
+    private String query;
+    private String splitTable;
+
+    private transient Connection dbConn;
+    private transient PreparedStatement statement;
+    private transient ResultSet resultSet;
+    private transient boolean hasNext;
+
+    /**
+     * Read the columns of the {@link #resultSet} into the tuple fields. They are created upon the first record.
+     */
+    private transient FieldReader[] fieldReaders;
+
+    @Override
+    public void configure(Configuration parameters) {
+    }
+
+    /**
+     * Connects to the source database and executes the query for the given split.
+     *
+     * @param split is either a {@link RowIdRangeInputSplit} or a {@link GenericInputSplit} for the whole query
+     * @throws IOException
+     */
+    @Override
+    public void open(InputSplit split) throws IOException {
+        try {
+            establishConnection();
+            statement = dbConn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (split instanceof RowIdRangeInputSplit) {
+                statement.setLong(1, ((RowIdRangeInputSplit) split).getMinRowId());
+                statement.setLong(2, ((RowIdRangeInputSplit) split).getMaxRowId());
+            }
+            resultSet = statement.executeQuery();
+            hasNext = resultSet.next();
+            fieldReaders = null;
+        } catch (SQLException se) {
+            close();
+            throw new IllegalArgumentException("open() failed." + se.getMessage(), se);
+        } catch (ClassNotFoundException cnfe) {
+            throw new IllegalArgumentException("JDBC-Class not found. - " + cnfe.getMessage(), cnfe);
+        }
+    }
+
+    /**
+     * Opens a read-only connection, so that several splits can be read concurrently.
+     */
+    private void establishConnection() throws SQLException, ClassNotFoundException {
+        Class.forName(drivername);
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        Properties properties = config.toProperties();
+        if (username != null) {
+            properties.setProperty("user", username);
+            properties.setProperty("password", password);
+        }
+        dbConn = DriverManager.getConnection(dbURL, properties);
+    }
+
+    /**
+     * Closes all resources used.
+     *
+     * @throws IOException Indicates that a resource could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (resultSet != null) resultSet.close();
+        } catch (SQLException se) {
+            LOG.info("Inputformat couldn't be closed - " + se.getMessage());
+        }
+        try {
+            if (statement != null) statement.close();
+        } catch (SQLException se) {
+            LOG.info("Inputformat couldn't be closed - " + se.getMessage());
+        }
+        try {
+            if (dbConn != null) dbConn.close();
+        } catch (SQLException se) {
+            LOG.info("Inputformat couldn't be closed - " + se.getMessage());
+        }
+        resultSet = null;
+        statement = null;
+        dbConn = null;
+    }
+
+    /**
+     * Checks whether all data has been read.
+     *
+     * @return boolean value indication whether all data has been read.
+     */
+    @Override
+    public boolean reachedEnd() {
+        return !hasNext;
+    }
+
+    /**
+     * Stores the next resultSet row in a tuple
+     *
+     * @param tuple
+     * @return tuple containing next row
+     * @throws java.io.IOException
+     */
+    @Override
+    public OUT nextRecord(OUT tuple) throws IOException {
+        try {
+            if (fieldReaders == null) {
+                createFieldReaders(tuple);
+            }
+            for (int pos = 0; pos < fieldReaders.length; pos++) {
+                tuple.setField(fieldReaders[pos].read(resultSet, pos + 1), pos);
+            }
+            hasNext = resultSet.next();
+            return tuple;
+        } catch (SQLException se) {
+            close();
+            throw new IOException("Couldn't read data - " + se.getMessage(), se);
+        }
+    }
+
+    /**
+     * Creates a {@link FieldReader} for each column of the {@link #resultSet}, so that the column types need not be
+     * inspected for every record.
+     */
+    private void createFieldReaders(OUT tuple) throws SQLException, IOException {
+        ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
+        FieldReader[] fieldReaders = new FieldReader[resultSetMetaData.getColumnCount()];
+        if (tuple.getArity() != fieldReaders.length) {
+            close();
+            throw new IOException("Tuple size does not match columncount");
+        }
+        for (int pos = 0; pos < fieldReaders.length; pos++) {
+            fieldReaders[pos] = createFieldReader(resultSetMetaData.getColumnType(pos + 1), pos);
+        }
+        this.fieldReaders = fieldReaders;
+    }
+
+    private static FieldReader createFieldReader(int columnType, int pos) throws SQLException {
+        switch (columnType) {
+            case java.sql.Types.NULL:
+                return (resultSet, index) -> NullValue.getInstance();
+            case java.sql.Types.BOOLEAN:
+            case java.sql.Types.BIT:
+                return ResultSet::getBoolean;
+            case java.sql.Types.CHAR:
+            case java.sql.Types.NCHAR:
+            case java.sql.Types.VARCHAR:
+            case java.sql.Types.LONGVARCHAR:
+            case java.sql.Types.LONGNVARCHAR:
+                return ResultSet::getString;
+            case java.sql.Types.TINYINT:
+            case java.sql.Types.SMALLINT:
+                return ResultSet::getShort;
+            case java.sql.Types.BIGINT:
+                return ResultSet::getLong;
+            case java.sql.Types.INTEGER:
+                return ResultSet::getInt;
+            case java.sql.Types.FLOAT:
+            case java.sql.Types.DOUBLE:
+                return ResultSet::getDouble;
+            case java.sql.Types.REAL:
+                return ResultSet::getFloat;
+            case java.sql.Types.DECIMAL:
+            case java.sql.Types.NUMERIC:
+                return (resultSet, index) -> resultSet.getBigDecimal(index).doubleValue();
+            case java.sql.Types.DATE:
+                return (resultSet, index) -> resultSet.getDate(index).toString();
+            case java.sql.Types.TIME:
+                return (resultSet, index) -> resultSet.getTime(index).getTime();
+            case java.sql.Types.TIMESTAMP:
+                return (resultSet, index) -> resultSet.getTimestamp(index).toString();
+            case java.sql.Types.SQLXML:
+                return (resultSet, index) -> resultSet.getSQLXML(index).toString();
+            default:
+                throw new SQLException("Unsupported sql-type [" + columnType + "] on column [" + pos + "]");
+        }
+    }
+
+    /**
+     * Queries the smallest and largest {@code rowid} of the {@link #splitTable}. SQLite answers this from its B-tree
+     * without scanning the table.
+     *
+     * @return the two bounds or {@code null} if the table is empty
+     */
+    private long[] queryRowIdBounds() throws IOException {
+        try {
+            establishConnection();
+            try (Statement rowIdStatement = dbConn.createStatement();
+                 ResultSet rs = rowIdStatement.executeQuery(
+                         String.format("select min(rowid), max(rowid) from [%s]", splitTable))) {
+                rs.next();
+                long minRowId = rs.getLong(1);
+                if (rs.wasNull()) {
+                    return null;
+                }
+                return new long[]{minRowId, rs.getLong(2)};
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new IOException("Could not determine the rowids of " + splitTable + ".", e);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Estimates the number of records as the number of {@code rowid}s of the split table. This is an upper bound if
+     * the query does not join the split table with other tables.
+     */
+    @Override
+    public BaseStatistics getStatistics(BaseStatistics cachedStatistics) throws IOException {
+        if (cachedStatistics != null || splitTable == null) {
+            return cachedStatistics;
+        }
+        long[] rowIdBounds = queryRowIdBounds();
+        return new RowIdStatistics(rowIdBounds == null ? 0 : rowIdBounds[1] - rowIdBounds[0] + 1);
+    }
+
+    @Override
+    public InputSplit[] createInputSplits(int minNumSplits) throws IOException {
+        if (splitTable == null) {
+            return new InputSplit[]{new GenericInputSplit(0, 1)};
+        }
+
+        long[] rowIdBounds = queryRowIdBounds();
+        if (rowIdBounds == null) {
+            return new InputSplit[]{new RowIdRangeInputSplit(0, 1, 0)};
+        }
+        long numRowIds = rowIdBounds[1] - rowIdBounds[0] + 1;
+        int numSplits = (int) Math.max(1, Math.min(minNumSplits, numRowIds));
+        InputSplit[] splits = new InputSplit[numSplits];
+        long minRowId = rowIdBounds[0];
+        for (int splitNumber = 0; splitNumber < numSplits; splitNumber++) {
+            long maxRowId = rowIdBounds[0] + numRowIds * (splitNumber + 1) / numSplits - 1;
+            splits[splitNumber] = new RowIdRangeInputSplit(splitNumber, minRowId, maxRowId);
+            minRowId = maxRowId + 1;
+        }
+        return splits;
+    }
+
+    @Override
+    public InputSplitAssigner getInputSplitAssigner(InputSplit[] inputSplits) {
+        return new DefaultInputSplitAssigner(inputSplits);
+    }
+
+    /**
+     * A builder used to set parameters to the output format's configuration in a fluent way.
+     *
+     * @return builder
+     */
+    public static JDBCInputFormatBuilder buildJDBCInputFormat() {
+        return new JDBCInputFormatBuilder();
+    }
+
+    public static class JDBCInputFormatBuilder {
+        private final SqLiteJDBCInputFormat format;
+
+        public JDBCInputFormatBuilder() {
+            this.format = new SqLiteJDBCInputFormat();
+        }
+
+        public JDBCInputFormatBuilder setUsername(String username) {
+            format.username = username;
+            return this;
+        }
+
+        public JDBCInputFormatBuilder setPassword(String password) {
+            format.password = password;
+            return this;
+        }
+
+        public JDBCInputFormatBuilder setDrivername(String drivername) {
+            format.drivername = drivername;
+            return this;
+        }
+
+        public JDBCInputFormatBuilder setDBUrl(String dbURL) {
+            format.dbURL = dbURL;
+            return this;
+        }
+
+        public JDBCInputFormatBuilder setQuery(String query) {
+            format.query = query;
+            return this;
+        }
+
+        /**
+         * Sets the table whose {@code rowid}s are used to split the query. The query must then bound the
+         * {@code rowid} of this table with two parameters.
+         */
+        public JDBCInputFormatBuilder setSplitTable(String splitTable) {
+            format.splitTable = splitTable;
+            return this;
+        }
+
+        public SqLiteJDBCInputFormat finish() {
+            if (format.username == null) {
+                LOG.info("Username was not supplied separately.");
+            }
+            if (format.password == null) {
+                LOG.info("Password was not supplied separately.");
+            }
+            if (format.dbURL == null) {
+                throw new IllegalArgumentException("No dababase URL supplied.");
+            }
+            if (format.query == null) {
+                throw new IllegalArgumentException("No query suplied");
+            }
+            if (format.drivername == null) {
+                throw new IllegalArgumentException("No driver supplied");
+            }
+            return format;
+        }
+    }
+
+    /**
+     * Reads a single column from a {@link ResultSet}.
+     */
+    @FunctionalInterface
+    private interface FieldReader {
+
+        Object read(ResultSet resultSet, int index) throws SQLException;
+
+    }
+
+    /**
+     * An {@link InputSplit} that comprises an inclusive range of {@code rowid}s of the split table.
+     */
+    public static class RowIdRangeInputSplit implements InputSplit {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int splitNumber;
+
+        private final long minRowId, maxRowId;
+
+        public RowIdRangeInputSplit(int splitNumber, long minRowId, long maxRowId) {
+            this.splitNumber = splitNumber;
+            this.minRowId = minRowId;
+            this.maxRowId = maxRowId;
+        }
+
+        @Override
+        public int getSplitNumber() {
+            return this.splitNumber;
+        }
+
+        public long getMinRowId() {
+            return this.minRowId;
+        }
+
+        public long getMaxRowId() {
+            return this.maxRowId;
+        }
+
+        @Override
+        public String toString() {
+            return "RowIdRangeInputSplit[" + this.splitNumber + ": " + this.minRowId + ".." + this.maxRowId + "]";
+        }
+    }
+
+    /**
+     * {@link BaseStatistics} that only know the (estimated) number of records.
+     */
+    private static class RowIdStatistics implements BaseStatistics {
+
+        private final long numRecords;
+
+        private RowIdStatistics(long numRecords) {
+            this.numRecords = numRecords;
+        }
+
+        @Override
+        public long getTotalInputSize() {
+            return SIZE_UNKNOWN;
+        }
+
+        @Override
+        public long getNumberOfRecords() {
+            return this.numRecords;
+        }
 
-	 /**
-	  * InputFormat to read data from a database and generate tuples.
-	  * The InputFormat has to be configured using the supplied InputFormatBuilder.
-	  * 
-	  * @param <OUT>
-	  * @see Tuple
-	  * @see DriverManager
-	  */
-	 public class SqLiteJDBCInputFormat<OUT extends Tuple> extends JDBCInputFormat<OUT> {
-
-		 private static final long serialVersionUID = 1L;
-
-	 	private static final Logger LOG = LoggerFactory.getLogger(JDBCInputFormat.class);
-
-	 	private String username;
-	 	private String password;
-	 	private String drivername;
-	 	private String dbURL;
-	 	private String query;
-
-	 	private transient Connection dbConn;
-	 	private transient Statement statement;
-	 	private transient ResultSet resultSet;
-	 	private transient int resultSize;
-
-	 	private int[] columnTypes = null;
-
-
-	 	@Override
-	 	public void configure(Configuration parameters) {
-	 	}
-
-	 	/**
-	 	 * Connects to the source database and executes the query.
-	 	 *
-	 	 * @param ignored
-	 	 * @throws IOException
-	 	 */
-	 	@Override
-	 	public void open(InputSplit ignored) throws IOException {
-	 		try {
-	 			establishConnection();
-	 			statement = dbConn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-	 			//get size of resultSet
-	 			resultSet = statement.executeQuery(query);
-	 			resultSize = 0;
-	 			while (resultSet.next()){
-	 				resultSize++;
-	 			}
-	 			
-	 			resultSet = statement.executeQuery(query);
-	 			
-	 		} catch (SQLException se) {
-	 			close();
-	 			throw new IllegalArgumentException("open() failed." + se.getMessage(), se);
-	 		} catch (ClassNotFoundException cnfe) {
-	 			throw new IllegalArgumentException("JDBC-Class not found. - " + cnfe.getMessage(), cnfe);
-	 		}
-	 	}
-
-	 	private void establishConnection() throws SQLException, ClassNotFoundException {
-	 		Class.forName(drivername);
-	 		if (username == null) {
-	 			dbConn = DriverManager.getConnection(dbURL);
-	 		} else {
-	 			dbConn = DriverManager.getConnection(dbURL, username, password);
-	 		}
-	 	}
-
-	 	/**
-	 	 * Closes all resources used.
-	 	 *
-	 	 * @throws IOException Indicates that a resource could not be closed.
-	 	 */
-	 	@Override
-	 	public void close() throws IOException {
-	 		try {
-	 			resultSet.close();
-	 		} catch (SQLException se) {
-	 			LOG.info("Inputformat couldn't be closed - " + se.getMessage());
-	 		} catch (NullPointerException npe) {
-	 		}
-	 		try {
-	 			statement.close();
-	 		} catch (SQLException se) {
-	 			LOG.info("Inputformat couldn't be closed - " + se.getMessage());
-	 		} catch (NullPointerException npe) {
-	 		}
-	 		try {
-	 			dbConn.close();
-	 		} catch (SQLException se) {
-	 			LOG.info("Inputformat couldn't be closed - " + se.getMessage());
-	 		} catch (NullPointerException npe) {
-	 		}
-	 	}
-
-	 	/**
-	 	 * Checks whether all data has been read.
-	 	 *
-	 	 * @return boolean value indication whether all data has been read.
-	 	 * @throws IOException
-	 	 */
-	 	@Override
-	 	public boolean reachedEnd() throws IOException {
-	 		try {
-	 			if (resultSet.getRow() == resultSize){
-	 				close();
-	 				return true;
-	 			}
-	 			return false;
-	 		} catch (SQLException se) {
-	 			throw new IOException("Couldn't evaluate reachedEnd() - " + se.getMessage(), se);
-	 		}
-	 	}
-
-	 	/**
-	 	 * Stores the next resultSet row in a tuple
-	 	 *
-	 	 * @param tuple
-	 	 * @return tuple containing next row
-	 	 * @throws java.io.IOException
-	 	 */
-	 	@Override
-	 	public OUT nextRecord(OUT tuple) throws IOException {
-	 		try {
-	 			resultSet.next();
-	 			if (columnTypes == null) {
-	 				extractTypes(tuple);
-	 			}
-	 			addValue(tuple);
-	 			return tuple;
-	 		} catch (SQLException se) {
-	 			close();
-	 			throw new IOException("Couldn't read data - " + se.getMessage(), se);
-	 		} catch (NullPointerException npe) {
-	 			close();
-	 			throw new IOException("Couldn't access resultSet", npe);
-	 		}
-	 	}
-
-	 	private void extractTypes(OUT tuple) throws SQLException, IOException {
-	 		ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-	 		columnTypes = new int[resultSetMetaData.getColumnCount()];
-	 		if (tuple.getArity() != columnTypes.length) {
-	 			close();
-	 			throw new IOException("Tuple size does not match columncount");
-	 		}
-	 		for (int pos = 0; pos < columnTypes.length; pos++) {
-	 			columnTypes[pos] = resultSetMetaData.getColumnType(pos + 1);
-	 		}
-	 	}
-
-	 	/**
-	 	 * Enters data value from the current resultSet into a Record.
-	 	 *
-	 	 * @param reuse Target Record.
-	 	 */
-	 	private void addValue(OUT reuse) throws SQLException {
-	 		for (int pos = 0; pos < columnTypes.length; pos++) {
-	 			switch (columnTypes[pos]) {
-	 				case java.sql.Types.NULL:
-	 					reuse.setField(NullValue.getInstance(), pos);
-	 					break;
-	 				case java.sql.Types.BOOLEAN:
-	 					reuse.setField(resultSet.getBoolean(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.BIT:
-	 					reuse.setField(resultSet.getBoolean(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.CHAR:
-	 					reuse.setField(resultSet.getString(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.NCHAR:
-	 					reuse.setField(resultSet.getString(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.VARCHAR:
-	 					reuse.setField(resultSet.getString(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.LONGVARCHAR:
-	 					reuse.setField(resultSet.getString(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.LONGNVARCHAR:
-	 					reuse.setField(resultSet.getString(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.TINYINT:
-	 					reuse.setField(resultSet.getShort(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.SMALLINT:
-	 					reuse.setField(resultSet.getShort(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.BIGINT:
-	 					reuse.setField(resultSet.getLong(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.INTEGER:
-	 					reuse.setField(resultSet.getInt(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.FLOAT:
-	 					reuse.setField(resultSet.getDouble(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.REAL:
-	 					reuse.setField(resultSet.getFloat(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.DOUBLE:
-	 					reuse.setField(resultSet.getDouble(pos + 1), pos);
-	 					break;
-	 				case java.sql.Types.DECIMAL:
-	 					reuse.setField(resultSet.getBigDecimal(pos + 1).doubleValue(), pos);
-	 					break;
-	 				case java.sql.Types.NUMERIC:
-	 					reuse.setField(resultSet.getBigDecimal(pos + 1).doubleValue(), pos);
-	 					break;
-	 				case java.sql.Types.DATE:
-	 					reuse.setField(resultSet.getDate(pos + 1).toString(), pos);
-	 					break;
-	 				case java.sql.Types.TIME:
-	 					reuse.setField(resultSet.getTime(pos + 1).getTime(), pos);
-	 					break;
-	 				case java.sql.Types.TIMESTAMP:
-	 					reuse.setField(resultSet.getTimestamp(pos + 1).toString(), pos);
-	 					break;
-	 				case java.sql.Types.SQLXML:
-	 					reuse.setField(resultSet.getSQLXML(pos + 1).toString(), pos);
-	 					break;
-	 				default:
-	 					throw new SQLException("Unsupported sql-type [" + columnTypes[pos] + "] on column [" + pos + "]");
-
-	 				// case java.sql.Types.BINARY:
-	 				// case java.sql.Types.VARBINARY:
-	 				// case java.sql.Types.LONGVARBINARY:
-	 				// case java.sql.Types.ARRAY:
-	 				// case java.sql.Types.JAVA_OBJECT:
-	 				// case java.sql.Types.BLOB:
-	 				// case java.sql.Types.CLOB:
-	 				// case java.sql.Types.NCLOB:
-	 				// case java.sql.Types.DATALINK:
-	 				// case java.sql.Types.DISTINCT:
-	 				// case java.sql.Types.OTHER:
-	 				// case java.sql.Types.REF:
-	 				// case java.sql.Types.ROWID:
-	 				// case java.sql.Types.STRUCT:
-	 			}
-	 		}
-	 	}
-
-	 	@Override
-	 	public BaseStatistics getStatistics(BaseStatistics cachedStatistics) throws IOException {
-	 		return cachedStatistics;
-	 	}
-
-	 	@Override
-	 	public InputSplit[] createInputSplits(int minNumSplits) throws IOException {
-	 		GenericInputSplit[] split = {
-	 			new GenericInputSplit(0, 1)
-	 		};
-	 		return split;
-	 	}
-
-	 	@Override
-	 	public InputSplitAssigner getInputSplitAssigner(InputSplit[] inputSplits) {
-	 		return new DefaultInputSplitAssigner(inputSplits);
-	 	}
-	 	
-	 	/**
-		 * A builder used to set parameters to the output format's configuration in a fluent way.
-		 * @return builder
-		 */
-		public static JDBCInputFormatBuilder buildJDBCInputFormat() {
-			return new JDBCInputFormatBuilder();
-		}
-	 	
-		public static class JDBCInputFormatBuilder extends JDBCInputFormat.JDBCInputFormatBuilder{
-			private final SqLiteJDBCInputFormat format;
-
-			public JDBCInputFormatBuilder() {
-				this.format = new SqLiteJDBCInputFormat();
-			}
-
-			public JDBCInputFormatBuilder setUsername(String username) {
-				format.username = username;
-				return this;
-			}
-
-			public JDBCInputFormatBuilder setPassword(String password) {
-				format.password = password;
-				return this;
-			}
-
-			public JDBCInputFormatBuilder setDrivername(String drivername) {
-				format.drivername = drivername;
-				return this;
-			}
-
-			public JDBCInputFormatBuilder setDBUrl(String dbURL) {
-				format.dbURL = dbURL;
-				return this;
-			}
-
-			public JDBCInputFormatBuilder setQuery(String query) {
-				format.query = query;
-				return this;
-			}
-
-			public JDBCInputFormat finish() {
-				if (format.username == null) {
-					LOG.info("Username was not supplied separately.");
-				}
-				if (format.password == null) {
-					LOG.info("Password was not supplied separately.");
-				}
-				if (format.dbURL == null) {
-					throw new IllegalArgumentException("No dababase URL supplied.");
-				}
-				if (format.query == null) {
-					throw new IllegalArgumentException("No query suplied");
-				}
-				if (format.drivername == null) {
-					throw new IllegalArgumentException("No driver supplied");
-				}
-				return format;
-			}
-		}
-	 	
-	 }
+        @Override
+        public float getAverageRecordWidth() {
+            return AVG_RECORD_BYTES_UNKNOWN;
+        }
+    }
 
+}
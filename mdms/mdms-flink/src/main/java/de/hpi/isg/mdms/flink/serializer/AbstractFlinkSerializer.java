@@ -7,6 +7,8 @@ import org.apache.flink.api.java.DataSet;
 import org.apache.flink.api.java.ExecutionEnvironment;
 import org.apache.flink.api.java.tuple.Tuple;
 
+import java.util.Collection;
+
 
 public interface AbstractFlinkSerializer<T, F extends Tuple> {
 
@@ -16,4 +18,16 @@ public interface AbstractFlinkSerializer<T, F extends Tuple> {
             ConstraintCollection<?> datasourceCollection);
 
     Runnable getAddRunnable(F tuple, ConstraintCollection<T> constraintCollection);
+
+    /**
+     * Adds a batch of tuples to the given {@link ConstraintCollection}. The default implementation runs the
+     * {@link #getAddRunnable(Tuple, ConstraintCollection) add runnables} while holding the lock on the collection.
+     */
+    default void addAll(Collection<F> tuples, ConstraintCollection<T> constraintCollection) {
+        synchronized (constraintCollection) {
+            for (F tuple : tuples) {
+                this.getAddRunnable(tuple, constraintCollection).run();
+            }
+        }
+    }
 }
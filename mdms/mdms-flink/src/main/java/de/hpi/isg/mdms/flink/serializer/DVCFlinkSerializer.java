@@ -53,7 +53,9 @@ public class DVCFlinkSerializer implements AbstractFlinkSerializer<DistinctValue
                                 .setDrivername("org.sqlite.JDBC")
                                 .setDBUrl(rdbms.getSQLInterface().getDatabaseURL())
                                 .setQuery("select columnId, distinctValueCount from DistinctValueCount "
-                                        + "where  constraintCollectionId = " + datasourceCollection.getId() + "")
+                                        + "where  constraintCollectionId = " + datasourceCollection.getId() + " "
+                                        + "and rowid between ? and ?")
+                                .setSplitTable("DistinctValueCount")
                                 .finish(),
                         // specify type information for DataSet
                         new TupleTypeInfo<Tuple2<Integer, Integer>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO)
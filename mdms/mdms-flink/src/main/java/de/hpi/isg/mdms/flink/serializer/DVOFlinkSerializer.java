@@ -54,7 +54,9 @@ public class DVOFlinkSerializer implements AbstractFlinkSerializer<DistinctValue
 		                     .setDrivername("org.sqlite.JDBC")
 		                     .setDBUrl(rdbms.getSQLInterface().getDatabaseURL())
 		                     .setQuery("select overlap, column1, column2 from DistinctValueOverlap "
-		                     		+ "where constraintCollectionId = " + datasourceCollection.getId() + ";")
+		                     		+ "where constraintCollectionId = " + datasourceCollection.getId() + " "
+		                     		+ "and rowid between ? and ?;")
+		                     .setSplitTable("DistinctValueOverlap")
 		                     .finish(),
 		      // specify type information for DataSet
 		      new TupleTypeInfo<Tuple3<Integer, Integer, Integer>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO)
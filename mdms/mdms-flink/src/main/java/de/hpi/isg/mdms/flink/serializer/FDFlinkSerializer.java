@@ -60,7 +60,9 @@ public class FDFlinkSerializer implements AbstractFlinkSerializer<FunctionalDepe
                                 .setDrivername("org.sqlite.JDBC")
                                 .setDBUrl(rdbms.getSQLInterface().getDatabaseURL())
                                 .setQuery("select FD.id, lhs_col, rhs_col from FD, FD_LHS "
-                                        + "where FD.id = FD_LHS.constraintId and FD.constraintCollectionId = " + datasourceCollection.getId() + ";")
+                                        + "where FD.id = FD_LHS.constraintId and FD.constraintCollectionId = " + datasourceCollection.getId()
+                                        + " and FD_LHS.rowid between ? and ?;")
+                                .setSplitTable("FD_LHS")
                                 .finish(),
                         // specify type information for DataSet
                         new TupleTypeInfo<Tuple3<Integer, Integer, Integer>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO)
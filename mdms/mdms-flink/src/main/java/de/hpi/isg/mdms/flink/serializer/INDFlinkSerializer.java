@@ -2,6 +2,8 @@ package de.hpi.isg.mdms.flink.serializer;
 
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import org.apache.commons.lang.ArrayUtils;
@@ -81,7 +83,9 @@ public class INDFlinkSerializer implements AbstractFlinkSerializer<InclusionDepe
 		                     .setDBUrl(rdbms.getSQLInterface().getDatabaseURL())
 		                     .setQuery("select IND.constraintId, lhs, rhs from IND, INDPart "
 		                     		+ "where IND.constraintId = INDPart.constraintId " +
-									 "and constraintCollectionId = " + datasourceCollection.getId() + ";")
+									 "and constraintCollectionId = " + datasourceCollection.getId() + " " +
+									 "and INDPart.rowid between ? and ?;")
+		                     .setSplitTable("INDPart")
 		                     .finish(),
 		      // specify type information for DataSet
 		      new TupleTypeInfo<Tuple3<Integer, Integer, Integer>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO)
@@ -99,6 +103,18 @@ public class INDFlinkSerializer implements AbstractFlinkSerializer<InclusionDepe
 			ConstraintCollection<InclusionDependency> constraintCollection) {
 		return new AddInclusionDependencyCommand(tuple, constraintCollection);
 	}
+
+	@Override
+	public void addAll(Collection<Tuple2<int[], int[]>> tuples,
+			ConstraintCollection<InclusionDependency> constraintCollection) {
+		List<InclusionDependency> inds = new ArrayList<>(tuples.size());
+		for (Tuple2<int[], int[]> tuple : tuples) {
+			inds.add(new InclusionDependency(tuple.f0, tuple.f1));
+		}
+		synchronized (constraintCollection) {
+			constraintCollection.addAll(inds);
+		}
+	}
 	
 	
 	
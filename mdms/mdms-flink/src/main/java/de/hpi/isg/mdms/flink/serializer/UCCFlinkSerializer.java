@@ -60,7 +60,9 @@ public class UCCFlinkSerializer implements AbstractFlinkSerializer<UniqueColumnC
                                 .setDBUrl(rdbms.getSQLInterface().getDatabaseURL())
                                 .setQuery("select UCCPart.constraintId, col from UCCPart, UCC "
                                         + "where UCCPart.constraintId = UCC.constraintId " +
-                                        "and constraintCollectionId = " + datasourceCollection.getId() + ";")
+                                        "and constraintCollectionId = " + datasourceCollection.getId() + " " +
+                                        "and UCCPart.rowid between ? and ?;")
+                                .setSplitTable("UCCPart")
                                 .finish(),
                         // specify type information for DataSet
                         new TupleTypeInfo<Tuple2<Integer, Integer>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.INT_TYPE_INFO)
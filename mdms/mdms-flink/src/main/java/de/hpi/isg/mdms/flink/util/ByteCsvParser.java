@@ -0,0 +1,352 @@
+package de.hpi.isg.mdms.flink.util;
+
+import de.hpi.isg.mdms.Encoding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * This class parses lines of a CSV file (without line breaks) directly on their encoded bytes. It behaves like the
+ * {@link CsvParser} but does not create a {@link String} per field. Instead, it records the offsets of the fields
+ * within the given byte array and decodes a field only when it is requested via {@link #getField(int)}. Unquoted
+ * fields are found by a plain scan for the field separator.
+ * <p>The field separator and the quote character must be ASCII characters. Lines in encodings in which ASCII bytes
+ * might be part of other characters (e.g., UTF-16) are transcoded to UTF-8 before they are parsed.</p>
+ */
+@SuppressWarnings("serial")
+public class ByteCsvParser implements Serializable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ByteCsvParser.class);
+
+    private final byte fieldSeparator;
+
+    private final byte quoteChar;
+
+    private final boolean isQuotingEnabled;
+
+    private final String nullString;
+
+    private int numExpectedFields;
+
+    private final int lenientPolicy;
+
+    private final Encoding encoding;
+
+    /**
+     * The charset of the bytes that are actually parsed. This is UTF-8 if the lines need to be transcoded.
+     */
+    private transient Charset charset;
+
+    private transient boolean isTranscoding;
+
+    private transient byte[] encodedNullString;
+
+    /**
+     * The currently parsed bytes.
+     */
+    private transient byte[] bytes;
+
+    /**
+     * Describes the fields of the current line: the start offset, the end offset (exclusive), and whether the field
+     * contains escaped quotes.
+     */
+    private transient int[] fieldStarts, fieldEnds;
+
+    private transient boolean[] isEscaped, isNull;
+
+    private transient int numFields;
+
+    /**
+     * Buffer for fields that contain escaped quotes.
+     */
+    private transient byte[] unescapeBuffer;
+
+    /**
+     * Creates a new instance for UTF-8 lines.
+     *
+     * @param fieldSeparator is the character that separates fields
+     * @param quoteChar      is the character that is used to quote fields (although unquoted fields are allowed as well)
+     * @param nullString     is the representation of null values or {@code null} if none
+     */
+    public ByteCsvParser(final char fieldSeparator, final char quoteChar, final String nullString) {
+        this(fieldSeparator, quoteChar, nullString, -1, -1, Encoding.DEFAULT_ENCODING);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param fieldSeparator    is the character that separates fields
+     * @param quoteChar         is the character that is used to quote fields (although unquoted fields are allowed as
+     *                          well) or {@code '\0'} if none
+     * @param nullString        is the representation of null values or {@code null} if none
+     * @param numExpectedFields is the number of fields expected in each row
+     * @param lenientPolicy     defines how to react if the number of expected fields is not met by a row (see
+     *                          {@link CsvParser#FAIL_ON_ILLEGAL_LINES}, {@link CsvParser#FAIL_ON_OVERLONG_LINES},
+     *                          {@link CsvParser#WARN_ON_ILLEGAL_LINES})
+     * @param encoding          is the {@link Encoding} of the lines or {@code null} for the default encoding
+     */
+    public ByteCsvParser(final char fieldSeparator, final char quoteChar, final String nullString,
+                         final int numExpectedFields, final int lenientPolicy, final Encoding encoding) {
+        if (fieldSeparator > 0x7F || quoteChar > 0x7F) {
+            throw new IllegalArgumentException("Field separator and quote character must be ASCII characters.");
+        }
+        this.fieldSeparator = (byte) fieldSeparator;
+        this.quoteChar = (byte) quoteChar;
+        this.isQuotingEnabled = quoteChar != '\0';
+        this.nullString = nullString;
+        this.numExpectedFields = numExpectedFields;
+        this.lenientPolicy = lenientPolicy;
+        this.encoding = encoding == null ? Encoding.DEFAULT_ENCODING : encoding;
+    }
+
+    private void initialize() {
+        Charset sourceCharset = this.encoding.getCharset();
+        // In UTF-8 and single-byte charsets, ASCII bytes always represent ASCII characters.
+        this.isTranscoding = !sourceCharset.equals(StandardCharsets.UTF_8)
+                && sourceCharset.newEncoder().maxBytesPerChar() > 1;
+        this.charset = this.isTranscoding ? StandardCharsets.UTF_8 : sourceCharset;
+        this.encodedNullString = this.nullString == null ? null : this.nullString.getBytes(this.charset);
+        this.fieldStarts = new int[16];
+        this.fieldEnds = new int[16];
+        this.isEscaped = new boolean[16];
+        this.isNull = new boolean[16];
+        this.unescapeBuffer = new byte[64];
+    }
+
+    /**
+     * Parses the given row into fields. The byte array must not be modified until the fields are retrieved.
+     *
+     * @param bytes    contains the row to parse
+     * @param offset   is the offset of the row within the bytes
+     * @param numBytes is the length of the row in bytes
+     * @return the number of fields in the row
+     * @throws IllegalArgumentException if the given row is not well-formatted
+     */
+    public int parse(final byte[] bytes, int offset, int numBytes) {
+        if (this.charset == null) {
+            this.initialize();
+        }
+        if (this.isTranscoding) {
+            byte[] transcodedBytes = new String(bytes, offset, numBytes, this.encoding.getCharset())
+                    .getBytes(StandardCharsets.UTF_8);
+            return this.parseBytes(transcodedBytes, 0, transcodedBytes.length);
+        }
+        return this.parseBytes(bytes, offset, numBytes);
+    }
+
+    private int parseBytes(final byte[] bytes, final int offset, final int numBytes) {
+        this.bytes = bytes;
+        this.numFields = 0;
+
+        final int end = offset + numBytes;
+        int scanOffset = offset;
+        while (true) {
+            scanOffset = this.readNextField(bytes, scanOffset, end);
+            if (scanOffset >= end) {
+                break;
+            }
+            // We stopped at a field separator, so there is another field.
+            scanOffset++;
+            if (scanOffset == end) {
+                this.addField(end, end, false);
+                break;
+            }
+        }
+
+        // Make sanity check if we found the expected number of fields.
+        if (this.numExpectedFields >= 0 && this.numFields != this.numExpectedFields) {
+            final String msg = String.format("Found %d field, expected %d: <<<%s>>>", this.numFields,
+                    this.numExpectedFields, new String(bytes, offset, numBytes, this.charset));
+            if (this.lenientPolicy == CsvParser.FAIL_ON_ILLEGAL_LINES
+                    || (this.lenientPolicy == CsvParser.FAIL_ON_OVERLONG_LINES
+                    && this.numFields > this.numExpectedFields)) {
+                throw new RuntimeException(msg);
+            } else {
+                logger.warn(msg);
+            }
+        }
+
+        return this.numFields;
+    }
+
+    /**
+     * Reads the next field starting from the scan offset.
+     *
+     * @return the position of the field's trailing field separator or the end of the line
+     */
+    private int readNextField(final byte[] bytes, int scanOffset, final int end) {
+        // Skip leading white space.
+        while (scanOffset < end && (bytes[scanOffset] == ' ' || bytes[scanOffset] == '\t')) {
+            scanOffset++;
+        }
+
+        if (scanOffset == end || !this.isQuotingEnabled || bytes[scanOffset] != this.quoteChar) {
+            // Fast path: an unquoted field simply extends to the next field separator.
+            final int fieldStart = scanOffset;
+            while (scanOffset < end && bytes[scanOffset] != this.fieldSeparator) {
+                scanOffset++;
+            }
+            this.addField(fieldStart, scanOffset, false);
+            return scanOffset;
+        }
+
+        // Quoted field: look for the closing quote, where two consecutive quotes represent a single quote.
+        final int fieldStart = ++scanOffset;
+        boolean isEscaped = false;
+        while (true) {
+            while (scanOffset < end && bytes[scanOffset] != this.quoteChar) {
+                scanOffset++;
+            }
+            if (scanOffset + 1 < end && bytes[scanOffset + 1] == this.quoteChar) {
+                isEscaped = true;
+                scanOffset += 2;
+            } else {
+                break;
+            }
+        }
+        final int fieldEnd = Math.min(scanOffset, end);
+        this.addField(fieldStart, fieldEnd, isEscaped);
+        scanOffset++;
+
+        // Only white space may follow until the next field separator.
+        while (scanOffset < end && bytes[scanOffset] != this.fieldSeparator) {
+            final byte b = bytes[scanOffset];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                throw new IllegalArgumentException(String.format(
+                        "Expected '%s' or white space after quote at %d (found '%s') in line [%s].",
+                        (char) this.fieldSeparator, scanOffset, (char) b,
+                        new String(bytes, fieldStart - 1, end - fieldStart + 1, this.charset)));
+            }
+            scanOffset++;
+        }
+        return scanOffset;
+    }
+
+    private void addField(int start, int end, boolean isEscaped) {
+        if (this.numFields == this.fieldStarts.length) {
+            int newLength = this.numFields * 2;
+            this.fieldStarts = Arrays.copyOf(this.fieldStarts, newLength);
+            this.fieldEnds = Arrays.copyOf(this.fieldEnds, newLength);
+            this.isEscaped = Arrays.copyOf(this.isEscaped, newLength);
+            this.isNull = Arrays.copyOf(this.isNull, newLength);
+        }
+        this.fieldStarts[this.numFields] = start;
+        this.fieldEnds[this.numFields] = end;
+        this.isEscaped[this.numFields] = isEscaped;
+        this.isNull[this.numFields] = this.encodedNullString != null && (isEscaped ?
+                this.nullString.equals(this.decode(start, end, true)) :
+                this.equalsNullString(start, end));
+        this.numFields++;
+    }
+
+    private boolean equalsNullString(int start, int end) {
+        if (end - start != this.encodedNullString.length) {
+            return false;
+        }
+        for (int i = 0; i < this.encodedNullString.length; i++) {
+            if (this.bytes[start + i] != this.encodedNullString[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int start, int end, boolean isEscaped) {
+        if (!isEscaped) {
+            return start == end ? "" : new String(this.bytes, start, end - start, this.charset);
+        }
+        if (this.unescapeBuffer.length < end - start) {
+            this.unescapeBuffer = new byte[end - start];
+        }
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            this.unescapeBuffer[length++] = this.bytes[i];
+            if (this.bytes[i] == this.quoteChar) {
+                // Skip the second quote.
+                i++;
+            }
+        }
+        return new String(this.unescapeBuffer, 0, length, this.charset);
+    }
+
+    /**
+     * @return the number of fields in the last parsed row
+     */
+    public int getNumFields() {
+        return this.numFields;
+    }
+
+    /**
+     * Tells whether a field of the last parsed row represents a null value.
+     */
+    public boolean isNull(int field) {
+        return this.isNull[field];
+    }
+
+    /**
+     * Decodes a field of the last parsed row.
+     *
+     * @return the field value or {@code null} if it represents a null value
+     */
+    public String getField(int field) {
+        if (this.isNull[field]) {
+            return null;
+        }
+        return this.decode(this.fieldStarts[field], this.fieldEnds[field], this.isEscaped[field]);
+    }
+
+    /**
+     * Parses a field of the last parsed row as a decimal integer without decoding it first.
+     *
+     * @throws NumberFormatException if the field is not a decimal integer
+     */
+    public int getIntField(int field) {
+        int start = this.fieldStarts[field], end = this.fieldEnds[field];
+        boolean isNegative = start < end && this.bytes[start] == '-';
+        if (isNegative) {
+            start++;
+        }
+        if (start == end || end - start > 10) {
+            return Integer.parseInt(this.getField(field));
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = this.bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException(String.format("Not an integer: \"%s\"", this.getField(field)));
+            }
+            value = value * 10 + digit;
+        }
+        value = isNegative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException(String.format("Integer out of range: \"%s\"", this.getField(field)));
+        }
+        return (int) value;
+    }
+
+    /**
+     * @return the offset of a field of the last parsed row within the parsed bytes
+     */
+    public int getFieldStart(int field) {
+        return this.fieldStarts[field];
+    }
+
+    /**
+     * @return the end offset (exclusive) of a field of the last parsed row within the parsed bytes
+     */
+    public int getFieldEnd(int field) {
+        return this.fieldEnds[field];
+    }
+
+    /**
+     * @param numExpectedFields the numExpectedFields to set
+     */
+    public void setNumExpectedFields(int numExpectedFields) {
+        this.numExpectedFields = numExpectedFields;
+    }
+
+}
@@ -0,0 +1,100 @@
+package de.hpi.isg.mdms.flink.apps;
+
+import de.hpi.isg.mdms.flink.data.apriori.AssociationRule;
+import de.hpi.isg.mdms.flink.data.apriori.Item;
+import de.hpi.isg.mdms.flink.data.apriori.ItemSet;
+import de.hpi.isg.mdms.flink.functions.apriori.TakeFirstItemReduce;
+import de.hpi.isg.mdms.flink.functions.apriori.UCCItemConverter;
+import de.hpi.isg.mdms.flink.functions.apriori.UCCToTransactionsMapper;
+import de.hpi.isg.mdms.model.MetadataStore;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tests the {@link AprioriAppTemplate}.
+ */
+public class AprioriAppTemplateTest {
+
+    @Test
+    public void testFpGrowthFindsSameRulesAsApriori() throws Exception {
+        Set<String> aprioriRules = this.calculateAssociationRules(false);
+        Set<String> fpGrowthRules = this.calculateAssociationRules(true);
+        Assert.assertFalse(aprioriRules.isEmpty());
+        Assert.assertEquals(aprioriRules, fpGrowthRules);
+    }
+
+    private Set<String> calculateAssociationRules(boolean isUseFpGrowth) throws Exception {
+        AprioriAppTemplate.Parameters parameters = new AprioriAppTemplate.Parameters();
+        parameters.minSupport = 0.2;
+        parameters.minConfidence = 0.5;
+        parameters.isUseFpGrowth = isUseFpGrowth;
+        parameters.numFpGrowthGroups = 3;
+
+        TestAprioriApp app = new TestAprioriApp(parameters);
+        app.calculateAssociationRules();
+
+        Set<String> rules = new HashSet<>();
+        for (Map.Entry<Integer, DataSet<Tuple3<AssociationRule, Double, Double>>> entry :
+                app.associationRulesLevels.entrySet()) {
+            for (Tuple3<AssociationRule, Double, Double> rule : entry.getValue().collect()) {
+                Set<Integer> lhs = new HashSet<>();
+                for (Item item : rule.f0.lhs.items) {
+                    lhs.add(item.id);
+                }
+                rules.add(String.format("%s -> %d (%.3f, %.3f)", lhs, rule.f0.rhs.id, rule.f1, rule.f2));
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Finds association rules among a fixed set of UCCs.
+     */
+    private static class TestAprioriApp extends AprioriAppTemplate {
+
+        private final DataSet<Tuple1<int[]>> uccs;
+
+        TestAprioriApp(Parameters parameters) {
+            super(parameters);
+            this.executionEnvironment = ExecutionEnvironment.createLocalEnvironment(2);
+            this.executionEnvironment.getConfig().disableSysoutLogging();
+            this.metadataStore = Mockito.mock(MetadataStore.class);
+            this.uccs = this.executionEnvironment.fromElements(
+                    new Tuple1<>(new int[]{1, 2, 3}),
+                    new Tuple1<>(new int[]{1, 2}),
+                    new Tuple1<>(new int[]{1, 3}),
+                    new Tuple1<>(new int[]{1, 2, 3, 4}),
+                    new Tuple1<>(new int[]{2, 4}),
+                    new Tuple1<>(new int[]{1, 2, 4}),
+                    new Tuple1<>(new int[]{5})
+            );
+        }
+
+        @Override
+        protected DataSet<ItemSet> retrieveTransactions() {
+            return this.uccs.map(new UCCToTransactionsMapper());
+        }
+
+        @Override
+        protected DataSet<Item> retrieveItems() {
+            return this.uccs.flatMap(new UCCItemConverter())
+                    .groupBy(0)
+                    .reduceGroup(new TakeFirstItemReduce());
+        }
+
+        @Override
+        protected void executeAppLogic() throws Exception {
+            this.calculateAssociationRules();
+        }
+    }
+
+}
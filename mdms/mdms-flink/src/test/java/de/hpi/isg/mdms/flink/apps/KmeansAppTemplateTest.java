@@ -0,0 +1,86 @@
+package de.hpi.isg.mdms.flink.apps;
+
+import de.hpi.isg.mdms.flink.data.kmeans.UCCCentroid;
+import de.hpi.isg.mdms.flink.data.kmeans.UCCDataPoint;
+import de.hpi.isg.mdms.model.MetadataStore;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple1;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests the clustering of the {@link KmeansAppTemplate} on UCCs.
+ */
+public class KmeansAppTemplateTest {
+
+    @Test
+    public void testFindsSmallestValidK() throws Exception {
+        KmeansAppTemplate.Parameters parameters = new KmeansAppTemplate.Parameters();
+        parameters.k = 1;
+        parameters.similarity = 0.5;
+        parameters.numIterations = 5;
+        parameters.kBatchSize = 2;
+
+        TestKmeansApp app = new TestKmeansApp(parameters);
+        app.calculateClustering();
+
+        Assert.assertEquals(2, app.k);
+        List<UCCCentroid> centroids = app.finalCentroids.collect();
+        Assert.assertEquals(2, centroids.size());
+
+        List<Tuple3<Long, UCCDataPoint, Double>> clusteredPoints = app.clusteredPoints.collect();
+        Assert.assertEquals(6, clusteredPoints.size());
+        Set<Long> clusters = new HashSet<>();
+        for (Tuple3<Long, UCCDataPoint, Double> clusteredPoint : clusteredPoints) {
+            Assert.assertTrue(clusteredPoint.f2 >= parameters.similarity);
+            clusters.add(clusteredPoint.f0);
+        }
+        Assert.assertEquals(2, clusters.size());
+    }
+
+    /**
+     * Clusters a fixed set of UCCs that fall into two groups.
+     */
+    private static class TestKmeansApp extends KmeansAppTemplate<Tuple1<int[]>, UCCDataPoint, UCCCentroid> {
+
+        TestKmeansApp(Parameters parameters) {
+            super(parameters);
+            this.executionEnvironment = ExecutionEnvironment.createLocalEnvironment(1);
+            this.executionEnvironment.getConfig().disableSysoutLogging();
+            this.metadataStore = Mockito.mock(MetadataStore.class);
+            Mockito.when(this.metadataStore.getConstraintCollection(Mockito.anyInt()))
+                    .thenReturn(Mockito.mock(ConstraintCollection.class));
+        }
+
+        @Override
+        protected DataSet<Tuple1<int[]>> retrieveInputData() {
+            return this.executionEnvironment.fromElements(
+                    new Tuple1<>(new int[]{1, 2, 3}),
+                    new Tuple1<>(new int[]{10, 11, 12}),
+                    new Tuple1<>(new int[]{1, 2, 4}),
+                    new Tuple1<>(new int[]{10, 11, 13}),
+                    new Tuple1<>(new int[]{1, 2, 3, 4}),
+                    new Tuple1<>(new int[]{10, 11, 12, 13})
+            );
+        }
+
+        @Override
+        protected UCCDataPoint.Factory getDataPointFactory() {
+            return new UCCDataPoint.Factory();
+        }
+
+        @Override
+        protected void executeAppLogic() throws Exception {
+            this.calculateClustering();
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package de.hpi.isg.mdms.flink.data.apriori;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests for {@link FPTree}.
+ */
+public class FPTreeTest {
+
+    @Test
+    public void testMiningOfFrequentItemSets() {
+        FPTree tree = new FPTree();
+        int[][] transactions = {{0, 1, 2}, {0, 1}, {0, 2}, {0, 1, 2, 3}, {1, 3}};
+        for (int[] transaction : transactions) {
+            tree.add(transaction, transaction.length, 1);
+        }
+
+        Map<String, Integer> frequentItemSets = new HashMap<>();
+        tree.mine(2, item -> true, (itemSet, count) -> {
+            int[] sortedItemSet = itemSet.clone();
+            Arrays.sort(sortedItemSet);
+            Assert.assertNull(frequentItemSets.put(Arrays.toString(sortedItemSet), count));
+        });
+
+        Map<String, Integer> expectedItemSets = new HashMap<>();
+        expectedItemSets.put("[0]", 4);
+        expectedItemSets.put("[1]", 4);
+        expectedItemSets.put("[2]", 3);
+        expectedItemSets.put("[3]", 2);
+        expectedItemSets.put("[0, 1]", 3);
+        expectedItemSets.put("[0, 2]", 3);
+        expectedItemSets.put("[1, 2]", 2);
+        expectedItemSets.put("[1, 3]", 2);
+        expectedItemSets.put("[0, 1, 2]", 2);
+        Assert.assertEquals(expectedItemSets, frequentItemSets);
+    }
+
+    @Test
+    public void testItemFilter() {
+        FPTree tree = new FPTree();
+        int[] transaction = {0, 1, 2};
+        tree.add(transaction, transaction.length, 2);
+
+        Map<String, Integer> frequentItemSets = new HashMap<>();
+        tree.mine(1, item -> item == 1, (itemSet, count) -> {
+            int[] sortedItemSet = itemSet.clone();
+            Arrays.sort(sortedItemSet);
+            frequentItemSets.put(Arrays.toString(sortedItemSet), count);
+        });
+
+        Map<String, Integer> expectedItemSets = new HashMap<>();
+        expectedItemSets.put("[1]", 2);
+        expectedItemSets.put("[0, 1]", 2);
+        Assert.assertEquals(expectedItemSets, frequentItemSets);
+    }
+
+}
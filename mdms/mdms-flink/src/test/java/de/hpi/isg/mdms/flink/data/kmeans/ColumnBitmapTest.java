@@ -0,0 +1,44 @@
+package de.hpi.isg.mdms.flink.data.kmeans;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ColumnBitmap}.
+ */
+public class ColumnBitmapTest {
+
+    @Test
+    public void testCreationAndDecoding() {
+        ColumnBitmap bitmap = ColumnBitmap.of(130, 1, -5, 64, 1, Integer.MIN_VALUE);
+        Assert.assertEquals(5, bitmap.cardinality());
+        Assert.assertArrayEquals(new int[]{1, 64, 130, Integer.MIN_VALUE, -5}, bitmap.toArray());
+        Assert.assertTrue(bitmap.contains(-5));
+        Assert.assertTrue(bitmap.contains(64));
+        Assert.assertFalse(bitmap.contains(65));
+        Assert.assertFalse(bitmap.contains(2));
+    }
+
+    @Test
+    public void testJaccard() {
+        ColumnBitmap bitmap1 = ColumnBitmap.of(1, 2, 3, 1000);
+        ColumnBitmap bitmap2 = ColumnBitmap.of(2, 3, 4, 1000, 5000);
+        Assert.assertEquals(3, bitmap1.intersectionCardinality(bitmap2));
+        Assert.assertEquals(3d / 6, bitmap1.jaccard(bitmap2), 0d);
+        Assert.assertEquals(1d, bitmap1.jaccard(bitmap1), 0d);
+        Assert.assertEquals(0d, bitmap1.jaccard(ColumnBitmap.of(7)), 0d);
+        Assert.assertEquals(0d, ColumnBitmap.of().jaccard(ColumnBitmap.of()), 0d);
+    }
+
+    @Test
+    public void testUccCentroidCalculation() {
+        UCCDataPoint point = new UCCDataPoint(0, new int[]{1, 2});
+        point.add(new UCCDataPoint(1, new int[]{2, 3}));
+        point.add(new UCCDataPoint(2, new int[]{2, 3, 4}));
+
+        UCCCentroid centroid = point.createCentroid(0, point.div(3));
+        Assert.assertArrayEquals(new int[]{2, 3}, centroid.columns.toArray());
+        Assert.assertEquals(2d / 3, centroid.getSimilarity(new UCCDataPoint(3, new int[]{2, 3, 4})), 0d);
+    }
+
+}
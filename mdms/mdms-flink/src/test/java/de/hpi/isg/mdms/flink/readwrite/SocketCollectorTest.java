@@ -0,0 +1,81 @@
+package de.hpi.isg.mdms.flink.readwrite;
+
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests the {@link SocketCollectorOutputFormat} together with the {@link SocketCollectorServer}.
+ */
+public class SocketCollectorTest {
+
+    @Test
+    public void testTransferOfRecords() throws Exception {
+        List<Tuple2<int[], int[]>> collectedRecords = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        try (SocketCollectorServer<Tuple2<int[], int[]>> server = new SocketCollectorServer<>(batch -> {
+            batchSizes.add(batch.size());
+            collectedRecords.addAll(batch);
+        })) {
+            List<Thread> tasks = new ArrayList<>();
+            for (int taskNumber = 0; taskNumber < 3; taskNumber++) {
+                final int offset = taskNumber * 1000;
+                tasks.add(new Thread(() -> {
+                    SocketCollectorOutputFormat<Tuple2<int[], int[]>> outputFormat =
+                            new SocketCollectorOutputFormat<>("localhost", server.getPort());
+                    outputFormat.setBatchSize(64);
+                    outputFormat.setMaxUnacknowledgedFrames(2);
+                    try {
+                        outputFormat.open(0, 1);
+                        for (int i = offset; i < offset + 1000; i++) {
+                            outputFormat.writeRecord(new Tuple2<>(new int[]{i}, new int[]{i + 1, i + 2}));
+                        }
+                        outputFormat.close();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }));
+            }
+            tasks.forEach(Thread::start);
+            for (Thread task : tasks) {
+                task.join();
+            }
+
+            // The output formats return only after all their frames have been consumed.
+            Assert.assertEquals(3000, collectedRecords.size());
+            boolean[] isCollected = new boolean[3000];
+            for (Tuple2<int[], int[]> record : collectedRecords) {
+                Assert.assertArrayEquals(new int[]{record.f0[0] + 1, record.f0[0] + 2}, record.f1);
+                isCollected[record.f0[0]] = true;
+            }
+            for (boolean b : isCollected) {
+                Assert.assertTrue(b);
+            }
+            Assert.assertTrue(batchSizes.stream().allMatch(size -> size <= 64));
+            Assert.assertNull(server.getFailure());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailingConsumer() throws Exception {
+        try (SocketCollectorServer<Integer> server = new SocketCollectorServer<>(batch -> {
+            throw new IllegalStateException("Cannot consume.");
+        })) {
+            SocketCollectorOutputFormat<Integer> outputFormat =
+                    new SocketCollectorOutputFormat<>("localhost", server.getPort());
+            outputFormat.setBatchSize(1);
+            outputFormat.setMaxUnacknowledgedFrames(1);
+            outputFormat.open(0, 1);
+            for (int i = 0; i < 100; i++) {
+                outputFormat.writeRecord(i);
+            }
+            outputFormat.close();
+        }
+    }
+
+}
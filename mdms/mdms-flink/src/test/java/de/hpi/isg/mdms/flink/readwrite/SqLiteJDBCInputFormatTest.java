@@ -0,0 +1,110 @@
+package de.hpi.isg.mdms.flink.readwrite;
+
+import org.apache.flink.api.common.io.statistics.BaseStatistics;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.core.io.InputSplit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests the {@link SqLiteJDBCInputFormat}.
+ */
+public class SqLiteJDBCInputFormatTest {
+
+    private static final int NUM_ROWS = 1000;
+
+    private File testDb;
+
+    @Before
+    public void setUp() throws ClassNotFoundException, SQLException, IOException {
+        this.testDb = File.createTempFile("test", ".db");
+        this.testDb.deleteOnExit();
+        Class.forName("org.sqlite.JDBC");
+        try (Connection connection = DriverManager.getConnection(this.getDbUrl())) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table Pair (a integer, b text)");
+            }
+            try (PreparedStatement statement = connection.prepareStatement("insert into Pair values (?, ?)")) {
+                for (int i = 0; i < NUM_ROWS; i++) {
+                    statement.setInt(1, i);
+                    statement.setString(2, String.valueOf(i));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        this.testDb.delete();
+    }
+
+    private String getDbUrl() {
+        return "jdbc:sqlite:" + this.testDb.toURI().getPath();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testReadingOfRowIdRanges() throws IOException {
+        SqLiteJDBCInputFormat<Tuple2<Integer, String>> inputFormat = SqLiteJDBCInputFormat.buildJDBCInputFormat()
+                .setDrivername("org.sqlite.JDBC")
+                .setDBUrl(this.getDbUrl())
+                .setQuery("select a, b from Pair where a % 2 = 0 and rowid between ? and ?")
+                .setSplitTable("Pair")
+                .finish();
+
+        BaseStatistics statistics = inputFormat.getStatistics(null);
+        Assert.assertEquals(NUM_ROWS, statistics.getNumberOfRecords());
+
+        InputSplit[] splits = inputFormat.createInputSplits(3);
+        Assert.assertEquals(3, splits.length);
+        Set<Integer> readValues = new HashSet<>();
+        for (InputSplit split : splits) {
+            inputFormat.open(split);
+            while (!inputFormat.reachedEnd()) {
+                Tuple2<Integer, String> tuple = inputFormat.nextRecord(new Tuple2<>());
+                Assert.assertEquals(String.valueOf(tuple.f0), tuple.f1);
+                Assert.assertTrue(readValues.add(tuple.f0));
+            }
+            inputFormat.close();
+        }
+        Assert.assertEquals(NUM_ROWS / 2, readValues.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testReadingWithoutSplitTable() throws IOException {
+        SqLiteJDBCInputFormat<Tuple2<Integer, String>> inputFormat = SqLiteJDBCInputFormat.buildJDBCInputFormat()
+                .setDrivername("org.sqlite.JDBC")
+                .setDBUrl(this.getDbUrl())
+                .setQuery("select a, b from Pair")
+                .finish();
+
+        InputSplit[] splits = inputFormat.createInputSplits(3);
+        Assert.assertEquals(1, splits.length);
+        int numReadRecords = 0;
+        inputFormat.open(splits[0]);
+        while (!inputFormat.reachedEnd()) {
+            inputFormat.nextRecord(new Tuple2<>());
+            numReadRecords++;
+        }
+        inputFormat.close();
+        Assert.assertEquals(NUM_ROWS, numReadRecords);
+    }
+
+}
@@ -0,0 +1,106 @@
+package de.hpi.isg.mdms.flink.util;
+
+import de.hpi.isg.mdms.Encoding;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link ByteCsvParser}. The expectations are the same as for the {@link CsvParser}.
+ */
+public class ByteCsvParserTest {
+
+    private static List<String> parse(ByteCsvParser parser, String row, Charset charset) {
+        // Embed the row in a larger buffer to make sure that offsets are respected.
+        byte[] rowBytes = row.getBytes(charset);
+        byte[] buffer = new byte[rowBytes.length + 4];
+        Arrays.fill(buffer, (byte) ';');
+        System.arraycopy(rowBytes, 0, buffer, 2, rowBytes.length);
+
+        int numFields = parser.parse(buffer, 2, rowBytes.length);
+        List<String> fields = new ArrayList<>(numFields);
+        for (int i = 0; i < numFields; i++) {
+            fields.add(parser.getField(i));
+        }
+        return fields;
+    }
+
+    private static List<String> parse(ByteCsvParser parser, String row) {
+        return parse(parser, row, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testSimpleParsing() throws Exception {
+        final ByteCsvParser parser = new ByteCsvParser(',', '\"', null);
+
+        String line = "\"a\"," + "\"bba\"," + "," + "\"a,b,c\"";
+        Assert.assertEquals(Arrays.asList("a", "bba", "", "a,b,c"), parse(parser, line));
+
+        Assert.assertEquals(Arrays.asList("1", "2", "3", "4", "5"), parse(parser, "1,2,3,4,5"));
+        Assert.assertEquals(Arrays.asList("1", "2"), parse(parser, "1,2"));
+        Assert.assertEquals(Arrays.asList(""), parse(parser, ""));
+        Assert.assertEquals(Arrays.asList("a", ""), parse(parser, " a,"));
+    }
+
+    @Test
+    public void splittingEasyLinesShouldWork() throws Exception {
+        ByteCsvParser parser = new ByteCsvParser(';', '"', null);
+
+        String testRow = "\"Hello\";;\"World;\";\"\";!;\"\"";
+        List<String> expectedResult = Arrays.asList("Hello", "", "World;", "", "!", "");
+        Assert.assertEquals(expectedResult, parse(parser, testRow));
+    }
+
+    @Test
+    public void twoConsequentQuotesShouldBeEscaped() throws Exception {
+        ByteCsvParser parser = new ByteCsvParser(';', '"', null);
+
+        String testRow = "\"Hello \"\"World\"\"\";"
+                + "\"\"\";\"\"\";"
+                + "\"\"\"World\"\"\";"
+                + "\"\"\"\";"
+                + "\"\"\"\"\"\";"
+                + "\"\";"
+                + "\"\"";
+        List<String> expectedResult = Arrays.asList("Hello \"World\"", "\";\"", "\"World\"", "\"", "\"\"", "", "");
+        Assert.assertEquals(expectedResult, parse(parser, testRow));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void textAfterQuoteShouldFail() throws Exception {
+        ByteCsvParser parser = new ByteCsvParser(';', '"', null);
+        parse(parser, "\"a\"b;c");
+    }
+
+    @Test
+    public void nullStringsShouldWork() throws Exception {
+        ByteCsvParser parser = new ByteCsvParser(';', '"', "");
+        Assert.assertEquals(Arrays.asList("null", null, null, null), parse(parser, "null;\"\";;\"\""));
+
+        parser = new ByteCsvParser(';', '"', "\\N");
+        Assert.assertEquals(Arrays.asList("null", null, null), parse(parser, "null;\"\\N\";\\N"));
+        Assert.assertTrue(parser.isNull(2));
+    }
+
+    @Test
+    public void nonUtf8EncodingsShouldWork() throws Exception {
+        String testRow = "\u00e4\u00f6;\"\u00fc;\u00df\";42";
+        List<String> expectedResult = Arrays.asList("\u00e4\u00f6", "\u00fc;\u00df", "42");
+
+        ByteCsvParser parser = new ByteCsvParser(';', '"', null, -1, -1,
+                new Encoding(Encoding.ByteOrderMark.NONE, StandardCharsets.ISO_8859_1));
+        Assert.assertEquals(expectedResult, parse(parser, testRow, StandardCharsets.ISO_8859_1));
+        Assert.assertEquals(42, parser.getIntField(2));
+
+        parser = new ByteCsvParser(';', '"', null, -1, -1,
+                new Encoding(Encoding.ByteOrderMark.NONE, StandardCharsets.UTF_16LE));
+        Assert.assertEquals(expectedResult, parse(parser, testRow, StandardCharsets.UTF_16LE));
+        Assert.assertEquals(42, parser.getIntField(2));
+    }
+
+}
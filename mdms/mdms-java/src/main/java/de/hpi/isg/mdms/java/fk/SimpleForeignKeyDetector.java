@@ -15,6 +15,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -28,6 +30,17 @@ public class SimpleForeignKeyDetector {
 
     private static final Logger logger = LoggerFactory.getLogger(SimpleForeignKeyDetector.class);
 
+    /**
+     * INDs with up to this many referenced columns are matched against the PK candidates via hash lookups of all
+     * subsets of their referenced columns.
+     */
+    private static final int MAX_SUBSET_LOOKUP_ARITY = 10;
+
+    /**
+     * Classification tasks with up to this many {@link ClassificationSet}s are not split any further.
+     */
+    private static final int MAX_CLASSIFICATION_TASK_SIZE = 1024;
+
     /**
      * Propose and score {@link SimpleForeignKeyDetector.ForeignKeyCandidate}s among the {@link InclusionDependency}s from the {@code indCC}.
      *
@@ -46,10 +59,41 @@ public class SimpleForeignKeyDetector {
             Collection<ConstraintCollection<ColumnStatistics>> statsCCs,
             Collection<ConstraintCollection<TextColumnStatistics>> textStatsCCs,
             boolean isNeglectEmptyTables) {
+        return detect(indCC, uniqueCCs, tupleCountCCs, statsCCs, textStatsCCs, isNeglectEmptyTables,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Propose and score {@link SimpleForeignKeyDetector.ForeignKeyCandidate}s among the {@link InclusionDependency}s
+     * from the {@code indCC}. All data is read from the {@link MetadataStore} upfront by the calling thread, so that
+     * the parallel classification does not access the {@link MetadataStore}, which need not be thread-safe. The result
+     * does not depend on the parallelism.
+     *
+     * @param indCC                a{@link ConstraintCollection} of {@link InclusionDependency}s
+     * @param uniqueCCs            {@link ConstraintCollection}s of {@link UniqueColumnCombination}s
+     * @param tupleCountCCs        {@link ConstraintCollection}s of {@link TupleCount}s
+     * @param statsCCs             {@link ConstraintCollection}s of {@link ColumnStatistics}
+     * @param textStatsCCs         {@link ConstraintCollection}s of {@link TextColumnStatistics}
+     * @param isNeglectEmptyTables whether empty {@link Table}s should not be considered
+     * @param forkJoinPool         runs the classification
+     * @return the {@link SimpleForeignKeyDetector.ForeignKeyCandidate}s
+     */
+    public static List<SimpleForeignKeyDetector.ForeignKeyCandidate> detect(
+            ConstraintCollection<InclusionDependency> indCC,
+            Collection<ConstraintCollection<UniqueColumnCombination>> uniqueCCs,
+            Collection<ConstraintCollection<TupleCount>> tupleCountCCs,
+            Collection<ConstraintCollection<ColumnStatistics>> statsCCs,
+            Collection<ConstraintCollection<TextColumnStatistics>> textStatsCCs,
+            boolean isNeglectEmptyTables,
+            ForkJoinPool forkJoinPool) {
 
         final MetadataStore metadataStore = indCC.getMetadataStore();
         final IdUtils idUtils = metadataStore.getIdUtils();
 
+        logger.info("Loading INDs and table names...");
+        final List<InclusionDependency> inds = new ArrayList<>(indCC.getConstraints());
+        final Int2ObjectMap<String> tableNames = PartialForeignKeyClassifier.loadTableNames(metadataStore);
+
         List<UniqueColumnCombination> uccs = (uniqueCCs == null || uniqueCCs.isEmpty()) ?
                 null :
                 uniqueCCs.stream()
@@ -78,15 +122,14 @@ public class SimpleForeignKeyDetector {
                 .filter(columnStatistics -> columnStatistics.getNumNulls() > 0)
                 .forEach(columnStatistics -> nullableColumns.add(columnStatistics.getColumnId()));
 
-        // Find PK candidates (by removing UCCs with nullable columns) and index them by their table.
+        // Find PK candidates (by removing UCCs with nullable columns) and index them by their column sets.
         logger.info("Identifying PK candidates...");
-        final Map<Integer, List<UniqueColumnCombination>> tableUccs = (uccs == null || uccs.isEmpty()) ?
+        final Set<IntSet> pkCandidates = (uccs == null || uccs.isEmpty()) ?
                 null :
                 uccs.stream()
                         .filter(ucc -> Arrays.stream(ucc.getColumnIds()).noneMatch(nullableColumns::contains))
-                        .collect(Collectors.groupingBy(
-                                ucc -> idUtils.getTableId(ucc.getAllTargetIds()[0]),
-                                Collectors.toList()));
+                        .map(ucc -> (IntSet) new IntOpenHashSet(ucc.getColumnIds()))
+                        .collect(Collectors.toSet());
 
         final IntSet nonEmptyTableIds = new IntOpenHashSet();
         if (isNeglectEmptyTables && tupleCounts != null) {
@@ -99,23 +142,17 @@ public class SimpleForeignKeyDetector {
 
         // Keep only those INDs that reference primary key (candidates).
         logger.info("Filter PK-referencing, non-empty INDs...");
-        final List<InclusionDependency> relevantInds = indCC.getConstraints().stream()
+        final List<InclusionDependency> relevantInds = forkJoinPool.submit(() -> inds.parallelStream()
                 .filter(ind -> {
                     if (!isNeglectEmptyTables) return true;
                     final int depTableId = idUtils.getTableId(ind.getDependentColumnIds()[0]);
                     final int refTableId = idUtils.getTableId(ind.getReferencedColumnIds()[0]);
                     return nonEmptyTableIds.contains(depTableId) && nonEmptyTableIds.contains(refTableId);
                 })
-                .filter(ind -> {
-                    if (tableUccs == null) return true;
-                    final int[] refColumnIds = ind.getReferencedColumnIds();
-                    final int tableId = idUtils.getTableId(refColumnIds[0]);
-                    final List<UniqueColumnCombination> tableUccList = tableUccs.get(tableId);
-                    return tableUccList != null && tableUccList.stream()
-                            .anyMatch(ucc -> uccIsReferenced(ucc, ind, true));
-                })
-                .collect(Collectors.toList());
-        logger.info("Detected {} relevant INDs from {} INDs overall.", relevantInds.size(), indCC.getConstraints().size());
+                .filter(ind -> pkCandidates == null || isReferencingPkCandidate(ind, pkCandidates))
+                .collect(Collectors.toList())
+        ).join();
+        logger.info("Detected {} relevant INDs from {} INDs overall.", relevantInds.size(), inds.size());
 
         // Create classification sets for the remaining INDs.
         logger.info("Creating and running the partial classifiers...");
@@ -144,24 +181,28 @@ public class SimpleForeignKeyDetector {
         }
 //        this.partialClassifiers.add(new ValueDiffClassifier(1d, statsCollection, 0.75, 0.5));
         double tndWeight = 1.5d / 3;
-        partialClassifiers.add(new TableNameDiffClassifier(tndWeight, 3, metadataStore));
-        partialClassifiers.add(new TableNameDiffClassifier(tndWeight, 5, metadataStore));
-        partialClassifiers.add(new TableNameDiffClassifier(tndWeight, 7, metadataStore));
+        partialClassifiers.add(new TableNameDiffClassifier(tndWeight, 3, metadataStore, tableNames));
+        partialClassifiers.add(new TableNameDiffClassifier(tndWeight, 5, metadataStore, tableNames));
+        partialClassifiers.add(new TableNameDiffClassifier(tndWeight, 7, metadataStore, tableNames));
         double srtnWeight = 1.5d / 6;
-        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 5, metadataStore));
-        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 7, metadataStore));
-        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 9, metadataStore));
-        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 11, metadataStore));
-        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 13, metadataStore));
-        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 15, metadataStore));
+        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 5, metadataStore, tableNames));
+        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 7, metadataStore, tableNames));
+        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 9, metadataStore, tableNames));
+        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 11, metadataStore, tableNames));
+        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 13, metadataStore, tableNames));
+        partialClassifiers.add(new ShortReferencedTableNameClassifier(srtnWeight, 15, metadataStore, tableNames));
 //        this.partialClassifiers.add(new NoReferencingPKClassifier(10d, uccCollection));
         // ...
 
-        // Run classifiers.
-        partialClassifiers.forEach(classifier -> classifier.classify(fkCandidateClassificationSet.values()));
+        // Run classifiers. Each task runs all classifiers on its share of the classification sets, so that no
+        // classification set is modified concurrently.
+        final List<ClassificationSet> classificationSets = new ArrayList<>(fkCandidateClassificationSet.values());
+        forkJoinPool.invoke(
+                new ClassificationTask(partialClassifiers, classificationSets, 0, classificationSets.size())
+        );
 
         // Calculate the score for all the inclusion dependencies.
-        final List<SimpleForeignKeyDetector.ForeignKeyCandidate> indRatings = relevantInds.stream()
+        final List<ForeignKeyCandidate> indRatings = forkJoinPool.submit(() -> relevantInds.parallelStream()
                 .map(ind -> {
                     double indScore = splitIntoUnaryForeignKeyCandidates(ind)
                             .map(fkCandidateClassificationSet::get)
@@ -173,70 +214,85 @@ public class SimpleForeignKeyDetector {
                                     .collect(Collectors.groupingBy(ClassificationSet::getForeignKeyCandidate));
                     return new SimpleForeignKeyDetector.ForeignKeyCandidate(ind, indScore, reasoning);
                 })
-                .sorted((rating1, rating2) -> Double.compare(rating2.score, rating1.score))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList())
+        ).join();
 
         // Greedily pick the best INDs and check consistency with already picked INDs.
         logger.info("Picking the best INDs as FKs...");
         Int2ObjectMap<IntSet> tablePrimaryKeys = new Int2ObjectOpenHashMap<>();
         IntSet usedDependentColumns = new IntOpenHashSet();
 
-        return indRatings.stream()
-                .filter(indRating -> {
-                    // Check that none of the dependent attributes is part of an already picked IND.
-                    if (Arrays.stream(indRating.ind.getDependentColumnIds())
-                            .anyMatch(usedDependentColumns::contains)) return false;
-
-                    // The referenced attributes imply a primary key: Check that no other foreign key has been picked.
-                    final int tableId = idUtils.getTableId(indRating.ind.getReferencedColumnIds()[0]);
-                    final IntSet refTablePK = tablePrimaryKeys.get(tableId);
-                    if (refTablePK != null &&
-                            (refTablePK.size() != indRating.ind.getArity() ||
-                                    !Arrays.stream(indRating.ind.getReferencedColumnIds())
-                                            .allMatch(refTablePK::contains))) {
-                        return false;
-                    }
+        final PriorityQueue<SimpleForeignKeyDetector.ForeignKeyCandidate> indRatingQueue = new PriorityQueue<>(
+                Math.max(1, indRatings.size()), ForeignKeyCandidate.BEST_FIRST
+        );
+        indRatingQueue.addAll(indRatings);
+        final List<SimpleForeignKeyDetector.ForeignKeyCandidate> foreignKeys = new ArrayList<>();
+        while (!indRatingQueue.isEmpty()) {
+            final SimpleForeignKeyDetector.ForeignKeyCandidate indRating = indRatingQueue.poll();
+
+            // Check that none of the dependent attributes is part of an already picked IND.
+            if (Arrays.stream(indRating.ind.getDependentColumnIds())
+                    .anyMatch(usedDependentColumns::contains)) continue;
+
+            // The referenced attributes imply a primary key: Check that no other foreign key has been picked.
+            final int tableId = idUtils.getTableId(indRating.ind.getReferencedColumnIds()[0]);
+            final IntSet refTablePK = tablePrimaryKeys.get(tableId);
+            if (refTablePK != null &&
+                    (refTablePK.size() != indRating.ind.getArity() ||
+                            !Arrays.stream(indRating.ind.getReferencedColumnIds())
+                                    .allMatch(refTablePK::contains))) {
+                continue;
+            }
 
-                    // It's settled: we accept the IND. Update the PKs and used dependent attributes accordingly.
-                    Arrays.stream(indRating.ind.getDependentColumnIds())
-                            .forEach(usedDependentColumns::add);
-                    if (refTablePK == null) {
-                        tablePrimaryKeys.put(
-                                tableId,
-                                new IntOpenHashSet(indRating.ind.getReferencedColumnIds()));
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
+            // It's settled: we accept the IND. Update the PKs and used dependent attributes accordingly.
+            Arrays.stream(indRating.ind.getDependentColumnIds())
+                    .forEach(usedDependentColumns::add);
+            if (refTablePK == null) {
+                tablePrimaryKeys.put(
+                        tableId,
+                        new IntOpenHashSet(indRating.ind.getReferencedColumnIds()));
+            }
+            foreignKeys.add(indRating);
+        }
+
+        return foreignKeys;
     }
 
     /**
-     * Tells whether an {@link InclusionDependency} references a {@link UniqueColumnCombination}.
+     * Tells whether an {@link InclusionDependency} references a primary key candidate or a superset of it.
      *
-     * @param ucc                 a {@link UniqueColumnCombination}
      * @param inclusionDependency a {@link InclusionDependency}
-     * @param isWithUccSupersets  if referencing a superset of the {@code ucc} is also allowed
+     * @param pkCandidates        the column sets of the primary key candidates
      * @return whether the referencing relationship exists
      */
-    private static boolean uccIsReferenced(UniqueColumnCombination ucc, InclusionDependency inclusionDependency,
-                                           boolean isWithUccSupersets) {
-        final int[] uccColumnIds = ucc.getColumnIds();
+    private static boolean isReferencingPkCandidate(InclusionDependency inclusionDependency, Set<IntSet> pkCandidates) {
         final int[] refColumnIds = inclusionDependency.getReferencedColumnIds();
 
-        // Conclude via the cardinalities of the UCC and IND.
-        if (uccColumnIds.length > refColumnIds.length || (!isWithUccSupersets && uccColumnIds.length < refColumnIds.length)) {
+        // Look up all subsets of the referenced columns if there are not too many of them.
+        if (refColumnIds.length <= MAX_SUBSET_LOOKUP_ARITY) {
+            for (int subsetMask = 1; subsetMask < (1 << refColumnIds.length); subsetMask++) {
+                IntSet subset = new IntOpenHashSet(Integer.bitCount(subsetMask));
+                for (int i = 0; i < refColumnIds.length; i++) {
+                    if ((subsetMask & (1 << i)) != 0) subset.add(refColumnIds[i]);
+                }
+                if (pkCandidates.contains(subset)) return true;
+            }
             return false;
         }
 
-        // Make a brute-force inclusion check.
-        return Arrays.stream(uccColumnIds).allMatch(uccColumnId -> arrayContains(refColumnIds, uccColumnId));
+        // Otherwise, make a brute-force inclusion check.
+        final IntSet refColumnIdSet = new IntOpenHashSet(refColumnIds);
+        return pkCandidates.stream().anyMatch(refColumnIdSet::containsAll);
     }
 
-    private static boolean arrayContains(int[] array, int element) {
-        for (int i : array) {
-            if (i == element) return true;
+    /**
+     * Compares two {@code int} arrays lexicographically.
+     */
+    private static int compare(int[] a, int[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
         }
-        return false;
+        return Integer.compare(a.length, b.length);
     }
 
     /**
@@ -256,11 +312,61 @@ public class SimpleForeignKeyDetector {
     }
 
 
+    /**
+     * Runs {@link PartialForeignKeyClassifier}s on a range of {@link ClassificationSet}s and calculates their scores.
+     */
+    private static class ClassificationTask extends RecursiveAction {
+
+        private final List<PartialForeignKeyClassifier> partialClassifiers;
+
+        private final List<ClassificationSet> classificationSets;
+
+        private final int from, to;
+
+        private ClassificationTask(List<PartialForeignKeyClassifier> partialClassifiers,
+                                   List<ClassificationSet> classificationSets, int from, int to) {
+            this.partialClassifiers = partialClassifiers;
+            this.classificationSets = classificationSets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > MAX_CLASSIFICATION_TASK_SIZE) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new ClassificationTask(this.partialClassifiers, this.classificationSets, this.from, middle),
+                        new ClassificationTask(this.partialClassifiers, this.classificationSets, middle, this.to)
+                );
+                return;
+            }
+
+            final List<ClassificationSet> classificationSets = this.classificationSets.subList(this.from, this.to);
+            for (PartialForeignKeyClassifier partialClassifier : this.partialClassifiers) {
+                partialClassifier.classify(classificationSets);
+            }
+            // Calculate the scores right away, so that they are not lazily calculated by several threads later on.
+            classificationSets.forEach(ClassificationSet::getOverallScore);
+        }
+    }
+
     /**
      * This class amends and {@link InclusionDependency} with a score.
      */
     public static class ForeignKeyCandidate {
 
+        /**
+         * Orders {@link ForeignKeyCandidate}s by their descending score. Ties are broken via the column IDs of the
+         * {@link InclusionDependency}s to yield a deterministic order.
+         */
+        private static final Comparator<ForeignKeyCandidate> BEST_FIRST =
+                Comparator.comparingDouble((ForeignKeyCandidate candidate) -> candidate.score).reversed()
+                        .thenComparing(candidate -> candidate.ind.getDependentColumnIds(),
+                                SimpleForeignKeyDetector::compare)
+                        .thenComparing(candidate -> candidate.ind.getReferencedColumnIds(),
+                                SimpleForeignKeyDetector::compare);
+
         public final InclusionDependency ind;
 
         public final double score;
@@ -3,6 +3,11 @@ package de.hpi.isg.mdms.java.fk.classifiers;
 import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
 import de.hpi.isg.mdms.java.apps.ForeignKeyClassifier;
 import de.hpi.isg.mdms.java.fk.ClassificationSet;
+import de.hpi.isg.mdms.model.MetadataStore;
+import de.hpi.isg.mdms.model.targets.Schema;
+import de.hpi.isg.mdms.model.targets.Table;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
 import java.util.Collection;
 
@@ -26,6 +31,23 @@ abstract public class PartialForeignKeyClassifier {
         this.weight = weight;
     }
 
+    /**
+     * Loads the names of all {@link Table}s, so that classifiers need not access the {@link MetadataStore} while
+     * classifying.
+     *
+     * @param metadataStore contains the {@link Table}s
+     * @return the {@link Table} names indexed by the {@link Table} IDs
+     */
+    public static Int2ObjectMap<String> loadTableNames(MetadataStore metadataStore) {
+        Int2ObjectMap<String> tableNames = new Int2ObjectOpenHashMap<>();
+        for (Schema schema : metadataStore.getSchemas()) {
+            for (Table table : schema.getTables()) {
+                tableNames.put(table.getId(), table.getName());
+            }
+        }
+        return tableNames;
+    }
+
     /**
      * Classifies a set of {@link InclusionDependency} objects.
      *
@@ -3,6 +3,7 @@ package de.hpi.isg.mdms.java.fk.classifiers;
 import de.hpi.isg.mdms.java.fk.ClassificationSet;
 import de.hpi.isg.mdms.java.fk.UnaryForeignKeyCandidate;
 import de.hpi.isg.mdms.model.MetadataStore;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,16 +28,35 @@ public class ShortReferencedTableNameClassifier extends PartialForeignKeyClassif
      */
     private final MetadataStore metadataStore;
 
+    /**
+     * The names of the tables by their IDs.
+     */
+    private final Int2ObjectMap<String> tableNames;
+
 
     /**
-     * Creates a new instance.
+     * Creates a new instance that loads the table names from the given {@link MetadataStore}.
      */
     public ShortReferencedTableNameClassifier(double weight,
                                               int maxReferencedTableNameLength,
                                               MetadataStore metadataStore) {
+        this(weight, maxReferencedTableNameLength, metadataStore, loadTableNames(metadataStore));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param tableNames the names of all tables in the {@code metadataStore} by their IDs
+     * @see #loadTableNames(MetadataStore)
+     */
+    public ShortReferencedTableNameClassifier(double weight,
+                                              int maxReferencedTableNameLength,
+                                              MetadataStore metadataStore,
+                                              Int2ObjectMap<String> tableNames) {
         super(weight);
         this.maxReferencedTableNameLength = maxReferencedTableNameLength;
         this.metadataStore = metadataStore;
+        this.tableNames = tableNames;
     }
 
     @Override
@@ -62,7 +82,10 @@ public class ShortReferencedTableNameClassifier extends PartialForeignKeyClassif
      */
     private String getContainingTableName(int columnId) {
         final int tableId = this.metadataStore.getIdUtils().getTableId(columnId);
-        final int schemaId = this.metadataStore.getIdUtils().getSchemaId(columnId);
-        return this.metadataStore.getSchemaById(schemaId).getTableById(tableId).getName();
+        String tableName = this.tableNames.get(tableId);
+        if (tableName == null) {
+            throw new IllegalArgumentException(String.format("Unknown table %08x.", tableId));
+        }
+        return tableName;
     }
 }
@@ -3,6 +3,7 @@ package de.hpi.isg.mdms.java.fk.classifiers;
 import de.hpi.isg.mdms.java.fk.ClassificationSet;
 import de.hpi.isg.mdms.java.fk.UnaryForeignKeyCandidate;
 import de.hpi.isg.mdms.model.MetadataStore;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import org.simmetrics.metrics.LongestCommonSubstring;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +29,11 @@ public class TableNameDiffClassifier extends PartialForeignKeyClassifier {
      */
     private final MetadataStore metadataStore;
 
+    /**
+     * The names of the tables by their IDs.
+     */
+    private final Int2ObjectMap<String> tableNames;
+
     /**
      * Metric used to compare table names.
      */
@@ -35,14 +41,28 @@ public class TableNameDiffClassifier extends PartialForeignKeyClassifier {
 
 
     /**
-     * Creates a new instance.
+     * Creates a new instance that loads the table names from the given {@link MetadataStore}.
      */
     public TableNameDiffClassifier(double weight,
                                    int minCommonSubsequenceLength,
                                    MetadataStore metadataStore) {
+        this(weight, minCommonSubsequenceLength, metadataStore, loadTableNames(metadataStore));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param tableNames the names of all tables in the {@code metadataStore} by their IDs
+     * @see #loadTableNames(MetadataStore)
+     */
+    public TableNameDiffClassifier(double weight,
+                                   int minCommonSubsequenceLength,
+                                   MetadataStore metadataStore,
+                                   Int2ObjectMap<String> tableNames) {
         super(weight);
         this.minCommonSubsequenceLength = minCommonSubsequenceLength;
         this.metadataStore = metadataStore;
+        this.tableNames = tableNames;
         this.distance = new LongestCommonSubstring();
     }
 
@@ -74,8 +94,11 @@ public class TableNameDiffClassifier extends PartialForeignKeyClassifier {
      */
     private String getContainingTableName(int columnId) {
         final int tableId = this.metadataStore.getIdUtils().getTableId(columnId);
-        final int schemaId = this.metadataStore.getIdUtils().getSchemaId(columnId);
-        return this.metadataStore.getSchemaById(schemaId).getTableById(tableId).getName();
+        String tableName = this.tableNames.get(tableId);
+        if (tableName == null) {
+            throw new IllegalArgumentException(String.format("Unknown table %08x.", tableId));
+        }
+        return tableName;
     }
 
 }
@@ -26,6 +26,7 @@ public class CoverageFeature extends Feature {
 
     public CoverageFeature(ConstraintCollection<?> columnStatsConstraintCollection) {
         featureName = COVERAGE_FEATURE_NAME;
+        featureType = FeatureType.NUMERIC;
 
         // Initialize the distinct value counts.
         this.distinctValues = new Int2LongOpenHashMap((int) columnStatsConstraintCollection.getConstraints().stream()
@@ -16,7 +16,7 @@ abstract public class Feature implements FeatureUpdate {
     /**
      * Indicate whether the feature is numeric or nominal.
      */
-    protected String featureType;
+    protected FeatureType featureType = FeatureType.NOMINAL;
 
     /**
      * Indicate the count of distinct value.
@@ -36,4 +36,23 @@ abstract public class Feature implements FeatureUpdate {
     public String getFeatureName() {
         return featureName;
     }
+
+    public FeatureType getFeatureType() {
+        return featureType;
+    }
+
+    /**
+     * Describes how the values of a feature are to be interpreted.
+     */
+    public enum FeatureType {
+        /**
+         * The feature values are categories that are compared by equality.
+         */
+        NOMINAL,
+
+        /**
+         * The feature values are continuous numbers that can be discretized into bins.
+         */
+        NUMERIC;
+    }
 }
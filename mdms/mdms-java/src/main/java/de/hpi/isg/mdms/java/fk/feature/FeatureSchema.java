@@ -0,0 +1,258 @@
+package de.hpi.isg.mdms.java.fk.feature;
+
+import de.hpi.isg.mdms.java.fk.Instance;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A compiled view of a list of {@link Feature}s. Each feature is assigned a dense slot, and the values of each slot
+ * are dictionary-encoded into codes {@code 0..n-1}, so that {@link Instance}s can be processed as primitive vectors
+ * rather than via their feature maps. {@link Feature.FeatureType#NUMERIC} features with more distinct values than
+ * allowed bins are discretized into equal-frequency bins.
+ * <p>The schema is compiled over a set of (training) instances. Values that did not occur in these instances are
+ * encoded as {@link #getUnseenCode(int)}, missing values as {@link #MISSING_CODE}.</p>
+ */
+public class FeatureSchema {
+
+    /**
+     * Default maximum number of bins for numeric features.
+     */
+    public static final int DEFAULT_MAX_BINS = 16;
+
+    /**
+     * Code for instances that do not have a value for a feature.
+     */
+    public static final int MISSING_CODE = -1;
+
+    private final String[] featureNames;
+
+    /**
+     * Encodes the values of nominal slots; {@code null} for numeric slots.
+     */
+    private final Object2IntMap<Object>[] dictionaries;
+
+    /**
+     * Sorted distinct values (if not binned) or bin upper bounds (if binned) of numeric slots; {@code null} for
+     * nominal slots.
+     */
+    private final double[][] numericBounds;
+
+    /**
+     * Tells for numeric slots whether their values are binned.
+     */
+    private final boolean[] isBinned;
+
+    /**
+     * The value that each code stands for.
+     */
+    private final Object[][] codeValues;
+
+    @SuppressWarnings("unchecked")
+    private FeatureSchema(int numSlots) {
+        this.featureNames = new String[numSlots];
+        this.dictionaries = new Object2IntMap[numSlots];
+        this.numericBounds = new double[numSlots][];
+        this.isBinned = new boolean[numSlots];
+        this.codeValues = new Object[numSlots][];
+    }
+
+    /**
+     * Compiles a new schema with {@link #DEFAULT_MAX_BINS} bins for numeric features.
+     *
+     * @see #compile(List, Collection, int)
+     */
+    public static FeatureSchema compile(List<Feature> features, Collection<Instance> instances) {
+        return compile(features, instances, DEFAULT_MAX_BINS);
+    }
+
+    /**
+     * Compiles a new schema.
+     *
+     * @param features  the features to assign slots to
+     * @param instances whose (already calculated) feature values make up the value dictionaries and bins
+     * @param maxBins   the maximum number of bins for each numeric feature
+     * @return the compiled schema
+     */
+    public static FeatureSchema compile(List<Feature> features, Collection<Instance> instances, int maxBins) {
+        if (maxBins < 1) {
+            throw new IllegalArgumentException("At least one bin is required.");
+        }
+
+        FeatureSchema schema = new FeatureSchema(features.size());
+        for (int slot = 0; slot < features.size(); slot++) {
+            Feature feature = features.get(slot);
+            String featureName = feature.getFeatureName();
+            schema.featureNames[slot] = featureName;
+            if (feature.getFeatureType() == Feature.FeatureType.NUMERIC) {
+                schema.compileNumericSlot(slot, featureName, instances, maxBins);
+            } else {
+                schema.compileNominalSlot(slot, featureName, instances);
+            }
+        }
+        return schema;
+    }
+
+    private void compileNominalSlot(int slot, String featureName, Collection<Instance> instances) {
+        Object2IntOpenHashMap<Object> dictionary = new Object2IntOpenHashMap<>();
+        dictionary.defaultReturnValue(MISSING_CODE);
+        List<Object> values = new ArrayList<>();
+        for (Instance instance : instances) {
+            Object value = instance.getFeatureVector().get(featureName);
+            if (value == null || dictionary.containsKey(value)) continue;
+            dictionary.put(value, values.size());
+            values.add(value);
+        }
+        this.dictionaries[slot] = dictionary;
+        this.codeValues[slot] = values.toArray();
+    }
+
+    private void compileNumericSlot(int slot, String featureName, Collection<Instance> instances, int maxBins) {
+        DoubleArrayList valueList = new DoubleArrayList(instances.size());
+        for (Instance instance : instances) {
+            Object value = instance.getFeatureVector().get(featureName);
+            if (value != null) valueList.add(((Number) value).doubleValue());
+        }
+        double[] values = valueList.toDoubleArray();
+        Arrays.sort(values);
+        double[] distinctValues = distinct(values);
+
+        double[] bounds;
+        if (distinctValues.length <= maxBins) {
+            // There are only few values, so we can keep them as they are.
+            bounds = distinctValues;
+        } else {
+            // Use the upper ends of equal-frequency bins. Several bins can collapse if values are repeated.
+            double[] binUpperBounds = new double[maxBins];
+            for (int bin = 0; bin < maxBins; bin++) {
+                binUpperBounds[bin] = values[(int) ((bin + 1L) * values.length / maxBins) - 1];
+            }
+            bounds = distinct(binUpperBounds);
+            this.isBinned[slot] = true;
+        }
+        this.numericBounds[slot] = bounds;
+
+        Object[] codeValues = new Object[bounds.length];
+        for (int code = 0; code < bounds.length; code++) {
+            codeValues[code] = bounds[code];
+        }
+        this.codeValues[slot] = codeValues;
+    }
+
+    /**
+     * @param sortedValues sorted values
+     * @return the distinct values in the given array
+     */
+    private static double[] distinct(double[] sortedValues) {
+        int numDistinctValues = 0;
+        double[] distinctValues = new double[sortedValues.length];
+        for (double value : sortedValues) {
+            if (numDistinctValues == 0 || Double.compare(distinctValues[numDistinctValues - 1], value) != 0) {
+                distinctValues[numDistinctValues++] = value;
+            }
+        }
+        return Arrays.copyOf(distinctValues, numDistinctValues);
+    }
+
+    /**
+     * @return the number of slots in this schema
+     */
+    public int getNumSlots() {
+        return this.featureNames.length;
+    }
+
+    /**
+     * @return the name of the feature in the given slot
+     */
+    public String getFeatureName(int slot) {
+        return this.featureNames[slot];
+    }
+
+    /**
+     * @return the number of codes (excluding the unseen code) of the given slot
+     */
+    public int getNumCodes(int slot) {
+        return this.codeValues[slot].length;
+    }
+
+    /**
+     * @return the code for values of the given slot that did not occur when compiling this schema
+     */
+    public int getUnseenCode(int slot) {
+        return this.getNumCodes(slot);
+    }
+
+    /**
+     * @return the feature value represented by a code of the given slot; for bins, this is the upper bound of the bin
+     */
+    public Object getCodeValue(int slot, int code) {
+        return this.codeValues[slot][code];
+    }
+
+    /**
+     * Encodes a single feature value.
+     *
+     * @param slot  the slot of the feature
+     * @param value the feature value or {@code null} if the value is missing
+     * @return the code for the value
+     */
+    public int encode(int slot, Object value) {
+        if (value == null) return MISSING_CODE;
+
+        if (this.dictionaries[slot] != null) {
+            int code = this.dictionaries[slot].getInt(value);
+            return code == MISSING_CODE ? this.getUnseenCode(slot) : code;
+        }
+
+        double[] bounds = this.numericBounds[slot];
+        int pos = Arrays.binarySearch(bounds, ((Number) value).doubleValue());
+        if (pos >= 0) return pos;
+        if (!this.isBinned[slot]) return this.getUnseenCode(slot);
+        // Assign the value to the first bin whose upper bound is greater. Values beyond the last bin go to it.
+        return Math.min(-pos - 1, bounds.length - 1);
+    }
+
+    /**
+     * Encodes the feature values of an instance into a dense vector.
+     *
+     * @param instance whose feature values should be encoded
+     * @param codes    the vector to write the codes to; must provide a slot for each feature
+     * @return the {@code codes} array
+     */
+    public int[] encode(Instance instance, int[] codes) {
+        for (int slot = 0; slot < this.featureNames.length; slot++) {
+            codes[slot] = this.encode(slot, instance.getFeatureVector().get(this.featureNames[slot]));
+        }
+        return codes;
+    }
+
+    /**
+     * Encodes the feature values of an instance into a new dense vector.
+     *
+     * @see #encode(Instance, int[])
+     */
+    public int[] encode(Instance instance) {
+        return this.encode(instance, new int[this.featureNames.length]);
+    }
+
+    /**
+     * Extracts the raw numeric feature values of an instance into a new dense vector. Missing and non-numeric values
+     * are represented as {@link Double#NaN}.
+     *
+     * @param instance whose feature values should be extracted
+     * @return the vector
+     */
+    public double[] toDenseVector(Instance instance) {
+        double[] vector = new double[this.featureNames.length];
+        for (int slot = 0; slot < this.featureNames.length; slot++) {
+            Object value = instance.getFeatureVector().get(this.featureNames[slot]);
+            vector[slot] = value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+        }
+        return vector;
+    }
+}
@@ -1,5 +1,7 @@
 package de.hpi.isg.mdms.java.fk.ml.classifier;
 
+import de.hpi.isg.mdms.java.fk.Instance;
+
 /**
  * This interface represent the operations that a concrete classifier may have, i.e. train and predict.
  * @author Lan Jiang
@@ -9,4 +11,12 @@ public interface Classifier {
     public void train();
 
     public void predict();
+
+    /**
+     * Predict the label of a single instance with the trained model. In contrast to {@link #predict()}, the instance
+     * is not modified, so that this method can be used concurrently on shared instances.
+     * @param instance the instance to be classified
+     * @return the predicted label
+     */
+    public Instance.Result predict(Instance instance);
 }
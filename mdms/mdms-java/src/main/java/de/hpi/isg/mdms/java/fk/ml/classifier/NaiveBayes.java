@@ -1,22 +1,19 @@
 package de.hpi.isg.mdms.java.fk.ml.classifier;
 
-import de.hpi.isg.mdms.java.fk.Dataset;
 import de.hpi.isg.mdms.java.fk.Instance;
-import de.hpi.isg.mdms.java.fk.UnaryForeignKeyCandidate;
-import de.hpi.isg.mdms.java.fk.feature.Feature;
-import it.unimi.dsi.fastutil.Hash;
+import de.hpi.isg.mdms.java.fk.feature.FeatureSchema;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
- * A concrete Naive Bayes classifier.
+ * A concrete Naive Bayes classifier. The training set is compiled into a {@link FeatureSchema}, so that training and
+ * prediction work on dense code vectors and count arrays rather than on the feature maps of the instances.
  * @author Lan Jiang
  */
 public class NaiveBayes extends AbstractClassifier {
 
+    private static final Instance.Result[] LABELS = Instance.Result.values();
+
     /**
      * Indicate the prior probability, i.e. p(c)
      */
@@ -24,106 +21,153 @@ public class NaiveBayes extends AbstractClassifier {
 
     /**
      * Indicate the likelyhoods, i.e. p(x|c). The keys and values in the map
-     * stand for <FeatureName, <Label, <Value, Count>>>.
+     * stand for <FeatureName, <Label, <Value, Likelyhood>>>. It is derived from the trained arrays on demand.
      */
     private Map<String, Map<Instance.Result, Map<Object, Double>>> likelyhoods;
-//    private List<PartialLikelyhoods> likelyhoods;
 
-    private Map<Instance.Result, List<Instance>> instancesByClasses;
+    /**
+     * Compiled from the training set.
+     */
+    private FeatureSchema schema;
+
+    /**
+     * Number of training instances per label (indexed by ordinal).
+     */
+    private int[] classCounts;
+
+    /**
+     * Logarithmic prior probabilities per label (indexed by ordinal).
+     */
+    private double[] logPriors;
+
+    /**
+     * Counts of the feature value codes indexed by slot, label, and code. The last code of each slot is the unseen code
+     * and always has a count of {@code 0}.
+     */
+    private int[][][] valueCounts;
+
+    /**
+     * Number of distinct values that occur for each slot and label.
+     */
+    private int[][] numDistinctValues;
+
+    /**
+     * Logarithmic likelyhoods indexed by slot, label, and code.
+     */
+    private double[][][] logLikelyhoods;
 
     public NaiveBayes() {
         priorProbability = new HashMap<>();
         likelyhoods = new HashMap<>();
-//        likelyhoods = new ArrayList<>();
     }
 
     private void calcultePriorProbability() {
-        instancesByClasses.entrySet().stream().forEach(entry -> {
-            double prior = (entry.getValue().size() + 1.0) / (trainingset.getDataset().size() + 1.0 * trainingset.getNumOfClasses());
-            priorProbability.put(entry.getKey(), prior);
-        });
+        final int numInstances = trainingset.getDataset().size();
+        logPriors = new double[LABELS.length];
+        priorProbability = new HashMap<>();
+        for (Instance.Result label : LABELS) {
+            final int classCount = classCounts[label.ordinal()];
+            if (classCount == 0) continue;
+            double prior = (classCount + 1.0) / (numInstances + 1.0 * trainingset.getNumOfClasses());
+            priorProbability.put(label, prior);
+            logPriors[label.ordinal()] = Math.log(prior);
+        }
     }
 
-    private void calculateLikelyhoods() {
-        List<Feature> features = trainingset.getFeatures();
-        features.stream().forEach(feature -> {
-            String featureName = feature.getFeatureName();
-            instancesByClasses.entrySet().stream().forEach(entry -> {
-                Map<Object, Double> partialfeatureValue = new HashMap<>();
-                entry.getValue().stream().map(Instance::getFeatureVector).flatMap(map -> map.entrySet().stream())
-                        .filter(stringObjectEntry -> stringObjectEntry.getKey().equals(featureName))
-                        .forEach(stringObjectEntry -> {
-                            Object value = stringObjectEntry.getValue();
-                            if (partialfeatureValue.containsKey(value)) {
-                                partialfeatureValue.put(value, partialfeatureValue.get(value)+1.0);
-                            } else {
-                                partialfeatureValue.put(value, 1.0);
-                            }
-                        });
-                partialfeatureValue.entrySet().stream().forEach(pfventry -> {
-                    partialfeatureValue.put(pfventry.getKey(), (pfventry.getValue() + 1.0) / (entry.getValue().size() + partialfeatureValue.size()));
-                });
-                if (likelyhoods.containsKey(featureName)) {
-                    likelyhoods.get(featureName).put(entry.getKey(), partialfeatureValue);
-                } else {
-                    Map<Instance.Result, Map<Object, Double>> featureValueByClass = new HashMap<>();
-                    featureValueByClass.put(entry.getKey(), partialfeatureValue);
-                    likelyhoods.put(featureName, featureValueByClass);
+    private void calculateLikelyhoods(int[][] encodedInstances, int[] labels) {
+        final int numSlots = schema.getNumSlots();
+        valueCounts = new int[numSlots][LABELS.length][];
+        numDistinctValues = new int[numSlots][LABELS.length];
+        logLikelyhoods = new double[numSlots][LABELS.length][];
+
+        for (int slot = 0; slot < numSlots; slot++) {
+            final int numCodes = schema.getNumCodes(slot) + 1;
+            for (int label = 0; label < LABELS.length; label++) {
+                valueCounts[slot][label] = new int[numCodes];
+            }
+        }
+
+        // Count the feature values per label.
+        for (int i = 0; i < encodedInstances.length; i++) {
+            final int[] codes = encodedInstances[i];
+            final int label = labels[i];
+            for (int slot = 0; slot < numSlots; slot++) {
+                if (codes[slot] == FeatureSchema.MISSING_CODE) continue;
+                if (valueCounts[slot][label][codes[slot]]++ == 0) {
+                    numDistinctValues[slot][label]++;
                 }
-//                PartialLikelyhoods partialLikelyhoods = new PartialLikelyhoods(featureName, entry.getKey());
-//                partialLikelyhoods.setValueDistribution(partialfeatureValue);
-//                likelyhoods.add(partialLikelyhoods);
-            });
-        });
-
-//        instancesByClasses.entrySet().forEach(resultListEntry -> {
-//            features.stream().forEach(feature -> {
-//                PartialLikelyhoods partialLikelyhoods =
-//                        new PartialLikelyhoods(feature.getFeatureName(), resultListEntry.getKey());
-//                List<Object> values = resultListEntry.getValue().stream()
-//                        .map(Instance::getFeatureVector).flatMap(map -> map.entrySet().stream())
-//                        .filter(entry -> entry.getKey().equals(feature.getFeatureName()))
-//                        .map(Map.Entry::getValue).collect(Collectors.toList());
-//                partialLikelyhoods.calculateValueDistribution(values);
-//                partialLikelyhoods.getValueDistribution().entrySet().stream()
-//                        .forEach(objectDoubleEntry ->
-//                                partialLikelyhoods.getValueDistribution().put(objectDoubleEntry.getKey(),objectDoubleEntry.getValue()+1.0));
-//            });
-//        });
+            }
+        }
+
+        // Apply Laplace smoothing: p(x|c) = (count(x,c) + 1) / (|c| + |distinct values of c|).
+        for (int slot = 0; slot < numSlots; slot++) {
+            for (int label = 0; label < LABELS.length; label++) {
+                final int[] counts = valueCounts[slot][label];
+                final double[] logProbabilities = new double[counts.length];
+                final double logDenominator = Math.log(classCounts[label] + numDistinctValues[slot][label]);
+                for (int code = 0; code < counts.length; code++) {
+                    logProbabilities[code] = Math.log(counts[code] + 1.0) - logDenominator;
+                }
+                logLikelyhoods[slot][label] = logProbabilities;
+            }
+        }
+        likelyhoods = null;
     }
 
     @Override
     public void train() {
-        instancesByClasses = trainingset.getDataset().stream()
-                .collect(Collectors.groupingBy(Instance::getIsForeignKey));
+        final List<Instance> instances = trainingset.getDataset();
+        schema = FeatureSchema.compile(trainingset.getFeatures(), instances);
+
+        final int[][] encodedInstances = new int[instances.size()][];
+        final int[] labels = new int[instances.size()];
+        classCounts = new int[LABELS.length];
+        for (int i = 0; i < instances.size(); i++) {
+            final Instance instance = instances.get(i);
+            encodedInstances[i] = schema.encode(instance);
+            labels[i] = instance.getIsForeignKey().ordinal();
+            classCounts[labels[i]]++;
+        }
+
         calcultePriorProbability();
-        calculateLikelyhoods();
+        calculateLikelyhoods(encodedInstances, labels);
     }
 
     @Override
     public void predict() {
-        testset.getDataset().forEach(instance -> {
-            double max = Double.NEGATIVE_INFINITY;
-            Instance.Result maxResult = Instance.Result.UNKNOWN;
-            for (Instance.Result label : Instance.Result.values()) {
-                if (label.equals(Instance.Result.UNKNOWN)) continue;
-                double result = 0.0;
-                for (String feature : instance.getFeatureVector().keySet()) {
-                    if (likelyhoods.get(feature).get(label)
-                            .containsKey(instance.getFeatureVector().get(feature))) {
-                        result += Math.log(likelyhoods.get(feature).get(label).get(instance.getFeatureVector().get(feature)));
-                    } else {
-                        result += Math.log(1.0 / (instancesByClasses.get(label).size() + likelyhoods.get(feature).get(label).size()));
-                    }
-                }
-                result += Math.log(priorProbability.get(label));
-                if (result > max) {
-                    max = result;
-                    maxResult = label;
-                }
+        final int[] codes = new int[schema.getNumSlots()];
+        testset.getDataset().forEach(instance -> instance.setIsForeignKey(predict(schema.encode(instance, codes))));
+    }
+
+    @Override
+    public Instance.Result predict(Instance instance) {
+        return predict(schema.encode(instance));
+    }
+
+    private Instance.Result predict(int[] codes) {
+        double max = Double.NEGATIVE_INFINITY;
+        Instance.Result maxResult = Instance.Result.UNKNOWN;
+        for (Instance.Result label : LABELS) {
+            if (label.equals(Instance.Result.UNKNOWN) || classCounts[label.ordinal()] == 0) continue;
+            final double result = logPosterior(codes, label.ordinal());
+            if (result > max) {
+                max = result;
+                maxResult = label;
             }
-            instance.setIsForeignKey(maxResult);
-        });
+        }
+        return maxResult;
+    }
+
+    /**
+     * Calculate the (unnormalized) logarithmic posterior probability of a label for an encoded instance.
+     */
+    private double logPosterior(int[] codes, int label) {
+        double result = 0.0;
+        for (int slot = 0; slot < codes.length; slot++) {
+            if (codes[slot] == FeatureSchema.MISSING_CODE) continue;
+            result += logLikelyhoods[slot][label][codes[slot]];
+        }
+        return result + logPriors[label];
     }
 
     public Map<Instance.Result, Double> getPriorProbability() {
@@ -131,39 +175,28 @@ public class NaiveBayes extends AbstractClassifier {
     }
 
     public Map<String, Map<Instance.Result, Map<Object, Double>>> getLikelyhoods() {
+        if (likelyhoods == null) {
+            likelyhoods = new HashMap<>();
+            for (int slot = 0; slot < schema.getNumSlots(); slot++) {
+                Map<Instance.Result, Map<Object, Double>> featureValueByClass = new HashMap<>();
+                for (Instance.Result label : LABELS) {
+                    if (classCounts[label.ordinal()] == 0) continue;
+                    final int[] counts = valueCounts[slot][label.ordinal()];
+                    final int denominator = classCounts[label.ordinal()] + numDistinctValues[slot][label.ordinal()];
+                    Map<Object, Double> partialfeatureValue = new HashMap<>();
+                    for (int code = 0; code < schema.getNumCodes(slot); code++) {
+                        if (counts[code] == 0) continue;
+                        partialfeatureValue.put(schema.getCodeValue(slot, code), (counts[code] + 1.0) / denominator);
+                    }
+                    featureValueByClass.put(label, partialfeatureValue);
+                }
+                likelyhoods.put(schema.getFeatureName(slot), featureValueByClass);
+            }
+        }
         return likelyhoods;
     }
 
-//    public class PartialLikelyhoods {
-//        private String featureName;
-//        private Instance.Result label;
-//        private Map<Object, Double> valueDistribution;
-//
-//        public PartialLikelyhoods(String featureName, Instance.Result label) {
-//            this.featureName = featureName;
-//            this.label = label;
-//            valueDistribution = new HashMap<>();
-//        }
-//
-////        public void calculateValueDistribution(List<Object> values) {
-////            Map<Object, Long> result = values.stream().
-////                    collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-////            for (Map.Entry<Object, Long> entry : result.entrySet()) {
-////                valueDistribution.put(entry.getKey(), (double)entry.getValue());
-////            }
-////        }
-//
-//
-//        public String getFeatureName() {
-//            return featureName;
-//        }
-//
-//        public Map<Object, Double> getValueDistribution() {
-//            return valueDistribution;
-//        }
-//
-//        public void setValueDistribution(Map<Object, Double> valueDistribution) {
-//            this.valueDistribution = valueDistribution;
-//        }
-//    }
+    public FeatureSchema getSchema() {
+        return schema;
+    }
 }
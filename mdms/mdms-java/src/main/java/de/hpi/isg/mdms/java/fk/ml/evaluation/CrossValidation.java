@@ -2,90 +2,133 @@ package de.hpi.isg.mdms.java.fk.ml.evaluation;
 
 import de.hpi.isg.mdms.java.fk.Dataset;
 import de.hpi.isg.mdms.java.fk.Instance;
-import de.hpi.isg.mdms.java.fk.UnaryForeignKeyCandidate;
 import de.hpi.isg.mdms.java.fk.ml.classifier.AbstractClassifier;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
+ * Evaluates a classifier on stratified {@link Fold}s of a dataset. The folds are evaluated concurrently, each with
+ * its own classifier, and neither the dataset nor its instances are modified. The feature values of the instances
+ * must have been calculated beforehand, e.g., via {@link Dataset#buildFeatureValueDistribution()}.
  * @author Lan Jiang
  */
 public class CrossValidation {
 
     private Dataset dataset;
 
-    private AbstractClassifier classifier;
-
-    private List<Dataset> partialDatasets;
-
     /**
-     * The f measure score of the classifier on this dataset with cross validation.
+     * Creates a new, untrained classifier for each fold.
      */
-    private double fscore = 0.0;
+    private Supplier<? extends AbstractClassifier> classifierFactory;
 
     /**
      * Number of folds in this cross validation. The default value is 10.
      */
     private int numFolds = 10;
 
-    public CrossValidation(Dataset dataset, AbstractClassifier classifier) {
+    /**
+     * The label that is considered as positive when calculating precision, recall, and F1 score.
+     */
+    private Instance.Result evaluatedLabel = Instance.Result.FOREIGN_KEY;
+
+    /**
+     * Seeds the assignment of instances to folds.
+     */
+    private long seed = 0L;
+
+    /**
+     * Executes the evaluation of the folds.
+     */
+    private Executor executor = ForkJoinPool.commonPool();
+
+    /**
+     * The evaluations of the folds after {@link #execute()}.
+     */
+    private List<FoldEvaluation> foldEvaluations;
+
+    public CrossValidation(Dataset dataset, Supplier<? extends AbstractClassifier> classifierFactory) {
         this.dataset = dataset;
-        this.classifier = classifier;
+        this.classifierFactory = classifierFactory;
     }
 
-    public CrossValidation(Dataset dataset, AbstractClassifier classifier, int numFolds) {
+    public CrossValidation(Dataset dataset, Supplier<? extends AbstractClassifier> classifierFactory, int numFolds) {
         this.dataset = dataset;
-        this.classifier = classifier;
+        this.classifierFactory = classifierFactory;
         this.numFolds = numFolds;
     }
 
-    private void execute() {
-        ClassifierEvaluation evaluation = new FMeasureEvaluation(Instance.Result.FOREIGN_KEY);
-        seperateDataset();
-
-        for (int i = 0; i< numFolds; i++) {
-            Dataset testset = partialDatasets.get(i);
-            testset.buildDatasetStatistics();
-            testset.buildFeatureValueDistribution();
-            classifier.setTestset(testset);
-            Map<UnaryForeignKeyCandidate, Instance.Result> groundTruth = new HashMap<>();
-            testset.getDataset().stream()
-                    .forEach(instance -> groundTruth.putIfAbsent(instance.getForeignKeyCandidate(), instance.getIsForeignKey()));
-            evaluation.setGroundTruth(groundTruth);
-
-            dataset.removeTestset(testset);
-            Dataset trainingset = dataset;
-            trainingset.buildDatasetStatistics();
-            trainingset.buildFeatureValueDistribution();
-
-            classifier.setTrainingset(trainingset);
-            classifier.train();
-            classifier.predict();
-            Map<UnaryForeignKeyCandidate, Instance.Result> predicted = new HashMap<>();
-            classifier.getTestset().getDataset().stream()
-                    .forEach(instance -> predicted.putIfAbsent(instance.getForeignKeyCandidate(), instance.getIsForeignKey()));
-            evaluation.setPredicted(predicted);
-            evaluation.evaluate();
-            fscore += (double) evaluation.getEvaluation();
+    /**
+     * Run the cross validation.
+     * @return the evaluations of the single folds
+     */
+    public List<FoldEvaluation> execute() {
+        List<CompletableFuture<FoldEvaluation>> futures = Fold.stratify(dataset, numFolds, seed).stream()
+                .map(fold -> CompletableFuture.supplyAsync(() -> evaluate(fold), executor))
+                .collect(Collectors.toList());
+        foldEvaluations = new ArrayList<>(futures.size());
+        for (CompletableFuture<FoldEvaluation> future : futures) {
+            foldEvaluations.add(future.join());
         }
-        fscore /= numFolds;
+        return foldEvaluations;
     }
 
-    private void seperateDataset() {
-        long numInstance = dataset.getNumOfInstance();
-        int partialDatasetSize = (int) (numInstance / numFolds);
-//        int reminder = (int) (numInstance % numFolds);
-        for (int i = 0; i<numFolds; i++) {
-            List<Instance> partialInstances = null;
-            if (i!=numFolds-1) {
-                partialInstances = dataset.getDataset().subList(i*partialDatasetSize, (i+1)*partialDatasetSize);
-            } else {
-                partialInstances = dataset.getDataset().subList(i*partialDatasetSize, dataset.getDataset().size());
-            }
-            Dataset partialDataset = new Dataset(partialInstances, dataset.getFeatures());
-            partialDatasets.add(partialDataset);
+    private FoldEvaluation evaluate(Fold fold) {
+        AbstractClassifier classifier = classifierFactory.get();
+        classifier.setTrainingset(fold.getTrainingset());
+        classifier.setTestset(fold.getTestset());
+        classifier.train();
+
+        int truePositives = 0, falsePositives = 0, falseNegatives = 0;
+        for (Instance instance : classifier.getTestset().getDataset()) {
+            final boolean isActualPositive = instance.getIsForeignKey() == evaluatedLabel;
+            final boolean isPredictedPositive = classifier.predict(instance) == evaluatedLabel;
+            if (isPredictedPositive && isActualPositive) truePositives++;
+            else if (isPredictedPositive) falsePositives++;
+            else if (isActualPositive) falseNegatives++;
         }
+        return new FoldEvaluation(truePositives, falsePositives, falseNegatives);
+    }
+
+    public List<FoldEvaluation> getFoldEvaluations() {
+        return foldEvaluations;
+    }
+
+    /**
+     * @return the precision averaged over all folds
+     */
+    public double getPrecision() {
+        return foldEvaluations.stream().mapToDouble(FoldEvaluation::getPrecision).average().orElse(0d);
+    }
+
+    /**
+     * @return the recall averaged over all folds
+     */
+    public double getRecall() {
+        return foldEvaluations.stream().mapToDouble(FoldEvaluation::getRecall).average().orElse(0d);
+    }
+
+    /**
+     * @return the F1 score averaged over all folds
+     */
+    public double getFscore() {
+        return foldEvaluations.stream().mapToDouble(FoldEvaluation::getF1).average().orElse(0d);
+    }
+
+    public void setEvaluatedLabel(Instance.Result evaluatedLabel) {
+        this.evaluatedLabel = evaluatedLabel;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
     }
 }
@@ -0,0 +1,145 @@
+package de.hpi.isg.mdms.java.fk.ml.evaluation;
+
+import de.hpi.isg.mdms.java.fk.Dataset;
+import de.hpi.isg.mdms.java.fk.Instance;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.*;
+
+/**
+ * A view of a {@link Dataset} that partitions its instances into a training and a test set by their indices. Neither
+ * the instances nor the underlying dataset are copied or modified.
+ */
+public class Fold {
+
+    private final Dataset dataset;
+
+    /**
+     * Indices of the training instances in ascending order.
+     */
+    private final int[] trainingIndices;
+
+    /**
+     * Indices of the test instances in ascending order.
+     */
+    private final int[] testIndices;
+
+    public Fold(Dataset dataset, int[] trainingIndices, int[] testIndices) {
+        this.dataset = dataset;
+        this.trainingIndices = trainingIndices;
+        this.testIndices = testIndices;
+    }
+
+    /**
+     * Partition a dataset into stratified folds, i.e., the labels of the instances are distributed over the test sets
+     * of the folds as evenly as possible.
+     * @param dataset the dataset to be partitioned
+     * @param numFolds the number of folds
+     * @param seed seeds the assignment of instances to folds, so that the folds are reproducible
+     * @return the folds, whose test sets are disjoint and cover the complete dataset
+     */
+    public static List<Fold> stratify(Dataset dataset, int numFolds, long seed) {
+        final List<Instance> instances = dataset.getDataset();
+        if (numFolds < 2 || numFolds > instances.size()) {
+            throw new IllegalArgumentException(String.format("Cannot create %d folds over %d instances.",
+                    numFolds, instances.size()));
+        }
+
+        // Group the instance indices by their labels.
+        Map<Instance.Result, IntArrayList> indicesByLabel = new EnumMap<>(Instance.Result.class);
+        for (int i = 0; i < instances.size(); i++) {
+            indicesByLabel.computeIfAbsent(instances.get(i).getIsForeignKey(), label -> new IntArrayList()).add(i);
+        }
+
+        // Deal the shuffled indices of each label to the folds. Continue with the next fold for the next label,
+        // so that the test set sizes differ by at most one.
+        final Random random = new Random(seed);
+        final int[] foldAssignment = new int[instances.size()];
+        final int[] testSetSizes = new int[numFolds];
+        int nextFold = 0;
+        for (IntArrayList labelIndices : indicesByLabel.values()) {
+            final int[] indices = labelIndices.toIntArray();
+            shuffle(indices, random);
+            for (int index : indices) {
+                foldAssignment[index] = nextFold;
+                testSetSizes[nextFold]++;
+                nextFold = (nextFold + 1) % numFolds;
+            }
+        }
+
+        List<Fold> folds = new ArrayList<>(numFolds);
+        for (int fold = 0; fold < numFolds; fold++) {
+            final int[] trainingIndices = new int[instances.size() - testSetSizes[fold]];
+            final int[] testIndices = new int[testSetSizes[fold]];
+            int numTrainingIndices = 0, numTestIndices = 0;
+            for (int i = 0; i < foldAssignment.length; i++) {
+                if (foldAssignment[i] == fold) testIndices[numTestIndices++] = i;
+                else trainingIndices[numTrainingIndices++] = i;
+            }
+            folds.add(new Fold(dataset, trainingIndices, testIndices));
+        }
+        return folds;
+    }
+
+    private static void shuffle(int[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+    }
+
+    public int[] getTrainingIndices() {
+        return trainingIndices;
+    }
+
+    public int[] getTestIndices() {
+        return testIndices;
+    }
+
+    /**
+     * @return a new {@link Dataset} over the training instances of this fold
+     */
+    public Dataset getTrainingset() {
+        return createView(trainingIndices);
+    }
+
+    /**
+     * @return a new {@link Dataset} over the test instances of this fold
+     */
+    public Dataset getTestset() {
+        return createView(testIndices);
+    }
+
+    private Dataset createView(int[] indices) {
+        Dataset view = new Dataset(new IndexedList(dataset.getDataset(), indices), dataset.getFeatures());
+        view.buildDatasetStatistics();
+        return view;
+    }
+
+    /**
+     * An unmodifiable list of selected elements of a backing list.
+     */
+    private static class IndexedList extends AbstractList<Instance> implements RandomAccess {
+
+        private final List<Instance> instances;
+
+        private final int[] indices;
+
+        private IndexedList(List<Instance> instances, int[] indices) {
+            this.instances = instances;
+            this.indices = indices;
+        }
+
+        @Override
+        public Instance get(int index) {
+            return instances.get(indices[index]);
+        }
+
+        @Override
+        public int size() {
+            return indices.length;
+        }
+    }
+}
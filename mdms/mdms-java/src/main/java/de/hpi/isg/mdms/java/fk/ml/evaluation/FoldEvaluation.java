@@ -0,0 +1,62 @@
+package de.hpi.isg.mdms.java.fk.ml.evaluation;
+
+/**
+ * Precision, recall and F1 score of a classifier on a single {@link Fold}, calculated from the counts of true
+ * positives, false positives and false negatives w.r.t. the evaluated label.
+ */
+public class FoldEvaluation {
+
+    private final int truePositives;
+
+    private final int falsePositives;
+
+    private final int falseNegatives;
+
+    public FoldEvaluation(int truePositives, int falsePositives, int falseNegatives) {
+        this.truePositives = truePositives;
+        this.falsePositives = falsePositives;
+        this.falseNegatives = falseNegatives;
+    }
+
+    public int getTruePositives() {
+        return truePositives;
+    }
+
+    public int getFalsePositives() {
+        return falsePositives;
+    }
+
+    public int getFalseNegatives() {
+        return falseNegatives;
+    }
+
+    /**
+     * @return the precision or {@code 0} if nothing was predicted as positive
+     */
+    public double getPrecision() {
+        return ratio(truePositives, truePositives + falsePositives);
+    }
+
+    /**
+     * @return the recall or {@code 0} if there are no actual positives
+     */
+    public double getRecall() {
+        return ratio(truePositives, truePositives + falseNegatives);
+    }
+
+    /**
+     * @return the F1 score or {@code 0} if precision and recall are both {@code 0}
+     */
+    public double getF1() {
+        return ratio(2 * truePositives, 2 * truePositives + falsePositives + falseNegatives);
+    }
+
+    private static double ratio(int numerator, int denominator) {
+        return denominator == 0 ? 0d : (double) numerator / denominator;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FoldEvaluation[precision=%.4f, recall=%.4f, f1=%.4f]", getPrecision(), getRecall(), getF1());
+    }
+}
@@ -1,5 +1,6 @@
 package de.hpi.isg.mdms.java.fk;
 
+import de.hpi.isg.mdms.domain.RDBMSMetadataStore;
 import de.hpi.isg.mdms.domain.constraints.*;
 import de.hpi.isg.mdms.domain.util.DependencyPrettyPrinter;
 import de.hpi.isg.mdms.model.DefaultMetadataStore;
@@ -9,11 +10,17 @@ import de.hpi.isg.mdms.model.location.DefaultLocation;
 import de.hpi.isg.mdms.model.targets.Column;
 import de.hpi.isg.mdms.model.targets.Schema;
 import de.hpi.isg.mdms.model.targets.Table;
+import de.hpi.isg.mdms.model.util.IdUtils;
+import de.hpi.isg.mdms.rdbms.SQLiteInterface;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Test suite for the {@link SimpleForeignKeyDetector} class.
@@ -108,4 +115,100 @@ public class SimpleForeignKeyDetectorTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testParallelAndSequentialDetectionAreEquivalent() throws Exception {
+        File dbFile = File.createTempFile("fk-detection", ".db");
+        dbFile.deleteOnExit();
+        MetadataStore metadataStore = RDBMSMetadataStore.createNewInstance(SQLiteInterface.createForFile(dbFile));
+
+        // Set up a schema, whose tables have many INDs among each other.
+        Schema schema = metadataStore.addSchema("schema", null, new DefaultLocation());
+        List<Column> columns = new ArrayList<>();
+        for (String tableName : Arrays.asList("customer", "orders", "order_item", "product", "supplier", "nation")) {
+            Table table = schema.addTable(metadataStore, tableName, null, new DefaultLocation());
+            for (int i = 0; i < 8; i++) {
+                columns.add(table.addColumn(metadataStore, String.format("%s_%d", tableName, i), null, i));
+            }
+        }
+        ConstraintCollection<InclusionDependency> indCC = metadataStore.createConstraintCollection(
+                "inds", InclusionDependency.class, schema
+        );
+        ConstraintCollection<UniqueColumnCombination> uniqueCC = metadataStore.createConstraintCollection(
+                "uccs", UniqueColumnCombination.class, schema
+        );
+        ConstraintCollection<TupleCount> tupleCountCC = metadataStore.createConstraintCollection(
+                "#tuples", TupleCount.class, schema
+        );
+        ConstraintCollection<ColumnStatistics> statsCC = metadataStore.createConstraintCollection(
+                "stats", ColumnStatistics.class, schema
+        );
+        ConstraintCollection<TextColumnStatistics> textStatsCC = metadataStore.createConstraintCollection(
+                "text stats", TextColumnStatistics.class, schema
+        );
+        IdUtils idUtils = metadataStore.getIdUtils();
+        for (Column dep : columns) {
+            for (Column ref : columns) {
+                if (idUtils.getTableId(dep.getId()) != idUtils.getTableId(ref.getId())) {
+                    indCC.add(new InclusionDependency(dep.getId(), ref.getId()));
+                }
+            }
+        }
+        for (Table table : schema.getTables()) {
+            tupleCountCC.add(new TupleCount(table.getId(), 1000 * table.getName().length()));
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            if (i % 3 == 0) uniqueCC.add(new UniqueColumnCombination(new int[]{column.getId()}));
+
+            ColumnStatistics columnStatistics = new ColumnStatistics(column.getId());
+            columnStatistics.setNumDistinctValues(100 * (i % 7 + 1));
+            columnStatistics.setNumNulls(i % 5 == 0 ? 1 : 0);
+            statsCC.add(columnStatistics);
+
+            TextColumnStatistics textColumnStatistics = new TextColumnStatistics(column.getId());
+            textColumnStatistics.setShortestValue(column.getName().substring(0, 3));
+            textColumnStatistics.setLongestValue(column.getName());
+            textStatsCC.add(textColumnStatistics);
+        }
+        metadataStore.flush();
+
+        List<SimpleForeignKeyDetector.ForeignKeyCandidate> sequentialFks = this.detect(
+                indCC, uniqueCC, tupleCountCC, statsCC, textStatsCC, 1
+        );
+        List<SimpleForeignKeyDetector.ForeignKeyCandidate> parallelFks = this.detect(
+                indCC, uniqueCC, tupleCountCC, statsCC, textStatsCC, 4
+        );
+        metadataStore.close();
+
+        Assert.assertFalse(sequentialFks.isEmpty());
+        Assert.assertEquals(sequentialFks.size(), parallelFks.size());
+        for (int i = 0; i < sequentialFks.size(); i++) {
+            Assert.assertEquals(sequentialFks.get(i).ind, parallelFks.get(i).ind);
+            Assert.assertEquals(sequentialFks.get(i).score, parallelFks.get(i).score, 0d);
+        }
+    }
+
+    private List<SimpleForeignKeyDetector.ForeignKeyCandidate> detect(
+            ConstraintCollection<InclusionDependency> indCC,
+            ConstraintCollection<UniqueColumnCombination> uniqueCC,
+            ConstraintCollection<TupleCount> tupleCountCC,
+            ConstraintCollection<ColumnStatistics> statsCC,
+            ConstraintCollection<TextColumnStatistics> textStatsCC,
+            int parallelism) {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            return SimpleForeignKeyDetector.detect(
+                    indCC,
+                    Collections.singleton(uniqueCC),
+                    Collections.singleton(tupleCountCC),
+                    Collections.singleton(statsCC),
+                    Collections.singleton(textStatsCC),
+                    true,
+                    forkJoinPool
+            );
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+}
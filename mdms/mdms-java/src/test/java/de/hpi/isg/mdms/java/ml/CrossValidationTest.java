@@ -0,0 +1,97 @@
+package de.hpi.isg.mdms.java.ml;
+
+import de.hpi.isg.mdms.java.fk.Dataset;
+import de.hpi.isg.mdms.java.fk.Instance;
+import de.hpi.isg.mdms.java.fk.UnaryForeignKeyCandidate;
+import de.hpi.isg.mdms.java.fk.feature.Feature;
+import de.hpi.isg.mdms.java.fk.ml.classifier.NaiveBayes;
+import de.hpi.isg.mdms.java.fk.ml.evaluation.CrossValidation;
+import de.hpi.isg.mdms.java.fk.ml.evaluation.Fold;
+import de.hpi.isg.mdms.java.fk.ml.evaluation.FoldEvaluation;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+public class CrossValidationTest {
+
+    private static final String FEATURE_NAME = "Indicator";
+
+    private Dataset dataset;
+
+    @Before
+    public void setUp() {
+        // The feature reveals the label, so that a Naive Bayes classifier should be perfect.
+        List<Instance> instances = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Instance instance = new Instance(new UnaryForeignKeyCandidate(2 * i, 2 * i + 1));
+            instance.setIsForeignKey(i % 5 < 3 ? Instance.Result.FOREIGN_KEY : Instance.Result.NO_FOREIGN_KEY);
+            instance.getFeatureVector().put(FEATURE_NAME, instance.getIsForeignKey() == Instance.Result.FOREIGN_KEY);
+            instances.add(instance);
+        }
+        Feature feature = new Feature() {
+            {
+                featureName = FEATURE_NAME;
+            }
+
+            @Override
+            public void calcualteFeatureValue(Collection<Instance> instanceCollection) {
+            }
+        };
+        dataset = new Dataset(instances, Collections.singletonList(feature));
+        dataset.buildDatasetStatistics();
+    }
+
+    @Test
+    public void testStratifiedFolds() {
+        List<Fold> folds = Fold.stratify(dataset, 5, 42L);
+        Assert.assertEquals(5, folds.size());
+
+        Set<Integer> testIndices = new HashSet<>();
+        for (Fold fold : folds) {
+            Dataset testset = fold.getTestset();
+            Assert.assertEquals(10, testset.getDataset().size());
+            Assert.assertEquals(40, fold.getTrainingset().getDataset().size());
+            Assert.assertEquals(6, testset.getDataset().stream()
+                    .filter(instance -> instance.getIsForeignKey() == Instance.Result.FOREIGN_KEY)
+                    .count());
+            for (int testIndex : fold.getTestIndices()) {
+                Assert.assertTrue(testIndices.add(testIndex));
+            }
+        }
+        Assert.assertEquals(50, testIndices.size());
+
+        // The folds should be reproducible.
+        List<Fold> otherFolds = Fold.stratify(dataset, 5, 42L);
+        for (int i = 0; i < folds.size(); i++) {
+            Assert.assertArrayEquals(folds.get(i).getTestIndices(), otherFolds.get(i).getTestIndices());
+        }
+    }
+
+    @Test
+    public void testCrossValidation() {
+        List<Instance> originalInstances = new ArrayList<>(dataset.getDataset());
+        List<Instance.Result> originalLabels = new ArrayList<>();
+        originalInstances.forEach(instance -> originalLabels.add(instance.getIsForeignKey()));
+
+        CrossValidation crossValidation = new CrossValidation(dataset, NaiveBayes::new, 5);
+        List<FoldEvaluation> evaluations = crossValidation.execute();
+
+        Assert.assertEquals(5, evaluations.size());
+        for (FoldEvaluation evaluation : evaluations) {
+            Assert.assertEquals(6, evaluation.getTruePositives());
+            Assert.assertEquals(0, evaluation.getFalsePositives());
+            Assert.assertEquals(0, evaluation.getFalseNegatives());
+        }
+        Assert.assertEquals(1d, crossValidation.getPrecision(), 0d);
+        Assert.assertEquals(1d, crossValidation.getRecall(), 0d);
+        Assert.assertEquals(1d, crossValidation.getFscore(), 0d);
+
+        // The dataset must not be modified.
+        Assert.assertEquals(originalInstances, dataset.getDataset());
+        for (int i = 0; i < originalInstances.size(); i++) {
+            Assert.assertEquals(originalLabels.get(i), originalInstances.get(i).getIsForeignKey());
+        }
+    }
+}
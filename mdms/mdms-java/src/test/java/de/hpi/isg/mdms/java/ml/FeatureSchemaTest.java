@@ -0,0 +1,82 @@
+package de.hpi.isg.mdms.java.ml;
+
+import de.hpi.isg.mdms.java.fk.Instance;
+import de.hpi.isg.mdms.java.fk.UnaryForeignKeyCandidate;
+import de.hpi.isg.mdms.java.fk.feature.Feature;
+import de.hpi.isg.mdms.java.fk.feature.FeatureSchema;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+public class FeatureSchemaTest {
+
+    private static Feature createFeature(String name, Feature.FeatureType type) {
+        return new Feature() {
+            {
+                featureName = name;
+                featureType = type;
+            }
+
+            @Override
+            public void calcualteFeatureValue(Collection<Instance> instanceCollection) {
+            }
+        };
+    }
+
+    private static Instance createInstance(int id, Object nominalValue, Object numericValue) {
+        Instance instance = new Instance(new UnaryForeignKeyCandidate(id, id + 1));
+        if (nominalValue != null) instance.getFeatureVector().put("nominal", nominalValue);
+        if (numericValue != null) instance.getFeatureVector().put("numeric", numericValue);
+        return instance;
+    }
+
+    @Test
+    public void testEncodingWithoutBins() {
+        List<Feature> features = Arrays.asList(
+                createFeature("nominal", Feature.FeatureType.NOMINAL),
+                createFeature("numeric", Feature.FeatureType.NUMERIC)
+        );
+        List<Instance> instances = Arrays.asList(
+                createInstance(0, 1, 0.5d),
+                createInstance(2, 2, 0.25d),
+                createInstance(4, 1, 0.5d)
+        );
+        FeatureSchema schema = FeatureSchema.compile(features, instances);
+
+        Assert.assertEquals(2, schema.getNumSlots());
+        Assert.assertEquals(2, schema.getNumCodes(0));
+        Assert.assertEquals(2, schema.getNumCodes(1));
+        Assert.assertArrayEquals(new int[]{0, 1}, schema.encode(instances.get(0)));
+        Assert.assertArrayEquals(new int[]{1, 0}, schema.encode(instances.get(1)));
+        Assert.assertEquals(0.25d, schema.getCodeValue(1, 0));
+
+        // Unknown values are unseen, absent values are missing.
+        int[] codes = schema.encode(createInstance(6, 3, null));
+        Assert.assertArrayEquals(new int[]{schema.getUnseenCode(0), FeatureSchema.MISSING_CODE}, codes);
+        Assert.assertEquals(schema.getUnseenCode(1), schema.encode(1, 0.3d));
+    }
+
+    @Test
+    public void testNumericBinning() {
+        List<Feature> features = Arrays.asList(createFeature("numeric", Feature.FeatureType.NUMERIC));
+        List<Instance> instances = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            instances.add(createInstance(2 * i, null, i / 100d));
+        }
+        FeatureSchema schema = FeatureSchema.compile(features, instances, 4);
+
+        Assert.assertEquals(4, schema.getNumCodes(0));
+        Assert.assertEquals(0, schema.encode(0, -1d));
+        Assert.assertEquals(0, schema.encode(0, 0.24d));
+        Assert.assertEquals(1, schema.encode(0, 0.245d));
+        Assert.assertEquals(3, schema.encode(0, 0.99d));
+        Assert.assertEquals(3, schema.encode(0, 5d));
+
+        double[] vector = schema.toDenseVector(instances.get(42));
+        Assert.assertEquals(0.42d, vector[0], 0d);
+    }
+}
@@ -1,6 +1,7 @@
 package de.hpi.isg.mdms.model.constraints;
 
 import java.util.Collection;
+import java.util.stream.Stream;
 
 import de.hpi.isg.mdms.model.common.Described;
 import de.hpi.isg.mdms.model.common.Identifiable;
@@ -31,6 +32,30 @@ public interface ConstraintCollection<T> extends Identifiable, Described {
      */
     Collection<T> getConstraints();
 
+    /**
+     * Streams all {@link Constraint}s of this collection that satisfy the given {@link ConstraintPredicate}. In contrast
+     * to {@link #getConstraints()}, implementations may read the constraints lazily from their storage, so that also
+     * very large collections can be processed in constant memory. Therefore, the returned {@link Stream} should be
+     * closed after use, e.g., via try-with-resources.
+     * <p>The default implementation filters the result of {@link #getConstraints()}.</p>
+     *
+     * @param predicate selects the {@link Constraint}s to stream
+     * @return a {@link Stream} of the selected {@link Constraint}s
+     */
+    default Stream<T> stream(ConstraintPredicate<? super T> predicate) {
+        return this.getConstraints().stream().filter(predicate);
+    }
+
+    /**
+     * Streams all {@link Constraint}s of this collection.
+     *
+     * @return a {@link Stream} of the {@link Constraint}s
+     * @see #stream(ConstraintPredicate)
+     */
+    default Stream<T> stream() {
+        return this.stream(ConstraintPredicate.all());
+    }
+
     /**
      * This functions returns the scope of this {@link ConstraintCollection}. The scope is a {@link Collection} of
      * {@link de.hpi.isg.mdms.model.targets.Target}. If the parent {@link de.hpi.isg.mdms.model.targets.Schema} of on
@@ -49,6 +74,20 @@ public interface ConstraintCollection<T> extends Identifiable, Described {
      */
     void add(T constraint);
 
+    /**
+     * Adds several {@link Constraint}s to this collection. Implementations should prefer this method over repeated
+     * {@link #add(Object)} calls when inserting large numbers of constraints, as it allows them to amortize their
+     * per-constraint overhead.
+     *
+     * @param constraints
+     *        The {@link Constraint}s to add.
+     */
+    default void addAll(Iterable<? extends T> constraints) {
+        for (T constraint : constraints) {
+            this.add(constraint);
+        }
+    }
+
     /**
      * This function returns the {@link de.hpi.isg.mdms.model.MetadataStore} this collection belongs to.
      * 
@@ -0,0 +1,33 @@
+package de.hpi.isg.mdms.model.constraints;
+
+import java.util.function.Predicate;
+
+/**
+ * A {@link ConstraintPredicate} selects {@link Constraint}s (or other constraint-like objects) from a
+ * {@link ConstraintCollection}. It is used by {@link ConstraintCollection#stream(ConstraintPredicate)}, so that
+ * implementations can evaluate it while scanning their storage instead of materializing the whole collection.
+ *
+ * @param <T> the type of constraints to test
+ */
+@FunctionalInterface
+public interface ConstraintPredicate<T> extends Predicate<T> {
+
+    /**
+     * @return a {@link ConstraintPredicate} that accepts all constraints
+     */
+    static <T> ConstraintPredicate<T> all() {
+        return constraint -> true;
+    }
+
+    /**
+     * Creates a {@link ConstraintPredicate} that accepts all {@link Constraint}s that reference the given
+     * {@link de.hpi.isg.mdms.model.targets.Target}.
+     *
+     * @param targetId the ID of the {@link de.hpi.isg.mdms.model.targets.Target}
+     * @return the {@link ConstraintPredicate}
+     */
+    static <T extends Constraint> ConstraintPredicate<T> referencing(int targetId) {
+        return new ReferencingConstraintPredicate<>(targetId);
+    }
+
+}
@@ -0,0 +1,40 @@
+package de.hpi.isg.mdms.model.constraints;
+
+/**
+ * A {@link ConstraintPredicate} that accepts all {@link Constraint}s that reference a given
+ * {@link de.hpi.isg.mdms.model.targets.Target}. As this predicate is recognizable, storage backends can evaluate it
+ * on their indexes rather than testing every constraint.
+ *
+ * @param <T> the type of constraints to test
+ * @see ConstraintPredicate#referencing(int)
+ */
+public class ReferencingConstraintPredicate<T extends Constraint> implements ConstraintPredicate<T> {
+
+    private final int targetId;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param targetId the ID of the {@link de.hpi.isg.mdms.model.targets.Target} of interest
+     */
+    public ReferencingConstraintPredicate(int targetId) {
+        this.targetId = targetId;
+    }
+
+    @Override
+    public boolean test(T constraint) {
+        for (int referencedId : constraint.getAllTargetIds()) {
+            if (referencedId == this.targetId) return true;
+        }
+        return false;
+    }
+
+    public int getTargetId() {
+        return this.targetId;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReferencingConstraintPredicate[%d]", this.targetId);
+    }
+}
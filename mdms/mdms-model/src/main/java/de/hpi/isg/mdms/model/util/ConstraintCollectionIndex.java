@@ -0,0 +1,258 @@
+package de.hpi.isg.mdms.model.util;
+
+import de.hpi.isg.mdms.model.MetadataStore;
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.targets.Target;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Indexes {@link ConstraintCollection}s by their constraint class and by the {@link Target}s in their scope, so that
+ * {@link MetadataStore}s can answer scope queries without scanning all collections. Scope targets are indexed by
+ * their own ID and by the schema and table prefixes encoded by the {@link IdUtils}.
+ * <p>Note that the index does not notice changes to the scope of a collection after it has been added.</p>
+ * <p>This class is thread-safe.</p>
+ */
+public class ConstraintCollectionIndex {
+
+    private final IdUtils idUtils;
+
+    /**
+     * All indexed collections by their ID.
+     */
+    private final Int2ObjectMap<ConstraintCollection<?>> collectionsById = new Int2ObjectLinkedOpenHashMap<>();
+
+    /**
+     * Constraint classes to the IDs of the collections of that class.
+     */
+    private final Map<Class<?>, IntSet> collectionIdsByClass = new HashMap<>();
+
+    /**
+     * Scope target IDs to the IDs of the collections that have them in their scope.
+     */
+    private final Int2ObjectMap<IntSet> collectionIdsByScopeId = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * Schema IDs to the IDs of the collections that have that schema or any of its tables or columns in their scope.
+     */
+    private final Int2ObjectMap<IntSet> collectionIdsByScopeSchemaId = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * Table IDs to the IDs of the collections that have that table or any of its columns in their scope.
+     */
+    private final Int2ObjectMap<IntSet> collectionIdsByScopeTableId = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * IDs of the collections with an empty scope.
+     */
+    private final IntSet unscopedCollectionIds = new IntLinkedOpenHashSet();
+
+    public ConstraintCollectionIndex(IdUtils idUtils) {
+        this.idUtils = idUtils;
+    }
+
+    /**
+     * Adds a {@link ConstraintCollection} to this index. Adding the same collection twice has no effect.
+     *
+     * @param constraintCollection the collection to add
+     */
+    public synchronized void add(ConstraintCollection<?> constraintCollection) {
+        final int id = constraintCollection.getId();
+        if (this.collectionsById.put(id, constraintCollection) != null) {
+            return;
+        }
+        getOrCreate(this.collectionIdsByClass, constraintCollection.getConstraintClass()).add(id);
+        if (constraintCollection.getScope().isEmpty()) {
+            this.unscopedCollectionIds.add(id);
+        }
+        for (Target target : constraintCollection.getScope()) {
+            final int targetId = target.getId();
+            getOrCreate(this.collectionIdsByScopeId, targetId).add(id);
+            getOrCreate(this.collectionIdsByScopeSchemaId, this.idUtils.getSchemaId(targetId)).add(id);
+            if (!this.idUtils.isSchemaId(targetId)) {
+                getOrCreate(this.collectionIdsByScopeTableId, this.idUtils.getTableId(targetId)).add(id);
+            }
+        }
+    }
+
+    /**
+     * Adds several {@link ConstraintCollection}s to this index.
+     *
+     * @param constraintCollections the collections to add
+     */
+    public synchronized void addAll(Iterable<? extends ConstraintCollection<?>> constraintCollections) {
+        for (ConstraintCollection<?> constraintCollection : constraintCollections) {
+            this.add(constraintCollection);
+        }
+    }
+
+    /**
+     * Removes a {@link ConstraintCollection} from this index.
+     *
+     * @param constraintCollection the collection to remove
+     */
+    public synchronized void remove(ConstraintCollection<?> constraintCollection) {
+        final int id = constraintCollection.getId();
+        ConstraintCollection<?> indexedCollection = this.collectionsById.remove(id);
+        if (indexedCollection == null) {
+            return;
+        }
+        remove(this.collectionIdsByClass, indexedCollection.getConstraintClass(), id);
+        this.unscopedCollectionIds.remove(id);
+        for (Target target : indexedCollection.getScope()) {
+            final int targetId = target.getId();
+            remove(this.collectionIdsByScopeId, targetId, id);
+            remove(this.collectionIdsByScopeSchemaId, this.idUtils.getSchemaId(targetId), id);
+            if (!this.idUtils.isSchemaId(targetId)) {
+                remove(this.collectionIdsByScopeTableId, this.idUtils.getTableId(targetId), id);
+            }
+        }
+    }
+
+    /**
+     * Tells whether a {@link ConstraintCollection} with the given ID has been added to this index.
+     *
+     * @param id the ID of the collection
+     * @return whether the collection is indexed
+     */
+    public synchronized boolean contains(int id) {
+        return this.collectionsById.containsKey(id);
+    }
+
+    /**
+     * Finds all {@link ConstraintCollection}s of the given constraint class.
+     *
+     * @param constraintClass the constraint class
+     * @return the matching collections
+     * @see MetadataStore#getConstraintCollectionByConstraintType(Class)
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Collection<ConstraintCollection<T>> getByConstraintClass(Class<T> constraintClass) {
+        IntSet ids = this.collectionIdsByClass.get(constraintClass);
+        return (Collection<ConstraintCollection<T>>) (Collection<?>) this.resolve(ids, null);
+    }
+
+    /**
+     * Finds all {@link ConstraintCollection}s that have a {@link Target} in their scope that contains the given
+     * {@link Target}.
+     *
+     * @param constraintClass the constraint class of the collections or {@code null} to ignore it
+     * @param target          the contained {@link Target}
+     * @return the matching collections
+     * @see MetadataStore#getConstraintCollectionByTarget(Target)
+     * @see MetadataStore#getConstraintCollectionByConstraintTypeAndScope(Class, Target)
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Collection<ConstraintCollection<T>> getByScope(Class<T> constraintClass, Target target) {
+        IntSet ids = new IntLinkedOpenHashSet();
+        for (int containingId : this.idUtils.getContainingIds(target.getId())) {
+            IntSet containingIds = this.collectionIdsByScopeId.get(containingId);
+            if (containingIds != null) ids.addAll(containingIds);
+        }
+        return (Collection<ConstraintCollection<T>>) (Collection<?>) this.resolve(ids, constraintClass);
+    }
+
+    /**
+     * Finds all {@link ConstraintCollection}s of the given constraint class whose scope is entirely contained in the
+     * given {@link Target}. This includes collections with an empty scope.
+     *
+     * @param constraintClass the constraint class of the collections
+     * @param target          the containing {@link Target}
+     * @return the matching collections
+     * @see MetadataStore#getIncludedConstraintCollections(Class, Target)
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Collection<ConstraintCollection<T>> getIncluded(Class<T> constraintClass, Target target) {
+        final int targetId = target.getId();
+        final IntSet candidateIds;
+        switch (this.idUtils.getIdType(targetId)) {
+            case SCHEMA:
+                candidateIds = this.collectionIdsByScopeSchemaId.get(targetId);
+                break;
+            case TABLE:
+                candidateIds = this.collectionIdsByScopeTableId.get(targetId);
+                break;
+            default:
+                candidateIds = this.collectionIdsByScopeId.get(targetId);
+        }
+
+        Collection<ConstraintCollection<T>> result = new ArrayList<>();
+        for (ConstraintCollection<?> candidate : this.resolve(this.unscopedCollectionIds, constraintClass)) {
+            result.add((ConstraintCollection<T>) candidate);
+        }
+        NextCandidate:
+        for (ConstraintCollection<?> candidate : this.resolve(candidateIds, constraintClass)) {
+            for (Target scopeTarget : candidate.getScope()) {
+                if (!this.idUtils.isContained(scopeTarget.getId(), targetId)) continue NextCandidate;
+            }
+            result.add((ConstraintCollection<T>) candidate);
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the {@link ConstraintCollection}s for the given IDs.
+     *
+     * @param ids             the IDs or {@code null}
+     * @param constraintClass the required constraint class or {@code null}
+     * @return the {@link ConstraintCollection}s
+     */
+    private Collection<ConstraintCollection<?>> resolve(IntSet ids, Class<?> constraintClass) {
+        if (ids == null) return new ArrayList<>(0);
+        Collection<ConstraintCollection<?>> result = new ArrayList<>(ids.size());
+        for (IntIterator iterator = ids.iterator(); iterator.hasNext(); ) {
+            ConstraintCollection<?> constraintCollection = this.collectionsById.get(iterator.nextInt());
+            if (constraintClass == null || constraintCollection.getConstraintClass() == constraintClass) {
+                result.add(constraintCollection);
+            }
+        }
+        return result;
+    }
+
+    private static IntSet getOrCreate(Int2ObjectMap<IntSet> index, int key) {
+        IntSet ids = index.get(key);
+        if (ids == null) {
+            ids = new IntLinkedOpenHashSet();
+            index.put(key, ids);
+        }
+        return ids;
+    }
+
+    private static <K> IntSet getOrCreate(Map<K, IntSet> index, K key) {
+        IntSet ids = index.get(key);
+        if (ids == null) {
+            ids = new IntLinkedOpenHashSet();
+            index.put(key, ids);
+        }
+        return ids;
+    }
+
+    private static void remove(Int2ObjectMap<IntSet> index, int key, int id) {
+        IntSet ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static <K> void remove(Map<K, IntSet> index, K key, int id) {
+        IntSet ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s[%d collections, %d scope targets]",
+                this.getClass().getSimpleName(), this.collectionsById.size(), this.collectionIdsByScopeId.size());
+    }
+}
@@ -212,6 +212,23 @@ public class IdUtils implements Serializable {
         return createGlobalId(schemaNumber);
     }
 
+    /**
+     * Determines the IDs of all targets that contain the target with the given ID, i.e., the ID of its schema, of its
+     * table (if any), and the ID itself.
+     *
+     * @param id is the ID of a schema, table, or column
+     * @return the containing IDs from the outermost to the innermost target
+     * @see #isContained(int, int)
+     */
+    public int[] getContainingIds(int id) {
+        if (this.isSchemaId(id)) {
+            return new int[]{id};
+        } else if (this.isTableId(id)) {
+            return new int[]{this.getSchemaId(id), id};
+        }
+        return new int[]{this.getSchemaId(id), this.getTableId(id), id};
+    }
+
     public Target.Type getIdType(int id) {
         if (this.isSchemaId(id)) {
             return Target.Type.SCHEMA;
@@ -132,4 +132,17 @@ public class IdUtilsTest {
 
         Assert.assertFalse(idUtils.isContained(idUtils.createGlobalId(12, 1, 3), idUtils.createGlobalId(12, 1, 2)));
     }
+
+    @Test
+    public void testContainingIds() {
+        final int schemaId = idUtils.createGlobalId(1);
+        final int tableId = idUtils.createGlobalId(1, 2);
+        final int columnId = idUtils.createGlobalId(1, 2, 3);
+        Assert.assertArrayEquals(new int[]{schemaId}, idUtils.getContainingIds(schemaId));
+        Assert.assertArrayEquals(new int[]{schemaId, tableId}, idUtils.getContainingIds(tableId));
+        Assert.assertArrayEquals(new int[]{schemaId, tableId, columnId}, idUtils.getContainingIds(columnId));
+        for (int containingId : idUtils.getContainingIds(columnId)) {
+            Assert.assertTrue(idUtils.isContained(columnId, containingId));
+        }
+    }
 }
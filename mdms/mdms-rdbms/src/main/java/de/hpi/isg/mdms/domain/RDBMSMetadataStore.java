@@ -22,6 +22,7 @@ import de.hpi.isg.mdms.model.targets.Schema;
 import de.hpi.isg.mdms.model.targets.Table;
 import de.hpi.isg.mdms.model.targets.Target;
 import de.hpi.isg.mdms.model.util.IdUtils;
+import de.hpi.isg.mdms.rdbms.IdAllocator;
 import de.hpi.isg.mdms.rdbms.SQLInterface;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
@@ -116,10 +117,10 @@ public class RDBMSMetadataStore extends AbstractHashCodeAndEquals implements Met
 
     @Override
     public int generateRandomId() {
-        final int id = Math.abs(this.randomGenerator.nextInt(Integer.MAX_VALUE));
-        if (this.isIdInUse(id)) {
-            return this.generateRandomId();
-        }
+        int id;
+        do {
+            id = Math.abs(this.randomGenerator.nextInt(Integer.MAX_VALUE));
+        } while (this.isIdInUse(id));
         return id;
     }
 
@@ -160,6 +161,15 @@ public class RDBMSMetadataStore extends AbstractHashCodeAndEquals implements Met
 
     @Override
     public int getUnusedSchemaId() {
+        IdAllocator idAllocator = this.sqlInterface.getIdAllocator();
+        if (idAllocator != null) {
+            try {
+                return idAllocator.allocateSchemaId();
+            } catch (SQLException e) {
+                throw new MetadataStoreException(e);
+            }
+        }
+
         final int searchOffset = this.getSchemas().size();
         for (int baseSchemaNumber = this.idUtils.getMinSchemaNumber(); baseSchemaNumber <= this.idUtils
                 .getMaxSchemaNumber(); baseSchemaNumber++) {
@@ -181,6 +191,15 @@ public class RDBMSMetadataStore extends AbstractHashCodeAndEquals implements Met
         } catch (SQLException e) {
             throw new MetadataStoreException(e);
         }
+        IdAllocator idAllocator = this.sqlInterface.getIdAllocator();
+        if (idAllocator != null) {
+            try {
+                return idAllocator.allocateTableId(schema.getId());
+            } catch (SQLException e) {
+                throw new MetadataStoreException(e);
+            }
+        }
+
         final int schemaNumber = this.idUtils.getLocalSchemaId(schema.getId());
         final int searchOffset = ((RDBMSSchema) schema).getNumTables() != -1 ?
                 ((RDBMSSchema) schema).getNumTables() + 1 : schema.getTables().size();
@@ -245,6 +264,50 @@ public class RDBMSMetadataStore extends AbstractHashCodeAndEquals implements Met
         }
     }
 
+    @Override
+    public Collection<ConstraintCollection<?>> getConstraintCollectionByTarget(Target scope) {
+        try {
+            return this.sqlInterface.getConstraintCollectionsByScope(null, scope);
+        } catch (SQLException e) {
+            throw new MetadataStoreException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Collection<ConstraintCollection<T>> getConstraintCollectionByConstraintType(Class<T> constrainttype) {
+        try {
+            return (Collection<ConstraintCollection<T>>) (Collection<?>)
+                    this.sqlInterface.getConstraintCollectionsByConstraintClass(constrainttype);
+        } catch (SQLException e) {
+            throw new MetadataStoreException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Collection<ConstraintCollection<T>> getConstraintCollectionByConstraintTypeAndScope(
+            Class<T> constrainttype, Target scope) {
+        try {
+            return (Collection<ConstraintCollection<T>>) (Collection<?>)
+                    this.sqlInterface.getConstraintCollectionsByScope(constrainttype, scope);
+        } catch (SQLException e) {
+            throw new MetadataStoreException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Collection<ConstraintCollection<T>> getIncludedConstraintCollections(Class<T> constrainttype,
+                                                                                   Target target) {
+        try {
+            return (Collection<ConstraintCollection<T>>) (Collection<?>)
+                    this.sqlInterface.getIncludedConstraintCollections(constrainttype, target);
+        } catch (SQLException e) {
+            throw new MetadataStoreException(e);
+        }
+    }
+
     public SQLInterface getSQLInterface() {
         return this.sqlInterface;
     }
@@ -351,6 +414,20 @@ public class RDBMSMetadataStore extends AbstractHashCodeAndEquals implements Met
         }
     }
 
+    /**
+     * Loads all tables and columns of the given schema at once, so that subsequent lookups, e.g., via
+     * {@link #getTargetById(int)}, can be served from memory.
+     *
+     * @param schema is the schema to load
+     */
+    public void warmUp(Schema schema) {
+        try {
+            this.sqlInterface.warmUpSchema((RDBMSSchema) schema);
+        } catch (SQLException e) {
+            throw new MetadataStoreException(e);
+        }
+    }
+
     private void checkIfInScopeAndDelete(Target target) {
         for (ConstraintCollection<?> collection : this.getConstraintCollections()) {
             if (collection.getScope().contains(target)) {
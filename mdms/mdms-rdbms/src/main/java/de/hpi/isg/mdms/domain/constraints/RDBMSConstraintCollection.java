@@ -6,6 +6,7 @@ import de.hpi.isg.mdms.model.common.AbstractIdentifiable;
 import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.constraints.ConstraintPredicate;
 import de.hpi.isg.mdms.model.experiment.Experiment;
 import de.hpi.isg.mdms.model.targets.Target;
 import de.hpi.isg.mdms.model.util.IdUtils;
@@ -17,6 +18,8 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The default implementation of a {@link ConstraintCollection} that is used in {@link de.hpi.isg.mdms.domain.RDBMSMetadataStore}s.
@@ -96,6 +99,31 @@ public class RDBMSConstraintCollection<T> extends AbstractIdentifiable implement
         return constraints;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>If the constraints of this collection have not been loaded yet, they are read from the database without
+     * being cached.</p>
+     */
+    @Override
+    public Stream<T> stream(ConstraintPredicate<? super T> predicate) {
+        if (this.constraints != null) {
+            return this.constraints.stream().filter(predicate);
+        }
+        try {
+            return this.sqlInterface.streamConstraints(this, predicate);
+        } catch (Exception e) {
+            throw new MetadataStoreException(e);
+        }
+    }
+
+    /**
+     * @return the number of constraints of this collection that are currently held in main memory
+     */
+    public int getNumLoadedConstraints() {
+        Collection<T> constraints = this.constraints;
+        return constraints == null ? 0 : constraints.size();
+    }
+
     private void ensureConstraintsLoaded() {
         if (this.constraints == null) {
             try {
@@ -129,6 +157,44 @@ public class RDBMSConstraintCollection<T> extends AbstractIdentifiable implement
     public void add(T constraint) {
         this.constraints = null;
 
+        this.checkConstraintTargets(constraint);
+
+        // Write the constraint.
+        try {
+            this.sqlInterface.writeConstraint(constraint, this);
+        } catch (SQLException e) {
+            throw new MetadataStoreException(e);
+        }
+    }
+
+    @Override
+    public void addAll(Iterable<? extends T> constraints) {
+        // Write the constraints and check their targets on the way, so that they are iterated only once.
+        try {
+            this.sqlInterface.writeConstraints(
+                    IS_CHECK_CONSTRAINT_TARGETS ? this.withTargetChecks(constraints) : constraints, this
+            );
+        } catch (SQLException e) {
+            throw new MetadataStoreException(e);
+        } finally {
+            // Invalidate the cached constraints only once.
+            this.constraints = null;
+        }
+    }
+
+    /**
+     * Wraps the given constraints, such that their targets are checked as they are iterated.
+     *
+     * @param constraints the constraints to check
+     * @return the wrapped constraints
+     */
+    private <S extends T> Iterable<S> withTargetChecks(Iterable<S> constraints) {
+        return () -> StreamSupport.stream(constraints.spliterator(), false)
+                .peek(this::checkConstraintTargets)
+                .iterator();
+    }
+
+    private void checkConstraintTargets(T constraint) {
         if (IS_CHECK_CONSTRAINT_TARGETS && constraint instanceof Constraint) {
             // Ensure that all targets of the constraint are valid.
             for (int targetId : ((Constraint) constraint).getAllTargetIds()) {
@@ -138,13 +204,6 @@ public class RDBMSConstraintCollection<T> extends AbstractIdentifiable implement
             }
 
         }
-
-        // Write the constraint.
-        try {
-            this.sqlInterface.writeConstraint(constraint, this);
-        } catch (SQLException e) {
-            throw new MetadataStoreException(e);
-        }
     }
 
     private boolean isTargetInScope(int targetId) {
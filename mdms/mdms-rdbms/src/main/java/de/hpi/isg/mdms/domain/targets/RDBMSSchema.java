@@ -9,7 +9,7 @@ import de.hpi.isg.mdms.model.location.Location;
 import de.hpi.isg.mdms.model.targets.Column;
 import de.hpi.isg.mdms.model.targets.Schema;
 import de.hpi.isg.mdms.model.targets.Table;
-import de.hpi.isg.mdms.util.LRUCache;
+import de.hpi.isg.mdms.util.ConcurrentCache;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,10 +28,10 @@ public class RDBMSSchema extends AbstractRDBMSTarget implements Schema {
     private transient int numTables = -1;
 
     @ExcludeHashCodeEquals
-    private final transient LRUCache<Integer, RDBMSTable> childTableCache = new LRUCache<>(1000);
+    private final transient ConcurrentCache<Integer, RDBMSTable> childTableCache = new ConcurrentCache<>(1000);
 
     @ExcludeHashCodeEquals
-    private transient boolean isChildTableCacheComplete;
+    private transient volatile boolean isChildTableCacheComplete;
 
     private RDBMSSchema(RDBMSMetadataStore observer, int id, String name, String description, Location location,
                         boolean isFreshlyCreated) {
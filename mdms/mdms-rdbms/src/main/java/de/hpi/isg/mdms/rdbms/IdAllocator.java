@@ -0,0 +1,38 @@
+package de.hpi.isg.mdms.rdbms;
+
+import java.sql.SQLException;
+
+/**
+ * Hands out unused IDs for schemas and tables, so that the {@link de.hpi.isg.mdms.domain.RDBMSMetadataStore} does
+ * not need to probe candidate IDs against the database. Implementations must be thread-safe.
+ *
+ * @see SQLInterface#getIdAllocator()
+ */
+public interface IdAllocator {
+
+    /**
+     * Allocates an ID for a new schema.
+     *
+     * @return the allocated ID
+     * @throws IllegalStateException if there is no free schema ID left
+     */
+    int allocateSchemaId() throws SQLException;
+
+    /**
+     * Allocates an ID for a new table.
+     *
+     * @param schemaId is the ID of the schema that will contain the table
+     * @return the allocated ID
+     * @throws IllegalStateException if there is no free table ID left within the schema
+     */
+    int allocateTableId(int schemaId) throws SQLException;
+
+    /**
+     * Declares a schema or table ID as unused, so that it can be allocated again. Releasing a schema ID also releases
+     * all table IDs within that schema.
+     *
+     * @param id is the ID to release
+     */
+    void releaseId(int id) throws SQLException;
+
+}
@@ -9,17 +9,22 @@ import de.hpi.isg.mdms.domain.targets.RDBMSColumn;
 import de.hpi.isg.mdms.domain.targets.RDBMSSchema;
 import de.hpi.isg.mdms.domain.targets.RDBMSTable;
 import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.constraints.ConstraintPredicate;
 import de.hpi.isg.mdms.model.experiment.Algorithm;
 import de.hpi.isg.mdms.model.experiment.Experiment;
 import de.hpi.isg.mdms.model.targets.Column;
 import de.hpi.isg.mdms.model.targets.Schema;
 import de.hpi.isg.mdms.model.targets.Table;
+import de.hpi.isg.mdms.model.targets.Target;
+import de.hpi.isg.mdms.model.util.IdUtils;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * This interface describes common functionalities that a RDBMS-specifc interface for a {@link RDBMSMetadataStore} must
@@ -42,6 +47,20 @@ public interface SQLInterface {
      */
     <T> void writeConstraint(T constraint, ConstraintCollection<T> constraintCollection) throws SQLException;
 
+    /**
+     * Writes several {@link de.hpi.isg.mdms.model.constraints.Constraint}s to the constraint table. The default
+     * implementation delegates to {@link #writeConstraint(Object, ConstraintCollection)}.
+     *
+     * @param constraints          are the constraints to write
+     * @param constraintCollection is the collection to which the constraints belong
+     */
+    default <T> void writeConstraints(Iterable<? extends T> constraints, ConstraintCollection<T> constraintCollection)
+            throws SQLException {
+        for (T constraint : constraints) {
+            this.writeConstraint(constraint, constraintCollection);
+        }
+    }
+
     /**
      * Writes the given schema into the database.
      *
@@ -72,6 +91,71 @@ public interface SQLInterface {
      */
     void addConstraintCollection(ConstraintCollection<?> constraintCollection) throws SQLException;
 
+    /**
+     * Finds all {@link ConstraintCollection}s of the given constraint class. The default implementation scans
+     * {@link #getAllConstraintCollections()}.
+     *
+     * @param constraintClass the constraint class
+     * @return the matching collections
+     */
+    default Collection<ConstraintCollection<?>> getConstraintCollectionsByConstraintClass(Class<?> constraintClass)
+            throws SQLException {
+        Collection<ConstraintCollection<?>> result = new LinkedList<>();
+        for (ConstraintCollection<?> constraintCollection : this.getAllConstraintCollections()) {
+            if (constraintCollection.getConstraintClass() == constraintClass) {
+                result.add(constraintCollection);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds all {@link ConstraintCollection}s that have a {@link Target} in their scope that contains the given
+     * {@link Target}. The default implementation scans {@link #getAllConstraintCollections()}.
+     *
+     * @param constraintClass the constraint class of the collections or {@code null} to ignore it
+     * @param target          the contained {@link Target}
+     * @return the matching collections
+     */
+    default Collection<ConstraintCollection<?>> getConstraintCollectionsByScope(Class<?> constraintClass, Target target)
+            throws SQLException {
+        IdUtils idUtils = this.getMetadataStore().getIdUtils();
+        Collection<ConstraintCollection<?>> result = new LinkedList<>();
+        for (ConstraintCollection<?> constraintCollection : this.getAllConstraintCollections()) {
+            if (constraintClass != null && constraintCollection.getConstraintClass() != constraintClass) continue;
+            for (Target scopeTarget : constraintCollection.getScope()) {
+                if (idUtils.isContained(target.getId(), scopeTarget.getId())) {
+                    result.add(constraintCollection);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds all {@link ConstraintCollection}s of the given constraint class whose scope is entirely included in the
+     * given {@link Target}. The default implementation scans {@link #getAllConstraintCollections()}.
+     *
+     * @param constraintClass the constraint class of the collections
+     * @param target          the including {@link Target}
+     * @return the matching collections
+     */
+    default Collection<ConstraintCollection<?>> getIncludedConstraintCollections(Class<?> constraintClass, Target target)
+            throws SQLException {
+        IdUtils idUtils = this.getMetadataStore().getIdUtils();
+        Collection<ConstraintCollection<?>> result = new LinkedList<>();
+        NextConstraintCollection:
+        for (ConstraintCollection<?> constraintCollection : this.getAllConstraintCollections()) {
+            if (constraintCollection.getConstraintClass() != constraintClass) continue;
+            for (Target scopeTarget : constraintCollection.getScope()) {
+                if (!idUtils.isContained(scopeTarget.getId(), target.getId())) continue NextConstraintCollection;
+            }
+            result.add(constraintCollection);
+        }
+        return result;
+    }
+
     /**
      * Loads all schemas from the database.
      *
@@ -140,6 +224,21 @@ public interface SQLInterface {
     <T> Collection<T> getAllConstraintsForConstraintCollection(
             RDBMSConstraintCollection<T> rdbmsConstraintCollection) throws Exception;
 
+    /**
+     * Streams the {@link de.hpi.isg.mdms.model.constraints.Constraint}s in a
+     * {@link de.hpi.isg.mdms.model.constraints.ConstraintCollection} that satisfy a {@link ConstraintPredicate}.
+     * The returned {@link Stream} needs to be closed after use. The default implementation filters the result of
+     * {@link #getAllConstraintsForConstraintCollection(RDBMSConstraintCollection)}.
+     *
+     * @param rdbmsConstraintCollection is the collection whose content is requested
+     * @param predicate                 selects the constraints
+     * @return the selected constraints
+     */
+    default <T> Stream<T> streamConstraints(RDBMSConstraintCollection<T> rdbmsConstraintCollection,
+                                            ConstraintPredicate<? super T> predicate) throws Exception {
+        return this.getAllConstraintsForConstraintCollection(rdbmsConstraintCollection).stream().filter(predicate);
+    }
+
     /**
      * Loads a column with the given ID.
      *
@@ -269,6 +368,25 @@ public interface SQLInterface {
      */
     void removeTable(RDBMSTable table) throws SQLException;
 
+    /**
+     * Provides an {@link IdAllocator} for schema and table IDs. The default implementation provides none, so that
+     * free IDs are searched by probing.
+     *
+     * @return the {@link IdAllocator} or {@code null}
+     */
+    default IdAllocator getIdAllocator() {
+        return null;
+    }
+
+    /**
+     * Loads all tables and columns of the given schema into the caches of this instance, if it has any. The default
+     * implementation does nothing.
+     *
+     * @param schema is the schema to load
+     */
+    default void warmUpSchema(RDBMSSchema schema) throws SQLException {
+    }
+
     /**
      * Removes a {@link ConstraintCollection} and all included {@link Constraint}s.
      */
@@ -13,9 +13,12 @@ import de.hpi.isg.mdms.model.experiment.DefaultExperiment;
 import de.hpi.isg.mdms.model.experiment.Experiment;
 import de.hpi.isg.mdms.model.location.Location;
 import de.hpi.isg.mdms.model.targets.AbstractTarget;
+import de.hpi.isg.mdms.model.targets.Column;
 import de.hpi.isg.mdms.model.targets.DefaultSchema;
 import de.hpi.isg.mdms.model.targets.Schema;
+import de.hpi.isg.mdms.model.targets.Table;
 import de.hpi.isg.mdms.model.targets.Target;
+import de.hpi.isg.mdms.model.util.ConstraintCollectionIndex;
 import de.hpi.isg.mdms.model.util.IdUtils;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
@@ -24,6 +27,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -37,6 +43,16 @@ public class DefaultMetadataStore extends AbstractHashCodeAndEquals implements M
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultMetadataStore.class);
 
+    /**
+     * Default size in bytes of the mutation log that triggers the compaction into a new snapshot.
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 64L * 1024 * 1024;
+
+    /**
+     * Number of constraints added one by one to a {@link ConstraintCollection} that are logged as a single mutation.
+     */
+    private static final int CONSTRAINT_LOG_BATCH_SIZE = 1000;
+
     /**
      * Creates a new DefaultMetadataStore and saves it to disk.
      *
@@ -73,7 +89,8 @@ public class DefaultMetadataStore extends AbstractHashCodeAndEquals implements M
     }
 
     /**
-     * Loads a DefaultMetadataStore from the given file.
+     * Loads a DefaultMetadataStore from the given file and replays the mutations that have been logged since it has
+     * been saved.
      *
      * @param file is the file that contains the metadata store
      * @return the loaded metadata store
@@ -88,6 +105,7 @@ public class DefaultMetadataStore extends AbstractHashCodeAndEquals implements M
             final DefaultMetadataStore metadataStore = (DefaultMetadataStore) ois.readObject();
             ois.close();
             metadataStore.setStoreLocation(file);
+            metadataStore.replayMutationLog();
             return metadataStore;
         } catch (IOException | ClassNotFoundException e) {
             throw new MetadataStoreNotFoundException(e);
@@ -105,8 +123,48 @@ public class DefaultMetadataStore extends AbstractHashCodeAndEquals implements M
 
     private final Int2ObjectMap<Target> allTargets;
 
+    /**
+     * Indexes the {@link #constraintCollections}. It is not serialized but rebuilt on demand.
+     */
+    @ExcludeHashCodeEquals
+    transient private ConstraintCollectionIndex constraintCollectionIndex;
+
     transient private File storeLocation;
 
+    /**
+     * Records the changes since the store has last been saved to the {@link #storeLocation}. It is only available if
+     * that location holds a snapshot of this instance.
+     */
+    transient private MutationLog mutationLog;
+
+    /**
+     * The sequence number of the last logged mutation. It is part of the snapshots, so that mutations that are already
+     * contained in a snapshot are not replayed.
+     */
+    @ExcludeHashCodeEquals
+    private long lastMutationSequenceNumber = 0;
+
+    /**
+     * Tells whether there are changes that cannot be logged, so that the next {@link #flush()} must write a snapshot.
+     */
+    transient private boolean isSnapshotRequired = false;
+
+    /**
+     * Tells whether the {@link #mutationLog} is currently being replayed.
+     */
+    transient private boolean isReplayingMutationLog = false;
+
+    /**
+     * If the {@link #mutationLog} grows beyond this size in bytes, the next {@link #flush()} writes a snapshot.
+     */
+    transient private long compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    /**
+     * Constraints that have been added one by one and are not logged yet, grouped by the IDs of their
+     * {@link ConstraintCollection}s.
+     */
+    transient private Int2ObjectMap<List<Object>> unloggedConstraints = new Int2ObjectOpenHashMap<>();
+
     @ExcludeHashCodeEquals
     private final IdUtils idUtils;
 
@@ -238,15 +296,200 @@ public class DefaultMetadataStore extends AbstractHashCodeAndEquals implements M
                 throw new IdAlreadyInUseException("Id is already in use: " + message.getId());
             }
         }
+        if (message instanceof Schema) {
+            this.logMutation(new MetadataStoreMutation.AddSchema((Schema) message));
+        } else if (message instanceof Table) {
+            this.logMutation(new MetadataStoreMutation.AddTable((Table) message));
+        } else if (message instanceof Column) {
+            this.logMutation(new MetadataStoreMutation.AddColumn((Column) message));
+        } else {
+            this.requireSnapshot();
+        }
+    }
+
+    /**
+     * @return the file to which this store is saved or {@code null} if none
+     */
+    public File getStoreLocation() {
+        return this.storeLocation;
     }
 
     /**
      * @param storeLocation the storeLocation to set
      */
     public void setStoreLocation(File storeLocation) {
+        this.closeMutationLog();
         this.storeLocation = storeLocation;
     }
 
+    /**
+     * Sets the size of the mutation log that triggers the compaction into a new snapshot on {@link #flush()}.
+     *
+     * @param compactionThreshold the size in bytes
+     */
+    public void setCompactionThreshold(long compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+        this.unloggedConstraints = new Int2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Replays the mutation log of the current store location and starts logging further mutations to it.
+     */
+    private void replayMutationLog() throws IOException {
+        MutationLog mutationLog = new MutationLog(getMutationLogFile(this.storeLocation));
+        final int[] numReplayedMutations = {0};
+        this.isReplayingMutationLog = true;
+        try {
+            this.lastMutationSequenceNumber = mutationLog.replay(this.lastMutationSequenceNumber + 1, mutation -> {
+                mutation.apply(this);
+                numReplayedMutations[0]++;
+            });
+        } finally {
+            this.isReplayingMutationLog = false;
+        }
+        if (numReplayedMutations[0] > 0) {
+            LOGGER.info("Replayed {} mutations from {}.", numReplayedMutations[0], mutationLog.getFile());
+        }
+        this.mutationLog = mutationLog;
+    }
+
+    /**
+     * Tells whether this instance is replaying its mutation log while being loaded. In that case, the replayed changes
+     * must not be persisted (again), as the log is not complete yet.
+     *
+     * @return whether the mutation log is being replayed
+     */
+    protected boolean isReplayingMutationLog() {
+        return this.isReplayingMutationLog;
+    }
+
+    /**
+     * Appends the given mutation to the {@link #mutationLog} if there is one.
+     *
+     * @param mutation describes a change to this instance
+     */
+    private synchronized void logMutation(MetadataStoreMutation mutation) {
+        if (this.mutationLog == null) {
+            return;
+        }
+        // Keep the order of the mutations.
+        this.logUnloggedConstraints();
+        this.appendMutation(mutation);
+    }
+
+    /**
+     * Logs all constraints that have been buffered by {@link #handleConstraintAdded(ConstraintCollection, Object)}.
+     */
+    private synchronized void logUnloggedConstraints() {
+        if (this.unloggedConstraints.isEmpty()) {
+            return;
+        }
+        Int2ObjectMap<List<Object>> unloggedConstraints = this.unloggedConstraints;
+        this.unloggedConstraints = new Int2ObjectOpenHashMap<>();
+        for (Int2ObjectMap.Entry<List<Object>> entry : unloggedConstraints.int2ObjectEntrySet()) {
+            this.appendMutation(new MetadataStoreMutation.AddConstraints(entry.getIntKey(), entry.getValue()));
+        }
+    }
+
+    private synchronized void appendMutation(MetadataStoreMutation mutation) {
+        if (this.mutationLog == null) {
+            return;
+        }
+        try {
+            this.mutationLog.append(++this.lastMutationSequenceNumber, mutation);
+        } catch (IOException e) {
+            // Do not lose the change, but persist it with the next snapshot instead.
+            LOGGER.error("Could not log {}.", mutation.getClass().getSimpleName(), e);
+            this.closeMutationLog();
+        }
+    }
+
+    /**
+     * Demands that the next {@link #flush()} writes a snapshot, because a change cannot be expressed in the mutation
+     * log.
+     */
+    public void requireSnapshot() {
+        this.isSnapshotRequired = true;
+    }
+
+    /**
+     * Notifies this instance that a constraint has been added to one of its {@link ConstraintCollection}s. Such
+     * constraints are logged in batches.
+     *
+     * @param constraintCollection the {@link ConstraintCollection}
+     * @param constraint           the added constraint
+     */
+    public synchronized void handleConstraintAdded(ConstraintCollection<?> constraintCollection, Object constraint) {
+        if (this.mutationLog == null) {
+            return;
+        }
+        List<Object> constraints = this.unloggedConstraints.get(constraintCollection.getId());
+        if (constraints == null) {
+            constraints = new ArrayList<>();
+            this.unloggedConstraints.put(constraintCollection.getId(), constraints);
+        }
+        constraints.add(constraint);
+        if (constraints.size() >= CONSTRAINT_LOG_BATCH_SIZE) {
+            this.logUnloggedConstraints();
+        }
+    }
+
+    /**
+     * Notifies this instance that constraints have been added to one of its {@link ConstraintCollection}s.
+     *
+     * @param constraintCollection the {@link ConstraintCollection}
+     * @param constraints          the added constraints
+     */
+    public void handleConstraintsAdded(ConstraintCollection<?> constraintCollection, Collection<?> constraints) {
+        if (this.mutationLog != null && !constraints.isEmpty()) {
+            this.logMutation(new MetadataStoreMutation.AddConstraints(constraintCollection, constraints));
+        }
+    }
+
+    /**
+     * Notifies this instance that the description of one of its {@link ConstraintCollection}s has been changed.
+     *
+     * @param constraintCollection the {@link ConstraintCollection}
+     */
+    public void handleDescriptionChanged(ConstraintCollection<?> constraintCollection) {
+        if (this.mutationLog != null && this.getConstraintCollectionIndex().contains(constraintCollection.getId())) {
+            this.logMutation(new MetadataStoreMutation.SetConstraintCollectionDescription(constraintCollection));
+        }
+    }
+
+    /**
+     * Notifies this instance that the description of one of its {@link Target}s has been changed.
+     *
+     * @param target the {@link Target}
+     */
+    public void handleDescriptionChanged(Target target) {
+        if (this.mutationLog != null && this.allTargets.containsKey(target.getId())) {
+            this.logMutation(new MetadataStoreMutation.SetTargetDescription(target));
+        }
+    }
+
+    private synchronized void closeMutationLog() {
+        if (this.mutationLog != null) {
+            try {
+                this.mutationLog.close();
+            } catch (IOException e) {
+                LOGGER.error("Could not close {}.", this.mutationLog, e);
+            }
+            this.mutationLog = null;
+        }
+        // The constraints are persisted with the next snapshot.
+        this.unloggedConstraints.clear();
+    }
+
+    private static File getMutationLogFile(File storeLocation) {
+        return new File(storeLocation.getPath() + ".log");
+    }
+
     @Override
     public String toString() {
         return "MetadataStore[" + this.schemas.size() + " schemas, " + this.constraintCollections.size()
@@ -266,50 +509,102 @@ public class DefaultMetadataStore extends AbstractHashCodeAndEquals implements M
         return null;
     }
 
+    /**
+     * Provides the {@link ConstraintCollectionIndex} for this instance and builds it if necessary.
+     *
+     * @return the {@link ConstraintCollectionIndex}
+     */
+    private ConstraintCollectionIndex getConstraintCollectionIndex() {
+        synchronized (this.constraintCollections) {
+            if (this.constraintCollectionIndex == null) {
+                this.constraintCollectionIndex = new ConstraintCollectionIndex(this.idUtils);
+                this.constraintCollectionIndex.addAll(this.constraintCollections);
+            }
+            return this.constraintCollectionIndex;
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    public <T> ConstraintCollection<T> createConstraintCollection(String description, Class<T> cls, Target... scope) {
-        Validate.isTrue(Serializable.class.isAssignableFrom(cls), "DefaultMetadataStore requires serializable metadata.");
+    public Collection<ConstraintCollection<?>> getConstraintCollectionByTarget(Target scope) {
+        return (Collection<ConstraintCollection<?>>) (Collection<?>)
+                this.getConstraintCollectionIndex().getByScope(null, scope);
+    }
 
-        // Make sure that the given targets are actually compatible with this kind of metadata store.
-        for (Target target : scope) {
-            Validate.isAssignableFrom(AbstractTarget.class, target.getClass());
-        }
-        ConstraintCollection<T> constraintCollection = (ConstraintCollection<T>) new DefaultConstraintCollection(
-                this,
-                this.getUnusedConstraintCollectonId(),
-                new HashSet<>(),
-                new HashSet<>(Arrays.asList(scope)),
-                cls
-        );
-        constraintCollection.setDescription(description);
-        this.constraintCollections.add(constraintCollection);
-        return constraintCollection;
+    @Override
+    public <T> Collection<ConstraintCollection<T>> getConstraintCollectionByConstraintType(Class<T> constrainttype) {
+        return this.getConstraintCollectionIndex().getByConstraintClass(constrainttype);
+    }
+
+    @Override
+    public <T> Collection<ConstraintCollection<T>> getConstraintCollectionByConstraintTypeAndScope(
+            Class<T> constrainttype, Target scope) {
+        return this.getConstraintCollectionIndex().getByScope(constrainttype, scope);
+    }
+
+    @Override
+    public <T> Collection<ConstraintCollection<T>> getIncludedConstraintCollections(Class<T> constrainttype,
+                                                                                   Target target) {
+        return this.getConstraintCollectionIndex().getIncluded(constrainttype, target);
+    }
+
+    @Override
+    public <T> ConstraintCollection<T> createConstraintCollection(String description, Class<T> cls, Target... scope) {
+        return this.addConstraintCollection(this.getUnusedConstraintCollectonId(), description, null, cls, scope);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> ConstraintCollection<T> createConstraintCollection(String description,
                                                                   Experiment experiment, Class<T> cls, Target... scope) {
+        return this.addConstraintCollection(this.getUnusedConstraintCollectonId(), description, experiment, cls, scope);
+    }
+
+    /**
+     * Creates and registers a new {@link ConstraintCollection}.
+     *
+     * @param id          the ID of the new collection
+     * @param description a description of the new collection
+     * @param experiment  the {@link Experiment} that created the collection or {@code null}
+     * @param cls         the class of the constraints
+     * @param scope       the scope of the new collection
+     * @return the new collection
+     */
+    @SuppressWarnings("unchecked")
+    <T> ConstraintCollection<T> addConstraintCollection(int id, String description, Experiment experiment,
+                                                        Class<T> cls, Target... scope) {
         Validate.isTrue(Serializable.class.isAssignableFrom(cls), "DefaultMetadataStore requires serializable metadata.");
 
         // Make sure that the given targets are actually compatible with this kind of metadata store.
         for (Target target : scope) {
             Validate.isAssignableFrom(AbstractTarget.class, target.getClass());
         }
-        ConstraintCollection<T> constraintCollection = ((ConstraintCollection<T>) new DefaultConstraintCollection(
-                this,
-                this.getUnusedConstraintCollectonId(),
-                new HashSet<T>(),
-                new HashSet<>(Arrays.asList(scope)),
-                experiment,
-                cls
-        ));
+        ConstraintCollection<T> constraintCollection =
+                this.newConstraintCollection(id, experiment, cls, new HashSet<>(Arrays.asList(scope)));
+        constraintCollection.setDescription(description);
         this.constraintCollections.add(constraintCollection);
-        experiment.add(constraintCollection);
+        this.getConstraintCollectionIndex().add(constraintCollection);
+        if (experiment != null) {
+            experiment.add(constraintCollection);
+        }
+        this.logMutation(new MetadataStoreMutation.AddConstraintCollection(constraintCollection));
         return constraintCollection;
     }
 
+    /**
+     * Instantiates a new, empty {@link ConstraintCollection}. Subclasses can override this method to store the
+     * constraints differently.
+     *
+     * @param id         the ID of the new collection
+     * @param experiment the {@link Experiment} that created the collection or {@code null}
+     * @param cls        the class of the constraints
+     * @param scope      the scope of the new collection
+     * @return the new collection
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> ConstraintCollection<T> newConstraintCollection(int id, Experiment experiment, Class<T> cls,
+                                                                  Set<Target> scope) {
+        return (ConstraintCollection<T>) new DefaultConstraintCollection(this, id, new HashSet<>(), scope, experiment, cls);
+    }
 
     @Override
     public IdUtils getIdUtils() {
@@ -319,24 +614,58 @@ public class DefaultMetadataStore extends AbstractHashCodeAndEquals implements M
     @Override
     public void save(String path) throws IOException {
         File file = new File(path);
-        this.storeLocation = file;
+        this.setStoreLocation(file);
         saveToDefaultLocation();
     }
 
-    private void saveToDefaultLocation() throws FileNotFoundException, IOException {
-        this.storeLocation.getParentFile().mkdirs();
-        final FileOutputStream fout = new FileOutputStream(this.storeLocation);
-        final ObjectOutputStream oos = new ObjectOutputStream(fout);
+    /**
+     * Writes a snapshot of this instance to the {@link #storeLocation} and clears the mutation log. The snapshot
+     * replaces the previous one atomically, so that a crash leaves either the old snapshot plus the complete log or the
+     * new snapshot.
+     */
+    private synchronized void saveToDefaultLocation() throws FileNotFoundException, IOException {
+        this.storeLocation.getAbsoluteFile().getParentFile().mkdirs();
+        final File tempFile = new File(this.storeLocation.getPath() + ".tmp");
+        final FileOutputStream fout = new FileOutputStream(tempFile);
+        final ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(fout));
         oos.writeObject(this);
+        oos.flush();
+        fout.getFD().sync();
         oos.close();
+        Files.move(tempFile.toPath(), this.storeLocation.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // The log is superseded by the snapshot.
+        if (this.mutationLog == null) {
+            this.mutationLog = new MutationLog(getMutationLogFile(this.storeLocation));
+        }
+        this.mutationLog.clear();
+        this.unloggedConstraints.clear();
+        this.isSnapshotRequired = false;
+    }
+
+    /**
+     * Writes a snapshot of this instance and thereby compacts the mutation log.
+     *
+     * @throws IOException if the snapshot could not be written
+     */
+    public void compact() throws IOException {
+        Validate.notNull(this.storeLocation, "Cannot compact metadata store because it has no default saving location.");
+        this.saveToDefaultLocation();
     }
 
     @Override
     public void flush() throws Exception {
+        this.logUnloggedConstraints();
         if (this.storeLocation == null) {
             LOGGER.warn("Cannot flush metadata store because it has no default saving location.");
-        } else {
+        } else if (this.mutationLog == null || this.isSnapshotRequired
+                || this.mutationLog.size() > this.compactionThreshold) {
             saveToDefaultLocation();
+        } else {
+            synchronized (this) {
+                this.mutationLog.sync();
+            }
         }
     }
 
@@ -366,23 +695,46 @@ public class DefaultMetadataStore extends AbstractHashCodeAndEquals implements M
 
     @Override
     public void removeSchema(Schema schema) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Not supported yet.");
-        //
+        // Remove all constraint collections that are scoped on the schema, as does the RDBMSMetadataStore.
+        for (ConstraintCollection<?> constraintCollection : new ArrayList<>(this.constraintCollections)) {
+            for (Target target : constraintCollection.getScope()) {
+                if (this.idUtils.isContained(target.getId(), schema.getId())) {
+                    this.removeConstraintCollection(constraintCollection);
+                    break;
+                }
+            }
+        }
+        synchronized (this.allTargets) {
+            for (Table table : schema.getTables()) {
+                for (Column column : table.getColumns()) {
+                    this.allTargets.remove(column.getId());
+                }
+                this.allTargets.remove(table.getId());
+            }
+            this.allTargets.remove(schema.getId());
+        }
+        this.schemas.remove(schema);
+        this.logMutation(new MetadataStoreMutation.RemoveSchema(schema));
     }
 
     @Override
     public void removeConstraintCollection(ConstraintCollection<?> constraintCollection) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Not supported yet.");
-        //
+        this.getConstraintCollectionIndex().remove(constraintCollection);
+        synchronized (this.constraintCollections) {
+            this.constraintCollections.removeIf(cc -> cc.getId() == constraintCollection.getId());
+        }
+        this.logMutation(new MetadataStoreMutation.RemoveConstraintCollection(constraintCollection));
     }
 
     @Override
     public Algorithm createAlgorithm(String name) {
-        final int id = this.getUnusedAlgorithmId();
+        return this.addAlgorithm(this.getUnusedAlgorithmId(), name);
+    }
+
+    Algorithm addAlgorithm(int id, String name) {
         final Algorithm algorithm = new DefaultAlgorithm(id, name, new HashSet<Experiment>());
         this.algorithms.add(algorithm);
+        this.logMutation(new MetadataStoreMutation.AddAlgorithm(algorithm));
         return algorithm;
     }
 
@@ -424,22 +776,29 @@ public class DefaultMetadataStore extends AbstractHashCodeAndEquals implements M
 
     @Override
     public Experiment createExperiment(String description, Algorithm algorithm) {
-        final int id = this.getUnusedExperimentId();
+        return this.addExperiment(this.getUnusedExperimentId(), description, algorithm,
+                new Timestamp(new java.util.Date().getTime()).toString());
+    }
+
+    Experiment addExperiment(int id, String description, Algorithm algorithm, String timestamp) {
         final Experiment experiment = new DefaultExperiment(this, id, algorithm, new HashSet<>(),
-                new HashMap<>(), new HashSet<>());
+                new HashMap<>(), new HashSet<>(), description, timestamp);
         this.experiments.add(experiment);
         algorithm.addExperiment(experiment);
+        this.logMutation(new MetadataStoreMutation.AddExperiment(experiment));
         return experiment;
     }
 
     @Override
     public void removeAlgorithm(Algorithm algorithm) {
         this.algorithms.remove(algorithm);
+        this.logMutation(new MetadataStoreMutation.RemoveAlgorithm(algorithm));
     }
 
     @Override
     public void removeExperiment(Experiment experiment) {
         this.experiments.remove(experiment);
+        this.logMutation(new MetadataStoreMutation.RemoveExperiment(experiment));
     }
 
     @Override
@@ -453,6 +812,8 @@ public class DefaultMetadataStore extends AbstractHashCodeAndEquals implements M
             this.flush();
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            this.closeMutationLog();
         }
 
     }
@@ -0,0 +1,391 @@
+package de.hpi.isg.mdms.model;
+
+import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.experiment.Algorithm;
+import de.hpi.isg.mdms.model.experiment.Experiment;
+import de.hpi.isg.mdms.model.location.Location;
+import de.hpi.isg.mdms.model.targets.Column;
+import de.hpi.isg.mdms.model.targets.DefaultSchema;
+import de.hpi.isg.mdms.model.targets.DefaultTable;
+import de.hpi.isg.mdms.model.targets.Schema;
+import de.hpi.isg.mdms.model.targets.Table;
+import de.hpi.isg.mdms.model.targets.Target;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Describes a single change to a {@link DefaultMetadataStore}, so that it can be recorded in a {@link MutationLog} and
+ * be replayed later on. Mutations refer to other objects only via their IDs.
+ */
+abstract class MetadataStoreMutation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetadataStoreMutation.class);
+
+    /**
+     * Applies this mutation to the given store.
+     *
+     * @param metadataStore the store to change
+     */
+    abstract void apply(DefaultMetadataStore metadataStore);
+
+    /**
+     * Looks up a {@link ConstraintCollection} and logs a warning if it does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ConstraintCollection<T> findConstraintCollection(DefaultMetadataStore metadataStore, int id) {
+        ConstraintCollection<T> constraintCollection = (ConstraintCollection<T>) metadataStore.getConstraintCollection(id);
+        if (constraintCollection == null) {
+            LOGGER.warn("Constraint collection {} does not exist.", id);
+        }
+        return constraintCollection;
+    }
+
+    /**
+     * A {@link Schema} has been added.
+     */
+    static class AddSchema extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        private final String name, description;
+
+        private final Location location;
+
+        AddSchema(Schema schema) {
+            this.id = schema.getId();
+            this.name = schema.getName();
+            this.description = schema.getDescription();
+            this.location = schema.getLocation();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            Schema schema = DefaultSchema.buildAndRegister(metadataStore, this.id, this.name, this.description,
+                    this.location);
+            metadataStore.getSchemas().add(schema);
+        }
+    }
+
+    /**
+     * A {@link Table} has been added.
+     */
+    static class AddTable extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int schemaId, id;
+
+        private final String name, description;
+
+        private final Location location;
+
+        AddTable(Table table) {
+            this.schemaId = table.getSchema().getId();
+            this.id = table.getId();
+            this.name = table.getName();
+            this.description = table.getDescription();
+            this.location = table.getLocation();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            DefaultSchema schema = (DefaultSchema) metadataStore.getTargetById(this.schemaId);
+            schema.restoreTable(metadataStore, this.id, this.name, this.description, this.location);
+        }
+    }
+
+    /**
+     * A {@link Column} has been added.
+     */
+    static class AddColumn extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int tableId, id;
+
+        private final String name, description;
+
+        private final Location location;
+
+        AddColumn(Column column) {
+            this.tableId = column.getTable().getId();
+            this.id = column.getId();
+            this.name = column.getName();
+            this.description = column.getDescription();
+            this.location = column.getLocation();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            DefaultTable table = (DefaultTable) metadataStore.getTargetById(this.tableId);
+            table.restoreColumn(metadataStore, this.id, this.name, this.description, this.location);
+        }
+    }
+
+    /**
+     * A {@link Schema} and everything that is scoped on it has been removed.
+     */
+    static class RemoveSchema extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        RemoveSchema(Schema schema) {
+            this.id = schema.getId();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            Target schema = metadataStore.getTargetById(this.id);
+            if (schema instanceof Schema) {
+                metadataStore.removeSchema((Schema) schema);
+            } else {
+                LOGGER.warn("Schema {} does not exist.", this.id);
+            }
+        }
+    }
+
+    /**
+     * A {@link ConstraintCollection} has been created.
+     */
+    static class AddConstraintCollection extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        private final String description;
+
+        private final Class<?> constraintClass;
+
+        private final int[] scopeIds;
+
+        /**
+         * The ID of the {@link Experiment} of the collection or {@code null}.
+         */
+        private final Integer experimentId;
+
+        AddConstraintCollection(ConstraintCollection<?> constraintCollection) {
+            this.id = constraintCollection.getId();
+            this.description = constraintCollection.getDescription();
+            this.constraintClass = constraintCollection.getConstraintClass();
+            this.scopeIds = constraintCollection.getScope().stream().mapToInt(Target::getId).toArray();
+            this.experimentId = constraintCollection.getExperiment() == null ?
+                    null :
+                    constraintCollection.getExperiment().getId();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            Target[] scope = new Target[this.scopeIds.length];
+            for (int i = 0; i < this.scopeIds.length; i++) {
+                scope[i] = metadataStore.getTargetById(this.scopeIds[i]);
+            }
+            Experiment experiment = this.experimentId == null ?
+                    null :
+                    metadataStore.getExperimentById(this.experimentId);
+            metadataStore.addConstraintCollection(this.id, this.description, experiment, this.constraintClass, scope);
+        }
+    }
+
+    /**
+     * The description of a {@link ConstraintCollection} has been changed.
+     */
+    static class SetConstraintCollectionDescription extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        private final String description;
+
+        SetConstraintCollectionDescription(ConstraintCollection<?> constraintCollection) {
+            this.id = constraintCollection.getId();
+            this.description = constraintCollection.getDescription();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            ConstraintCollection<?> constraintCollection = findConstraintCollection(metadataStore, this.id);
+            if (constraintCollection != null) {
+                constraintCollection.setDescription(this.description);
+            }
+        }
+    }
+
+    /**
+     * The description of a {@link Target} has been changed.
+     */
+    static class SetTargetDescription extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        private final String description;
+
+        SetTargetDescription(Target target) {
+            this.id = target.getId();
+            this.description = target.getDescription();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            Target target = metadataStore.getTargetById(this.id);
+            if (target == null) {
+                LOGGER.warn("Target {} does not exist.", this.id);
+                return;
+            }
+            target.setDescription(this.description);
+        }
+    }
+
+    /**
+     * Constraints have been added to a {@link ConstraintCollection}.
+     */
+    static class AddConstraints extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int constraintCollectionId;
+
+        private final ArrayList<Object> constraints;
+
+        AddConstraints(ConstraintCollection<?> constraintCollection, Collection<?> constraints) {
+            this(constraintCollection.getId(), constraints);
+        }
+
+        AddConstraints(int constraintCollectionId, Collection<?> constraints) {
+            this.constraintCollectionId = constraintCollectionId;
+            this.constraints = new ArrayList<>(constraints);
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            ConstraintCollection<Object> constraintCollection =
+                    findConstraintCollection(metadataStore, this.constraintCollectionId);
+            if (constraintCollection != null) {
+                constraintCollection.addAll(this.constraints);
+            }
+        }
+    }
+
+    /**
+     * A {@link ConstraintCollection} has been removed.
+     */
+    static class RemoveConstraintCollection extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        RemoveConstraintCollection(ConstraintCollection<?> constraintCollection) {
+            this.id = constraintCollection.getId();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            ConstraintCollection<?> constraintCollection = findConstraintCollection(metadataStore, this.id);
+            if (constraintCollection != null) {
+                metadataStore.removeConstraintCollection(constraintCollection);
+            }
+        }
+    }
+
+    /**
+     * An {@link Algorithm} has been created.
+     */
+    static class AddAlgorithm extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        private final String name;
+
+        AddAlgorithm(Algorithm algorithm) {
+            this.id = algorithm.getId();
+            this.name = algorithm.getName();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            metadataStore.addAlgorithm(this.id, this.name);
+        }
+    }
+
+    /**
+     * An {@link Experiment} has been created.
+     */
+    static class AddExperiment extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id, algorithmId;
+
+        private final String description, timestamp;
+
+        AddExperiment(Experiment experiment) {
+            this.id = experiment.getId();
+            this.algorithmId = experiment.getAlgorithm().getId();
+            this.description = experiment.getDescription();
+            this.timestamp = experiment.getTimestamp();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            Algorithm algorithm = metadataStore.getAlgorithmById(this.algorithmId);
+            metadataStore.addExperiment(this.id, this.description, algorithm, this.timestamp);
+        }
+    }
+
+    /**
+     * An {@link Algorithm} has been removed.
+     */
+    static class RemoveAlgorithm extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        RemoveAlgorithm(Algorithm algorithm) {
+            this.id = algorithm.getId();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            Algorithm algorithm = metadataStore.getAlgorithmById(this.id);
+            if (algorithm != null) metadataStore.removeAlgorithm(algorithm);
+        }
+    }
+
+    /**
+     * An {@link Experiment} has been removed.
+     */
+    static class RemoveExperiment extends MetadataStoreMutation {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int id;
+
+        RemoveExperiment(Experiment experiment) {
+            this.id = experiment.getId();
+        }
+
+        @Override
+        void apply(DefaultMetadataStore metadataStore) {
+            Experiment experiment = metadataStore.getExperimentById(this.id);
+            if (experiment != null) metadataStore.removeExperiment(experiment);
+        }
+    }
+
+}
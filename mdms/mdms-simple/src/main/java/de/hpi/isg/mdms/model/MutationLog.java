@@ -0,0 +1,170 @@
+package de.hpi.isg.mdms.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of {@link MetadataStoreMutation}s. Each record consists of a sequence number, the length and a
+ * CRC32 checksum of its payload, and the Java-serialized mutation itself. A record that has not been written
+ * completely (e.g., because of a crash) is detected via its checksum and cut off when the log is replayed.
+ */
+class MutationLog implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MutationLog.class);
+
+    /**
+     * Size of the header of each record: the sequence number, the payload length, and the checksum.
+     */
+    private static final int HEADER_SIZE = 8 + 4 + 4;
+
+    private final File file;
+
+    private FileOutputStream fileOutputStream;
+
+    private DataOutputStream outputStream;
+
+    /**
+     * The number of bytes in the log, including buffered records.
+     */
+    private long size;
+
+    MutationLog(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads all valid records from the log file and truncates any corrupt tail, so that new records can be appended.
+     *
+     * @param minSequenceNumber records with a smaller sequence number are skipped
+     * @param consumer          is fed with the read mutations
+     * @return the sequence number of the last valid record or {@code minSequenceNumber - 1} if there is none
+     */
+    long replay(long minSequenceNumber, Consumer<MetadataStoreMutation> consumer) throws IOException {
+        long lastSequenceNumber = minSequenceNumber - 1;
+        long validLength = 0;
+        if (this.file.exists()) {
+            try (DataInputStream inputStream = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(this.file)))) {
+                final long fileLength = this.file.length();
+                final CRC32 crc32 = new CRC32();
+                while (validLength + HEADER_SIZE <= fileLength) {
+                    long sequenceNumber = inputStream.readLong();
+                    int length = inputStream.readInt();
+                    int checksum = inputStream.readInt();
+                    if (length < 0 || validLength + HEADER_SIZE + length > fileLength) break;
+                    byte[] payload = new byte[length];
+                    inputStream.readFully(payload);
+                    crc32.reset();
+                    crc32.update(payload);
+                    if ((int) crc32.getValue() != checksum) break;
+
+                    if (sequenceNumber >= minSequenceNumber) {
+                        consumer.accept(deserialize(payload));
+                        lastSequenceNumber = sequenceNumber;
+                    }
+                    validLength += HEADER_SIZE + length;
+                }
+                if (validLength < fileLength) {
+                    LOGGER.warn("Discarding {} bytes of incomplete records from {}.", fileLength - validLength, this.file);
+                }
+            }
+            if (validLength < this.file.length()) {
+                try (RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "rw")) {
+                    randomAccessFile.setLength(validLength);
+                }
+            }
+        }
+        this.size = validLength;
+        return lastSequenceNumber;
+    }
+
+    /**
+     * Appends a record to the log. It is buffered until the next {@link #sync()}.
+     *
+     * @param sequenceNumber identifies the mutation
+     * @param mutation       the mutation to append
+     */
+    void append(long sequenceNumber, MetadataStoreMutation mutation) throws IOException {
+        this.ensureOpen();
+        byte[] payload = serialize(mutation);
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        this.outputStream.writeLong(sequenceNumber);
+        this.outputStream.writeInt(payload.length);
+        this.outputStream.writeInt((int) crc32.getValue());
+        this.outputStream.write(payload);
+        this.size += HEADER_SIZE + payload.length;
+    }
+
+    /**
+     * Writes all buffered records to disk.
+     */
+    void sync() throws IOException {
+        if (this.outputStream != null) {
+            this.outputStream.flush();
+            this.fileOutputStream.getFD().sync();
+        }
+    }
+
+    /**
+     * Discards all records.
+     */
+    void clear() throws IOException {
+        this.close();
+        new FileOutputStream(this.file).close();
+        this.size = 0;
+    }
+
+    /**
+     * @return the number of bytes in this log
+     */
+    long size() {
+        return this.size;
+    }
+
+    File getFile() {
+        return this.file;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.outputStream == null) {
+            this.fileOutputStream = new FileOutputStream(this.file, true);
+            this.outputStream = new DataOutputStream(new BufferedOutputStream(this.fileOutputStream, 64 * 1024));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.outputStream != null) {
+            this.sync();
+            this.outputStream.close();
+            this.outputStream = null;
+            this.fileOutputStream = null;
+        }
+    }
+
+    private static byte[] serialize(MetadataStoreMutation mutation) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(mutation);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    private static MetadataStoreMutation deserialize(byte[] payload) throws IOException {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return (MetadataStoreMutation) objectInputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Could not deserialize mutation.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MutationLog[%s, %d bytes]", this.file, this.size);
+    }
+}
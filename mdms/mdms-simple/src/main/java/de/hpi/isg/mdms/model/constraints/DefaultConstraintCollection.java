@@ -8,6 +8,7 @@ import de.hpi.isg.mdms.model.experiment.Experiment;
 import de.hpi.isg.mdms.model.targets.Target;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
@@ -72,6 +73,23 @@ public class DefaultConstraintCollection<T extends Serializable> extends Abstrac
 
     @Override
     public void add(T constraint) {
+        this.checkTargets(constraint);
+        this.constraints.add(constraint);
+        this.metadataStore.handleConstraintAdded(this, constraint);
+    }
+
+    @Override
+    public void addAll(Iterable<? extends T> constraints) {
+        Collection<T> addedConstraints = new ArrayList<>();
+        for (T constraint : constraints) {
+            this.checkTargets(constraint);
+            addedConstraints.add(constraint);
+        }
+        this.constraints.addAll(addedConstraints);
+        this.metadataStore.handleConstraintsAdded(this, addedConstraints);
+    }
+
+    private void checkTargets(T constraint) {
         if (constraint instanceof Constraint) {
             for (int id : ((Constraint) constraint).getAllTargetIds()) {
                 if (!this.metadataStore.hasTargetWithId(id)) {
@@ -79,8 +97,6 @@ public class DefaultConstraintCollection<T extends Serializable> extends Abstrac
                 }
             }
         }
-
-        this.constraints.add(constraint);
     }
 
     @Override
@@ -95,6 +111,7 @@ public class DefaultConstraintCollection<T extends Serializable> extends Abstrac
     @Override
     public void setDescription(String description) {
         this.description = description;
+        this.metadataStore.handleDescriptionChanged(this);
     }
 
     @Override
@@ -41,14 +41,20 @@ public class DefaultExperiment extends AbstractIdentifiable implements Experimen
 	    
 	public DefaultExperiment(DefaultMetadataStore metadataStore, int id, Algorithm algorithm, Set<ConstraintCollection<?>> constraintCollections,
 			Map<String, String> parameters, Set<Annotation> annotation) {
+		this(metadataStore, id, algorithm, constraintCollections, parameters, annotation, null,
+				new Timestamp(new java.util.Date().getTime()).toString());
+	}
+
+	public DefaultExperiment(DefaultMetadataStore metadataStore, int id, Algorithm algorithm, Set<ConstraintCollection<?>> constraintCollections,
+			Map<String, String> parameters, Set<Annotation> annotation, String description, String timestamp) {
 		super(id);
 		this.metadataStore = metadataStore;
 		this.algorithm = algorithm;
 		this.constraintsCollections = constraintCollections;
 		this.parameters = parameters;
 		this.annotations = annotation;
-		this.timestamp = new Timestamp(new java.util.Date().getTime()).toString();
-		
+		this.description = description;
+		this.timestamp = timestamp;
 	}
 
 	@Override	
@@ -59,6 +65,7 @@ public class DefaultExperiment extends AbstractIdentifiable implements Experimen
     @Override
     public void setDescription(String description) {
         this.description = description;
+        this.requireSnapshot();
     }
 	
 	@Override
@@ -99,17 +106,20 @@ public class DefaultExperiment extends AbstractIdentifiable implements Experimen
 	@Override
 	public void setExecutionTime(long executionTime) {
 		this.executionTime =executionTime;
+		this.requireSnapshot();
 	}
 
 	@Override
 	public void addParameter(String key, String value) {
 		this.parameters.put(key, value);
+		this.requireSnapshot();
 		
 	}
 
 	@Override
 	public void addAnnotation(String tag, String text) {
 		this.annotations.add(new Annotation(tag, text));
+		this.requireSnapshot();
 	}
 
 	@Override
@@ -117,6 +127,13 @@ public class DefaultExperiment extends AbstractIdentifiable implements Experimen
 		return this.timestamp;
 	}
 
-	
-	
+	/**
+	 * Experiment changes are not recorded in the mutation log of the {@link DefaultMetadataStore}, so they are only
+	 * persisted by a full snapshot.
+	 */
+	private void requireSnapshot() {
+		if (this.metadataStore != null) {
+			this.metadataStore.requireSnapshot();
+		}
+	}
 }
@@ -1,6 +1,8 @@
 package de.hpi.isg.mdms.model.targets;
 
 import de.hpi.isg.mdms.model.location.Location;
+import de.hpi.isg.mdms.model.DefaultMetadataStore;
+import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
 import de.hpi.isg.mdms.model.common.Observer;
 import de.hpi.isg.mdms.model.common.Printable;
 
@@ -33,12 +35,28 @@ public class DefaultColumn extends AbstractTarget implements Column {
 
     private final Table table;
 
+    /**
+     * The store that keeps this instance if it is a {@link DefaultMetadataStore}. Unlike the observer, it is
+     * serialized, so that changes can still be reported after the store has been loaded.
+     */
+    @ExcludeHashCodeEquals
+    private final DefaultMetadataStore metadataStore;
+
     private DefaultColumn(final Observer observer, final Table table, final int id, final String name,
             String description,
             final Location location) {
         super(observer, id, name, description, location);
         this.location = location;
         this.table = table;
+        this.metadataStore = observer instanceof DefaultMetadataStore ? (DefaultMetadataStore) observer : null;
+    }
+
+    @Override
+    public void setDescription(String description) {
+        super.setDescription(description);
+        if (this.metadataStore != null) {
+            this.metadataStore.handleDescriptionChanged(this);
+        }
     }
 
     /**
@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.Validate;
 
 import de.hpi.isg.mdms.model.location.Location;
+import de.hpi.isg.mdms.model.DefaultMetadataStore;
 import de.hpi.isg.mdms.model.MetadataStore;
 import de.hpi.isg.mdms.model.common.Observer;
 import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
@@ -36,10 +37,26 @@ public class DefaultSchema extends AbstractTarget implements Schema {
     @ExcludeHashCodeEquals
     private final Collection<Table> tables;
 
+    /**
+     * The store that keeps this instance if it is a {@link DefaultMetadataStore}. Unlike the observer, it is
+     * serialized, so that changes can still be reported after the store has been loaded.
+     */
+    @ExcludeHashCodeEquals
+    private final DefaultMetadataStore metadataStore;
+
     private DefaultSchema(final Observer observer, final int id, final String name, final String description,
             final Location location) {
         super(observer, id, name, description, location);
         this.tables = Collections.synchronizedSet(new HashSet<Table>());
+        this.metadataStore = observer instanceof DefaultMetadataStore ? (DefaultMetadataStore) observer : null;
+    }
+
+    @Override
+    public void setDescription(String description) {
+        super.setDescription(description);
+        if (this.metadataStore != null) {
+            this.metadataStore.handleDescriptionChanged(this);
+        }
     }
 
     @Override
@@ -52,6 +69,18 @@ public class DefaultSchema extends AbstractTarget implements Schema {
         return table;
     }
 
+    /**
+     * Adds a {@link Table} with a given ID to this schema, e.g., when restoring it from a persisted state.
+     *
+     * @return the restored {@link Table}
+     */
+    public Table restoreTable(final MetadataStore metadataStore, final int tableId, final String name,
+            final String description, final Location location) {
+        final Table table = DefaultTable.buildAndRegister(metadataStore, this, tableId, name, description, location);
+        this.tables.add(table);
+        return table;
+    }
+
     @Override
     public Table getTableByName(final String name) throws NameAmbigousException {
         final List<Table> results = new ArrayList<>();
@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.Validate;
 
 import de.hpi.isg.mdms.model.location.Location;
+import de.hpi.isg.mdms.model.DefaultMetadataStore;
 import de.hpi.isg.mdms.model.MetadataStore;
 import de.hpi.isg.mdms.model.common.Observer;
 import de.hpi.isg.mdms.model.common.ExcludeHashCodeEquals;
@@ -43,12 +44,28 @@ public class DefaultTable extends AbstractTarget implements Table {
     @ExcludeHashCodeEquals
     private final Schema schema;
 
+    /**
+     * The store that keeps this instance if it is a {@link DefaultMetadataStore}. Unlike the observer, it is
+     * serialized, so that changes can still be reported after the store has been loaded.
+     */
+    @ExcludeHashCodeEquals
+    private final DefaultMetadataStore metadataStore;
+
     private DefaultTable(final Observer observer, final Schema schema, final int id, final String name,
             final String description,
             final Location location) {
         super(observer, id, name, description, location);
         this.columns = Collections.synchronizedSet(new HashSet<Column>());
         this.schema = schema;
+        this.metadataStore = observer instanceof DefaultMetadataStore ? (DefaultMetadataStore) observer : null;
+    }
+
+    @Override
+    public void setDescription(String description) {
+        super.setDescription(description);
+        if (this.metadataStore != null) {
+            this.metadataStore.handleDescriptionChanged(this);
+        }
     }
 
     @Override
@@ -67,6 +84,19 @@ public class DefaultTable extends AbstractTarget implements Table {
         return column;
     }
 
+    /**
+     * Adds a {@link Column} with a given ID to this table, e.g., when restoring it from a persisted state.
+     *
+     * @return the restored {@link Column}
+     */
+    public Column restoreColumn(final MetadataStore metadataStore, final int columnId, final String name,
+            final String description, final Location location) {
+        final Column column = DefaultColumn
+                .buildAndRegister(metadataStore, this, columnId, name, description, location);
+        this.columns.add(column);
+        return column;
+    }
+
     @Override
     public Collection<Column> getColumns() {
         return Collections.unmodifiableCollection(this.columns);
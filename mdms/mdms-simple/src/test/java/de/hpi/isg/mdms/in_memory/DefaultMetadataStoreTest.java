@@ -338,6 +338,125 @@ public class DefaultMetadataStoreTest {
         assertEquals(dummySchema, schema);
     }
 
+    @Test
+    public void testReplayingOfMutationLog() throws Exception {
+        final File file = new File(this.dir, "loggedStore.ms");
+        final DefaultMetadataStore store1 = DefaultMetadataStoreFactory.createAndSaveDefaultMetadataStore(file);
+
+        // Apply changes that are only recorded in the mutation log.
+        final Schema schema = store1.addSchema("PDB", null, new DefaultLocation());
+        final Table table = schema.addTable(store1, "foo", null, new DefaultLocation());
+        final Column column1 = table.addColumn(store1, "a", null, 0);
+        final Column column2 = table.addColumn(store1, "b", null, 1);
+        final Schema removedSchema = store1.addSchema("removed", null, new DefaultLocation());
+        final ConstraintCollection<InclusionDependency> constraintCollection =
+                store1.createConstraintCollection("INDs", InclusionDependency.class, schema);
+        constraintCollection.add(new InclusionDependency(column1.getId(), column2.getId()));
+        constraintCollection.addAll(Collections.singleton(new InclusionDependency(column2.getId(), column1.getId())));
+        store1.createConstraintCollection(null, InclusionDependency.class, removedSchema);
+        store1.removeSchema(removedSchema);
+        store1.flush();
+
+        final File logFile = new File(file.getPath() + ".log");
+        assertTrue(logFile.length() > 0);
+
+        DefaultMetadataStore store2 = DefaultMetadataStore.load(file);
+        assertEquals(store1, store2);
+        assertEquals(1, store2.getConstraintCollections().size());
+        final ConstraintCollection<?> loadedConstraintCollection = store2.getConstraintCollections().iterator().next();
+        assertEquals("INDs", loadedConstraintCollection.getDescription());
+        assertEquals(new HashSet<>(constraintCollection.getConstraints()),
+                new HashSet<>(loadedConstraintCollection.getConstraints()));
+
+        // Further changes to the loaded store are appended to the log and survive the compaction.
+        store2.getSchemaByName("PDB").getTableByName("foo").addColumn(store2, "c", null, 2);
+        store2.compact();
+        assertEquals(0, logFile.length());
+        assertEquals(store2, DefaultMetadataStore.load(file));
+
+        // Algorithms and experiments are logged, too.
+        final Algorithm algorithm = store2.createAlgorithm("algorithm");
+        final Experiment experiment = store2.createExperiment("experiment", algorithm);
+        store2.close();
+        assertTrue(logFile.length() > 0);
+        final DefaultMetadataStore store3 = DefaultMetadataStore.load(file);
+        final Experiment loadedExperiment = store3.getExperimentById(experiment.getId());
+        assertEquals("experiment", loadedExperiment.getDescription());
+        assertEquals(experiment.getTimestamp(), loadedExperiment.getTimestamp());
+        assertEquals("algorithm", loadedExperiment.getAlgorithm().getName());
+        assertEquals(algorithm.getId(), store3.getAlgorithmById(algorithm.getId()).getId());
+    }
+
+    @Test
+    public void testDescriptionsOfTargetsAreLogged() throws Exception {
+        final File file = new File(this.dir, "describedStore.ms");
+        final DefaultMetadataStore store1 = DefaultMetadataStoreFactory.createAndSaveDefaultMetadataStore(file);
+        final Schema schema = store1.addSchema("PDB", null, new DefaultLocation());
+        final Table table = schema.addTable(store1, "foo", null, new DefaultLocation());
+        final Column column = table.addColumn(store1, "a", null, 0);
+        schema.setDescription("schema");
+        table.setDescription("table");
+        column.setDescription("column");
+        store1.close();
+        assertTrue(new File(file.getPath() + ".log").length() > 0);
+
+        final DefaultMetadataStore store2 = DefaultMetadataStore.load(file);
+        assertEquals("schema", store2.getTargetById(schema.getId()).getDescription());
+        assertEquals("table", store2.getTargetById(table.getId()).getDescription());
+        assertEquals("column", store2.getTargetById(column.getId()).getDescription());
+
+        // Targets that have been read from a snapshot report their changes, too.
+        store2.compact();
+        store2.close();
+        final DefaultMetadataStore store3 = DefaultMetadataStore.load(file);
+        store3.getTargetById(column.getId()).setDescription("changed column");
+        store3.close();
+        assertEquals("changed column", DefaultMetadataStore.load(file).getTargetById(column.getId()).getDescription());
+    }
+
+    @Test
+    public void testSingleConstraintsAreLoggedInBatches() throws Exception {
+        final File singleFile = new File(this.dir, "singleConstraints.ms");
+        final File bulkFile = new File(this.dir, "bulkConstraints.ms");
+        final DefaultMetadataStore singleStore = this.createStoreWithConstraints(singleFile, false);
+        final DefaultMetadataStore bulkStore = this.createStoreWithConstraints(bulkFile, true);
+
+        // Logging each constraint on its own would multiply the log size.
+        final long singleLogLength = new File(singleFile.getPath() + ".log").length();
+        final long bulkLogLength = new File(bulkFile.getPath() + ".log").length();
+        assertTrue(singleLogLength > 0);
+        assertTrue(String.format("%d vs. %d bytes", singleLogLength, bulkLogLength),
+                singleLogLength < 2 * bulkLogLength);
+
+        assertEquals(singleStore, DefaultMetadataStore.load(singleFile));
+        assertEquals(bulkStore, DefaultMetadataStore.load(bulkFile));
+    }
+
+    private DefaultMetadataStore createStoreWithConstraints(File file, boolean isBulk) throws Exception {
+        final DefaultMetadataStore store = DefaultMetadataStoreFactory.createAndSaveDefaultMetadataStore(file);
+        final Schema schema = store.addSchema("PDB", null, new DefaultLocation());
+        final Table table = schema.addTable(store, "foo", null, new DefaultLocation());
+        final List<Column> columns = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            columns.add(table.addColumn(store, "column" + i, null, i));
+        }
+        final ConstraintCollection<InclusionDependency> constraintCollection =
+                store.createConstraintCollection(null, InclusionDependency.class, schema);
+        final List<InclusionDependency> inds = new ArrayList<>();
+        for (Column column1 : columns) {
+            for (Column column2 : columns) {
+                if (column1 != column2) inds.add(new InclusionDependency(column1.getId(), column2.getId()));
+            }
+        }
+        if (isBulk) {
+            constraintCollection.addAll(inds);
+        } else {
+            inds.forEach(constraintCollection::add);
+        }
+        store.flush();
+        return store;
+    }
+
     /*
      * @Test public void testStoringOfFilledMetadataStore3() { final File file = new File(this.dir, "filledStore.ms");
      * // setup store final DefaultMetadataStore store1 = new DefaultMetadataStore(); // setup schema final Schema
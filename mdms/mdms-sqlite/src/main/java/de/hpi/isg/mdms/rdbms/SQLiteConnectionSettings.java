@@ -0,0 +1,209 @@
+package de.hpi.isg.mdms.rdbms;
+
+import de.hpi.isg.mdms.db.write.GroupCommitter;
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Describes how connections to a SQLite metadata store are set up. The defaults are tuned for large metadata stores:
+ * write-ahead logging allows readers to work concurrently with the writer, and the caches are sized generously.
+ *
+ * @see SQLiteInterface#createForFile(java.io.File, SQLiteConnectionSettings)
+ */
+public class SQLiteConnectionSettings {
+
+    private boolean isUseWriteAheadLog = true;
+
+    private SQLiteConfig.SynchronousMode synchronousMode = SQLiteConfig.SynchronousMode.NORMAL;
+
+    /**
+     * See {@code PRAGMA cache_size}. Negative values are interpreted as KiB rather than pages.
+     */
+    private int cacheSize = -64 * 1024;
+
+    /**
+     * See {@code PRAGMA mmap_size}. In bytes.
+     */
+    private long mmapSize = 256L * 1024 * 1024;
+
+    private SQLiteConfig.TempStore tempStore = SQLiteConfig.TempStore.MEMORY;
+
+    /**
+     * The number of read-only connections to maintain in addition to the writing connection.
+     */
+    private int numReadConnections = 4;
+
+    /**
+     * Time in milliseconds to wait for locks held by other connections.
+     */
+    private int busyTimeout = 10000;
+
+    /**
+     * Maximum time in milliseconds that written batches may stay uncommitted or {@code 0} to commit each batch
+     * right away.
+     *
+     * @see GroupCommitter
+     */
+    private long groupCommitLatency = 0;
+
+    /**
+     * Number of uncommitted statements that triggers a group commit.
+     */
+    private int groupCommitSize = GroupCommitter.DEFAULT_MAX_PENDING_STATEMENTS;
+
+    public boolean isUseWriteAheadLog() {
+        return this.isUseWriteAheadLog;
+    }
+
+    public SQLiteConnectionSettings setUseWriteAheadLog(boolean isUseWriteAheadLog) {
+        this.isUseWriteAheadLog = isUseWriteAheadLog;
+        return this;
+    }
+
+    public SQLiteConfig.SynchronousMode getSynchronousMode() {
+        return this.synchronousMode;
+    }
+
+    public SQLiteConnectionSettings setSynchronousMode(SQLiteConfig.SynchronousMode synchronousMode) {
+        this.synchronousMode = synchronousMode;
+        return this;
+    }
+
+    public int getCacheSize() {
+        return this.cacheSize;
+    }
+
+    public SQLiteConnectionSettings setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    public long getMmapSize() {
+        return this.mmapSize;
+    }
+
+    public SQLiteConnectionSettings setMmapSize(long mmapSize) {
+        this.mmapSize = mmapSize;
+        return this;
+    }
+
+    public SQLiteConfig.TempStore getTempStore() {
+        return this.tempStore;
+    }
+
+    public SQLiteConnectionSettings setTempStore(SQLiteConfig.TempStore tempStore) {
+        this.tempStore = tempStore;
+        return this;
+    }
+
+    public int getNumReadConnections() {
+        return this.numReadConnections;
+    }
+
+    /**
+     * Read-only connections are only used in conjunction with write-ahead logging, because otherwise readers and the
+     * writer would block each other.
+     *
+     * @param numReadConnections the number of read-only connections
+     * @return this instance
+     */
+    public SQLiteConnectionSettings setNumReadConnections(int numReadConnections) {
+        this.numReadConnections = numReadConnections;
+        return this;
+    }
+
+    public int getBusyTimeout() {
+        return this.busyTimeout;
+    }
+
+    public SQLiteConnectionSettings setBusyTimeout(int busyTimeout) {
+        this.busyTimeout = busyTimeout;
+        return this;
+    }
+
+    public long getGroupCommitLatency() {
+        return this.groupCommitLatency;
+    }
+
+    /**
+     * Enables group commits, so that the batches of several writers are committed together. This trades durability
+     * of the latest writes for write throughput. Explicit flushes of the metadata store still commit right away.
+     *
+     * @param groupCommitLatency the maximum time in milliseconds that batches may stay uncommitted or {@code 0} to
+     *                           disable group commits
+     * @return this instance
+     */
+    public SQLiteConnectionSettings setGroupCommitLatency(long groupCommitLatency) {
+        this.groupCommitLatency = groupCommitLatency;
+        return this;
+    }
+
+    public int getGroupCommitSize() {
+        return this.groupCommitSize;
+    }
+
+    public SQLiteConnectionSettings setGroupCommitSize(int groupCommitSize) {
+        this.groupCommitSize = groupCommitSize;
+        return this;
+    }
+
+    /**
+     * @return whether group commits are enabled
+     */
+    public boolean isUseGroupCommit() {
+        return this.groupCommitLatency > 0;
+    }
+
+    /**
+     * @return whether additional read-only connections should be created
+     */
+    public boolean isUseReadConnections() {
+        return this.isUseWriteAheadLog && this.numReadConnections > 0;
+    }
+
+    /**
+     * @return the journal mode to be used when journaling is turned on
+     */
+    public String getJournalMode() {
+        return this.isUseWriteAheadLog ? "WAL" : "TRUNCATE";
+    }
+
+    /**
+     * Opens a new connection according to these settings.
+     *
+     * @param url        the JDBC URL of the database
+     * @param isReadOnly whether the connection should be read-only
+     * @return the new connection
+     */
+    public Connection createConnection(String url, boolean isReadOnly) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        if (!isReadOnly) {
+            // The journal mode is stored in the database, so the readers need not set it.
+            config.setJournalMode(SQLiteConfig.JournalMode.valueOf(this.getJournalMode()));
+        }
+        config.setReadOnly(isReadOnly);
+        config.setSynchronous(this.synchronousMode);
+        config.setCacheSize(this.cacheSize);
+        config.setTempStore(this.tempStore);
+        config.setBusyTimeout(String.valueOf(this.busyTimeout));
+        Connection connection = config.createConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            // Not supported by SQLiteConfig.
+            statement.execute(String.format("PRAGMA mmap_size = %d;", this.mmapSize));
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SQLiteConnectionSettings[journal=%s, synchronous=%s, cache=%d, mmap=%d, temp=%s, readers=%d, group commit=%d ms]",
+                this.getJournalMode(), this.synchronousMode, this.cacheSize, this.mmapSize, this.tempStore,
+                this.isUseReadConnections() ? this.numReadConnections : 0, this.groupCommitLatency);
+    }
+}
@@ -4,22 +4,35 @@ import com.twitter.chill.KryoPool;
 import de.hpi.isg.mdms.db.DatabaseAccess;
 import de.hpi.isg.mdms.db.PreparedStatementAdapter;
 import de.hpi.isg.mdms.db.query.DatabaseQuery;
+import de.hpi.isg.mdms.db.query.ResultSetCursor;
 import de.hpi.isg.mdms.db.query.StrategyBasedPreparedQuery;
 import de.hpi.isg.mdms.db.write.DatabaseWriter;
 import de.hpi.isg.mdms.db.write.PreparedStatementBatchWriter;
 import de.hpi.isg.mdms.domain.RDBMSMetadataStore;
 import de.hpi.isg.mdms.domain.constraints.RDBMSConstraintCollection;
 import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.constraints.ConstraintPredicate;
+import de.hpi.isg.mdms.model.constraints.ReferencingConstraintPredicate;
 import de.hpi.isg.mdms.model.experiment.Experiment;
 import de.hpi.isg.mdms.model.targets.Target;
-import de.hpi.isg.mdms.util.LRUCache;
+import de.hpi.isg.mdms.model.util.IdUtils;
+import de.hpi.isg.mdms.rdbms.constraints.*;
+import de.hpi.isg.mdms.util.ConcurrentCache;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import scala.Tuple2;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This class takes care of serializing and deserializing constraints on a SQLite database.
@@ -29,6 +42,44 @@ import java.util.*;
  */
 public class SQLiteConstraintHandler {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SQLiteConstraintHandler.class);
+
+    /**
+     * Number of constraints that are buffered by {@link #writeConstraints(Iterable, RDBMSConstraintCollection)}.
+     */
+    private static final int BULK_CHUNK_SIZE = PreparedStatementBatchWriter.DEFAULT_BATCH_SIZE;
+
+    /**
+     * Minimum number of constraints to be serialized in parallel.
+     */
+    private static final int PARALLEL_SERIALIZATION_THRESHOLD = 1000;
+
+    /**
+     * Name of the table that indexes {@link ConstraintCollection}s by their constraint class and scope.
+     */
+    static final String SCOPE_TABLE_NAME = "ConstraintCollectionScope";
+
+    /**
+     * Creates the {@link #SCOPE_TABLE_NAME} table. Each scope {@link Target} of a {@link ConstraintCollection} is
+     * represented by a row along with the IDs of its schema and table (if any), so that containment can be checked via
+     * equality. Collections without scope are represented by a single row with a {@code null} target.
+     */
+    private static final String SCOPE_TABLE_CREATE_STATEMENT = "CREATE TABLE [ConstraintCollectionScope] (\n" +
+            "\t[constraintCollection] integer NOT NULL,\n" +
+            "\t[constraintClass] text NOT NULL,\n" +
+            "\t[target] integer,\n" +
+            "\t[schemaId] integer,\n" +
+            "\t[tableId] integer,\n" +
+            "\tFOREIGN KEY ([constraintCollection]) REFERENCES [ConstraintCollection]([id])\n" +
+            ");\n" +
+            "CREATE INDEX [ConstraintCollectionScope_constraintCollection_Index] " +
+            "ON [ConstraintCollectionScope]([constraintCollection]);\n" +
+            "CREATE INDEX [ConstraintCollectionScope_constraintClass_Index] " +
+            "ON [ConstraintCollectionScope]([constraintClass], [target]);\n" +
+            "CREATE INDEX [ConstraintCollectionScope_target_Index] ON [ConstraintCollectionScope]([target]);\n" +
+            "CREATE INDEX [ConstraintCollectionScope_schemaId_Index] ON [ConstraintCollectionScope]([schemaId]);\n" +
+            "CREATE INDEX [ConstraintCollectionScope_tableId_Index] ON [ConstraintCollectionScope]([tableId]);\n";
+
     /**
      * Encapsulates the DB connection to allow for lazy writes.
      */
@@ -52,13 +103,43 @@ public class SQLiteConstraintHandler {
     private final DatabaseWriter<ConstraintCollection<?>> deleteConstraintCollectionWriter;
     private final DatabaseQuery<Integer> constraintCollectionByIdQuery;
     private final DatabaseQuery<Void> allConstraintCollectionsQuery;
-    private final LRUCache<Integer, RDBMSConstraintCollection<?>> constraintCollectionCache = new LRUCache<>(100);
-    private boolean isConstraintCollectionCacheComplete = false;
 
-    private final DatabaseWriter<Tuple2<ConstraintCollection<?>, Object>> addConstraintWriter;
+    /**
+     * Maximum total weight of the {@link #constraintCollectionCache}. A cached collection weighs {@code 1} plus the
+     * number of its constraints that are held in main memory.
+     */
+    private static final long CONSTRAINT_COLLECTION_CACHE_MAX_WEIGHT = 1000000;
+
+    private final ConcurrentCache<Integer, RDBMSConstraintCollection<?>> constraintCollectionCache =
+            new ConcurrentCache<>(CONSTRAINT_COLLECTION_CACHE_MAX_WEIGHT, (id, cc) -> 1 + cc.getNumLoadedConstraints());
+    private volatile boolean isConstraintCollectionCacheComplete = false;
+
+    private final DatabaseWriter<Tuple2<ConstraintCollection<?>, byte[]>> addConstraintWriter;
     private final DatabaseWriter<ConstraintCollection<?>> deleteConstraintsWriter;
     private final DatabaseQuery<Integer> constraintsByConstraintCollectionIdQuery;
 
+    private final DatabaseWriter<Tuple2<ConstraintCollection<?>, Target>> addScopeWriter;
+    private final DatabaseWriter<ConstraintCollection<?>> deleteScopeWriter;
+    private final DatabaseQuery<String> constraintCollectionsByClassQuery;
+    private final DatabaseQuery<int[]> constraintCollectionsByScopeQuery;
+    private final DatabaseQuery<Tuple2<String, int[]>> constraintCollectionsByClassAndScopeQuery;
+
+    /**
+     * Finds the {@link ConstraintCollection}s of a class whose scope is included in a schema, table, or column.
+     */
+    private final Map<Target.Type, DatabaseQuery<Tuple2<String, Integer>>> includedConstraintCollectionsQueries =
+            new EnumMap<>(Target.Type.class);
+
+    /**
+     * Keeps track of the {@link SQLiteConstraintTable}s, i.e., constraint classes that are not stored as BLOBs.
+     */
+    private final Map<Class<?>, ConstraintTableAccess<?>> constraintTables = new HashMap<>();
+
+    /**
+     * Tells whether the {@link #SCOPE_TABLE_NAME} table is known to exist, so that its existence need not be checked
+     * on every access.
+     */
+    private volatile boolean isScopeTableExisting = false;
 
     /**
      * Creates a new instance.
@@ -107,11 +188,11 @@ public class SQLiteConstraintHandler {
         ));
 
         this.addConstraintWriter = this.databaseAccess.createBatchWriter(
-                new PreparedStatementBatchWriter.Factory<Tuple2<ConstraintCollection<?>, Object>>(
+                new PreparedStatementBatchWriter.Factory<Tuple2<ConstraintCollection<?>, byte[]>>(
                         "insert into [Constraint] ([constraintCollection], [data]) values (?, ?)",
                         (params, preparedStatement) -> {
                             preparedStatement.setInt(1, params._1().getId());
-                            preparedStatement.setBytes(2, this.kryoPool.toBytesWithoutClass(params._2()));
+                            preparedStatement.setBytes(2, params._2());
                         },
                         "Constraint"
                 ));
@@ -128,6 +209,134 @@ public class SQLiteConstraintHandler {
                         "Constraint"
                 )
         );
+
+        this.addScopeWriter = this.databaseAccess.createBatchWriter(
+                new PreparedStatementBatchWriter.Factory<Tuple2<ConstraintCollection<?>, Target>>(
+                        "insert into [ConstraintCollectionScope] ([constraintCollection], [constraintClass], [target], " +
+                                "[schemaId], [tableId]) values (?, ?, ?, ?, ?)",
+                        (params, preparedStatement) -> {
+                            preparedStatement.setInt(1, params._1().getId());
+                            preparedStatement.setString(2, params._1().getConstraintClass().getName());
+                            if (params._2() == null) {
+                                preparedStatement.setNull(3, Types.INTEGER);
+                                preparedStatement.setNull(4, Types.INTEGER);
+                                preparedStatement.setNull(5, Types.INTEGER);
+                            } else {
+                                int targetId = params._2().getId();
+                                IdUtils idUtils = this.metadataStore.getIdUtils();
+                                preparedStatement.setInt(3, targetId);
+                                preparedStatement.setInt(4, idUtils.getSchemaId(targetId));
+                                if (idUtils.isSchemaId(targetId)) {
+                                    preparedStatement.setNull(5, Types.INTEGER);
+                                } else {
+                                    preparedStatement.setInt(5, idUtils.getTableId(targetId));
+                                }
+                            }
+                        },
+                        SCOPE_TABLE_NAME
+                ));
+        this.deleteScopeWriter = this.databaseAccess.createBatchWriter(
+                new PreparedStatementBatchWriter.Factory<ConstraintCollection<?>>(
+                        "delete from [ConstraintCollectionScope] where [constraintCollection]=?",
+                        (cc, preparedStatement) -> preparedStatement.setInt(1, cc.getId()),
+                        SCOPE_TABLE_NAME
+                ));
+        this.constraintCollectionsByClassQuery = this.databaseAccess.createQuery(
+                new StrategyBasedPreparedQuery.Factory<>(
+                        "select distinct [constraintCollection] from [ConstraintCollectionScope] " +
+                                "where [constraintClass]=?",
+                        PreparedStatementAdapter.SINGLE_STRING_ADAPTER,
+                        SCOPE_TABLE_NAME
+                )
+        );
+        this.constraintCollectionsByScopeQuery = this.databaseAccess.createQuery(
+                new StrategyBasedPreparedQuery.Factory<>(
+                        "select distinct [constraintCollection] from [ConstraintCollectionScope] " +
+                                "where [target] in (?, ?, ?)",
+                        (containingIds, preparedStatement) -> {
+                            for (int i = 0; i < containingIds.length; i++) {
+                                preparedStatement.setInt(i + 1, containingIds[i]);
+                            }
+                        },
+                        SCOPE_TABLE_NAME
+                )
+        );
+        this.constraintCollectionsByClassAndScopeQuery = this.databaseAccess.createQuery(
+                new StrategyBasedPreparedQuery.Factory<>(
+                        "select distinct [constraintCollection] from [ConstraintCollectionScope] " +
+                                "where [constraintClass]=? and [target] in (?, ?, ?)",
+                        (params, preparedStatement) -> {
+                            preparedStatement.setString(1, params._1());
+                            for (int i = 0; i < params._2().length; i++) {
+                                preparedStatement.setInt(i + 2, params._2()[i]);
+                            }
+                        },
+                        SCOPE_TABLE_NAME
+                )
+        );
+        // A collection is included in a target if all its scope rows have that target as schema, table, or column.
+        Map<Target.Type, String> containmentColumns = new EnumMap<>(Target.Type.class);
+        containmentColumns.put(Target.Type.SCHEMA, "schemaId");
+        containmentColumns.put(Target.Type.TABLE, "tableId");
+        containmentColumns.put(Target.Type.COLUMN, "target");
+        for (Map.Entry<Target.Type, String> entry : containmentColumns.entrySet()) {
+            this.includedConstraintCollectionsQueries.put(entry.getKey(), this.databaseAccess.createQuery(
+                    new StrategyBasedPreparedQuery.Factory<>(
+                            String.format("select [constraintCollection] from [ConstraintCollectionScope] " +
+                                    "where [constraintClass]=? " +
+                                    "group by [constraintCollection] " +
+                                    "having min(case when [target] is null or [%s]=? then 1 else 0 end) = 1",
+                                    entry.getValue()),
+                            (params, preparedStatement) -> {
+                                preparedStatement.setString(1, params._1());
+                                preparedStatement.setInt(2, params._2());
+                            },
+                            SCOPE_TABLE_NAME
+                    )
+            ));
+        }
+
+        // Register the default typed constraint tables.
+        this.registerConstraintTable(new InclusionDependencyTable());
+        this.registerConstraintTable(new FunctionalDependencyTable());
+        this.registerConstraintTable(new UniqueColumnCombinationTable());
+        this.registerConstraintTable(new TupleCountTable());
+        this.registerConstraintTable(new DistinctValueCountTable());
+        this.registerConstraintTable(new TypeConstraintTable());
+        this.registerConstraintTable(new ColumnStatisticsTable(kryoPool));
+    }
+
+    /**
+     * Registers a {@link SQLiteConstraintTable}, so that constraints of its class will be stored in that table
+     * instead of the generic {@code [Constraint]} table. Any previously registered table for the same class is replaced.
+     *
+     * @param constraintTable the {@link SQLiteConstraintTable} to register
+     */
+    public void registerConstraintTable(SQLiteConstraintTable<?> constraintTable) {
+        this.constraintTables.put(constraintTable.getConstraintClass(), new ConstraintTableAccess<>(constraintTable));
+    }
+
+    /**
+     * @return the names of all tables of registered {@link SQLiteConstraintTable}s
+     */
+    public Collection<String> getConstraintTableNames() {
+        Collection<String> tableNames = new ArrayList<>(this.constraintTables.size());
+        for (ConstraintTableAccess<?> constraintTableAccess : this.constraintTables.values()) {
+            tableNames.add(constraintTableAccess.constraintTable.getTableName());
+        }
+        return tableNames;
+    }
+
+    /**
+     * Looks up the {@link SQLiteConstraintTable} for the given constraint class.
+     *
+     * @param constraintClass the class of constraints
+     * @return the {@link ConstraintTableAccess} for the {@link SQLiteConstraintTable} or {@code null} if the constraints
+     * are stored as BLOBs
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ConstraintTableAccess<T> getConstraintTableAccess(Class<T> constraintClass) {
+        return (ConstraintTableAccess<T>) this.constraintTables.get(constraintClass);
     }
 
 
@@ -139,7 +348,67 @@ public class SQLiteConstraintHandler {
      */
     public void writeConstraint(Object constraint, RDBMSConstraintCollection<?> constraintCollection) throws SQLException {
         Validate.isAssignableFrom(constraintCollection.getConstraintClass(), constraint.getClass());
-        this.addConstraintWriter.write(new Tuple2<>(constraintCollection, constraint));
+        ConstraintTableAccess<?> constraintTableAccess = this.getConstraintTableAccess(constraint.getClass());
+        if (constraintTableAccess != null) {
+            // Subclasses of a tabled constraint class might carry additional fields, so we require an exact match.
+            constraintTableAccess.write(constraintCollection, constraint);
+        } else {
+            this.addConstraintWriter.write(new Tuple2<>(constraintCollection, this.kryoPool.toBytesWithoutClass(constraint)));
+        }
+    }
+
+    /**
+     * Writes several constraints of a {@link ConstraintCollection} at once. The constraints are processed in chunks:
+     * BLOBs of each chunk are serialized in parallel and each chunk is passed to the writers as a whole.
+     *
+     * @param constraints          are the constraints to write
+     * @param constraintCollection to which the constraints belong
+     */
+    public void writeConstraints(Iterable<?> constraints, RDBMSConstraintCollection<?> constraintCollection)
+            throws SQLException {
+        ConstraintTableAccess<?> constraintTableAccess =
+                this.getConstraintTableAccess(constraintCollection.getConstraintClass());
+        List<Object> tabledConstraints = new ArrayList<>(), blobConstraints = new ArrayList<>();
+        for (Object constraint : constraints) {
+            Validate.isAssignableFrom(constraintCollection.getConstraintClass(), constraint.getClass());
+            if (constraintTableAccess != null
+                    && constraint.getClass() == constraintTableAccess.constraintTable.getConstraintClass()) {
+                tabledConstraints.add(constraint);
+            } else {
+                blobConstraints.add(constraint);
+            }
+            if (tabledConstraints.size() + blobConstraints.size() >= BULK_CHUNK_SIZE) {
+                this.writeConstraintChunk(tabledConstraints, blobConstraints, constraintTableAccess, constraintCollection);
+            }
+        }
+        this.writeConstraintChunk(tabledConstraints, blobConstraints, constraintTableAccess, constraintCollection);
+    }
+
+    /**
+     * Writes and clears the given constraints.
+     *
+     * @see #writeConstraints(Iterable, RDBMSConstraintCollection)
+     */
+    private void writeConstraintChunk(List<Object> tabledConstraints,
+                                      List<Object> blobConstraints,
+                                      ConstraintTableAccess<?> constraintTableAccess,
+                                      ConstraintCollection<?> constraintCollection) throws SQLException {
+        if (!tabledConstraints.isEmpty()) {
+            constraintTableAccess.writeAll(constraintCollection, tabledConstraints);
+            tabledConstraints.clear();
+        }
+        if (!blobConstraints.isEmpty()) {
+            Stream<Object> blobConstraintStream = blobConstraints.size() >= PARALLEL_SERIALIZATION_THRESHOLD ?
+                    blobConstraints.parallelStream() :
+                    blobConstraints.stream();
+            List<Tuple2<ConstraintCollection<?>, byte[]>> blobs = blobConstraintStream
+                    .map(constraint -> new Tuple2<ConstraintCollection<?>, byte[]>(
+                            constraintCollection, this.kryoPool.toBytesWithoutClass(constraint)
+                    ))
+                    .collect(Collectors.toList());
+            this.addConstraintWriter.writeAll(blobs);
+            blobConstraints.clear();
+        }
     }
 
     /**
@@ -173,6 +442,7 @@ public class SQLiteConstraintHandler {
                 cc = new RDBMSConstraintCollection<>(
                         id, description, experiment, scope, this.sqliteInterface, data.constraintClass
                 );
+                this.constraintCollectionCache.put(id, cc);
                 return cc;
             }
         }
@@ -221,8 +491,143 @@ public class SQLiteConstraintHandler {
     }
 
 
+    /**
+     * @return the usage statistics of the cache for {@link ConstraintCollection}s
+     */
+    public ConcurrentCache.Stats getConstraintCollectionCacheStats() {
+        return this.constraintCollectionCache.getStats();
+    }
+
     public void addConstraintCollection(ConstraintCollection<?> constraintCollection) throws SQLException {
+        this.ensureScopeTableExists();
         this.addConstraintCollectionWriter.write(constraintCollection);
+        this.writeScope(constraintCollection);
+        if (constraintCollection instanceof RDBMSConstraintCollection) {
+            this.constraintCollectionCache.put(
+                    constraintCollection.getId(), (RDBMSConstraintCollection<?>) constraintCollection
+            );
+        }
+    }
+
+    /**
+     * Writes the rows of the {@link #SCOPE_TABLE_NAME} table for the given {@link ConstraintCollection}.
+     */
+    private void writeScope(ConstraintCollection<?> constraintCollection) throws SQLException {
+        if (constraintCollection.getScope().isEmpty()) {
+            this.addScopeWriter.write(new Tuple2<>(constraintCollection, null));
+        } else {
+            List<Tuple2<ConstraintCollection<?>, Target>> scopeRows = new ArrayList<>(constraintCollection.getScope().size());
+            for (Target target : constraintCollection.getScope()) {
+                scopeRows.add(new Tuple2<>(constraintCollection, target));
+            }
+            this.addScopeWriter.writeAll(scopeRows);
+        }
+    }
+
+    /**
+     * Creates the {@link #SCOPE_TABLE_NAME} table if it does not exist yet and indexes all existing
+     * {@link ConstraintCollection}s. This upgrades metadata stores that have been created with an older version.
+     */
+    private void ensureScopeTableExists() throws SQLException {
+        if (this.isScopeTableExisting) {
+            return;
+        }
+        if (this.sqliteInterface.tableExists(SCOPE_TABLE_NAME)) {
+            this.isScopeTableExisting = true;
+            return;
+        }
+        Collection<ConstraintCollection<?>> constraintCollections = this.getAllConstraintCollections();
+        LOGGER.info("Creating [{}] for {} constraint collections.", SCOPE_TABLE_NAME, constraintCollections.size());
+        this.sqliteInterface.executeCreateTableStatement(SCOPE_TABLE_CREATE_STATEMENT);
+        for (ConstraintCollection<?> constraintCollection : constraintCollections) {
+            this.writeScope(constraintCollection);
+        }
+        this.databaseAccess.flush(Collections.singleton(SCOPE_TABLE_NAME));
+        this.isScopeTableExisting = true;
+    }
+
+    /**
+     * Forgets which tables are known to exist. Must be called whenever tables are dropped.
+     */
+    void forgetExistingTables() {
+        this.isScopeTableExisting = false;
+        for (ConstraintTableAccess<?> constraintTableAccess : this.constraintTables.values()) {
+            constraintTableAccess.isTableExisting = false;
+        }
+    }
+
+    /**
+     * Finds all {@link ConstraintCollection}s of the given constraint class.
+     *
+     * @param constraintClass the constraint class
+     * @return the matching collections
+     */
+    public Collection<ConstraintCollection<?>> getConstraintCollectionsByConstraintClass(Class<?> constraintClass)
+            throws SQLException {
+        this.ensureScopeTableExists();
+        try (ResultSet rs = this.constraintCollectionsByClassQuery.execute(constraintClass.getName())) {
+            return this.loadConstraintCollections(rs);
+        }
+    }
+
+    /**
+     * Finds all {@link ConstraintCollection}s that have a {@link Target} in their scope that contains the given
+     * {@link Target}.
+     *
+     * @param constraintClass the constraint class of the collections or {@code null} to ignore it
+     * @param target          the contained {@link Target}
+     * @return the matching collections
+     */
+    public Collection<ConstraintCollection<?>> getConstraintCollectionsByScope(Class<?> constraintClass, Target target)
+            throws SQLException {
+        this.ensureScopeTableExists();
+        // The queries expect exactly three IDs, so we repeat the innermost ID if necessary.
+        int[] containingIds = this.metadataStore.getIdUtils().getContainingIds(target.getId());
+        int[] paddedContainingIds = Arrays.copyOf(containingIds, 3);
+        Arrays.fill(paddedContainingIds, containingIds.length, 3, containingIds[containingIds.length - 1]);
+        try (ResultSet rs = constraintClass == null ?
+                this.constraintCollectionsByScopeQuery.execute(paddedContainingIds) :
+                this.constraintCollectionsByClassAndScopeQuery.execute(
+                        new Tuple2<>(constraintClass.getName(), paddedContainingIds)
+                )) {
+            return this.loadConstraintCollections(rs);
+        }
+    }
+
+    /**
+     * Finds all {@link ConstraintCollection}s of the given constraint class whose scope is entirely included in the
+     * given {@link Target}. This includes collections with an empty scope.
+     *
+     * @param constraintClass the constraint class of the collections
+     * @param target          the including {@link Target}
+     * @return the matching collections
+     */
+    public Collection<ConstraintCollection<?>> getIncludedConstraintCollections(Class<?> constraintClass, Target target)
+            throws SQLException {
+        this.ensureScopeTableExists();
+        DatabaseQuery<Tuple2<String, Integer>> query = this.includedConstraintCollectionsQueries.get(
+                this.metadataStore.getIdUtils().getIdType(target.getId())
+        );
+        try (ResultSet rs = query.execute(new Tuple2<>(constraintClass.getName(), target.getId()))) {
+            return this.loadConstraintCollections(rs);
+        }
+    }
+
+    /**
+     * Loads the {@link ConstraintCollection}s whose IDs are in the first column of the given {@link ResultSet}.
+     */
+    private Collection<ConstraintCollection<?>> loadConstraintCollections(ResultSet rs) throws SQLException {
+        // Gather the IDs first, as loading the collections might require further queries.
+        IntList ids = new IntArrayList();
+        while (rs.next()) {
+            ids.add(rs.getInt(1));
+        }
+        Collection<ConstraintCollection<?>> constraintCollections = new ArrayList<>(ids.size());
+        for (IntIterator iterator = ids.iterator(); iterator.hasNext(); ) {
+            ConstraintCollection<?> constraintCollection = this.getConstraintCollectionById(iterator.nextInt());
+            if (constraintCollection != null) constraintCollections.add(constraintCollection);
+        }
+        return constraintCollections;
     }
 
     @SuppressWarnings("unchecked") // We check by hand.
@@ -245,12 +650,62 @@ public class SQLiteConstraintHandler {
                 constraints.add((T) constraint);
             }
         }
+
+        ConstraintTableAccess<?> constraintTableAccess =
+                this.getConstraintTableAccess(constraintCollection.getConstraintClass());
+        if (constraintTableAccess != null) {
+            constraintTableAccess.readAll(constraintCollection, (Collection<Object>) constraints);
+        }
         return constraints;
     }
 
+    /**
+     * Streams the constraints of a {@link ConstraintCollection} via forward-only cursors, so that they need not fit
+     * into main memory.
+     *
+     * @param constraintCollection whose constraints are requested
+     * @param predicate            selects the constraints to stream
+     * @return a {@link Stream} over the selected constraints that must be closed after use
+     */
+    public <T> Stream<T> streamConstraints(ConstraintCollection<T> constraintCollection,
+                                           ConstraintPredicate<? super T> predicate) throws SQLException {
+        Class<T> constraintClass = constraintCollection.getConstraintClass();
+        Stream<T> constraints = ResultSetCursor.open(
+                this.databaseAccess,
+                "select [data] from [Constraint] where [constraintCollection]=?",
+                PreparedStatementAdapter.SINGLE_INT_ADAPTER,
+                constraintCollection.getId(),
+                rs -> this.kryoPool.fromBytes(rs.getBytes(1), constraintClass),
+                "Constraint"
+        ).stream();
+
+        ConstraintTableAccess<T> constraintTableAccess = this.getConstraintTableAccess(constraintClass);
+        if (constraintTableAccess != null && constraintTableAccess.ensureTableExists(false)) {
+            try {
+                constraints = Stream.concat(
+                        constraints, constraintTableAccess.openCursor(constraintCollection, predicate).stream()
+                );
+            } catch (SQLException e) {
+                constraints.close();
+                throw e;
+            }
+        }
+        return constraints.filter(predicate);
+    }
+
     public void removeConstraintCollection(ConstraintCollection<?> constraintCollection) throws SQLException {
+        this.ensureScopeTableExists();
+        Collection<String> affectedTables = new ArrayList<>(
+                Arrays.asList("Constraint", "ConstraintCollection", SCOPE_TABLE_NAME)
+        );
+        ConstraintTableAccess<?> constraintTableAccess =
+                this.getConstraintTableAccess(constraintCollection.getConstraintClass());
+        if (constraintTableAccess != null) {
+            affectedTables.add(constraintTableAccess.constraintTable.getTableName());
+        }
+
         // We need to avoid to batch inserts and deletes together.
-        this.databaseAccess.flush(Arrays.asList("Constraint", "ConstraintCollection"));
+        this.databaseAccess.flush(affectedTables);
 
         // Remove the ConstraintCollection from the cache.
         this.constraintCollectionCache.remove(constraintCollection.getId());
@@ -258,8 +713,51 @@ public class SQLiteConstraintHandler {
         // Remove the ConstraintCollection from the database.
         this.deleteConstraintCollectionWriter.write(constraintCollection);
         this.deleteConstraintsWriter.write(constraintCollection);
+        this.deleteScopeWriter.write(constraintCollection);
+        if (constraintTableAccess != null) {
+            constraintTableAccess.delete(constraintCollection);
+        }
+
+        this.databaseAccess.flush(affectedTables);
+    }
 
-        this.databaseAccess.flush(Arrays.asList("Constraint", "ConstraintCollection"));
+    /**
+     * Moves all constraints that are stored as BLOBs in the generic {@code [Constraint]} table but have a registered
+     * {@link SQLiteConstraintTable} to that table. This migrates metadata stores that have been created before the
+     * introduction of typed constraint tables.
+     *
+     * @return the number of migrated constraints
+     */
+    public int migrateToConstraintTables() throws SQLException {
+        int numMigratedConstraints = 0;
+        for (ConstraintCollection<?> constraintCollection : this.getAllConstraintCollections()) {
+            ConstraintTableAccess<?> constraintTableAccess =
+                    this.getConstraintTableAccess(constraintCollection.getConstraintClass());
+            if (constraintTableAccess == null) continue;
+
+            // Read the BLOBs first, as we must not interleave the reading with the writing.
+            Collection<Object> blobConstraints = new ArrayList<>();
+            try (ResultSet rs = this.constraintsByConstraintCollectionIdQuery.execute(constraintCollection.getId())) {
+                while (rs.next()) {
+                    blobConstraints.add(this.kryoPool.fromBytes(rs.getBytes(1), constraintCollection.getConstraintClass()));
+                }
+            }
+            if (blobConstraints.isEmpty()) continue;
+
+            // Write the constraints to their table or keep them as BLOBs if they do not fit exactly.
+            this.deleteConstraintsWriter.write(constraintCollection);
+            this.databaseAccess.flush(Collections.singleton("Constraint"));
+            for (Object constraint : blobConstraints) {
+                this.writeConstraint(constraint, (RDBMSConstraintCollection<?>) constraintCollection);
+                if (constraint.getClass() == constraintTableAccess.constraintTable.getConstraintClass()) {
+                    numMigratedConstraints++;
+                }
+            }
+            this.databaseAccess.flush();
+            LOGGER.info("Migrated {} constraints of {} to {}.",
+                    blobConstraints.size(), constraintCollection, constraintTableAccess.constraintTable);
+        }
+        return numMigratedConstraints;
     }
 
     public Set<ConstraintCollection<?>> getAllConstraintCollectionsForExperiment(Experiment experiment) {
@@ -312,4 +810,147 @@ public class SQLiteConstraintHandler {
         }
 
     }
+
+    /**
+     * Bundles the writers and queries for a {@link SQLiteConstraintTable}. These are lazily initialized, as the table
+     * itself is only created in the database once it is needed.
+     */
+    private class ConstraintTableAccess<T> {
+
+        private final SQLiteConstraintTable<T> constraintTable;
+
+        private DatabaseWriter<Tuple2<ConstraintCollection<?>, T>> insertWriter;
+
+        private DatabaseWriter<ConstraintCollection<?>> deleteWriter;
+
+        private DatabaseQuery<Integer> constraintsByConstraintCollectionIdQuery;
+
+        /**
+         * Tells whether the table is known to exist.
+         */
+        private volatile boolean isTableExisting = false;
+
+        private ConstraintTableAccess(SQLiteConstraintTable<T> constraintTable) {
+            this.constraintTable = constraintTable;
+        }
+
+        /**
+         * Creates the table in the database if it does not exist yet.
+         *
+         * @return whether the table exists
+         */
+        private boolean ensureTableExists(boolean isCreateIfNotExists) throws SQLException {
+            if (this.isTableExisting) {
+                return true;
+            }
+            if (!sqliteInterface.tableExists(this.constraintTable.getTableName())) {
+                if (!isCreateIfNotExists) {
+                    return false;
+                }
+                LOGGER.debug("Creating {}.", this.constraintTable);
+                sqliteInterface.executeCreateTableStatement(this.constraintTable.getCreateTableStatement());
+            }
+            this.isTableExisting = true;
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void write(ConstraintCollection<?> constraintCollection, Object constraint) throws SQLException {
+            this.ensureInsertWriterCreated();
+            this.insertWriter.write(new Tuple2<>(constraintCollection, (T) constraint));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void writeAll(ConstraintCollection<?> constraintCollection, List<Object> constraints)
+                throws SQLException {
+            this.ensureInsertWriterCreated();
+            List<Tuple2<ConstraintCollection<?>, T>> rows = new ArrayList<>(constraints.size());
+            for (Object constraint : constraints) {
+                rows.add(new Tuple2<>(constraintCollection, (T) constraint));
+            }
+            this.insertWriter.writeAll(rows);
+        }
+
+        private void ensureInsertWriterCreated() throws SQLException {
+            if (this.insertWriter == null) {
+                this.ensureTableExists(true);
+                this.insertWriter = databaseAccess.createBatchWriter(
+                        new PreparedStatementBatchWriter.Factory<Tuple2<ConstraintCollection<?>, T>>(
+                                this.constraintTable.getInsertStatement(),
+                                (params, preparedStatement) -> this.constraintTable.setInsertParameters(
+                                        params._1().getId(), params._2(), preparedStatement
+                                ),
+                                this.constraintTable.getTableName()
+                        ));
+            }
+        }
+
+        private void readAll(ConstraintCollection<?> constraintCollection, Collection<Object> collector)
+                throws SQLException {
+            if (!this.ensureTableExists(false)) return;
+            if (this.constraintsByConstraintCollectionIdQuery == null) {
+                this.constraintsByConstraintCollectionIdQuery = databaseAccess.createQuery(
+                        new StrategyBasedPreparedQuery.Factory<>(
+                                String.format("select * from [%s] where [constraintCollection]=?",
+                                        this.constraintTable.getTableName()),
+                                PreparedStatementAdapter.SINGLE_INT_ADAPTER,
+                                this.constraintTable.getTableName()
+                        )
+                );
+            }
+            try (ResultSet rs = this.constraintsByConstraintCollectionIdQuery.execute(constraintCollection.getId())) {
+                while (rs.next()) {
+                    collector.add(this.constraintTable.readConstraint(rs));
+                }
+            }
+        }
+
+        /**
+         * Opens a cursor over the constraints of the given {@link ConstraintCollection}. If possible, the given
+         * {@link ConstraintPredicate} is translated into SQL, so that non-matching rows are skipped on the indexes.
+         * However, the cursor may still provide constraints that do not satisfy the predicate.
+         */
+        private ResultSetCursor<T> openCursor(ConstraintCollection<?> constraintCollection,
+                                              ConstraintPredicate<?> predicate) throws SQLException {
+            String tableName = this.constraintTable.getTableName();
+            String referencingCondition = this.constraintTable.getReferencingCondition();
+            if (predicate instanceof ReferencingConstraintPredicate && referencingCondition != null) {
+                int targetId = ((ReferencingConstraintPredicate<?>) predicate).getTargetId();
+                return ResultSetCursor.open(
+                        databaseAccess,
+                        String.format("select * from [%s] where [constraintCollection]=?1 and (%s)",
+                                tableName, referencingCondition),
+                        (ConstraintCollection<?> cc, PreparedStatement preparedStatement) -> {
+                            preparedStatement.setInt(1, cc.getId());
+                            preparedStatement.setInt(2, targetId);
+                        },
+                        constraintCollection,
+                        this.constraintTable::readConstraint,
+                        tableName
+                );
+            }
+            return ResultSetCursor.open(
+                    databaseAccess,
+                    String.format("select * from [%s] where [constraintCollection]=?", tableName),
+                    PreparedStatementAdapter.SINGLE_INT_ADAPTER,
+                    constraintCollection.getId(),
+                    this.constraintTable::readConstraint,
+                    tableName
+            );
+        }
+
+        private void delete(ConstraintCollection<?> constraintCollection) throws SQLException {
+            if (!this.ensureTableExists(false)) return;
+            if (this.deleteWriter == null) {
+                this.deleteWriter = databaseAccess.createBatchWriter(
+                        new PreparedStatementBatchWriter.Factory<ConstraintCollection<?>>(
+                                String.format("delete from [%s] where [constraintCollection]=?",
+                                        this.constraintTable.getTableName()),
+                                (cc, preparedStatement) -> preparedStatement.setInt(1, cc.getId()),
+                                this.constraintTable.getTableName()
+                        ));
+            }
+            this.deleteWriter.write(constraintCollection);
+        }
+    }
 }
@@ -0,0 +1,303 @@
+package de.hpi.isg.mdms.rdbms;
+
+import de.hpi.isg.mdms.db.DatabaseAccess;
+import de.hpi.isg.mdms.db.PreparedStatementAdapter;
+import de.hpi.isg.mdms.db.query.DatabaseQuery;
+import de.hpi.isg.mdms.db.query.StrategyBasedPreparedQuery;
+import de.hpi.isg.mdms.db.write.DatabaseWriter;
+import de.hpi.isg.mdms.db.write.PreparedStatementBatchWriter;
+import de.hpi.isg.mdms.model.targets.Target;
+import de.hpi.isg.mdms.model.util.IdUtils;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import scala.Tuple2;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+
+/**
+ * {@link IdAllocator} for the {@link SQLiteInterface}. There is an ID range for the schema numbers and one for the
+ * table numbers of each schema (cf. {@link IdUtils}). For each range, this class reserves blocks of numbers in the
+ * {@link #TABLE_NAME} table and keeps track of the reserved but unused numbers in a bitmap. Hence, allocating an ID
+ * does not require any queries in general. Only when a range is exhausted, it is scanned once for numbers that have
+ * been released in the meantime.
+ */
+public class SQLiteIdAllocator implements IdAllocator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SQLiteIdAllocator.class);
+
+    /**
+     * Name of the table that stores the reservations.
+     */
+    static final String TABLE_NAME = "IdAllocation";
+
+    /**
+     * Creates the {@link #TABLE_NAME} table. For each range, i.e., for the schema IDs and for the table IDs within a
+     * parent schema, all numbers below the watermark are reserved.
+     */
+    private static final String TABLE_CREATE_STATEMENT = "CREATE TABLE [IdAllocation] (\n" +
+            "\t[type_code] integer NOT NULL,\n" +
+            "\t[parent] integer NOT NULL,\n" +
+            "\t[watermark] integer NOT NULL,\n" +
+            "\tPRIMARY KEY ([type_code], [parent])\n" +
+            ");\n";
+
+    /**
+     * Number of IDs that are reserved at once.
+     */
+    static final int BLOCK_SIZE = 128;
+
+    private final SQLiteInterface sqliteInterface;
+
+    private final DatabaseAccess databaseAccess;
+
+    /**
+     * Describes the schema IDs or {@code null} if not loaded yet.
+     */
+    private IdRange schemaIdRange;
+
+    /**
+     * Describes the table IDs per schema ID.
+     */
+    private final Int2ObjectMap<IdRange> tableIdRanges = new Int2ObjectOpenHashMap<>();
+
+    private final DatabaseWriter<IdRange> watermarkWriter;
+
+    private final DatabaseQuery<Tuple2<Integer, Integer>> watermarkQuery;
+
+    private final DatabaseQuery<Integer> targetIdsByTypeQuery, targetIdsByParentQuery;
+
+    /**
+     * Tells whether the {@link #TABLE_NAME} table is known to exist, so that its existence need not be checked on
+     * every allocation.
+     */
+    private volatile boolean isTableExisting = false;
+
+    public SQLiteIdAllocator(SQLiteInterface sqliteInterface) throws SQLException {
+        this.sqliteInterface = sqliteInterface;
+        this.databaseAccess = sqliteInterface.getDatabaseAccess();
+
+        this.watermarkWriter = this.databaseAccess.createBatchWriter(new PreparedStatementBatchWriter.Factory<>(
+                "insert or replace into [IdAllocation] ([type_code], [parent], [watermark]) values (?, ?, ?)",
+                (idRange, preparedStatement) -> {
+                    preparedStatement.setInt(1, idRange.type.ordinal());
+                    preparedStatement.setInt(2, idRange.parentId);
+                    preparedStatement.setInt(3, idRange.watermark);
+                },
+                TABLE_NAME
+        ));
+        this.watermarkQuery = this.databaseAccess.createQuery(new StrategyBasedPreparedQuery.Factory<>(
+                "select [watermark] from [IdAllocation] where [type_code]=? and [parent]=?",
+                (params, preparedStatement) -> {
+                    preparedStatement.setInt(1, params._1());
+                    preparedStatement.setInt(2, params._2());
+                },
+                TABLE_NAME
+        ));
+        this.targetIdsByTypeQuery = this.databaseAccess.createQuery(new StrategyBasedPreparedQuery.Factory<>(
+                "select [id] from [Target] where [type_code]=?",
+                PreparedStatementAdapter.SINGLE_INT_ADAPTER,
+                "Target"
+        ));
+        this.targetIdsByParentQuery = this.databaseAccess.createQuery(new StrategyBasedPreparedQuery.Factory<>(
+                "select [id] from [Target] where [parent]=?",
+                PreparedStatementAdapter.SINGLE_INT_ADAPTER,
+                "Target"
+        ));
+    }
+
+    @Override
+    public synchronized int allocateSchemaId() throws SQLException {
+        if (this.schemaIdRange == null) {
+            IdUtils idUtils = this.getIdUtils();
+            this.schemaIdRange = this.loadIdRange(Target.Type.SCHEMA, 0,
+                    idUtils.getMinSchemaNumber(), idUtils.getMaxSchemaNumber());
+        }
+        return this.getIdUtils().createGlobalId(this.allocate(this.schemaIdRange));
+    }
+
+    @Override
+    public synchronized int allocateTableId(int schemaId) throws SQLException {
+        IdUtils idUtils = this.getIdUtils();
+        IdRange tableIdRange = this.tableIdRanges.get(schemaId);
+        if (tableIdRange == null) {
+            tableIdRange = this.loadIdRange(Target.Type.TABLE, schemaId,
+                    idUtils.getMinTableNumber(), idUtils.getMaxTableNumber());
+            this.tableIdRanges.put(schemaId, tableIdRange);
+        }
+        return idUtils.createGlobalId(idUtils.getLocalSchemaId(schemaId), this.allocate(tableIdRange));
+    }
+
+    @Override
+    public synchronized void releaseId(int id) throws SQLException {
+        IdUtils idUtils = this.getIdUtils();
+        switch (idUtils.getIdType(id)) {
+            case SCHEMA:
+                if (this.schemaIdRange != null) {
+                    this.schemaIdRange.release(idUtils.getLocalSchemaId(id));
+                }
+                // A new schema with the same ID starts with a fresh range of table IDs.
+                IdRange tableIdRange = new IdRange(Target.Type.TABLE, id,
+                        idUtils.getMinTableNumber(), idUtils.getMaxTableNumber());
+                tableIdRange.watermark = tableIdRange.minNumber;
+                this.tableIdRanges.put(id, tableIdRange);
+                this.ensureTableExists();
+                this.watermarkWriter.write(tableIdRange);
+                break;
+            case TABLE:
+                IdRange range = this.tableIdRanges.get(idUtils.getSchemaId(id));
+                if (range != null) {
+                    range.release(idUtils.getLocalTableId(id));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("Cannot release the column ID %08x.", id));
+        }
+    }
+
+    /**
+     * Allocates a number from the given {@link IdRange}.
+     *
+     * @return the allocated number
+     */
+    private int allocate(IdRange idRange) throws SQLException {
+        int number = idRange.freeNumbers.nextSetBit(idRange.minNumber);
+        if (number == -1 && idRange.watermark <= idRange.maxNumber) {
+            // Reserve the next block.
+            int newWatermark = (int) Math.min((long) idRange.watermark + BLOCK_SIZE, idRange.maxNumber + 1L);
+            idRange.freeNumbers.set(idRange.watermark, newWatermark);
+            idRange.watermark = newWatermark;
+            this.ensureTableExists();
+            this.watermarkWriter.write(idRange);
+            number = idRange.freeNumbers.nextSetBit(idRange.minNumber);
+        }
+        if (number == -1) {
+            // All numbers have been reserved, so look for released ones.
+            LOGGER.debug("Scanning for unused numbers in {}.", idRange);
+            idRange.freeNumbers.set(idRange.minNumber, idRange.maxNumber + 1);
+            idRange.freeNumbers.andNot(this.findUsedNumbers(idRange));
+            number = idRange.freeNumbers.nextSetBit(idRange.minNumber);
+        }
+        if (number == -1) {
+            throw new IllegalStateException(String.format("No free ID left in %s.", idRange));
+        }
+        idRange.freeNumbers.clear(number);
+        return number;
+    }
+
+    /**
+     * Loads the reservations for an {@link IdRange}. If there are none, the range is reserved up to the highest used
+     * number and any gaps below are made available.
+     */
+    private IdRange loadIdRange(Target.Type type, int parentId, int minNumber, int maxNumber) throws SQLException {
+        IdRange idRange = new IdRange(type, parentId, minNumber, maxNumber);
+        this.ensureTableExists();
+        try (ResultSet rs = this.watermarkQuery.execute(new Tuple2<>(type.ordinal(), parentId))) {
+            if (rs.next()) {
+                idRange.watermark = rs.getInt(1);
+                return idRange;
+            }
+        }
+
+        BitSet usedNumbers = this.findUsedNumbers(idRange);
+        idRange.watermark = Math.max(minNumber, usedNumbers.length());
+        idRange.freeNumbers.set(minNumber, idRange.watermark);
+        idRange.freeNumbers.andNot(usedNumbers);
+        return idRange;
+    }
+
+    /**
+     * Queries the numbers of the given {@link IdRange} that are in use.
+     *
+     * @return a bitmap of the used numbers
+     */
+    private BitSet findUsedNumbers(IdRange idRange) throws SQLException {
+        IdUtils idUtils = this.getIdUtils();
+        BitSet usedNumbers = new BitSet();
+        if (idRange.type == Target.Type.SCHEMA) {
+            try (ResultSet rs = this.targetIdsByTypeQuery.execute(Target.Type.SCHEMA.ordinal())) {
+                while (rs.next()) {
+                    usedNumbers.set(idUtils.getLocalSchemaId(rs.getInt(1)));
+                }
+            }
+        } else {
+            try (ResultSet rs = this.targetIdsByParentQuery.execute(idRange.parentId)) {
+                while (rs.next()) {
+                    usedNumbers.set(idUtils.getLocalTableId(rs.getInt(1)));
+                }
+            }
+        }
+        return usedNumbers;
+    }
+
+    /**
+     * Creates the {@link #TABLE_NAME} table if it does not exist yet. This upgrades metadata stores that have been
+     * created with an older version.
+     */
+    private void ensureTableExists() throws SQLException {
+        if (this.isTableExisting) {
+            return;
+        }
+        if (!this.sqliteInterface.tableExists(TABLE_NAME)) {
+            this.sqliteInterface.executeCreateTableStatement(TABLE_CREATE_STATEMENT);
+        }
+        this.isTableExisting = true;
+    }
+
+    /**
+     * Forgets whether the {@link #TABLE_NAME} table exists. Must be called whenever tables are dropped.
+     */
+    void forgetExistingTables() {
+        this.isTableExisting = false;
+    }
+
+    private IdUtils getIdUtils() {
+        return this.sqliteInterface.getMetadataStore().getIdUtils();
+    }
+
+    /**
+     * Describes the numbers for schema or table IDs within a parent.
+     */
+    private static final class IdRange {
+
+        private final Target.Type type;
+
+        /**
+         * The ID of the schema for table IDs or {@code 0} for schema IDs.
+         */
+        private final int parentId;
+
+        private final int minNumber, maxNumber;
+
+        /**
+         * All numbers below the watermark are reserved.
+         */
+        private int watermark;
+
+        /**
+         * Reserved numbers that can be allocated.
+         */
+        private final BitSet freeNumbers = new BitSet();
+
+        private IdRange(Target.Type type, int parentId, int minNumber, int maxNumber) {
+            this.type = type;
+            this.parentId = parentId;
+            this.minNumber = minNumber;
+            this.maxNumber = maxNumber;
+        }
+
+        private void release(int number) {
+            if (number < this.watermark) {
+                this.freeNumbers.set(number);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("IdRange[%s, %08x, %d..%d]", this.type, this.parentId, this.minNumber, this.maxNumber);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package de.hpi.isg.mdms.rdbms;
 import com.twitter.chill.KryoPool;
 import com.twitter.chill.ScalaKryoInstantiator;
 import de.hpi.isg.mdms.db.DatabaseAccess;
+import de.hpi.isg.mdms.db.ReadConnectionPool;
 import de.hpi.isg.mdms.domain.RDBMSMetadataStore;
 import de.hpi.isg.mdms.domain.constraints.RDBMSConstraintCollection;
 import de.hpi.isg.mdms.domain.experiment.RDBMSAlgorithm;
@@ -12,11 +13,13 @@ import de.hpi.isg.mdms.domain.targets.RDBMSSchema;
 import de.hpi.isg.mdms.domain.targets.RDBMSTable;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.constraints.ConstraintPredicate;
 import de.hpi.isg.mdms.model.experiment.Algorithm;
 import de.hpi.isg.mdms.model.experiment.Experiment;
 import de.hpi.isg.mdms.model.targets.Column;
 import de.hpi.isg.mdms.model.targets.Schema;
 import de.hpi.isg.mdms.model.targets.Table;
+import de.hpi.isg.mdms.model.targets.Target;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import org.apache.commons.io.IOUtils;
@@ -28,6 +31,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * This class acts as an executor of SQLite specific Queries for the {@link de.hpi.isg.mdms.domain.RDBMSMetadataStore}.
@@ -60,9 +65,13 @@ public class SQLiteInterface implements SQLInterface {
     RDBMSMetadataStore store;
 
     /**
-     * Used to read and write the {@code data} fields.
+     * Used to read and write the {@code data} fields. Constraints are serialized on parallel streams, so the pool
+     * should hold a Kryo instance for each worker of the common {@link ForkJoinPool} plus the calling thread.
+     * Otherwise, Kryo instances would be created and discarded repeatedly.
      */
-    private final KryoPool kryoPool = KryoPool.withByteArrayOutputStream(4, new ScalaKryoInstantiator());
+    private final KryoPool kryoPool = KryoPool.withByteArrayOutputStream(
+            ForkJoinPool.getCommonPoolParallelism() + 1, new ScalaKryoInstantiator()
+    );
 
     /**
      * Keeps track of existing tables within the DB.
@@ -75,16 +84,38 @@ public class SQLiteInterface implements SQLInterface {
 
     private SQLiteExperimentHandler experimentHandler;
 
+    private SQLiteIdAllocator idAllocator;
+
+    /**
+     * The journal mode to use when journaling is turned on.
+     */
+    private final String journalMode;
+
     /**
      * Creates a new instance that operates on the given connection.
      *
      * @param connection to operate on
      */
     public SQLiteInterface(Connection connection) throws SQLException {
-        this.databaseAccess = new DatabaseAccess(connection);
+        this(connection, null, "TRUNCATE");
+    }
+
+    /**
+     * Creates a new instance that writes via the given connection and reads preferably via the given
+     * {@link ReadConnectionPool}.
+     *
+     * @param connection         to operate on
+     * @param readConnectionPool provides read-only connections or {@code null}
+     * @param journalMode        to use when journaling is turned on
+     */
+    public SQLiteInterface(Connection connection, ReadConnectionPool readConnectionPool, String journalMode)
+            throws SQLException {
+        this.journalMode = journalMode;
+        this.databaseAccess = new DatabaseAccess(connection, readConnectionPool);
         this.schemaHandler = new SQLiteSchemaHandler(this.databaseAccess, this.kryoPool);
         this.constraintHandler = new SQLiteConstraintHandler(this, this.kryoPool);
         this.experimentHandler = new SQLiteExperimentHandler(this);
+        this.idAllocator = new SQLiteIdAllocator(this);
 
     }
 
@@ -95,11 +126,32 @@ public class SQLiteInterface implements SQLInterface {
      * @return the SQLiteInterface
      */
     public static SQLiteInterface createForFile(File file) {
+        return createForFile(file, new SQLiteConnectionSettings());
+    }
+
+    /**
+     * Creates a SQLiteInterface for the SQLite DB that is embedded in the given file.
+     *
+     * @param file     is the file that contains the SQLite DB
+     * @param settings describe how to set up the connections to the DB
+     * @return the SQLiteInterface
+     */
+    public static SQLiteInterface createForFile(File file, SQLiteConnectionSettings settings) {
         try {
             Class.forName("org.sqlite.JDBC");
             String connString = String.format("jdbc:sqlite:%s", file.getAbsoluteFile());
-            Connection connection = DriverManager.getConnection(connString);
-            return new SQLiteInterface(connection);
+            LOG.debug("Connecting to {} with {}.", connString, settings);
+            Connection connection = settings.createConnection(connString, false);
+            ReadConnectionPool readConnectionPool = settings.isUseReadConnections() ?
+                    new ReadConnectionPool(() -> settings.createConnection(connString, true), settings.getNumReadConnections()) :
+                    null;
+            SQLiteInterface sqliteInterface = new SQLiteInterface(connection, readConnectionPool, settings.getJournalMode());
+            if (settings.isUseGroupCommit()) {
+                sqliteInterface.getDatabaseAccess().enableGroupCommit(
+                        settings.getGroupCommitSize(), settings.getGroupCommitLatency()
+                );
+            }
+            return sqliteInterface;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -186,6 +238,24 @@ public class SQLiteInterface implements SQLInterface {
         this.constraintHandler.addConstraintCollection(constraintCollection);
     }
 
+    @Override
+    public Collection<ConstraintCollection<?>> getConstraintCollectionsByConstraintClass(Class<?> constraintClass)
+            throws SQLException {
+        return this.constraintHandler.getConstraintCollectionsByConstraintClass(constraintClass);
+    }
+
+    @Override
+    public Collection<ConstraintCollection<?>> getConstraintCollectionsByScope(Class<?> constraintClass, Target target)
+            throws SQLException {
+        return this.constraintHandler.getConstraintCollectionsByScope(constraintClass, target);
+    }
+
+    @Override
+    public Collection<ConstraintCollection<?>> getIncludedConstraintCollections(Class<?> constraintClass, Target target)
+            throws SQLException {
+        return this.constraintHandler.getIncludedConstraintCollections(constraintClass, target);
+    }
+
     /**
      * @see SQLiteSchemaHandler#getAllSchemas()
      */
@@ -232,6 +302,12 @@ public class SQLiteInterface implements SQLInterface {
         return this.constraintHandler.getAllConstraintsForConstraintCollection(rdbmsConstraintCollection);
     }
 
+    @Override
+    public <T> Stream<T> streamConstraints(RDBMSConstraintCollection<T> rdbmsConstraintCollection,
+                                           ConstraintPredicate<? super T> predicate) throws SQLException {
+        return this.constraintHandler.streamConstraints(rdbmsConstraintCollection, predicate);
+    }
+
     @Override
     public Column getColumnById(int columnId) throws SQLException {
         return this.schemaHandler.getColumnById(columnId);
@@ -262,6 +338,12 @@ public class SQLiteInterface implements SQLInterface {
         this.constraintHandler.writeConstraint(constraint, (RDBMSConstraintCollection<T>) constraintCollection);
     }
 
+    @Override
+    public <T> void writeConstraints(Iterable<? extends T> constraints, ConstraintCollection<T> constraintCollection)
+            throws SQLException {
+        this.constraintHandler.writeConstraints(constraints, (RDBMSConstraintCollection<T>) constraintCollection);
+    }
+
     /**
      * Saves configuration of the metadata metadataStore.
      */
@@ -323,11 +405,21 @@ public class SQLiteInterface implements SQLInterface {
     public void dropTablesIfExist() throws SQLException {
         try (Statement statement = this.databaseAccess.getConnection().createStatement()) {
             // Setting up the schema is not supported by database access. Do it with plain JDBC.
-            for (String table : tableNames) {
+            List<String> tables = new ArrayList<>(this.constraintHandler.getConstraintTableNames());
+            tables.add(SQLiteConstraintHandler.SCOPE_TABLE_NAME);
+            tables.add(SQLiteIdAllocator.TABLE_NAME);
+            tables.addAll(Arrays.asList(tableNames));
+            for (String table : tables) {
                 String sql = String.format("DROP TABLE IF EXISTS [%s];", table);
                 statement.execute(sql);
             }
         }
+        if (!this.databaseAccess.getConnection().getAutoCommit()) {
+            this.databaseAccess.getConnection().commit();
+        }
+        this.existingTables = null;
+        this.constraintHandler.forgetExistingTables();
+        this.idAllocator.forgetExistingTables();
     }
 
     /**
@@ -380,6 +472,7 @@ public class SQLiteInterface implements SQLInterface {
     @Override
     public void removeSchema(RDBMSSchema schema) throws SQLException {
         this.schemaHandler.removeSchema(schema);
+        this.idAllocator.releaseId(schema.getId());
     }
 
     @Override
@@ -390,6 +483,20 @@ public class SQLiteInterface implements SQLInterface {
     @Override
     public void removeTable(RDBMSTable table) throws SQLException {
         this.schemaHandler.removeTable(table);
+        this.idAllocator.releaseId(table.getId());
+    }
+
+    @Override
+    public IdAllocator getIdAllocator() {
+        return this.idAllocator;
+    }
+
+    /**
+     * @see SQLiteSchemaHandler#warmUpSchema(RDBMSSchema)
+     */
+    @Override
+    public void warmUpSchema(RDBMSSchema schema) throws SQLException {
+        this.schemaHandler.warmUpSchema(schema);
     }
 
     @Override
@@ -397,13 +504,58 @@ public class SQLiteInterface implements SQLInterface {
         this.constraintHandler.removeConstraintCollection(constraintCollection);
     }
 
+    /**
+     * Registers a {@link de.hpi.isg.mdms.rdbms.constraints.SQLiteConstraintTable}, so that constraints of its class are
+     * no longer stored as BLOBs but in a dedicated table.
+     *
+     * @param constraintTable the table to register
+     * @see SQLiteConstraintHandler#registerConstraintTable(de.hpi.isg.mdms.rdbms.constraints.SQLiteConstraintTable)
+     */
+    public void registerConstraintTable(de.hpi.isg.mdms.rdbms.constraints.SQLiteConstraintTable<?> constraintTable) {
+        this.constraintHandler.registerConstraintTable(constraintTable);
+    }
+
+    /**
+     * Moves constraints that are stored as BLOBs to their dedicated constraint tables (if any). Use this method to
+     * upgrade metadata stores that have been created with an older version.
+     *
+     * @return the number of migrated constraints
+     * @see SQLiteConstraintHandler#migrateToConstraintTables()
+     */
+    public int migrateToConstraintTables() throws SQLException {
+        int numMigratedConstraints = this.constraintHandler.migrateToConstraintTables();
+        LOG.info("Migrated {} constraints to constraint tables.", numMigratedConstraints);
+        return numMigratedConstraints;
+    }
+
 
     @Override
     public void setUseJournal(boolean isUseJournal) {
         try {
             this.databaseAccess.flush();
-            try (Statement statement = this.databaseAccess.getConnection().createStatement()) {
-                statement.execute(String.format("PRAGMA journal_mode = %s;", isUseJournal ? "TRUNCATE" : "OFF"));
+            // Other connections prevent switching the journal mode, and readers would block the writer without
+            // write-ahead logging anyway.
+            ReadConnectionPool readConnectionPool = this.databaseAccess.getReadConnectionPool();
+            if (readConnectionPool != null) {
+                readConnectionPool.setEnabled(false);
+            }
+
+            // SQLite cannot switch from or to the WAL mode within a transaction.
+            Connection connection = this.databaseAccess.getConnection();
+            boolean isAutoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            String actualJournalMode;
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(
+                         String.format("PRAGMA journal_mode = %s;", isUseJournal ? this.journalMode : "OFF"))) {
+                actualJournalMode = resultSet.next() ? resultSet.getString(1) : null;
+            } finally {
+                connection.setAutoCommit(isAutoCommit);
+            }
+            LOG.debug("Journal mode is {}.", actualJournalMode);
+
+            if (readConnectionPool != null) {
+                readConnectionPool.setEnabled("wal".equalsIgnoreCase(actualJournalMode));
             }
         } catch (SQLException e) {
             throw new RuntimeException("Could not change journal usage.", e);
@@ -17,16 +17,22 @@ import de.hpi.isg.mdms.model.targets.Schema;
 import de.hpi.isg.mdms.model.targets.Table;
 import de.hpi.isg.mdms.model.targets.Target;
 import de.hpi.isg.mdms.model.util.IdUtils;
-import de.hpi.isg.mdms.util.LRUCache;
+import de.hpi.isg.mdms.util.ConcurrentCache;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import org.apache.commons.lang3.Validate;
 import scala.Tuple2;
 
+import java.lang.ref.SoftReference;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class manages the serialization and deserialization of schema elements within a SQLiteDatabase.
@@ -36,14 +42,20 @@ import java.util.Collections;
  */
 public class SQLiteSchemaHandler {
 
-    private final static int CACHE_SIZE = 1000;
+    /**
+     * Maximum total weight of the {@link #schemaCache}.
+     */
+    private static final long SCHEMA_CACHE_MAX_WEIGHT = 100000;
 
     /**
-     * Caches {@link Schema}ta that have been loaded earlier.
+     * Caches {@link Schema}ta that have been loaded earlier. Each entry also caches the {@link Table}s of its schema,
+     * which in turn cache their {@link Column}s, so that all targets can be looked up by their IDs. An entry weighs
+     * {@code 1} plus the number of its cached {@link Table}s.
      */
-    private LRUCache<Integer, RDBMSSchema> schemaCache = new LRUCache<>(CACHE_SIZE);
+    private final ConcurrentCache<Integer, SchemaCacheEntry> schemaCache =
+            new ConcurrentCache<>(SCHEMA_CACHE_MAX_WEIGHT, (id, entry) -> 1 + entry.tables.size());
 
-    private boolean isSchemaCacheComplete = false;
+    private volatile boolean isSchemaCacheComplete = false;
 
     /**
      * Encapsulates the access to the database {@link java.sql.Connection}.
@@ -65,6 +77,8 @@ public class SQLiteSchemaHandler {
 
     private DatabaseQuery<String> schemaByNameQuery;
 
+    private DatabaseQuery<Tuple2<Integer, Integer>> targetsByIdRangeQuery;
+
     private KryoPool kryoPool;
 
     /**
@@ -152,6 +166,15 @@ public class SQLiteSchemaHandler {
                     PreparedStatementAdapter.SINGLE_STRING_ADAPTER,
                     "Target"
             ));
+            // Tables have a smaller type code than columns and therefore precede them.
+            this.targetsByIdRangeQuery = this.databaseAccess.createQuery(new StrategyBasedPreparedQuery.Factory<Tuple2<Integer, Integer>>(
+                    "select * from [Target] where [id] between ? and ? order by [type_code], [id]",
+                    (params, preparedStatement) -> {
+                        preparedStatement.setInt(1, params._1());
+                        preparedStatement.setInt(2, params._2());
+                    },
+                    "Target"
+            ));
         } catch (SQLException e) {
             throw new RuntimeException("Could not initialize writers.", e);
         }
@@ -167,8 +190,10 @@ public class SQLiteSchemaHandler {
         // Write the target and location.
         this.writeTarget(schema);
 
-        // Update cache.
-        this.schemaCache.put(schema.getId(), schema);
+        // Update cache. A new schema does not have any tables yet.
+        SchemaCacheEntry schemaCacheEntry = new SchemaCacheEntry(schema);
+        schemaCacheEntry.isTableCacheComplete = true;
+        this.schemaCache.put(schema.getId(), schemaCacheEntry);
     }
 
     /**
@@ -178,6 +203,12 @@ public class SQLiteSchemaHandler {
      */
     public void writeTable(RDBMSTable newTable) throws SQLException {
         this.writeTarget(newTable);
+
+        // Update cache. A new table does not have any columns yet.
+        TableCacheEntry tableCacheEntry = this.cacheTable(newTable);
+        if (tableCacheEntry != null && tableCacheEntry.columns == null) {
+            tableCacheEntry.columns = new Int2ObjectLinkedOpenHashMap<>();
+        }
     }
 
     /**
@@ -187,6 +218,12 @@ public class SQLiteSchemaHandler {
      */
     public void writeColumn(RDBMSColumn newColumn) throws SQLException {
         this.writeTarget(newColumn);
+
+        // Update cache.
+        TableCacheEntry tableCacheEntry = this.getTableCacheEntry(newColumn.getTable().getId());
+        if (tableCacheEntry != null && tableCacheEntry.columns != null) {
+            tableCacheEntry.columns.put(newColumn.getId(), newColumn);
+        }
     }
 
     /**
@@ -228,14 +265,27 @@ public class SQLiteSchemaHandler {
      * @throws SQLException
      */
     public boolean isTargetIdInUse(int id) throws SQLException {
-        // Check if the ID is in any of the caches or any of the child caches.
+        // Try to answer the question via the caches.
         IdUtils idUtils = this.metadataStore.getIdUtils();
-        Integer wrappedId = id;
-        if (this.metadataStore.getIdUtils().isSchemaId(id) && this.schemaCache.containsKey(wrappedId)) {
-            return true;
+        switch (idUtils.getIdType(id)) {
+            case SCHEMA:
+                if (this.schemaCache.containsKey(id)) return true;
+                break;
+            case TABLE:
+                if (this.getTableCacheEntry(id) != null) return true;
+                SchemaCacheEntry schemaCacheEntry = this.schemaCache.get(idUtils.getSchemaId(id));
+                if (schemaCacheEntry != null && schemaCacheEntry.isTableCacheComplete) return false;
+                break;
+            case COLUMN:
+                TableCacheEntry tableCacheEntry = this.getTableCacheEntry(idUtils.getTableId(id));
+                if (tableCacheEntry != null && tableCacheEntry.columns != null) {
+                    return tableCacheEntry.columns.containsKey(id);
+                }
+                break;
         }
+
         // Issue a query, to find out if the ID is in use.
-        try (ResultSet rs = this.targetByIdQuery.execute(wrappedId)) {
+        try (ResultSet rs = this.targetByIdQuery.execute(id)) {
             return rs.next();
         }
     }
@@ -247,26 +297,22 @@ public class SQLiteSchemaHandler {
      */
     public Collection<Schema> getAllSchemas() throws SQLException {
         // Try to return the schemas through caches.
-        if (this.isSchemaCacheComplete) {
-            return new ArrayList<>(this.schemaCache.values());
-        }
-
-        this.schemaCache.setEvictionEnabled(false);
-        try (ResultSet rs = this.targetByTypeQuery.execute(Target.Type.SCHEMA.ordinal())) {
-            while (rs.next()) {
-                int id = rs.getInt(1);
-                int typeCode = rs.getInt(3);
-                Validate.isTrue(typeCode == Target.Type.SCHEMA.ordinal());
-                String name = rs.getString(4);
-                String description = rs.getString(5);
-                Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
-                RDBMSSchema schema = RDBMSSchema.restore(this.metadataStore, id, name, description, location);
-                this.schemaCache.put(id, schema);
+        if (!this.isSchemaCacheComplete) {
+            // Keep all schemas in the cache from now on, so that it can answer this request in the future.
+            this.schemaCache.setEvictionEnabled(false);
+            try (ResultSet rs = this.targetByTypeQuery.execute(Target.Type.SCHEMA.ordinal())) {
+                while (rs.next()) {
+                    this.restoreSchema(rs);
+                }
             }
-
             this.isSchemaCacheComplete = true;
-            return new ArrayList<>(this.schemaCache.values());
         }
+
+        Collection<Schema> schemas = new ArrayList<>();
+        for (SchemaCacheEntry schemaCacheEntry : this.schemaCache.values()) {
+            schemas.add(schemaCacheEntry.schema);
+        }
+        return schemas;
     }
 
     /**
@@ -276,22 +322,14 @@ public class SQLiteSchemaHandler {
      * @return the loaded schema
      */
     public Schema getSchemaById(int schemaId) throws SQLException {
-        Schema cached = this.schemaCache.get(schemaId);
+        SchemaCacheEntry cached = this.schemaCache.get(schemaId);
         if (cached != null) {
-            return cached;
+            return cached.schema;
         }
 
         try (ResultSet rs = this.targetByIdQuery.execute(schemaId)) {
             if (rs.next()) {
-                int id = rs.getInt(1);
-                int typeCode = rs.getInt(3);
-                Validate.isTrue(typeCode == Target.Type.SCHEMA.ordinal());
-                String name = rs.getString(4);
-                String description = rs.getString(5);
-                Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
-                RDBMSSchema schema = RDBMSSchema.restore(this.metadataStore, id, name, description, location);
-                this.schemaCache.put(schemaId, schema);
-                return schema;
+                return this.restoreSchema(rs);
             }
         }
 
@@ -308,15 +346,7 @@ public class SQLiteSchemaHandler {
         Collection<Schema> schemas = new ArrayList<>(1);
         try (ResultSet rs = this.schemaByNameQuery.execute(schemaName)) {
             while (rs.next()) {
-                int id = rs.getInt(1);
-                int typeCode = rs.getInt(3);
-                Validate.isTrue(typeCode == Target.Type.SCHEMA.ordinal());
-                String name = rs.getString(4);
-                String description = rs.getString(5);
-                Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
-                RDBMSSchema schema = RDBMSSchema.restore(this.metadataStore, id, name, description, location);
-                this.schemaCache.put(id, schema);
-                schemas.add(schema);
+                schemas.add(this.restoreSchema(rs));
             }
         }
         return schemas;
@@ -329,18 +359,22 @@ public class SQLiteSchemaHandler {
      * @return the loaded table
      */
     public Table getTableById(int tableId) throws SQLException {
+        TableCacheEntry tableCacheEntry = this.getTableCacheEntry(tableId);
+        if (tableCacheEntry != null) {
+            return tableCacheEntry.table;
+        }
+
+        // Resolve the schema before issuing the query, as it might need to be loaded, too.
+        int schemaId = this.metadataStore.getIdUtils().getSchemaId(tableId);
+        Schema schema = this.getSchemaById(schemaId);
+        SchemaCacheEntry schemaCacheEntry = this.schemaCache.get(schemaId);
+        if (schema == null || (schemaCacheEntry != null && schemaCacheEntry.isTableCacheComplete)) {
+            return null;
+        }
+
         try (ResultSet rs = this.targetByIdQuery.execute(tableId)) {
             if (rs.next()) {
-                int id = rs.getInt(1);
-                int parentId = rs.getInt(2);
-                int typeCode = rs.getInt(3);
-                Validate.isTrue(typeCode == Target.Type.TABLE.ordinal());
-                String name = rs.getString(4);
-                String description = rs.getString(5);
-                Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
-                return RDBMSTable.restore(
-                        this.metadataStore, this.metadataStore.getSchemaById(parentId), id, name, description, location
-                );
+                return this.restoreTable(rs, schema).table;
             }
         }
         return null;
@@ -354,19 +388,24 @@ public class SQLiteSchemaHandler {
      * @return the loaded {@link Table}s
      */
     public Collection<Table> getTables(Schema schema) throws SQLException {
+        // Try to serve the tables from the cache.
+        SchemaCacheEntry schemaCacheEntry = this.schemaCache.get(schema.getId());
+        if (schemaCacheEntry != null && schemaCacheEntry.isTableCacheComplete) {
+            Collection<Table> tables = schemaCacheEntry.getCachedTables();
+            if (tables != null) {
+                return tables;
+            }
+        }
+
         Collection<Table> tables = new ArrayList<>();
         try (ResultSet rs = this.targetByParentQuery.execute(schema.getId())) {
             while (rs.next()) {
-                int id = rs.getInt(1);
-                int typeCode = rs.getInt(3);
-                Validate.isTrue(typeCode == Target.Type.TABLE.ordinal());
-                String name = rs.getString(4);
-                String description = rs.getString(5);
-                Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
-                RDBMSTable table = RDBMSTable.restore(this.metadataStore, schema, id, name, description, location);
-                tables.add(table);
+                tables.add(this.restoreTable(rs, schema).table);
             }
         }
+        if (schemaCacheEntry != null) {
+            schemaCacheEntry.isTableCacheComplete = true;
+        }
         return tables;
     }
 
@@ -381,43 +420,36 @@ public class SQLiteSchemaHandler {
         Collection<Table> tables = new ArrayList<>();
         try (ResultSet rs = this.targetByParentAndNameQuery.execute(new Tuple2<>(schema.getId(), tableName))) {
             while (rs.next()) {
-                int id = rs.getInt(1);
-                int typeCode = rs.getInt(3);
-                Validate.isTrue(typeCode == Target.Type.TABLE.ordinal());
-                String name = rs.getString(4);
-                String description = rs.getString(5);
-                Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
-                RDBMSTable table = RDBMSTable.restore(this.metadataStore, schema, id, name, description, location);
-                tables.add(table);
+                tables.add(this.restoreTable(rs, schema).table);
             }
         }
         return tables;
     }
 
     /**
-     * Load a {@link Column} with the given ID.
+     * Load a {@link Column} with the given ID. All columns of its table are loaded along with it.
      *
      * @param columnId is the ID of the column to load
      * @return the loaded {@link Column}
      */
     public Column getColumnById(int columnId) throws SQLException {
-        try (ResultSet rs = this.targetByIdQuery.execute(columnId)) {
-            if (rs.next()) {
-                int id = rs.getInt(1);
-                int parentId = rs.getInt(2);
-                int typeCode = rs.getInt(3);
-                Validate.isTrue(typeCode == Target.Type.COLUMN.ordinal());
-                String name = rs.getString(4);
-                String description = rs.getString(5);
-                Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
-                return RDBMSColumn.restore(
-                        this.metadataStore,
-                        (Table) this.metadataStore.getTargetById(parentId),
-                        id, name, description, location
-                );
+        int tableId = this.metadataStore.getIdUtils().getTableId(columnId);
+        TableCacheEntry tableCacheEntry = this.getTableCacheEntry(tableId);
+        if (tableCacheEntry == null) {
+            Table table = this.getTableById(tableId);
+            if (table == null) {
+                return null;
+            }
+            tableCacheEntry = this.getTableCacheEntry(tableId);
+            if (tableCacheEntry == null) {
+                // The table cannot be cached, so load the column on its own.
+                try (ResultSet rs = this.targetByIdQuery.execute(columnId)) {
+                    return rs.next() ? this.restoreColumn(rs, table) : null;
+                }
             }
         }
-        return null;
+
+        return this.getColumns(tableCacheEntry).get(columnId);
     }
 
 
@@ -428,22 +460,187 @@ public class SQLiteSchemaHandler {
      * @return the loaded {@link Column}s
      */
     public Collection<Column> getColumns(Table table) throws SQLException {
+        TableCacheEntry tableCacheEntry = this.getTableCacheEntry(table.getId());
+        if (tableCacheEntry != null) {
+            return new ArrayList<>(this.getColumns(tableCacheEntry).values());
+        }
+
         Collection<Column> columns = new ArrayList<>();
         try (ResultSet rs = this.targetByParentQuery.execute(table.getId())) {
             while (rs.next()) {
-                int id = rs.getInt(1);
-                int typeCode = rs.getInt(3);
-                Validate.isTrue(typeCode == Target.Type.COLUMN.ordinal());
-                String name = rs.getString(4);
-                String description = rs.getString(5);
-                Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
-                RDBMSColumn column = RDBMSColumn.restore(this.metadataStore, table, id, name, description, location);
-                columns.add(column);
+                columns.add(this.restoreColumn(rs, table));
             }
         }
         return columns;
     }
 
+    /**
+     * Provides the {@link Column}s of a cached {@link Table}, loading all of them with a single query if necessary.
+     *
+     * @param tableCacheEntry describes the {@link Table}
+     * @return the {@link Column}s indexed by their IDs
+     */
+    private Int2ObjectMap<RDBMSColumn> getColumns(TableCacheEntry tableCacheEntry) throws SQLException {
+        if (tableCacheEntry.columns == null) {
+            Int2ObjectMap<RDBMSColumn> columns = new Int2ObjectLinkedOpenHashMap<>();
+            try (ResultSet rs = this.targetByParentQuery.execute(tableCacheEntry.table.getId())) {
+                while (rs.next()) {
+                    RDBMSColumn column = this.restoreColumn(rs, tableCacheEntry.table);
+                    columns.put(column.getId(), column);
+                }
+            }
+            tableCacheEntry.columns = columns;
+        }
+        return tableCacheEntry.columns;
+    }
+
+    /**
+     * Loads all {@link Table}s and {@link Column}s of the given {@link Schema} with a single query into the caches.
+     * This is much cheaper than resolving them one by one, e.g., when analyzing constraints on the schema.
+     *
+     * @param schema is the {@link Schema} to load
+     */
+    public void warmUpSchema(RDBMSSchema schema) throws SQLException {
+        SchemaCacheEntry schemaCacheEntry = this.schemaCache.get(schema.getId());
+        if (schemaCacheEntry == null) {
+            schemaCacheEntry = new SchemaCacheEntry(schema);
+            this.schemaCache.put(schema.getId(), schemaCacheEntry);
+        }
+
+        // The IDs of all targets within a schema form a range that ends with the schema ID.
+        IdUtils idUtils = this.metadataStore.getIdUtils();
+        int minId = idUtils.createGlobalId(idUtils.getLocalSchemaId(schema.getId()),
+                idUtils.getMinTableNumber(), idUtils.getMinColumnNumber());
+        Int2ObjectMap<Int2ObjectMap<RDBMSColumn>> loadedColumns = new Int2ObjectOpenHashMap<>();
+        Int2ObjectMap<TableCacheEntry> tableCacheEntries = new Int2ObjectOpenHashMap<>();
+        try (ResultSet rs = this.targetsByIdRangeQuery.execute(new Tuple2<>(minId, schema.getId()))) {
+            while (rs.next()) {
+                int typeCode = rs.getInt(3);
+                if (typeCode == Target.Type.TABLE.ordinal()) {
+                    TableCacheEntry tableCacheEntry = this.restoreTable(rs, schemaCacheEntry.schema);
+                    tableCacheEntries.put(tableCacheEntry.table.getId(), tableCacheEntry);
+                    if (tableCacheEntry.columns == null) {
+                        loadedColumns.put(tableCacheEntry.table.getId(), new Int2ObjectLinkedOpenHashMap<>());
+                    }
+                } else if (typeCode == Target.Type.COLUMN.ordinal()) {
+                    int parentId = rs.getInt(2);
+                    Int2ObjectMap<RDBMSColumn> columns = loadedColumns.get(parentId);
+                    if (columns != null) {
+                        RDBMSColumn column = this.restoreColumn(rs, tableCacheEntries.get(parentId).table);
+                        columns.put(column.getId(), column);
+                    }
+                }
+            }
+        }
+        for (Int2ObjectMap.Entry<Int2ObjectMap<RDBMSColumn>> entry : loadedColumns.int2ObjectEntrySet()) {
+            tableCacheEntries.get(entry.getIntKey()).columns = entry.getValue();
+        }
+        schemaCacheEntry.isTableCacheComplete = true;
+    }
+
+    /**
+     * Restores a {@link Schema} from the current row of the given {@link ResultSet} unless it is already cached.
+     *
+     * @return the restored or cached {@link Schema}
+     */
+    private RDBMSSchema restoreSchema(ResultSet rs) throws SQLException {
+        int id = rs.getInt(1);
+        SchemaCacheEntry cached = this.schemaCache.get(id);
+        if (cached != null) {
+            return cached.schema;
+        }
+
+        int typeCode = rs.getInt(3);
+        Validate.isTrue(typeCode == Target.Type.SCHEMA.ordinal());
+        String name = rs.getString(4);
+        String description = rs.getString(5);
+        Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
+        RDBMSSchema schema = RDBMSSchema.restore(this.metadataStore, id, name, description, location);
+        this.schemaCache.put(id, new SchemaCacheEntry(schema));
+        return schema;
+    }
+
+    /**
+     * Restores a {@link Table} from the current row of the given {@link ResultSet} unless it is already cached.
+     *
+     * @param schema is the parent {@link Schema} of the {@link Table}
+     * @return the cache entry for the {@link Table}
+     */
+    private TableCacheEntry restoreTable(ResultSet rs, Schema schema) throws SQLException {
+        int id = rs.getInt(1);
+        TableCacheEntry cached = this.getTableCacheEntry(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        int typeCode = rs.getInt(3);
+        Validate.isTrue(typeCode == Target.Type.TABLE.ordinal());
+        String name = rs.getString(4);
+        String description = rs.getString(5);
+        Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
+        RDBMSTable table = RDBMSTable.restore(this.metadataStore, schema, id, name, description, location);
+        TableCacheEntry tableCacheEntry = this.cacheTable(table);
+        return tableCacheEntry != null ? tableCacheEntry : new TableCacheEntry(table);
+    }
+
+    /**
+     * Restores a {@link Column} from the current row of the given {@link ResultSet}.
+     *
+     * @param table is the parent {@link Table} of the {@link Column}
+     * @return the restored {@link Column}
+     */
+    private RDBMSColumn restoreColumn(ResultSet rs, Table table) throws SQLException {
+        int id = rs.getInt(1);
+        int typeCode = rs.getInt(3);
+        Validate.isTrue(typeCode == Target.Type.COLUMN.ordinal());
+        String name = rs.getString(4);
+        String description = rs.getString(5);
+        Location location = (Location) this.kryoPool.fromBytes(rs.getBytes(6));
+        return RDBMSColumn.restore(this.metadataStore, table, id, name, description, location);
+    }
+
+    /**
+     * Puts a {@link Table} into the cache of its {@link Schema} unless there is already a cache entry for it.
+     *
+     * @return the cache entry or {@code null} if the {@link Schema} is not cached
+     */
+    private TableCacheEntry cacheTable(RDBMSTable table) {
+        SchemaCacheEntry schemaCacheEntry = this.schemaCache.get(this.metadataStore.getIdUtils().getSchemaId(table.getId()));
+        if (schemaCacheEntry == null) {
+            return null;
+        }
+        TableCacheEntry tableCacheEntry = this.getTableCacheEntry(table.getId());
+        if (tableCacheEntry == null) {
+            tableCacheEntry = new TableCacheEntry(table);
+            schemaCacheEntry.tables.put(table.getId(), new SoftReference<>(tableCacheEntry));
+        }
+        return tableCacheEntry;
+    }
+
+    /**
+     * Looks up the cache entry for a {@link Table}.
+     *
+     * @param tableId is the ID of the {@link Table}
+     * @return the cache entry or {@code null} if there is none
+     */
+    private TableCacheEntry getTableCacheEntry(int tableId) {
+        SchemaCacheEntry schemaCacheEntry = this.schemaCache.get(this.metadataStore.getIdUtils().getSchemaId(tableId));
+        if (schemaCacheEntry == null) {
+            return null;
+        }
+        SoftReference<TableCacheEntry> reference = schemaCacheEntry.tables.get(tableId);
+        if (reference == null) {
+            return null;
+        }
+        TableCacheEntry tableCacheEntry = reference.get();
+        if (tableCacheEntry == null) {
+            // The entry has been garbage-collected.
+            schemaCacheEntry.tables.remove(tableId);
+            schemaCacheEntry.isTableCacheComplete = false;
+        }
+        return tableCacheEntry;
+    }
+
     /**
      * Removes a schema from the database.
      *
@@ -464,6 +661,10 @@ public class SQLiteSchemaHandler {
     public void removeColumn(RDBMSColumn column) throws SQLException {
         this.databaseAccess.flush(Collections.singleton("Target"));
         this.deleteTargetWriter.write(column.getId());
+        TableCacheEntry tableCacheEntry = this.getTableCacheEntry(column.getTable().getId());
+        if (tableCacheEntry != null && tableCacheEntry.columns != null) {
+            tableCacheEntry.columns.remove(column.getId());
+        }
         this.databaseAccess.flush(Collections.singleton("Target"));
     }
 
@@ -475,10 +676,67 @@ public class SQLiteSchemaHandler {
     public void removeTable(RDBMSTable table) throws SQLException {
         this.databaseAccess.flush(Collections.singleton("Target"));
         this.deleteTargetWriter.write(table.getId());
+        SchemaCacheEntry schemaCacheEntry = this.schemaCache.get(this.metadataStore.getIdUtils().getSchemaId(table.getId()));
+        if (schemaCacheEntry != null) {
+            schemaCacheEntry.tables.remove(table.getId());
+        }
         this.databaseAccess.flush(Collections.singleton("Target"));
     }
 
     public void setMetadataStore(RDBMSMetadataStore metadataStore) {
         this.metadataStore = metadataStore;
     }
+
+    /**
+     * Caches a {@link Schema} along with its {@link Table}s. The tables are only softly referenced, so that the cache
+     * shrinks when memory runs low.
+     */
+    private static final class SchemaCacheEntry {
+
+        private final RDBMSSchema schema;
+
+        private final Map<Integer, SoftReference<TableCacheEntry>> tables = new ConcurrentHashMap<>();
+
+        /**
+         * Tells whether {@link #tables} comprises all tables of the schema.
+         */
+        private volatile boolean isTableCacheComplete = false;
+
+        private SchemaCacheEntry(RDBMSSchema schema) {
+            this.schema = schema;
+        }
+
+        /**
+         * @return the cached tables or {@code null} if any of them has been garbage-collected
+         */
+        private Collection<Table> getCachedTables() {
+            Collection<Table> tables = new ArrayList<>(this.tables.size());
+            for (SoftReference<TableCacheEntry> reference : this.tables.values()) {
+                TableCacheEntry tableCacheEntry = reference.get();
+                if (tableCacheEntry == null) {
+                    this.isTableCacheComplete = false;
+                    return null;
+                }
+                tables.add(tableCacheEntry.table);
+            }
+            return tables;
+        }
+    }
+
+    /**
+     * Caches a {@link Table} along with its {@link Column}s.
+     */
+    private static final class TableCacheEntry {
+
+        private final RDBMSTable table;
+
+        /**
+         * All columns of the table or {@code null} if they have not been loaded yet.
+         */
+        private volatile Int2ObjectMap<RDBMSColumn> columns;
+
+        private TableCacheEntry(RDBMSTable table) {
+            this.table = table;
+        }
+    }
 }
@@ -0,0 +1,105 @@
+package de.hpi.isg.mdms.rdbms.constraints;
+
+import com.twitter.chill.KryoPool;
+import de.hpi.isg.mdms.domain.constraints.ColumnStatistics;
+import de.hpi.isg.mdms.domain.util.SQLiteConstraintUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Stores {@link ColumnStatistics} in the {@code [ColumnStatistics]} table. Unknown values are stored as {@code null}.
+ * The top-k frequent values are not meant to be queried and are hence kept as a BLOB.
+ */
+public class ColumnStatisticsTable extends SQLiteConstraintTable<ColumnStatistics> {
+
+    /**
+     * Used to (de-)serialize the top-k frequent values.
+     */
+    private final KryoPool kryoPool;
+
+    public ColumnStatisticsTable(KryoPool kryoPool) {
+        super(ColumnStatistics.class, "ColumnStatistics");
+        this.kryoPool = kryoPool;
+        this.declareColumn("columnId", "integer NOT NULL", true);
+        this.declareColumn("numNulls", "integer", false);
+        this.declareColumn("numDistinctValues", "integer", false);
+        this.declareColumn("fillStatus", "real", false);
+        this.declareColumn("uniqueness", "real", false);
+        this.declareColumn("entropy", "real", false);
+        this.declareColumn("topKFrequentValues", "blob", false);
+    }
+
+    @Override
+    protected void setInsertParameters(ColumnStatistics statistics, PreparedStatement preparedStatement, int offset)
+            throws SQLException {
+        preparedStatement.setInt(offset, statistics.getColumnId());
+        setNullableLong(statistics.getNumNulls(), preparedStatement, offset + 1);
+        setNullableLong(statistics.getNumDistinctValues(), preparedStatement, offset + 2);
+        setNullableDouble(statistics.getFillStatus(), preparedStatement, offset + 3);
+        setNullableDouble(statistics.getUniqueness(), preparedStatement, offset + 4);
+        setNullableDouble(statistics.getEntropy(), preparedStatement, offset + 5);
+        if (statistics.getTopKFrequentValues() == null) {
+            preparedStatement.setNull(offset + 6, Types.BLOB);
+        } else {
+            preparedStatement.setBytes(offset + 6, this.kryoPool.toBytesWithClass(statistics.getTopKFrequentValues()));
+        }
+    }
+
+    @Override
+    public String getReferencingCondition() {
+        return "[columnId]=?2";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ColumnStatistics readConstraint(ResultSet resultSet) throws SQLException {
+        ColumnStatistics statistics = new ColumnStatistics(resultSet.getInt("columnId"));
+        statistics.setNumNulls(getNullableLong(resultSet, "numNulls"));
+        statistics.setNumDistinctValues(getNullableLong(resultSet, "numDistinctValues"));
+        statistics.setFillStatus(SQLiteConstraintUtils.getNullableDouble(resultSet, "fillStatus", Double.NaN));
+        statistics.setUniqueness(SQLiteConstraintUtils.getNullableDouble(resultSet, "uniqueness", Double.NaN));
+        statistics.setEntropy(SQLiteConstraintUtils.getNullableDouble(resultSet, "entropy", Double.NaN));
+        byte[] topKFrequentValues = resultSet.getBytes("topKFrequentValues");
+        if (topKFrequentValues != null) {
+            statistics.setTopKFrequentValues(
+                    (List<ColumnStatistics.ValueOccurrence>) this.kryoPool.fromBytes(topKFrequentValues)
+            );
+        }
+        return statistics;
+    }
+
+    /**
+     * Sets a {@code long} parameter, whereby negative values (that denote unknown values) are set as {@code null}.
+     */
+    private static void setNullableLong(long value, PreparedStatement preparedStatement, int index) throws SQLException {
+        if (value < 0) {
+            preparedStatement.setNull(index, Types.INTEGER);
+        } else {
+            preparedStatement.setLong(index, value);
+        }
+    }
+
+    /**
+     * Reads a {@code long} value, whereby {@code null} is translated to {@code -1}.
+     */
+    private static long getNullableLong(ResultSet resultSet, String column) throws SQLException {
+        long value = resultSet.getLong(column);
+        return (value == 0L && resultSet.wasNull()) ? -1L : value;
+    }
+
+    /**
+     * Sets a {@code double} parameter, whereby {@link Double#NaN} (that denotes unknown values) is set as {@code null}.
+     */
+    private static void setNullableDouble(double value, PreparedStatement preparedStatement, int index)
+            throws SQLException {
+        if (Double.isNaN(value)) {
+            preparedStatement.setNull(index, Types.REAL);
+        } else {
+            preparedStatement.setDouble(index, value);
+        }
+    }
+}
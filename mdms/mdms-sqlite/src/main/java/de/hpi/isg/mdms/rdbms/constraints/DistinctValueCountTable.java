@@ -0,0 +1,36 @@
+package de.hpi.isg.mdms.rdbms.constraints;
+
+import de.hpi.isg.mdms.domain.constraints.DistinctValueCount;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Stores {@link DistinctValueCount}s in the {@code [DistinctValueCount]} table.
+ */
+public class DistinctValueCountTable extends SQLiteConstraintTable<DistinctValueCount> {
+
+    public DistinctValueCountTable() {
+        super(DistinctValueCount.class, "DistinctValueCount");
+        this.declareColumn("columnId", "integer NOT NULL", true);
+        this.declareColumn("numDistinctValues", "integer NOT NULL", false);
+    }
+
+    @Override
+    protected void setInsertParameters(DistinctValueCount dvc, PreparedStatement preparedStatement, int offset)
+            throws SQLException {
+        preparedStatement.setInt(offset, dvc.getColumnId());
+        preparedStatement.setInt(offset + 1, dvc.getNumDistinctValues());
+    }
+
+    @Override
+    public String getReferencingCondition() {
+        return "[columnId]=?2";
+    }
+
+    @Override
+    public DistinctValueCount readConstraint(ResultSet resultSet) throws SQLException {
+        return new DistinctValueCount(resultSet.getInt("columnId"), resultSet.getInt("numDistinctValues"));
+    }
+}
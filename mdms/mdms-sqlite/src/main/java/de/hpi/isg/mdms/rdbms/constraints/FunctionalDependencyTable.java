@@ -0,0 +1,45 @@
+package de.hpi.isg.mdms.rdbms.constraints;
+
+import de.hpi.isg.mdms.domain.constraints.FunctionalDependency;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Stores {@link FunctionalDependency}s in the {@code [FD]} table. FDs with a single LHS column additionally expose it
+ * in the indexed {@code [lhsColumn]} column.
+ */
+public class FunctionalDependencyTable extends SQLiteConstraintTable<FunctionalDependency> {
+
+    public FunctionalDependencyTable() {
+        super(FunctionalDependency.class, "FD");
+        this.declareColumn("arity", "integer NOT NULL", false);
+        this.declareColumn("lhsColumn", "integer", true);
+        this.declareColumn("lhsColumns", "text NOT NULL", false);
+        this.declareColumn("rhsColumn", "integer NOT NULL", true);
+    }
+
+    @Override
+    protected void setInsertParameters(FunctionalDependency fd, PreparedStatement preparedStatement, int offset)
+            throws SQLException {
+        preparedStatement.setInt(offset, fd.getArity());
+        setUnaryId(fd.getLhsColumnIds(), preparedStatement, offset + 1);
+        preparedStatement.setString(offset + 2, encodeIds(fd.getLhsColumnIds()));
+        preparedStatement.setInt(offset + 3, fd.getRhsColumnId());
+    }
+
+    @Override
+    public String getReferencingCondition() {
+        // Constraints that are not unary are not indexed, so they need to be tested afterwards.
+        return "[lhsColumn]=?2 or [rhsColumn]=?2 or [lhsColumn] is null";
+    }
+
+    @Override
+    public FunctionalDependency readConstraint(ResultSet resultSet) throws SQLException {
+        return new FunctionalDependency(
+                decodeIds(resultSet.getString("lhsColumns")),
+                resultSet.getInt("rhsColumn")
+        );
+    }
+}
@@ -0,0 +1,47 @@
+package de.hpi.isg.mdms.rdbms.constraints;
+
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Stores {@link InclusionDependency}s in the {@code [IND]} table. Unary INDs additionally expose their columns in the
+ * indexed {@code [dependentColumn]} and {@code [referencedColumn]} columns.
+ */
+public class InclusionDependencyTable extends SQLiteConstraintTable<InclusionDependency> {
+
+    public InclusionDependencyTable() {
+        super(InclusionDependency.class, "IND");
+        this.declareColumn("arity", "integer NOT NULL", false);
+        this.declareColumn("dependentColumn", "integer", true);
+        this.declareColumn("referencedColumn", "integer", true);
+        this.declareColumn("dependentColumns", "text NOT NULL", false);
+        this.declareColumn("referencedColumns", "text NOT NULL", false);
+    }
+
+    @Override
+    protected void setInsertParameters(InclusionDependency ind, PreparedStatement preparedStatement, int offset)
+            throws SQLException {
+        preparedStatement.setInt(offset, ind.getArity());
+        setUnaryId(ind.getDependentColumnIds(), preparedStatement, offset + 1);
+        setUnaryId(ind.getReferencedColumnIds(), preparedStatement, offset + 2);
+        preparedStatement.setString(offset + 3, encodeIds(ind.getDependentColumnIds()));
+        preparedStatement.setString(offset + 4, encodeIds(ind.getReferencedColumnIds()));
+    }
+
+    @Override
+    public String getReferencingCondition() {
+        // Constraints that are not unary are not indexed, so they need to be tested afterwards.
+        return "[dependentColumn]=?2 or [referencedColumn]=?2 or [dependentColumn] is null";
+    }
+
+    @Override
+    public InclusionDependency readConstraint(ResultSet resultSet) throws SQLException {
+        return new InclusionDependency(
+                decodeIds(resultSet.getString("dependentColumns")),
+                decodeIds(resultSet.getString("referencedColumns"))
+        );
+    }
+}
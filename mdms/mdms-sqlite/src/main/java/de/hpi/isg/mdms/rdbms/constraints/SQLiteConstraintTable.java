@@ -0,0 +1,213 @@
+package de.hpi.isg.mdms.rdbms.constraints;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link SQLiteConstraintTable} describes how constraints of a certain class are stored in a dedicated, natively
+ * typed SQLite table rather than as BLOBs in the generic {@code [Constraint]} table. This allows to filter and aggregate
+ * constraints within the database, e.g., {@code select * from [IND] where [dependentColumn] = ?}.
+ * <p>Every such table has a {@code [constraintCollection]} column that references the owning
+ * {@link de.hpi.isg.mdms.model.constraints.ConstraintCollection}. All further columns are declared by the subclasses.</p>
+ *
+ * @param <T> the type of constraints stored in the table
+ */
+public abstract class SQLiteConstraintTable<T> {
+
+    /**
+     * Separates column IDs in {@code text} columns.
+     */
+    private static final char ID_SEPARATOR = ',';
+
+    /**
+     * The class of constraints that is stored in this table.
+     */
+    private final Class<T> constraintClass;
+
+    /**
+     * The name of the table in the database.
+     */
+    private final String tableName;
+
+    /**
+     * The names and types of the columns of the table (without the {@code [constraintCollection]} column).
+     */
+    private final List<String> columnNames = new ArrayList<>(), columnTypes = new ArrayList<>();
+
+    /**
+     * The names of the columns that should be indexed.
+     */
+    private final List<String> indexedColumns = new ArrayList<>();
+
+    protected SQLiteConstraintTable(Class<T> constraintClass, String tableName) {
+        this.constraintClass = constraintClass;
+        this.tableName = tableName;
+    }
+
+    /**
+     * @return the class of constraints that is stored in this table
+     */
+    public Class<T> getConstraintClass() {
+        return this.constraintClass;
+    }
+
+    /**
+     * @return the name of the table in the database
+     */
+    public String getTableName() {
+        return this.tableName;
+    }
+
+    /**
+     * Declares a further column of this table. Subclasses should declare all their columns in their constructor.
+     *
+     * @param name      the name of the column
+     * @param type      the SQLite type of the column, e.g., {@code integer NOT NULL}
+     * @param isIndexed whether the column should be indexed together with the {@code [constraintCollection]} column
+     */
+    protected void declareColumn(String name, String type, boolean isIndexed) {
+        this.columnNames.add(name);
+        this.columnTypes.add(type);
+        if (isIndexed) this.indexedColumns.add(name);
+    }
+
+    /**
+     * Sets the parameters of the insert statement for the given constraint.
+     *
+     * @param constraint        that shall be written
+     * @param preparedStatement the insert statement as created by {@link #getInsertStatement()}
+     * @param offset            the index of the first parameter that should be set by this method
+     */
+    protected abstract void setInsertParameters(T constraint, PreparedStatement preparedStatement, int offset)
+            throws SQLException;
+
+    /**
+     * Reads a constraint from the current row of the given {@link ResultSet}.
+     *
+     * @param resultSet positioned on a row of this table
+     * @return the constraint described by that row
+     */
+    public abstract T readConstraint(ResultSet resultSet) throws SQLException;
+
+    /**
+     * @return a SQL script that creates this table along with its indexes
+     */
+    public String getCreateTableStatement() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("CREATE TABLE [").append(this.tableName).append("] (\n");
+        sb.append("\t[constraintCollection] integer NOT NULL");
+        for (int i = 0; i < this.columnNames.size(); i++) {
+            sb.append(",\n\t[").append(this.columnNames.get(i)).append("] ").append(this.columnTypes.get(i));
+        }
+        sb.append(",\n\tFOREIGN KEY ([constraintCollection]) REFERENCES [ConstraintCollection]([id])\n);\n");
+        sb.append(String.format("CREATE INDEX [%1$s_constraintCollection_Index] ON [%1$s]([constraintCollection]);\n",
+                this.tableName));
+        for (String indexedColumn : this.indexedColumns) {
+            sb.append(String.format("CREATE INDEX [%1$s_%2$s_Index] ON [%1$s]([constraintCollection], [%2$s]);\n",
+                    this.tableName, indexedColumn));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Provides a SQL condition that selects the rows of constraints that reference a certain target. The condition
+     * should only use the indexed columns of this table and refer to the target ID via the numbered parameter
+     * {@code ?2}. It may select further rows, e.g., of n-ary constraints, as the selected constraints are tested again
+     * afterwards.
+     *
+     * @return the SQL condition or {@code null} if the rows cannot be selected in the database
+     */
+    public String getReferencingCondition() {
+        return null;
+    }
+
+    /**
+     * @return a prepared SQL statement that inserts a constraint into this table, whereby the first parameter is the
+     * ID of the constraint collection
+     */
+    public String getInsertStatement() {
+        StringBuilder columns = new StringBuilder("[constraintCollection]");
+        StringBuilder placeholders = new StringBuilder("?");
+        for (String columnName : this.columnNames) {
+            columns.append(", [").append(columnName).append("]");
+            placeholders.append(", ?");
+        }
+        return String.format("insert into [%s] (%s) values (%s)", this.tableName, columns, placeholders);
+    }
+
+    /**
+     * Sets the parameters of the insert statement for the given constraint.
+     *
+     * @param constraintCollectionId the ID of the collection to which the constraint belongs
+     * @param constraint             that shall be written
+     * @param preparedStatement      the insert statement as created by {@link #getInsertStatement()}
+     */
+    public void setInsertParameters(int constraintCollectionId, T constraint, PreparedStatement preparedStatement)
+            throws SQLException {
+        preparedStatement.setInt(1, constraintCollectionId);
+        this.setInsertParameters(constraint, preparedStatement, 2);
+    }
+
+    /**
+     * Encodes column IDs into a {@code text} value, such as {@code 1,2,3}.
+     *
+     * @param ids the IDs to encode
+     * @return the encoded IDs
+     */
+    protected static String encodeIds(int[] ids) {
+        StringBuilder sb = new StringBuilder(ids.length * 11);
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) sb.append(ID_SEPARATOR);
+            sb.append(ids[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Decodes column IDs that have been encoded via {@link #encodeIds(int[])}.
+     *
+     * @param encodedIds the encoded IDs
+     * @return the decoded IDs
+     */
+    protected static int[] decodeIds(String encodedIds) {
+        if (encodedIds.isEmpty()) return new int[0];
+        int numIds = 1;
+        for (int i = 0; i < encodedIds.length(); i++) {
+            if (encodedIds.charAt(i) == ID_SEPARATOR) numIds++;
+        }
+        int[] ids = new int[numIds];
+        int start = 0;
+        for (int i = 0; i < numIds; i++) {
+            int end = encodedIds.indexOf(ID_SEPARATOR, start);
+            if (end == -1) end = encodedIds.length();
+            ids[i] = Integer.parseInt(encodedIds.substring(start, end));
+            start = end + 1;
+        }
+        return ids;
+    }
+
+    /**
+     * Sets the given column ID if the given IDs are unary, otherwise sets {@code null}. This makes unary dependencies
+     * directly accessible to SQL queries.
+     *
+     * @param ids               the column IDs
+     * @param preparedStatement the statement to set the parameter on
+     * @param index             the parameter index
+     */
+    protected static void setUnaryId(int[] ids, PreparedStatement preparedStatement, int index) throws SQLException {
+        if (ids.length == 1) {
+            preparedStatement.setInt(index, ids[0]);
+        } else {
+            preparedStatement.setNull(index, Types.INTEGER);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s]", this.getClass().getSimpleName(), this.tableName);
+    }
+}
@@ -0,0 +1,36 @@
+package de.hpi.isg.mdms.rdbms.constraints;
+
+import de.hpi.isg.mdms.domain.constraints.TupleCount;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Stores {@link TupleCount}s in the {@code [TupleCount]} table.
+ */
+public class TupleCountTable extends SQLiteConstraintTable<TupleCount> {
+
+    public TupleCountTable() {
+        super(TupleCount.class, "TupleCount");
+        this.declareColumn("tableId", "integer NOT NULL", true);
+        this.declareColumn("numTuples", "integer NOT NULL", false);
+    }
+
+    @Override
+    protected void setInsertParameters(TupleCount tupleCount, PreparedStatement preparedStatement, int offset)
+            throws SQLException {
+        preparedStatement.setInt(offset, tupleCount.getTableId());
+        preparedStatement.setInt(offset + 1, tupleCount.getNumTuples());
+    }
+
+    @Override
+    public String getReferencingCondition() {
+        return "[tableId]=?2";
+    }
+
+    @Override
+    public TupleCount readConstraint(ResultSet resultSet) throws SQLException {
+        return new TupleCount(resultSet.getInt("tableId"), resultSet.getInt("numTuples"));
+    }
+}
@@ -0,0 +1,36 @@
+package de.hpi.isg.mdms.rdbms.constraints;
+
+import de.hpi.isg.mdms.domain.constraints.TypeConstraint;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Stores {@link TypeConstraint}s in the {@code [TypeConstraint]} table.
+ */
+public class TypeConstraintTable extends SQLiteConstraintTable<TypeConstraint> {
+
+    public TypeConstraintTable() {
+        super(TypeConstraint.class, "TypeConstraint");
+        this.declareColumn("columnId", "integer NOT NULL", true);
+        this.declareColumn("type", "text", false);
+    }
+
+    @Override
+    protected void setInsertParameters(TypeConstraint typeConstraint, PreparedStatement preparedStatement, int offset)
+            throws SQLException {
+        preparedStatement.setInt(offset, typeConstraint.getColumnId());
+        preparedStatement.setString(offset + 1, typeConstraint.getType());
+    }
+
+    @Override
+    public String getReferencingCondition() {
+        return "[columnId]=?2";
+    }
+
+    @Override
+    public TypeConstraint readConstraint(ResultSet resultSet) throws SQLException {
+        return new TypeConstraint(resultSet.getInt("columnId"), resultSet.getString("type"));
+    }
+}
@@ -0,0 +1,40 @@
+package de.hpi.isg.mdms.rdbms.constraints;
+
+import de.hpi.isg.mdms.domain.constraints.UniqueColumnCombination;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Stores {@link UniqueColumnCombination}s in the {@code [UCC]} table. Unary UCCs additionally expose their column in
+ * the indexed {@code [columnId]} column.
+ */
+public class UniqueColumnCombinationTable extends SQLiteConstraintTable<UniqueColumnCombination> {
+
+    public UniqueColumnCombinationTable() {
+        super(UniqueColumnCombination.class, "UCC");
+        this.declareColumn("arity", "integer NOT NULL", false);
+        this.declareColumn("columnId", "integer", true);
+        this.declareColumn("columnIds", "text NOT NULL", false);
+    }
+
+    @Override
+    protected void setInsertParameters(UniqueColumnCombination ucc, PreparedStatement preparedStatement, int offset)
+            throws SQLException {
+        preparedStatement.setInt(offset, ucc.getArity());
+        setUnaryId(ucc.getColumnIds(), preparedStatement, offset + 1);
+        preparedStatement.setString(offset + 2, encodeIds(ucc.getColumnIds()));
+    }
+
+    @Override
+    public String getReferencingCondition() {
+        // Constraints that are not unary are not indexed, so they need to be tested afterwards.
+        return "[columnId]=?2 or [columnId] is null";
+    }
+
+    @Override
+    public UniqueColumnCombination readConstraint(ResultSet resultSet) throws SQLException {
+        return new UniqueColumnCombination(decodeIds(resultSet.getString("columnIds")));
+    }
+}
@@ -1,6 +1,11 @@
 package de.hpi.isg.mdms.rdbms;
 
 import de.hpi.isg.mdms.db.DatabaseAccess;
+import de.hpi.isg.mdms.db.PreparedStatementAdapter;
+import de.hpi.isg.mdms.db.ReadConnectionPool;
+import de.hpi.isg.mdms.db.query.DatabaseQuery;
+import de.hpi.isg.mdms.db.query.StrategyBasedPreparedQuery;
+import de.hpi.isg.mdms.db.write.BatchWriter;
 import de.hpi.isg.mdms.db.write.DatabaseWriter;
 import de.hpi.isg.mdms.db.write.PreparedStatementBatchWriter;
 import de.hpi.isg.mdms.model.targets.Target;
@@ -8,10 +13,14 @@ import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.sqlite.SQLiteConfig;
 
 import java.io.File;
 import java.io.IOException;
 import java.sql.*;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -82,4 +91,162 @@ public class DatabaseAccessTest {
             Assert.assertFalse(rs.next());
         }
     }
+
+    @Test
+    public void testGroupCommitIsDeferredUntilFlush() throws Exception {
+        DatabaseAccess dbAccess = new DatabaseAccess(this.connection);
+        dbAccess.enableGroupCommit(1000, TimeUnit.MINUTES.toMillis(1));
+        BatchWriter<Target> insertTargetWriter = dbAccess.createBatchWriter(INSERT_TARGET_WRITER_FACTORY);
+        insertTargetWriter.write(this.mockTarget(1));
+        CompletableFuture<Void> commit1 = insertTargetWriter.flushAsync();
+        insertTargetWriter.write(this.mockTarget(2));
+        CompletableFuture<Void> commit2 = insertTargetWriter.flushAsync();
+
+        // Both batches are executed but neither is committed yet, so other connections cannot see them.
+        Assert.assertSame(commit1, commit2);
+        Assert.assertFalse(commit1.isDone());
+        Assert.assertEquals(2, dbAccess.getGroupCommitter().getNumPendingStatements());
+        Assert.assertEquals(0, this.countTargetsViaOtherConnection());
+
+        dbAccess.flush();
+        Assert.assertTrue(commit1.isDone());
+        Assert.assertFalse(commit1.isCompletedExceptionally());
+        Assert.assertEquals(2, this.countTargetsViaOtherConnection());
+        dbAccess.close();
+    }
+
+    @Test
+    public void testGroupCommitIsTriggeredByLatency() throws Exception {
+        DatabaseAccess dbAccess = new DatabaseAccess(this.connection);
+        dbAccess.enableGroupCommit(1000, 50);
+        BatchWriter<Target> insertTargetWriter = dbAccess.createBatchWriter(INSERT_TARGET_WRITER_FACTORY);
+        insertTargetWriter.write(this.mockTarget(1));
+        CompletableFuture<Void> commitFuture = insertTargetWriter.flushAsync();
+        Assert.assertFalse(commitFuture.isDone());
+
+        // The commit takes place even though the database is not accessed anymore.
+        commitFuture.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(0, dbAccess.getGroupCommitter().getNumPendingStatements());
+        Assert.assertEquals(1, this.countTargetsViaOtherConnection());
+        dbAccess.close();
+    }
+
+    @Test
+    public void testFailedBatchRollsBackPendingStatements() throws Exception {
+        try (Statement stmt = this.connection.createStatement()) {
+            stmt.execute("create table [UniqueTarget] ([ID] int primary key, [name] text)");
+        }
+        DatabaseAccess dbAccess = new DatabaseAccess(this.connection);
+        dbAccess.enableGroupCommit(1000, TimeUnit.MINUTES.toMillis(1));
+        BatchWriter<Target> insertTargetWriter = dbAccess.createBatchWriter(INSERT_TARGET_WRITER_FACTORY);
+        BatchWriter<Target> insertUniqueTargetWriter = dbAccess.createBatchWriter(
+                new PreparedStatementBatchWriter.Factory<>(
+                        "INSERT INTO UniqueTarget (ID, name) VALUES (?, ?);",
+                        (target, preparedStatement) -> {
+                            preparedStatement.setInt(1, target.getId());
+                            preparedStatement.setString(2, target.getName());
+                        },
+                        "UniqueTarget"));
+
+        insertTargetWriter.write(this.mockTarget(1));
+        CompletableFuture<Void> commitFuture = insertTargetWriter.flushAsync();
+        insertUniqueTargetWriter.write(this.mockTarget(2));
+        insertUniqueTargetWriter.write(this.mockTarget(2));
+        try {
+            insertUniqueTargetWriter.flushAsync();
+            Assert.fail("The duplicate key should have been rejected.");
+        } catch (SQLException e) {
+            // Expected.
+        }
+        Assert.assertTrue(commitFuture.isCompletedExceptionally());
+        Assert.assertEquals(0, dbAccess.getGroupCommitter().getNumPendingStatements());
+
+        // The other writer learns that its flushed batch has been discarded, but only once.
+        try {
+            insertTargetWriter.write(this.mockTarget(3));
+            Assert.fail("The rollback should have been reported.");
+        } catch (SQLException e) {
+            // Expected.
+        }
+        insertTargetWriter.write(this.mockTarget(4));
+
+        // The pending insert has been rolled back, so that it is not committed later on.
+        dbAccess.close();
+        Assert.assertEquals(1, this.countTargetsViaOtherConnection());
+    }
+
+    @Test
+    public void testGroupCommitIsTriggeredBySize() throws Exception {
+        DatabaseAccess dbAccess = new DatabaseAccess(this.connection);
+        dbAccess.enableGroupCommit(2, TimeUnit.MINUTES.toMillis(1));
+        BatchWriter<Target> insertTargetWriter = dbAccess.createBatchWriter(INSERT_TARGET_WRITER_FACTORY);
+        insertTargetWriter.write(this.mockTarget(1));
+        CompletableFuture<Void> commit1 = insertTargetWriter.flushAsync();
+        Assert.assertFalse(commit1.isDone());
+        insertTargetWriter.write(this.mockTarget(2));
+        CompletableFuture<Void> commit2 = insertTargetWriter.flushAsync();
+        Assert.assertTrue(commit1.isDone());
+        Assert.assertTrue(commit2.isDone());
+        Assert.assertEquals(2, this.countTargetsViaOtherConnection());
+        dbAccess.close();
+    }
+
+    @Test
+    public void testPreparedQueriesRunOnReadConnections() throws Exception {
+        try (Statement stmt = this.connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL");
+        }
+        String url = "jdbc:sqlite:" + this.testDb.toURI().getPath();
+        ReadConnectionPool readConnectionPool = new ReadConnectionPool(() -> {
+            SQLiteConfig config = new SQLiteConfig();
+            config.setReadOnly(true);
+            return config.createConnection(url);
+        }, 1);
+        DatabaseAccess dbAccess = new DatabaseAccess(this.connection, readConnectionPool);
+        dbAccess.enableGroupCommit(1000, TimeUnit.MINUTES.toMillis(1));
+        BatchWriter<Target> insertTargetWriter = dbAccess.createBatchWriter(INSERT_TARGET_WRITER_FACTORY);
+        insertTargetWriter.write(this.mockTarget(1));
+        DatabaseQuery<Integer> query = dbAccess.createQuery(new StrategyBasedPreparedQuery.Factory<>(
+                "select count(*) from [Target] where [ID]=?", PreparedStatementAdapter.SINGLE_INT_ADAPTER, "Target"
+        ));
+
+        // The query commits the pending write, so that it is visible to the read connection.
+        Connection readConnection;
+        try (ResultSet rs1 = query.execute(1)) {
+            readConnection = rs1.getStatement().getConnection();
+            Assert.assertNotSame(this.connection, readConnection);
+            Assert.assertTrue(rs1.next());
+            Assert.assertEquals(1, rs1.getInt(1));
+
+            // The only read connection is in use, so the query falls back to the writing connection.
+            try (ResultSet rs2 = query.execute(1)) {
+                Assert.assertSame(this.connection, rs2.getStatement().getConnection());
+                Assert.assertTrue(rs2.next());
+                Assert.assertEquals(1, rs2.getInt(1));
+            }
+        }
+
+        // Closing the ResultSet gives the read connection back to the pool.
+        try (ResultSet rs3 = query.execute(2)) {
+            Assert.assertSame(readConnection, rs3.getStatement().getConnection());
+            Assert.assertTrue(rs3.next());
+            Assert.assertEquals(0, rs3.getInt(1));
+        }
+        dbAccess.close();
+    }
+
+    private Target mockTarget(int id) {
+        Target target = mock(Target.class);
+        when(target.getId()).thenReturn(id);
+        when(target.getName()).thenReturn("Target " + id);
+        return target;
+    }
+
+    private int countTargetsViaOtherConnection() throws SQLException {
+        try (Connection otherConnection = DriverManager.getConnection("jdbc:sqlite:" + this.testDb.toURI().getPath());
+             ResultSet rs = otherConnection.createStatement().executeQuery("select count(*) from [Target]")) {
+            Assert.assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
 }
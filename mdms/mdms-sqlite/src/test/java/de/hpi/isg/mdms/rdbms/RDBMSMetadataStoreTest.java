@@ -1,11 +1,16 @@
 package de.hpi.isg.mdms.rdbms;
 
+import com.twitter.chill.KryoPool;
+import com.twitter.chill.ScalaKryoInstantiator;
 import de.hpi.isg.mdms.domain.RDBMSMetadataStore;
+import de.hpi.isg.mdms.domain.targets.RDBMSTable;
 import de.hpi.isg.mdms.domain.constraints.*;
 import de.hpi.isg.mdms.exceptions.NameAmbigousException;
 import de.hpi.isg.mdms.model.MetadataStore;
 import de.hpi.isg.mdms.model.constraints.Constraint;
 import de.hpi.isg.mdms.model.constraints.ConstraintCollection;
+import de.hpi.isg.mdms.model.constraints.ConstraintPredicate;
+import de.hpi.isg.mdms.model.constraints.ReferencingConstraintPredicate;
 import de.hpi.isg.mdms.model.experiment.Algorithm;
 import de.hpi.isg.mdms.model.experiment.Experiment;
 import de.hpi.isg.mdms.model.location.DefaultLocation;
@@ -22,8 +27,11 @@ import java.io.File;
 import java.io.IOException;
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -686,5 +694,372 @@ public class RDBMSMetadataStoreTest {
         );
     }
 
+    @Test
+    public void testMigrationOfBlobConstraintsToConstraintTables() throws Exception {
+        // setup store
+        final MetadataStore store1 = RDBMSMetadataStore.createNewInstance(new SQLiteInterface(connection));
+        final Schema dummySchema = store1.addSchema("PDB", null, new DefaultLocation());
+        final Table dummyTable = dummySchema.addTable(store1, "dummyTable", null, new DefaultLocation());
+        final Column dummyColumn1 = dummyTable.addColumn(store1, "dummyColumn1", null, 1);
+        final Column dummyColumn2 = dummyTable.addColumn(store1, "dummyColumn2", null, 2);
+        ConstraintCollection<InclusionDependency> constraintCollection =
+                store1.createConstraintCollection(null, InclusionDependency.class);
+        store1.flush();
+
+        // write a constraint in the legacy BLOB format
+        final InclusionDependency dummyConstraint = new InclusionDependency(dummyColumn1.getId(), dummyColumn2.getId());
+        KryoPool kryoPool = KryoPool.withByteArrayOutputStream(1, new ScalaKryoInstantiator());
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "insert into [Constraint] ([constraintCollection], [data]) values (?, ?)")) {
+            preparedStatement.setInt(1, constraintCollection.getId());
+            preparedStatement.setBytes(2, kryoPool.toBytesWithoutClass(dummyConstraint));
+            preparedStatement.executeUpdate();
+        }
+        if (!connection.getAutoCommit()) connection.commit();
+
+        // the legacy constraint should be readable before and after the migration
+        SQLiteInterface sqliteInterface = new SQLiteInterface(connection);
+        MetadataStore store2 = RDBMSMetadataStore.load(sqliteInterface);
+        assertEquals(Collections.singleton(dummyConstraint),
+                new HashSet<>(store2.getConstraintCollection(constraintCollection.getId()).getConstraints()));
+
+        assertEquals(1, sqliteInterface.migrateToConstraintTables());
+        assertEquals(0, this.countRows("Constraint"));
+        assertEquals(1, this.countRows("IND"));
+
+        MetadataStore store3 = RDBMSMetadataStore.load(new SQLiteInterface(connection));
+        assertEquals(Collections.singleton(dummyConstraint),
+                new HashSet<>(store3.getConstraintCollection(constraintCollection.getId()).getConstraints()));
+    }
+
+    @Test
+    public void testStreamingOfConstraints() throws Exception {
+        final MetadataStore store1 = RDBMSMetadataStore.createNewInstance(new SQLiteInterface(connection));
+        final Schema dummySchema = store1.addSchema("PDB", null, new DefaultLocation());
+        final Table dummyTable = dummySchema.addTable(store1, "dummyTable", null, new DefaultLocation());
+        final Column dummyColumn1 = dummyTable.addColumn(store1, "dummyColumn1", null, 1);
+        final Column dummyColumn2 = dummyTable.addColumn(store1, "dummyColumn2", null, 2);
+        final Column dummyColumn3 = dummyTable.addColumn(store1, "dummyColumn3", null, 3);
+        ConstraintCollection<InclusionDependency> constraintCollection =
+                store1.createConstraintCollection(null, InclusionDependency.class);
+        final InclusionDependency ind1 = new InclusionDependency(dummyColumn1.getId(), dummyColumn2.getId());
+        final InclusionDependency ind2 = new InclusionDependency(dummyColumn2.getId(), dummyColumn3.getId());
+        final InclusionDependency ind3 = new InclusionDependency(dummyColumn3.getId(), dummyColumn1.getId());
+        constraintCollection.add(ind1);
+        constraintCollection.add(ind2);
+        constraintCollection.add(ind3);
+
+        // stream without materializing the collection, including pending writes
+        try (Stream<InclusionDependency> stream = constraintCollection.stream(
+                ConstraintPredicate.referencing(dummyColumn1.getId()))) {
+            assertEquals(new HashSet<>(Arrays.asList(ind1, ind3)), stream.collect(Collectors.toSet()));
+        }
+
+        store1.flush();
+        MetadataStore store2 = RDBMSMetadataStore.load(new SQLiteInterface(connection));
+        ConstraintCollection<?> loadedCollection = store2.getConstraintCollection(constraintCollection.getId());
+        try (Stream<?> stream = loadedCollection.stream()) {
+            assertEquals(3, stream.count());
+        }
+    }
+
+    @Test
+    public void testReferencingPredicateIsEvaluatedInSql() throws Exception {
+        final MetadataStore store1 = RDBMSMetadataStore.createNewInstance(new SQLiteInterface(connection));
+        final Schema dummySchema = store1.addSchema("PDB", null, new DefaultLocation());
+        final Table dummyTable = dummySchema.addTable(store1, "dummyTable", null, new DefaultLocation());
+        final List<Column> columns = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            columns.add(dummyTable.addColumn(store1, "dummyColumn" + i, null, i));
+        }
+        ConstraintCollection<InclusionDependency> constraintCollection =
+                store1.createConstraintCollection(null, InclusionDependency.class);
+        Set<InclusionDependency> expectedInds = new HashSet<>();
+        for (Column column1 : columns) {
+            for (Column column2 : columns) {
+                if (column1 == column2) continue;
+                InclusionDependency ind = new InclusionDependency(column1.getId(), column2.getId());
+                constraintCollection.add(ind);
+                if (column1 == columns.get(0) || column2 == columns.get(0)) expectedInds.add(ind);
+            }
+        }
+        // n-ary INDs are not indexed and must be tested after reading them
+        final InclusionDependency binaryInd = new InclusionDependency(
+                new int[]{columns.get(1).getId(), columns.get(2).getId()},
+                new int[]{columns.get(3).getId(), columns.get(4).getId()}
+        );
+        constraintCollection.add(binaryInd);
+        store1.flush();
+
+        // only the rows that match in the database should be tested
+        final List<InclusionDependency> testedInds = new ArrayList<>();
+        ReferencingConstraintPredicate<InclusionDependency> predicate =
+                new ReferencingConstraintPredicate<InclusionDependency>(columns.get(0).getId()) {
+                    @Override
+                    public boolean test(InclusionDependency ind) {
+                        testedInds.add(ind);
+                        return super.test(ind);
+                    }
+                };
+        try (Stream<InclusionDependency> stream = constraintCollection.stream(predicate)) {
+            assertEquals(expectedInds, stream.collect(Collectors.toSet()));
+        }
+        Set<InclusionDependency> expectedTestedInds = new HashSet<>(expectedInds);
+        expectedTestedInds.add(binaryInd);
+        assertEquals(expectedTestedInds.size(), testedInds.size());
+        assertEquals(expectedTestedInds, new HashSet<>(testedInds));
+    }
+
+    @Test
+    public void testBulkInsertionOfConstraints() throws Exception {
+        final MetadataStore store1 = RDBMSMetadataStore.createNewInstance(new SQLiteInterface(connection));
+        final Schema dummySchema = store1.addSchema("PDB", null, new DefaultLocation());
+        final Table dummyTable = dummySchema.addTable(store1, "dummyTable", null, new DefaultLocation());
+        final List<Column> columns = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            columns.add(dummyTable.addColumn(store1, "dummyColumn" + i, null, i));
+        }
+
+        // INDs are stored in a dedicated table, distinct value overlaps as BLOBs
+        Set<InclusionDependency> inds = new HashSet<>();
+        Set<DistinctValueOverlap> overlaps = new HashSet<>();
+        for (Column column1 : columns) {
+            for (Column column2 : columns) {
+                if (column1 != column2) {
+                    inds.add(new InclusionDependency(column1.getId(), column2.getId()));
+                    overlaps.add(new DistinctValueOverlap(42, column1.getId(), column2.getId()));
+                }
+            }
+        }
+        ConstraintCollection<InclusionDependency> indCollection =
+                store1.createConstraintCollection(null, InclusionDependency.class);
+        indCollection.addAll(inds);
+        assertEquals(inds, new HashSet<>(indCollection.getConstraints()));
+
+        ConstraintCollection<DistinctValueOverlap> overlapCollection =
+                store1.createConstraintCollection(null, DistinctValueOverlap.class);
+        // the constraints may be provided by a single-use Iterable
+        Stream<DistinctValueOverlap> overlapStream = overlaps.stream();
+        overlapCollection.addAll(overlapStream::iterator);
+        assertEquals(overlaps, new HashSet<>(overlapCollection.getConstraints()));
+
+        store1.flush();
+        MetadataStore store2 = RDBMSMetadataStore.load(new SQLiteInterface(connection));
+        assertEquals(inds, new HashSet<>(store2.getConstraintCollection(indCollection.getId()).getConstraints()));
+        assertEquals(overlaps,
+                new HashSet<>(store2.getConstraintCollection(overlapCollection.getId()).getConstraints()));
+    }
+
+    @Test
+    public void testReadingViaReadConnectionsWithWriteAheadLog() throws Exception {
+        connection.close();
+        SQLiteInterface sqliteInterface = SQLiteInterface.createForFile(this.testDb,
+                new SQLiteConnectionSettings().setNumReadConnections(1));
+        final RDBMSMetadataStore store1 = RDBMSMetadataStore.createNewInstance(sqliteInterface);
+        try (Statement statement = sqliteInterface.getDatabaseAccess().getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA journal_mode;")) {
+            assertTrue(resultSet.next());
+            assertEquals("wal", resultSet.getString(1).toLowerCase());
+        }
+
+        final Schema dummySchema = store1.addSchema("PDB", null, new DefaultLocation());
+        final Table dummyTable = dummySchema.addTable(store1, "dummyTable", null, new DefaultLocation());
+        final Column dummyColumn1 = dummyTable.addColumn(store1, "dummyColumn1", null, 1);
+        final Column dummyColumn2 = dummyTable.addColumn(store1, "dummyColumn2", null, 2);
+        ConstraintCollection<InclusionDependency> constraintCollection =
+                store1.createConstraintCollection(null, InclusionDependency.class);
+        final InclusionDependency ind = new InclusionDependency(dummyColumn1.getId(), dummyColumn2.getId());
+        constraintCollection.add(ind);
+
+        // Streams prefer the read connection, the second one falls back to the writing connection.
+        try (Stream<InclusionDependency> stream1 = constraintCollection.stream();
+             Stream<InclusionDependency> stream2 = constraintCollection.stream()) {
+            // The only read connection has been handed out.
+            assertNull(sqliteInterface.getDatabaseAccess().getReadConnectionPool().tryAcquire());
+            constraintCollection.add(new InclusionDependency(dummyColumn2.getId(), dummyColumn1.getId()));
+            assertEquals(Collections.singletonList(ind), stream1.collect(Collectors.toList()));
+            assertEquals(Collections.singletonList(ind), stream2.collect(Collectors.toList()));
+        }
+        try (Stream<InclusionDependency> stream = constraintCollection.stream()) {
+            assertEquals(2, stream.count());
+        }
+
+        store1.setUseJournal(false);
+        assertTrue(!sqliteInterface.getDatabaseAccess().getReadConnectionPool().isEnabled());
+        store1.setUseJournal(true);
+        assertTrue(sqliteInterface.getDatabaseAccess().getReadConnectionPool().isEnabled());
+        store1.close();
+    }
+
+    @Test
+    public void testGroupCommit() throws Exception {
+        connection.close();
+        SQLiteInterface sqliteInterface = SQLiteInterface.createForFile(this.testDb,
+                new SQLiteConnectionSettings().setNumReadConnections(1).setGroupCommitLatency(60000));
+        final RDBMSMetadataStore store1 = RDBMSMetadataStore.createNewInstance(sqliteInterface);
+        final Schema dummySchema = store1.addSchema("PDB", null, new DefaultLocation());
+        final Table dummyTable = dummySchema.addTable(store1, "dummyTable", null, new DefaultLocation());
+        final Column dummyColumn1 = dummyTable.addColumn(store1, "dummyColumn1", null, 1);
+        final Column dummyColumn2 = dummyTable.addColumn(store1, "dummyColumn2", null, 2);
+        ConstraintCollection<InclusionDependency> constraintCollection =
+                store1.createConstraintCollection(null, InclusionDependency.class);
+        constraintCollection.add(new InclusionDependency(dummyColumn1.getId(), dummyColumn2.getId()));
+
+        // Reads via the read connections must see the uncommitted writes.
+        try (Stream<InclusionDependency> stream = constraintCollection.stream()) {
+            assertEquals(1, stream.count());
+        }
+        constraintCollection.add(new InclusionDependency(dummyColumn2.getId(), dummyColumn1.getId()));
+        store1.close();
+
+        connection = DriverManager.getConnection("jdbc:sqlite:" + this.testDb.toURI().getPath());
+        MetadataStore store2 = RDBMSMetadataStore.load(new SQLiteInterface(connection));
+        assertEquals(2, store2.getConstraintCollection(constraintCollection.getId()).getConstraints().size());
+    }
+
+    @Test
+    public void testAllocationOfTableIds() throws Exception {
+        // With 3 table bits, there are 7 table numbers per schema.
+        final RDBMSMetadataStore store1 = RDBMSMetadataStore.createNewInstance(new SQLiteInterface(connection), 3, 12);
+        final Schema schema1 = store1.addSchema("schema1", null, new DefaultLocation());
+        final List<Table> tables = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            tables.add(schema1.addTable(store1, "table" + i, null, new DefaultLocation()));
+        }
+        assertEquals(7, tables.stream().map(Table::getId).distinct().count());
+        final Schema schema2 = store1.addSchema("schema2", null, new DefaultLocation());
+        assertTrue(schema1.getId() != schema2.getId());
+        store1.removeSchema(schema2);
+        store1.flush();
+
+        // A reloaded store must continue behind the reserved IDs and find released IDs once the range is exhausted.
+        final RDBMSMetadataStore store2 = RDBMSMetadataStore.load(new SQLiteInterface(connection));
+        final Schema loadedSchema1 = store2.getSchemaById(schema1.getId());
+        final Table removedTable = loadedSchema1.getTableByName("table3");
+        store2.getSQLInterface().removeTable((RDBMSTable) removedTable);
+        final Table newTable = loadedSchema1.addTable(store2, "newTable", null, new DefaultLocation());
+        assertEquals(removedTable.getId(), newTable.getId());
+        try {
+            loadedSchema1.addTable(store2, "tooManyTables", null, new DefaultLocation());
+            assertTrue("Expected the table IDs to be exhausted.", false);
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertTrue(schema1.getId() != store2.addSchema("schema3", null, new DefaultLocation()).getId());
+    }
+
+    @Test
+    public void testWarmUpOfSchema() throws Exception {
+        final MetadataStore store1 = RDBMSMetadataStore.createNewInstance(new SQLiteInterface(connection));
+        final Schema schema1 = store1.addSchema("schema1", null, new DefaultLocation());
+        final Table table1 = schema1.addTable(store1, "table1", null, new DefaultLocation());
+        final Column column1 = table1.addColumn(store1, "column1", null, 0);
+        final Column column2 = table1.addColumn(store1, "column2", null, 1);
+        final Table table2 = schema1.addTable(store1, "table2", null, new DefaultLocation());
+        final Column column3 = table2.addColumn(store1, "column3", null, 0);
+        store1.flush();
+
+        final RDBMSMetadataStore store2 = RDBMSMetadataStore.load(new SQLiteInterface(connection));
+        final Schema loadedSchema = store2.getSchemaById(schema1.getId());
+        store2.warmUp(loadedSchema);
+
+        // Delete the tables and columns behind the store's back to make sure that they are served from the cache.
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM [Target] WHERE [parent] IS NOT NULL");
+        }
+        if (!connection.getAutoCommit()) connection.commit();
+
+        final Column loadedColumn1 = (Column) store2.getTargetById(column1.getId());
+        assertEquals(column1, loadedColumn1);
+        assertTrue(loadedColumn1 == store2.getTargetById(column1.getId()));
+        assertEquals(column3, store2.getTargetById(column3.getId()));
+        assertTrue(loadedColumn1.getTable() == store2.getTargetById(table1.getId()));
+        assertEquals(new HashSet<>(Arrays.asList(column1, column2)), new HashSet<>(loadedColumn1.getTable().getColumns()));
+        assertEquals(new HashSet<>(Arrays.asList(table1, table2)), new HashSet<>(loadedSchema.getTables()));
+        assertTrue(store2.hasTargetWithId(column2.getId()));
+        assertTrue(!store2.hasTargetWithId(column2.getId() + 1));
+        assertTrue(!store2.hasTargetWithId(store2.getIdUtils().createGlobalId(
+                store2.getIdUtils().getLocalSchemaId(schema1.getId()), store2.getIdUtils().getMaxTableNumber())));
+    }
+
+    @Test
+    public void testIndexedLookupOfConstraintCollections() throws Exception {
+        final MetadataStore store1 = RDBMSMetadataStore.createNewInstance(new SQLiteInterface(connection));
+        final Schema schema1 = store1.addSchema("schema1", null, new DefaultLocation());
+        final Table table1 = schema1.addTable(store1, "table1", null, new DefaultLocation());
+        final Column column1 = table1.addColumn(store1, "column1", null, 1);
+        final Table table2 = schema1.addTable(store1, "table2", null, new DefaultLocation());
+        final Column column2 = table2.addColumn(store1, "column2", null, 1);
+        final Schema schema2 = store1.addSchema("schema2", null, new DefaultLocation());
+
+        ConstraintCollection<InclusionDependency> schemaIndCollection =
+                store1.createConstraintCollection(null, InclusionDependency.class, schema1);
+        ConstraintCollection<InclusionDependency> columnIndCollection =
+                store1.createConstraintCollection(null, InclusionDependency.class, column1, column2);
+        ConstraintCollection<InclusionDependency> unscopedIndCollection =
+                store1.createConstraintCollection(null, InclusionDependency.class);
+        ConstraintCollection<TupleCount> tableTupleCountCollection =
+                store1.createConstraintCollection(null, TupleCount.class, table1);
+
+        this.checkIndexedLookupOfConstraintCollections(store1, schema1, table1, column1, column2, schema2,
+                schemaIndCollection, columnIndCollection, unscopedIndCollection, tableTupleCountCollection);
+
+        // the index must be restored for stores that have been created without it
+        store1.flush();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE [ConstraintCollectionScope]");
+        }
+        if (!connection.getAutoCommit()) connection.commit();
+        MetadataStore store2 = RDBMSMetadataStore.load(new SQLiteInterface(connection));
+        this.checkIndexedLookupOfConstraintCollections(store2, schema1, table1, column1, column2, schema2,
+                schemaIndCollection, columnIndCollection, unscopedIndCollection, tableTupleCountCollection);
+        assertEquals(5, this.countRows("ConstraintCollectionScope"));
+
+        // removed collections must not be found anymore
+        store2.removeConstraintCollection(store2.getConstraintCollection(columnIndCollection.getId()));
+        assertEquals(toIds(schemaIndCollection),
+                toIds(store2.getConstraintCollectionByConstraintTypeAndScope(InclusionDependency.class, column1)));
+    }
+
+    private void checkIndexedLookupOfConstraintCollections(MetadataStore store,
+                                                           Schema schema1, Table table1, Column column1,
+                                                           Column column2, Schema schema2,
+                                                           ConstraintCollection<?> schemaIndCollection,
+                                                           ConstraintCollection<?> columnIndCollection,
+                                                           ConstraintCollection<?> unscopedIndCollection,
+                                                           ConstraintCollection<?> tableTupleCountCollection) {
+        assertEquals(toIds(schemaIndCollection, columnIndCollection, unscopedIndCollection),
+                toIds(store.getConstraintCollectionByConstraintType(InclusionDependency.class)));
+        assertEquals(toIds(schemaIndCollection, columnIndCollection, tableTupleCountCollection),
+                toIds(store.getConstraintCollectionByTarget(column1)));
+        assertEquals(toIds(schemaIndCollection, tableTupleCountCollection),
+                toIds(store.getConstraintCollectionByTarget(table1)));
+        assertEquals(toIds(), toIds(store.getConstraintCollectionByTarget(schema2)));
+        assertEquals(toIds(schemaIndCollection, columnIndCollection),
+                toIds(store.getConstraintCollectionByConstraintTypeAndScope(InclusionDependency.class, column2)));
+        assertEquals(toIds(schemaIndCollection, columnIndCollection, unscopedIndCollection),
+                toIds(store.getIncludedConstraintCollections(InclusionDependency.class, schema1)));
+        assertEquals(toIds(unscopedIndCollection),
+                toIds(store.getIncludedConstraintCollections(InclusionDependency.class, table1)));
+        assertEquals(toIds(tableTupleCountCollection),
+                toIds(store.getIncludedConstraintCollections(TupleCount.class, table1)));
+        assertEquals(toIds(), toIds(store.getIncludedConstraintCollections(TupleCount.class, column1)));
+    }
+
+    private static Set<Integer> toIds(ConstraintCollection<?>... constraintCollections) {
+        return toIds(Arrays.asList(constraintCollections));
+    }
+
+    private static Set<Integer> toIds(Collection<? extends ConstraintCollection<?>> constraintCollections) {
+        return constraintCollections.stream().map(ConstraintCollection::getId).collect(Collectors.toSet());
+    }
+
+    private int countRows(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(String.format("select count(*) from [%s]", table))) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
 
 }
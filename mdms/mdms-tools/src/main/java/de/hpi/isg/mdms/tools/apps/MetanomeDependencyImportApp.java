@@ -81,6 +81,7 @@ public class MetanomeDependencyImportApp extends MdmsAppTemplate<MetanomeDepende
 
         // Set up the dependency reader and receiver.
         ResultReader resultReader = this.createResultReader(this.parameters);
+        resultReader.setParallelism(this.parameters.parallelism);
         Class<?> constraintClass = this.parameters.getConstraintClass();
         try (DependencyResultReceiver<?> resultReceiver = new DependencyResultReceiver<>(
                 this.metadataStore,
@@ -226,6 +227,10 @@ public class MetanomeDependencyImportApp extends MdmsAppTemplate<MetanomeDepende
                 description = "matches statistics files in the input directory")
         public String filePattern = ".+";
 
+        @Parameter(names = "--parallelism",
+                description = "number of threads to parse the files with")
+        public int parallelism = Runtime.getRuntime().availableProcessors();
+
         /**
          * @return the user-specified description or a default one
          */
@@ -16,12 +16,16 @@ import de.metanome.algorithm_integration.results.InclusionDependency;
 import de.metanome.algorithm_integration.results.UniqueColumnCombination;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Writes all received results to a specified {@link MetadataStore}.
  * Receives the Metanome results and extracts the relevant information.
+ * <p>Results can be received concurrently. They are buffered and inserted in batches into the
+ * {@link ConstraintCollection}. The last batch is inserted when this instance is closed.</p>
  *
  * @author Susanne Buelow
  * @author Sebastian Kruse
@@ -33,6 +37,16 @@ public class DependencyResultReceiver<T> implements AutoCloseable,
 
     private final IdentifierResolver identifierResolver;
 
+    /**
+     * Number of constraints to buffer before inserting them into the {@link #constraintCollection}.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+
+    /**
+     * Buffers constraints for their insertion into the {@link #constraintCollection}. Guarded by itself.
+     */
+    private final List<T> buffer = new ArrayList<>(DEFAULT_BATCH_SIZE);
+
     public DependencyResultReceiver(MetadataStore metadatastore,
                                     Schema schema,
                                     Collection<Target> scope,
@@ -44,6 +58,13 @@ public class DependencyResultReceiver<T> implements AutoCloseable,
         );
     }
 
+    /**
+     * @return the {@link ConstraintCollection} into which the received results are inserted
+     */
+    public ConstraintCollection<T> getConstraintCollection() {
+        return this.constraintCollection;
+    }
+
     @SuppressWarnings("unchecked") // We check type safety by hand.
     private <S> ConstraintCollection<S> testAndCastConstraintCollection(Class<S> type) {
         if (this.constraintCollection.getConstraintClass() != type) {
@@ -54,17 +75,57 @@ public class DependencyResultReceiver<T> implements AutoCloseable,
         return (ConstraintCollection<S>) this.constraintCollection;
     }
 
+    /**
+     * Buffer a constraint for insertion into the {@link #constraintCollection}.
+     *
+     * @param type       the type of the constraint, which must match the {@link #constraintCollection}
+     * @param constraint the constraint
+     */
+    @SuppressWarnings("unchecked") // We check type safety by hand.
+    private <S> void add(Class<S> type, S constraint) {
+        this.testAndCastConstraintCollection(type);
+        List<T> batch = null;
+        synchronized (this.buffer) {
+            this.buffer.add((T) constraint);
+            if (this.buffer.size() >= DEFAULT_BATCH_SIZE) {
+                batch = new ArrayList<>(this.buffer);
+                this.buffer.clear();
+            }
+        }
+        if (batch != null) this.insert(batch);
+    }
+
+    /**
+     * Insert the buffered constraints into the {@link #constraintCollection}.
+     */
+    public void flushBuffer() {
+        List<T> batch;
+        synchronized (this.buffer) {
+            batch = new ArrayList<>(this.buffer);
+            this.buffer.clear();
+        }
+        if (!batch.isEmpty()) this.insert(batch);
+    }
+
+    private void insert(List<T> batch) {
+        // The metadata store is not necessarily thread-safe, so we serialize the insertions.
+        synchronized (this.constraintCollection) {
+            this.constraintCollection.addAll(batch);
+        }
+    }
+
     @Override
     public void receiveResult(FunctionalDependency fd) throws CouldNotReceiveResultException {
         int[] lhs = new int[fd.getDeterminant().getColumnIdentifiers().size()];
         int i = 0;
         for (ColumnIdentifier columnIdentifier : fd.getDeterminant().getColumnIdentifiers()) {
-            lhs[i++] = this.identifierResolver.resolveColumn(columnIdentifier).getId();
+            lhs[i++] = this.identifierResolver.resolveColumnId(columnIdentifier);
         }
         Arrays.sort(lhs);
-        int rhs = this.identifierResolver.resolveColumn(fd.getDependant()).getId();
+        int rhs = this.identifierResolver.resolveColumnId(fd.getDependant());
 
-        this.testAndCastConstraintCollection(de.hpi.isg.mdms.domain.constraints.FunctionalDependency.class).add(
+        this.add(
+                de.hpi.isg.mdms.domain.constraints.FunctionalDependency.class,
                 new de.hpi.isg.mdms.domain.constraints.FunctionalDependency(lhs, rhs)
         );
     }
@@ -73,15 +134,16 @@ public class DependencyResultReceiver<T> implements AutoCloseable,
     public void receiveResult(InclusionDependency ind) throws CouldNotReceiveResultException {
         int[] deps = new int[ind.getDependant().getColumnIdentifiers().size()];
         for (int i = 0; i < deps.length; i++) {
-            deps[i] = this.identifierResolver.resolveColumn(ind.getDependant().getColumnIdentifiers().get(i)).getId();
+            deps[i] = this.identifierResolver.resolveColumnId(ind.getDependant().getColumnIdentifiers().get(i));
         }
         int[] refs = new int[ind.getReferenced().getColumnIdentifiers().size()];
         for (int i = 0; i < refs.length; i++) {
-            refs[i] = this.identifierResolver.resolveColumn(ind.getReferenced().getColumnIdentifiers().get(i)).getId();
+            refs[i] = this.identifierResolver.resolveColumnId(ind.getReferenced().getColumnIdentifiers().get(i));
         }
         ReferenceUtils.coSort(deps, refs);
 
-        this.testAndCastConstraintCollection(de.hpi.isg.mdms.domain.constraints.InclusionDependency.class).add(
+        this.add(
+                de.hpi.isg.mdms.domain.constraints.InclusionDependency.class,
                 new de.hpi.isg.mdms.domain.constraints.InclusionDependency(deps, refs)
         );
     }
@@ -91,11 +153,12 @@ public class DependencyResultReceiver<T> implements AutoCloseable,
         int[] columns = new int[ucc.getColumnCombination().getColumnIdentifiers().size()];
         int i = 0;
         for (ColumnIdentifier columnIdentifier : ucc.getColumnCombination().getColumnIdentifiers()) {
-            columns[i++] = this.identifierResolver.resolveColumn(columnIdentifier).getId();
+            columns[i++] = this.identifierResolver.resolveColumnId(columnIdentifier);
         }
         Arrays.sort(columns);
 
-        this.testAndCastConstraintCollection(de.hpi.isg.mdms.domain.constraints.UniqueColumnCombination.class).add(
+        this.add(
+                de.hpi.isg.mdms.domain.constraints.UniqueColumnCombination.class,
                 new de.hpi.isg.mdms.domain.constraints.UniqueColumnCombination(columns)
         );
     }
@@ -118,6 +181,7 @@ public class DependencyResultReceiver<T> implements AutoCloseable,
     @Override
     public void close() throws IOException {
         try {
+            this.flushBuffer();
             this.constraintCollection.getMetadataStore().flush();
         } catch (Exception e) {
             throw new IOException("Could not flush the metadata store.", e);
@@ -1,16 +1,23 @@
 package de.hpi.isg.mdms.tools.metanome;
 
+import de.hpi.isg.mdms.exceptions.NameAmbigousException;
 import de.hpi.isg.mdms.model.MetadataStore;
 import de.hpi.isg.mdms.model.targets.Column;
 import de.hpi.isg.mdms.model.targets.Schema;
 import de.hpi.isg.mdms.model.targets.Table;
 import de.hpi.isg.mdms.model.util.IdUtils;
 import de.metanome.algorithm_integration.ColumnIdentifier;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
- * This utility helps to resolve Metanome identifiers to {@link Table}s and {@link Column}s.
+ * This utility helps to resolve Metanome identifiers to {@link Table}s and {@link Column}s. All tables and columns of
+ * the {@link Schema} are indexed by their names upon creation, so that the resolution does not query the
+ * {@link MetadataStore}. Instances are immutable and can be shared among threads.
  */
 public class IdentifierResolver {
 
@@ -23,6 +30,11 @@ public class IdentifierResolver {
 
     private final MetadataStore metadataStore;
 
+    /**
+     * Indexes the {@link Table}s of the {@link #schema} by their names. Ambiguous names are mapped to {@code null}.
+     */
+    private final Map<String, TableIndex> tableIndices = new HashMap<>();
+
     /**
      * Creates a new instance.
      *
@@ -32,6 +44,13 @@ public class IdentifierResolver {
     public IdentifierResolver(MetadataStore metadataStore, Schema schema) {
         this.schema = schema;
         this.metadataStore = metadataStore;
+        for (Table table : schema.getTables()) {
+            if (this.tableIndices.containsKey(table.getName())) {
+                this.tableIndices.put(table.getName(), null);
+            } else {
+                this.tableIndices.put(table.getName(), new TableIndex(table));
+            }
+        }
     }
 
     /**
@@ -40,33 +59,17 @@ public class IdentifierResolver {
      * @throws IllegalArgumentException if the {@link Column} could not be found
      */
     public Column resolveColumn(ColumnIdentifier columnIdentifier) throws IllegalArgumentException {
-        Table table = this.resolveTable(columnIdentifier.getTableIdentifier());
-        return this.resolveColumn(table, columnIdentifier.getColumnIdentifier());
+        TableIndex tableIndex = this.resolveTableIndex(columnIdentifier.getTableIdentifier());
+        return tableIndex.resolveColumn(columnIdentifier.getColumnIdentifier());
     }
 
-    private Column resolveColumn(Table table, String columnIdentifier) {
-
-        // Detect Metanome's fallback column names.
-        if (columnIdentifier.startsWith("column")) {
-            try {
-                int columnPosition = Integer.parseInt(columnIdentifier.substring(6));
-                IdUtils idUtils = this.metadataStore.getIdUtils();
-                int localSchemaId = idUtils.getLocalSchemaId(table.getId());
-                int localTableId = idUtils.getLocalTableId(table.getId());
-                int columnId = idUtils.createGlobalId(localSchemaId, localTableId, columnPosition - 1);
-                Column column = table.getColumnById(columnId);
-                if (column != null) return column;
-            } catch (NumberFormatException | NoSuchElementException e) {
-                // Pass.
-            }
-        }
-        try {
-            return table.getColumnByName(columnIdentifier);
-        } catch (NoSuchElementException e) {
-                // Pass.
-        }
-
-        throw new IllegalArgumentException(String.format("Cannot find a column named \"%s\" in %s.", columnIdentifier, table));
+    /**
+     * Resolve a {@link ColumnIdentifier} to the ID of a {@link Column}.
+     *
+     * @throws IllegalArgumentException if the {@link Column} could not be found
+     */
+    public int resolveColumnId(ColumnIdentifier columnIdentifier) throws IllegalArgumentException {
+        return this.resolveColumn(columnIdentifier).getId();
     }
 
     /**
@@ -77,19 +80,79 @@ public class IdentifierResolver {
      * @throws IllegalArgumentException if the {@link Table} could not be found
      */
     public Table resolveTable(String tableIdentifier) throws IllegalArgumentException {
+        return this.resolveTableIndex(tableIdentifier).table;
+    }
+
+    private TableIndex resolveTableIndex(String tableIdentifier) throws IllegalArgumentException {
         // Try to resolve the table name immediately.
-        Table table = this.schema.getTableByName(tableIdentifier);
-        if (table != null) return table;
+        TableIndex tableIndex = this.lookUpTableIndex(tableIdentifier);
+        if (tableIndex != null) return tableIndex;
 
         // Try to strip of any file extension comprised in the table name.
         int extensionIndex = tableIdentifier.lastIndexOf('.');
         if (extensionIndex != -1) {
             String trimmedTableIdentifier = tableIdentifier.substring(0, extensionIndex);
-            table = this.schema.getTableByName(trimmedTableIdentifier);
-            if (table != null) return table;
+            tableIndex = this.lookUpTableIndex(trimmedTableIdentifier);
+            if (tableIndex != null) return tableIndex;
         }
 
         throw new IllegalArgumentException(String.format("Cannot find a table named \"%s\".", tableIdentifier));
     }
 
+    private TableIndex lookUpTableIndex(String tableName) throws NameAmbigousException {
+        TableIndex tableIndex = this.tableIndices.get(tableName);
+        if (tableIndex == null && this.tableIndices.containsKey(tableName)) {
+            throw new NameAmbigousException(tableName);
+        }
+        return tableIndex;
+    }
+
+    /**
+     * Indexes the {@link Column}s of a {@link Table}.
+     */
+    private class TableIndex {
+
+        private final Table table;
+
+        /**
+         * Ambiguous names are mapped to {@code null}.
+         */
+        private final Map<String, Column> columnsByName = new HashMap<>();
+
+        private final Int2ObjectMap<Column> columnsById = new Int2ObjectOpenHashMap<>();
+
+        private TableIndex(Table table) {
+            this.table = table;
+            for (Column column : table.getColumns()) {
+                this.columnsById.put(column.getId(), column);
+                this.columnsByName.put(column.getName(), this.columnsByName.containsKey(column.getName()) ? null : column);
+            }
+        }
+
+        private Column resolveColumn(String columnIdentifier) {
+
+            // Detect Metanome's fallback column names.
+            if (columnIdentifier.startsWith("column")) {
+                try {
+                    int columnPosition = Integer.parseInt(columnIdentifier.substring(6));
+                    IdUtils idUtils = IdentifierResolver.this.metadataStore.getIdUtils();
+                    int localSchemaId = idUtils.getLocalSchemaId(this.table.getId());
+                    int localTableId = idUtils.getLocalTableId(this.table.getId());
+                    int columnId = idUtils.createGlobalId(localSchemaId, localTableId, columnPosition - 1);
+                    Column column = this.columnsById.get(columnId);
+                    if (column != null) return column;
+                } catch (NumberFormatException | NoSuchElementException e) {
+                    // Pass.
+                }
+            }
+            Column column = this.columnsByName.get(columnIdentifier);
+            if (column != null) return column;
+            if (this.columnsByName.containsKey(columnIdentifier)) {
+                throw new NameAmbigousException(columnIdentifier);
+            }
+
+            throw new IllegalArgumentException(String.format("Cannot find a column named \"%s\" in %s.", columnIdentifier, this.table));
+        }
+    }
+
 }
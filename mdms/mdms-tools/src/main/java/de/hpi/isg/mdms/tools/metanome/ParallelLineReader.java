@@ -0,0 +1,111 @@
+package de.hpi.isg.mdms.tools.metanome;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Processes the lines of a result file in parallel. The lines are read sequentially and grouped into chunks, which
+ * are then processed by a pool of worker threads. The number of chunks in flight is bounded, so that reading is
+ * pipelined with the processing and the memory footprint stays constant even for very large files.
+ */
+public class ParallelLineReader {
+
+    /**
+     * Default number of lines per chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 10000;
+
+    private final int chunkSize;
+
+    private final int parallelism;
+
+    /**
+     * Creates a new instance with {@link #DEFAULT_CHUNK_SIZE} and one worker thread per available processor.
+     */
+    public ParallelLineReader() {
+        this(DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param chunkSize   the number of lines per chunk
+     * @param parallelism the number of worker threads
+     */
+    public ParallelLineReader(int chunkSize, int parallelism) {
+        if (chunkSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Chunk size and parallelism must be positive.");
+        }
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Process the remaining lines of the given {@link BufferedReader}. The order in which the lines are processed is
+     * not defined.
+     *
+     * @param reader        provides the lines
+     * @param lineProcessor processes each line; must be thread-safe
+     * @throws IOException if the lines could not be read
+     */
+    public void process(BufferedReader reader, Consumer<String> lineProcessor) throws IOException {
+        if (this.parallelism == 1) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineProcessor.accept(line);
+            }
+            return;
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(this.parallelism);
+        final int maxChunksInFlight = 2 * this.parallelism;
+        final Queue<Future<?>> chunksInFlight = new ArrayDeque<>(maxChunksInFlight);
+        try {
+            List<String> chunk = new ArrayList<>(this.chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                chunk.add(line);
+                if (chunk.size() >= this.chunkSize) {
+                    if (chunksInFlight.size() >= maxChunksInFlight) {
+                        awaitCompletion(chunksInFlight.poll());
+                    }
+                    chunksInFlight.add(submit(executorService, chunk, lineProcessor));
+                    chunk = new ArrayList<>(this.chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunksInFlight.add(submit(executorService, chunk, lineProcessor));
+            }
+            while (!chunksInFlight.isEmpty()) {
+                awaitCompletion(chunksInFlight.poll());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static Future<?> submit(ExecutorService executorService, List<String> chunk, Consumer<String> lineProcessor) {
+        return executorService.submit(() -> chunk.forEach(lineProcessor));
+    }
+
+    private static void awaitCompletion(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while processing lines.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new RuntimeException("Could not process lines.", e.getCause());
+        }
+    }
+}
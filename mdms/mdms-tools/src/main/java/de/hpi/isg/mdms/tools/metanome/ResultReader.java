@@ -19,4 +19,13 @@ public interface ResultReader {
      */
     void readAndLoad(File file, DependencyResultReceiver<?> resultReceiver) throws IOException;
 
+    /**
+     * Set the number of threads that parse the result files. Implementations that cannot parse in parallel may
+     * ignore this setting.
+     *
+     * @param parallelism the number of threads
+     */
+    default void setParallelism(int parallelism) {
+    }
+
 }
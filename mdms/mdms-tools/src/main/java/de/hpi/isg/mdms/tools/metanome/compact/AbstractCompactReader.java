@@ -2,10 +2,12 @@ package de.hpi.isg.mdms.tools.metanome.compact;
 
 import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
 import de.hpi.isg.mdms.tools.metanome.DependencyResultReceiver;
+import de.hpi.isg.mdms.tools.metanome.ParallelLineReader;
 import de.hpi.isg.mdms.tools.metanome.ResultReader;
 import de.metanome.algorithm_integration.ColumnCombination;
 import de.metanome.algorithm_integration.ColumnIdentifier;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.nio.file.Files;
 import java.util.Arrays;
@@ -27,6 +29,12 @@ abstract public class AbstractCompactReader<T> implements ResultReader {
 
     protected static final String MAPPING_SEPARATOR = "\t";
 
+    /**
+     * Parses the result lines in parallel, so {@link #processLine(String, DependencyResultReceiver)} must be
+     * thread-safe for them.
+     */
+    protected ParallelLineReader lineReader = new ParallelLineReader();
+
     protected static ColumnCombination toColumnCombination(Map<String, String> tableMapping,
                                                            Map<String, String> columnMapping, String line) {
         if (line.equals(""))
@@ -57,11 +65,22 @@ abstract public class AbstractCompactReader<T> implements ResultReader {
         return new ColumnIdentifier(tableName, columnName);
     }
 
+    @Override
+    public void setParallelism(int parallelism) {
+        this.lineReader = new ParallelLineReader(ParallelLineReader.DEFAULT_CHUNK_SIZE, parallelism);
+    }
+
     @Override
     public void readAndLoad(final File resultFile, final DependencyResultReceiver<?> resultReceiver) {
         if (resultFile.exists()) {
-            try {
-                Files.lines(resultFile.toPath()).forEach(line -> this.processLine(line, resultReceiver));
+            try (BufferedReader reader = Files.newBufferedReader(resultFile.toPath())) {
+                // The mappings in the header must be processed sequentially before the results.
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    this.processLine(line, resultReceiver);
+                    if (line.startsWith(RESULT_MARKER)) break;
+                }
+                this.lineReader.process(reader, resultLine -> this.processLine(resultLine, resultReceiver));
             } catch (Exception e) {
                 throw new RuntimeException("Could not parse " + resultFile, e);
             }
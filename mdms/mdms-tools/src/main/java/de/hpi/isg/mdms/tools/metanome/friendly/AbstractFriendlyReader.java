@@ -1,12 +1,14 @@
 package de.hpi.isg.mdms.tools.metanome.friendly;
 
 import de.hpi.isg.mdms.tools.metanome.DependencyResultReceiver;
+import de.hpi.isg.mdms.tools.metanome.ParallelLineReader;
 import de.hpi.isg.mdms.tools.metanome.ResultReader;
 import de.metanome.algorithm_integration.ColumnCombination;
 import de.metanome.algorithm_integration.ColumnIdentifier;
 import de.metanome.algorithm_integration.ColumnPermutation;
 import de.metanome.backend.result_receiver.ResultReceiver;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.nio.file.Files;
 import java.util.Arrays;
@@ -18,6 +20,12 @@ import java.util.stream.Collectors;
  */
 public abstract class AbstractFriendlyReader<T> implements ResultReader {
 
+    /**
+     * Parses the lines of the result files in parallel, so {@link #processLine(String, DependencyResultReceiver)}
+     * must be thread-safe.
+     */
+    protected ParallelLineReader lineReader = new ParallelLineReader();
+
     protected static ColumnCombination toColumnCombination(String line) {
         if (line.equals(""))
             return new ColumnCombination(); // Note: This is the empty set!
@@ -38,11 +46,16 @@ public abstract class AbstractFriendlyReader<T> implements ResultReader {
         return new ColumnIdentifier(line.substring(0, separatorPos), line.substring(separatorPos + 1));
     }
 
+    @Override
+    public void setParallelism(int parallelism) {
+        this.lineReader = new ParallelLineReader(ParallelLineReader.DEFAULT_CHUNK_SIZE, parallelism);
+    }
+
     @Override
     public void readAndLoad(final File resultFile, final DependencyResultReceiver<?> resultReceiver) {
         if (resultFile.exists()) {
-            try {
-                Files.lines(resultFile.toPath()).forEach(line -> this.processLine(line, resultReceiver));
+            try (BufferedReader reader = Files.newBufferedReader(resultFile.toPath())) {
+                this.lineReader.process(reader, line -> this.processLine(line, resultReceiver));
             } catch (Exception e) {
                 throw new RuntimeException("Could not parse " + resultFile, e);
             }
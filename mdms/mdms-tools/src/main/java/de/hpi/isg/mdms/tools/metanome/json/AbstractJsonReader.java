@@ -1,10 +1,12 @@
 package de.hpi.isg.mdms.tools.metanome.json;
 
 import de.hpi.isg.mdms.tools.metanome.DependencyResultReceiver;
+import de.hpi.isg.mdms.tools.metanome.ParallelLineReader;
 import de.hpi.isg.mdms.tools.metanome.ResultReader;
 import de.metanome.algorithm_integration.result_receiver.CouldNotReceiveResultException;
 import de.metanome.algorithm_integration.results.JsonConverter;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -16,11 +18,22 @@ public abstract class AbstractJsonReader<MetanomeType> implements ResultReader {
 
     protected final JsonConverter<MetanomeType> jsonConverter = new JsonConverter<>();
 
+    /**
+     * Parses the lines of the result files in parallel, so {@link #processLine(String, DependencyResultReceiver)}
+     * must be thread-safe.
+     */
+    protected ParallelLineReader lineReader = new ParallelLineReader();
+
+    @Override
+    public void setParallelism(int parallelism) {
+        this.lineReader = new ParallelLineReader(ParallelLineReader.DEFAULT_CHUNK_SIZE, parallelism);
+    }
+
     @Override
     public void readAndLoad(final File resultFile, final DependencyResultReceiver<?> resultReceiver) {
         if (resultFile.exists()) {
-            try {
-                Files.lines(resultFile.toPath()).forEach(line -> this.processLine(line, resultReceiver));
+            try (BufferedReader reader = Files.newBufferedReader(resultFile.toPath())) {
+                this.lineReader.process(reader, line -> this.processLine(line, resultReceiver));
             } catch (Exception e) {
                 throw new RuntimeException("Could not parse " + resultFile, e);
             }
@@ -135,6 +135,41 @@ public class ConstraintInsertPerfomanceBenchmark {
         LOGGER.info("File size: {} MB", metadataStoreFile.length() / (1024 * 1024));
     }
 
+    @Test
+    public void testBulkInsertDistinctValueCountsIntoRDBMSMetadataStore() throws Exception {
+
+        LOGGER.info("Creating RDBMS metadata store...");
+        File metadataStoreFile = createTempFile("sqlite");
+        MetadataStore metadataStore = RDBMSMetadataStore.createNewInstance(SQLiteInterface.createForFile(metadataStoreFile));
+
+        LOGGER.info("Creating schema...");
+        int numTables = 1000;
+        int numColumnsPerTable = 100;
+        int numColumns = numTables * numColumnsPerTable;
+        Schema schema = createSchema(metadataStore, numTables, numColumnsPerTable);
+
+        LOGGER.info("Creating {} distinct value counts...", numColumns);
+        List<DistinctValueCount> distinctValueCounts = new ArrayList<>();
+        for (Table table : schema.getTables()) {
+            for (Column column : table.getColumns()) {
+                distinctValueCounts.add(new DistinctValueCount(column.getId(), 100));
+            }
+        }
+        LOGGER.info("Bulk-inserting {} distinct value counts...", numColumns);
+        long startTimeGross = System.currentTimeMillis();
+        ConstraintCollection<DistinctValueCount> constraintCollection = metadataStore.createConstraintCollection(null, DistinctValueCount.class);
+        long startTimeNet = System.currentTimeMillis();
+        constraintCollection.addAll(distinctValueCounts);
+        long endTimeNet = System.currentTimeMillis();
+        metadataStore.flush();
+        long endTimeGross = System.currentTimeMillis();
+        double numInsertsPerSecGross = 1000d * numColumns / (endTimeGross - startTimeGross);
+        double numInsertsPerSecNet = 1000d * numColumns / (endTimeNet - startTimeNet);
+        LOGGER.info("[gross] Inserted in {} ms ({} inserts/s)", endTimeGross - startTimeGross, numInsertsPerSecGross);
+        LOGGER.info("[net]   Inserted in {} ms ({} inserts/s)", endTimeNet - startTimeNet, numInsertsPerSecNet);
+        LOGGER.info("File size: {} MB", metadataStoreFile.length() / (1024 * 1024));
+    }
+
     @Test
     public void testInsertInclusionDependenciesIntoDefaultMetadataStore() throws Exception {
 
@@ -0,0 +1,97 @@
+package de.hpi.isg.mdms.tools.metanome;
+
+import de.hpi.isg.mdms.domain.constraints.InclusionDependency;
+import de.hpi.isg.mdms.model.DefaultMetadataStore;
+import de.hpi.isg.mdms.model.location.DefaultLocation;
+import de.hpi.isg.mdms.model.targets.Schema;
+import de.hpi.isg.mdms.model.targets.Table;
+import de.hpi.isg.mdms.model.targets.Target;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import de.metanome.algorithm_integration.ColumnPermutation;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Test suite for the {@link DependencyResultReceiver}.
+ */
+public class DependencyResultReceiverTest {
+
+    private static final int NUM_COLUMNS = 150;
+
+    private DefaultMetadataStore metadataStore;
+
+    private Schema schema;
+
+    @Before
+    public void setUp() {
+        this.metadataStore = new DefaultMetadataStore();
+        this.schema = this.metadataStore.addSchema("schema", "", new DefaultLocation());
+        Table table = this.schema.addTable(this.metadataStore, "table", "", new DefaultLocation());
+        for (int i = 0; i < NUM_COLUMNS; i++) {
+            table.addColumn(this.metadataStore, "column_" + i, "", i);
+        }
+    }
+
+    @Test
+    public void testParallelAndSequentialImportAreEquivalent() throws Exception {
+        // Create all unary INDs among the columns, which requires several batches to be inserted.
+        File resultFile = File.createTempFile("inds", ".txt");
+        resultFile.deleteOnExit();
+        try (BufferedWriter writer = Files.newBufferedWriter(resultFile.toPath())) {
+            for (int dep = 0; dep < NUM_COLUMNS; dep++) {
+                for (int ref = 0; ref < NUM_COLUMNS; ref++) {
+                    if (dep == ref) continue;
+                    writer.write(String.format("[table.csv.column_%d] c [table.csv.column_%d]", dep, ref));
+                    writer.newLine();
+                }
+            }
+        }
+
+        Set<InclusionDependency> sequentialInds = this.importInds(resultFile, 1);
+        Set<InclusionDependency> parallelInds = this.importInds(resultFile, 4);
+
+        Assert.assertEquals(NUM_COLUMNS * (NUM_COLUMNS - 1), sequentialInds.size());
+        Assert.assertEquals(sequentialInds, parallelInds);
+    }
+
+    private Set<InclusionDependency> importInds(File resultFile, int parallelism) throws Exception {
+        DependencyResultReceiver<InclusionDependency> resultReceiver = this.createResultReceiver("INDs " + parallelism);
+        ResultReader resultReader = new de.hpi.isg.mdms.tools.metanome.friendly.InclusionDependencyReader();
+        resultReader.setParallelism(parallelism);
+        resultReader.readAndLoad(resultFile, resultReceiver);
+        resultReceiver.close();
+        return new HashSet<>(resultReceiver.getConstraintCollection().getConstraints());
+    }
+
+    @Test
+    public void testUnknownColumnIsRejected() throws Exception {
+        DependencyResultReceiver<InclusionDependency> resultReceiver = this.createResultReceiver("INDs");
+        try {
+            resultReceiver.receiveResult(new de.metanome.algorithm_integration.results.InclusionDependency(
+                    new ColumnPermutation(new ColumnIdentifier("table.csv", "column_0")),
+                    new ColumnPermutation(new ColumnIdentifier("table.csv", "column_x"))
+            ));
+            Assert.fail("The unknown column should have been rejected.");
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+        resultReceiver.close();
+        Assert.assertTrue(resultReceiver.getConstraintCollection().getConstraints().isEmpty());
+    }
+
+    private DependencyResultReceiver<InclusionDependency> createResultReceiver(String description) {
+        return new DependencyResultReceiver<>(
+                this.metadataStore, this.schema, Collections.<Target>singleton(this.schema),
+                InclusionDependency.class, description
+        );
+    }
+
+}
@@ -0,0 +1,82 @@
+package de.hpi.isg.mdms.tools.metanome;
+
+import de.hpi.isg.mdms.exceptions.NameAmbigousException;
+import de.hpi.isg.mdms.model.DefaultMetadataStore;
+import de.hpi.isg.mdms.model.location.DefaultLocation;
+import de.hpi.isg.mdms.model.targets.Column;
+import de.hpi.isg.mdms.model.targets.Schema;
+import de.hpi.isg.mdms.model.targets.Table;
+import de.metanome.algorithm_integration.ColumnIdentifier;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test suite for the {@link IdentifierResolver}.
+ */
+public class IdentifierResolverTest {
+
+    private Table bioentry, astronomical;
+
+    private Column bioentry0, bioentry1, astronomicalName, astronomicalIau;
+
+    private IdentifierResolver identifierResolver;
+
+    @Before
+    public void setUp() {
+        DefaultMetadataStore metadataStore = new DefaultMetadataStore();
+        Schema schema = metadataStore.addSchema("SG", "", new DefaultLocation());
+        this.bioentry = schema.addTable(metadataStore, "SG_BIOENTRY", "", new DefaultLocation());
+        this.bioentry0 = this.bioentry.addColumn(metadataStore, "[0]", "", 0); // MDMS style
+        this.bioentry1 = this.bioentry.addColumn(metadataStore, "[1]", "", 1);
+        this.astronomical = schema.addTable(metadataStore, "WDC_astronomical.csv", "", new DefaultLocation());
+        this.astronomicalName = this.astronomical.addColumn(metadataStore, "Name", "", 0);
+        this.astronomicalIau = this.astronomical.addColumn(metadataStore, "IAU abbreviation", "", 1);
+        this.astronomical.addColumn(metadataStore, "Symbol", "", 2);
+        this.astronomical.addColumn(metadataStore, "Symbol", "", 3);
+        this.identifierResolver = new IdentifierResolver(metadataStore, schema);
+    }
+
+    @Test
+    public void testResolveQualifiedTableNames() {
+        Assert.assertEquals(this.bioentry, this.identifierResolver.resolveTable("SG_BIOENTRY"));
+        Assert.assertEquals(this.bioentry, this.identifierResolver.resolveTable("SG_BIOENTRY.csv"));
+        Assert.assertEquals(this.astronomical, this.identifierResolver.resolveTable("WDC_astronomical.csv"));
+        Assert.assertEquals(this.astronomicalName,
+                this.identifierResolver.resolveColumn(new ColumnIdentifier("WDC_astronomical.csv", "Name")));
+    }
+
+    @Test
+    public void testResolveQuotedColumnNames() {
+        Assert.assertEquals(this.bioentry0,
+                this.identifierResolver.resolveColumn(new ColumnIdentifier("SG_BIOENTRY.csv", "[0]")));
+        Assert.assertEquals(this.bioentry1.getId(),
+                this.identifierResolver.resolveColumnId(new ColumnIdentifier("SG_BIOENTRY.csv", "[1]")));
+        Assert.assertEquals(this.astronomicalIau,
+                this.identifierResolver.resolveColumn(new ColumnIdentifier("WDC_astronomical.csv", "IAU abbreviation")));
+    }
+
+    @Test
+    public void testResolveFallbackColumnNames() {
+        Assert.assertEquals(this.bioentry1,
+                this.identifierResolver.resolveColumn(new ColumnIdentifier("SG_BIOENTRY.csv", "column2")));
+        Assert.assertEquals(this.astronomicalName,
+                this.identifierResolver.resolveColumn(new ColumnIdentifier("WDC_astronomical.csv", "column1")));
+    }
+
+    @Test(expected = NameAmbigousException.class)
+    public void testAmbiguousColumnName() {
+        this.identifierResolver.resolveColumn(new ColumnIdentifier("WDC_astronomical.csv", "Symbol"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownColumn() {
+        this.identifierResolver.resolveColumn(new ColumnIdentifier("SG_BIOENTRY.csv", "[2]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownTable() {
+        this.identifierResolver.resolveColumn(new ColumnIdentifier("SG_TERM.csv", "[0]"));
+    }
+
+}
@@ -0,0 +1,56 @@
+package de.hpi.isg.mdms.tools.metanome;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Test suite for the {@link ParallelLineReader}.
+ */
+public class ParallelLineReaderTest {
+
+    private static final int NUM_LINES = 25001;
+
+    @Test
+    public void testParallelAndSequentialProcessingAreEquivalent() throws IOException {
+        List<String> sequentialLines = this.process(new ParallelLineReader(1000, 1));
+        List<String> parallelLines = this.process(new ParallelLineReader(1000, 4));
+
+        Assert.assertEquals(NUM_LINES, sequentialLines.size());
+        Assert.assertEquals(sequentialLines, parallelLines);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailuresArePropagated() throws IOException {
+        new ParallelLineReader(1000, 4).process(this.createReader(), line -> {
+            if (line.equals("line 12345")) throw new IllegalStateException();
+        });
+    }
+
+    /**
+     * Processes the test lines and sorts them, as the processing order is not defined.
+     */
+    private List<String> process(ParallelLineReader lineReader) throws IOException {
+        ConcurrentLinkedQueue<String> processedLines = new ConcurrentLinkedQueue<>();
+        lineReader.process(this.createReader(), processedLines::add);
+        List<String> sortedLines = new ArrayList<>(processedLines);
+        Collections.sort(sortedLines);
+        return sortedLines;
+    }
+
+    private BufferedReader createReader() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < NUM_LINES; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+        return new BufferedReader(new StringReader(sb.toString()));
+    }
+
+}
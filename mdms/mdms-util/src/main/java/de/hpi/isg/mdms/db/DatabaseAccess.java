@@ -2,10 +2,12 @@ package de.hpi.isg.mdms.db;
 
 import de.hpi.isg.mdms.db.query.DatabaseQuery;
 import de.hpi.isg.mdms.db.query.SQLQuery;
+import de.hpi.isg.mdms.db.query.SQLTableParser;
 import de.hpi.isg.mdms.db.query.StrategyBasedPreparedQuery.Factory;
 import de.hpi.isg.mdms.db.write.BatchWriter;
 import de.hpi.isg.mdms.db.write.DatabaseWriter;
 import de.hpi.isg.mdms.db.write.DependentWriter;
+import de.hpi.isg.mdms.db.write.GroupCommitter;
 import de.hpi.isg.mdms.db.write.SQLExecutor;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -16,10 +18,13 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Manages the access to a database by maintaining batch writers and ensuring all data is written before performing a
  * read.
+ * <p>Writers and flushes synchronize on this instance, so that queries may flush the tables they read from any thread,
+ * e.g., before running on a read-only connection of the {@link ReadConnectionPool}.</p>
  *
  * @author Sebastian Kruse
  */
@@ -33,19 +38,9 @@ public class DatabaseAccess implements AutoCloseable {
     private final Connection connection;
 
     /**
-     * A set of writers that operate on specific tables, usually {@link BatchWriter}s.
+     * Keeps track of the writers with pending batches, usually {@link BatchWriter}s, and their flush order.
      */
-    private Map<String, Set<DependentWriter<?>>> manipulatingWriters = new HashMap<>();
-
-    /**
-     * A set of writers that operate on specific tables, usually {@link BatchWriter}s.
-     */
-    private Map<String, Set<DependentWriter<?>>> accessingWriters = new HashMap<>();
-
-    /**
-     * Captures for each writer, which writer have to flushed before flushing this writer.
-     */
-    private Map<DependentWriter<?>, Set<DependentWriter<?>>> preceedingWriters = new HashMap<>();
+    private final WriterDependencyGraph writerGraph = new WriterDependencyGraph();
 
     /**
      * Executes plain SQL INSERT/UPDATE statements.
@@ -67,8 +62,30 @@ public class DatabaseAccess implements AutoCloseable {
      */
     private Map<String, Set<String>> foreignKeyDependencies = new HashMap<>();
 
+    /**
+     * Optionally provides further read-only connections, so that reads need not go through {@link #connection}.
+     */
+    private final ReadConnectionPool readConnectionPool;
+
+    /**
+     * Combines the batches of the writers into larger transactions or {@code null} if each batch is committed on
+     * its own.
+     */
+    private volatile GroupCommitter groupCommitter;
+
     public DatabaseAccess(Connection connection) {
+        this(connection, null);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param connection         the connection over which all writes are issued
+     * @param readConnectionPool provides further read-only connections or {@code null}
+     */
+    public DatabaseAccess(Connection connection, ReadConnectionPool readConnectionPool) {
         super();
+        this.readConnectionPool = readConnectionPool;
         try {
             Validate.isTrue(!connection.isClosed());
             connection.setAutoCommit(false);
@@ -87,7 +104,7 @@ public class DatabaseAccess implements AutoCloseable {
     /**
      * Loads the foreign keys from the RDBMS.
      */
-    public Set<String> getReferencedTables(String table) {
+    public synchronized Set<String> getReferencedTables(String table) {
         table = canonicalizeTableName(table);
         Set<String> referencedTables = this.foreignKeyDependencies.get(table);
         if (referencedTables != null) {
@@ -113,8 +130,7 @@ public class DatabaseAccess implements AutoCloseable {
             throws SQLException {
 
         TWriter writer = factory.createWriter(this);
-        notifyAccess(writer, writer.getAccessedTables());
-        notifyManipulation(writer, writer.getManipulatedTables());
+        notifyWriterAction(writer, writer.getManipulatedTables(), writer.getAccessedTables());
 
         return writer;
     }
@@ -190,30 +206,55 @@ public class DatabaseAccess implements AutoCloseable {
 //		return referencedTables;
 //	}
 
+    /**
+     * Executes a SQL query after flushing the writers on the tables that the query reads.
+     *
+     * @param sql           is the SQL query
+     * @param queriedTables are the tables read by the query; only used if they cannot be parsed from the query
+     * @return the query result
+     * @see SQLTableParser
+     */
     public ResultSet query(String sql, String... queriedTables) throws SQLException {
-        queriedTables = canonicalizeTableNames(queriedTables);
-        flush(Arrays.asList(queriedTables));
         return this.sqlQuery.execute(sql, queriedTables);
     }
 
     /**
-     * Flushes all writers.
+     * Flushes all writers and commits their batches.
      *
      * @throws java.sql.SQLException if the flushing fails for any writer.
      */
-    public void flush() throws SQLException {
-        int lastNumWriters;
-        while ((lastNumWriters = this.manipulatingWriters.size()) > 0) {
-            DependentWriter<?> anyActiveWriter = this.manipulatingWriters.values().iterator().next().iterator().next();
-            anyActiveWriter.flush();
-            if (lastNumWriters == this.manipulatingWriters.size()) {
-                LOGGER.error("Flushing {} was without effect.", anyActiveWriter);
-                LOGGER.warn("Skip flushing {}...", anyActiveWriter);
-                for (Iterator<Map.Entry<String, Set<DependentWriter<?>>>> iterator = this.manipulatingWriters.entrySet().iterator();
-                     iterator.hasNext(); ) {
-                    Map.Entry<String, Set<DependentWriter<?>>> entry = iterator.next();
-                    entry.getValue().remove(anyActiveWriter);
-                    if (entry.getValue().isEmpty()) iterator.remove();
+    public synchronized void flush() throws SQLException {
+        this.flushWriters();
+        if (this.groupCommitter != null) {
+            this.groupCommitter.commit();
+        }
+    }
+
+    /**
+     * Flushes all writers without waiting for their batches to be committed.
+     *
+     * @return a {@link CompletableFuture} that is completed when all flushed batches have been committed
+     * @throws java.sql.SQLException if the flushing fails for any writer.
+     * @see #enableGroupCommit(int, long)
+     */
+    public synchronized CompletableFuture<Void> flushAsync() throws SQLException {
+        this.flushWriters();
+        if (this.groupCommitter == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        this.groupCommitter.commitIfDue();
+        return this.groupCommitter.getPendingCommit();
+    }
+
+    private void flushWriters() throws SQLException {
+        while (!this.writerGraph.isEmpty()) {
+            for (DependentWriter<?> writer : this.writerGraph.getFlushOrder()) {
+                if (!this.writerGraph.contains(writer)) continue;
+                writer.flush();
+                if (this.writerGraph.contains(writer)) {
+                    LOGGER.error("Flushing {} was without effect.", writer);
+                    LOGGER.warn("Skip flushing {}...", writer);
+                    this.writerGraph.remove(writer);
                 }
             }
         }
@@ -226,34 +267,15 @@ public class DatabaseAccess implements AutoCloseable {
      * @param writerToFlush is the writer that is about to be flushed
      * @throws java.sql.SQLException
      */
-    public void prepareFlush(DependentWriter<?> writerToFlush) throws SQLException {
-
-        Set<DependentWriter<?>> preceedingWriters = this.preceedingWriters.get(writerToFlush);
-        if (preceedingWriters != null) {
-            for (DependentWriter<?> preceedingWriter : preceedingWriters) {
+    public synchronized void prepareFlush(DependentWriter<?> writerToFlush) throws SQLException {
+        for (DependentWriter<?> preceedingWriter : this.writerGraph.getPredecessors(writerToFlush)) {
+            if (this.writerGraph.contains(preceedingWriter)) {
                 preceedingWriter.flush();
-            }
-            this.preceedingWriters.remove(writerToFlush);
-        }
-
-        for (String accessedTable : writerToFlush.getAccessedTables()) {
-            accessedTable = canonicalizeTableName(accessedTable);
-            Set<DependentWriter<?>> accessingWriters = this.accessingWriters.get(accessedTable);
-            if (accessingWriters.size() > 1) {
-                accessingWriters.remove(writerToFlush);
-            } else {
-                this.accessingWriters.remove(accessedTable);
-            }
-        }
-        for (String manipulatedTable : writerToFlush.getManipulatedTables()) {
-            manipulatedTable = canonicalizeTableName(manipulatedTable);
-            Set<DependentWriter<?>> manipulatingWriters = this.manipulatingWriters.get(manipulatedTable);
-            if (manipulatingWriters.size() > 1) {
-                manipulatingWriters.remove(writerToFlush);
-            } else {
-                this.manipulatingWriters.remove(manipulatedTable);
+                // Writers without statement do not register their flushes.
+                this.writerGraph.remove(preceedingWriter);
             }
         }
+        this.writerGraph.remove(writerToFlush);
     }
 
     /**
@@ -262,18 +284,29 @@ public class DatabaseAccess implements AutoCloseable {
      * @param accessedTables are the tables for which writers shall be flushed.
      * @throws java.sql.SQLException if the flushing fails for any of the writers.
      */
-    public void flush(Collection<String> tables) throws SQLException {
+    public synchronized void flush(Collection<String> tables) throws SQLException {
+        Collection<String> canonicalTables = new ArrayList<>(tables.size());
         for (String table : tables) {
-            table = canonicalizeTableName(table);
-            Collection<DependentWriter<?>> writers = this.manipulatingWriters.get(table);
-            if (writers == null) {
-                continue;
+            canonicalTables.add(canonicalizeTableName(table));
+        }
+        Collection<DependentWriter<?>> writers = this.writerGraph.getManipulatingWriters(canonicalTables);
+        if (!writers.isEmpty()) {
+            LOGGER.debug("Flushing modifications on {}...", canonicalTables);
+            for (DependentWriter<?> writer : writers) {
+                // The writer might have been flushed as predecessor of another writer.
+                if (this.writerGraph.contains(writer)) {
+                    writer.flush();
+                }
             }
-            LOGGER.debug("Flushing modifications on {}...", table);
-            for (DependentWriter<?> writer : new ArrayList<>(writers)) {
-                writer.flush();
+            LOGGER.debug("...done flushing! (on {})", canonicalTables);
+        }
+        if (this.groupCommitter != null) {
+            // Read-only connections only see committed data. Otherwise, take the chance to commit on this thread.
+            if (this.readConnectionPool != null) {
+                this.groupCommitter.commit();
+            } else {
+                this.groupCommitter.commitIfDue();
             }
-            LOGGER.debug("...done flushing! (on {})", table);
         }
     }
 
@@ -282,22 +315,22 @@ public class DatabaseAccess implements AutoCloseable {
      *
      * @throws java.sql.SQLException if the flushing or closing fails
      */
-    public void close() throws SQLException {
+    public synchronized void close() throws SQLException {
         try {
             flush();
         } finally {
             tryToClose(this.sqlExecutor);
+            tryToClose(this.readConnectionPool);
             tryToClose(this.sqlQuery);
-            for (Set<DependentWriter<?>> writers : this.accessingWriters.values()) {
-                for (DependentWriter<?> writer : writers) {
-                    tryToClose(writer);
-                }
+            for (DependentWriter<?> writer : this.writerGraph.getFlushOrder()) {
+                tryToClose(writer);
+                this.writerGraph.remove(writer);
             }
-            accessingWriters.clear();
             for (DatabaseQuery<?> query : this.queries) {
                 tryToClose(query);
             }
             this.queries.clear();
+            tryToClose(this.groupCommitter);
             this.connection.close();
         }
     }
@@ -323,192 +356,111 @@ public class DatabaseAccess implements AutoCloseable {
         return this.connection;
     }
 
-    public <TElement> DatabaseQuery<TElement> createQuery(Factory<TElement> locationQueryFactory) {
-        return locationQueryFactory.createQuery(this);
+    /**
+     * @return the {@link ReadConnectionPool} of this instance or {@code null} if none
+     */
+    public ReadConnectionPool getReadConnectionPool() {
+        return this.readConnectionPool;
     }
 
-    public void notifyWriterAction(DependentWriter<?> writer, Collection<String> manipulatedTables,
-                                   Collection<String> accessedTables) {
-
-        if (accessedTables.isEmpty() && manipulatedTables.isEmpty()) {
-            return;
-        }
-
-        // Step 1: Find which old operations must be done before this access.
-        Set<DependentWriter<?>> newPreceedingWriters = new HashSet<>();
-        Set<DependentWriter<?>> knownPreceedingWriters = this.preceedingWriters.get(writer);
-        for (String accessedTable : accessedTables) {
-            // Find out if this is a new access.
-            accessedTable = canonicalizeTableName(accessedTable);
-            Set<DependentWriter<?>> accessingWriters = this.accessingWriters.get(accessedTable);
-            if (accessingWriters == null || accessingWriters.contains(writer)) {
-                continue;
-            }
-
-            // Find out if any writer manipulates that field.
-            Set<DependentWriter<?>> manipulatingWriters = this.manipulatingWriters.get(accessedTable);
-            if (manipulatingWriters == null) {
-                continue;
-            }
-            for (DependentWriter<?> manipulatingWriter : manipulatingWriters) {
-                if (knownPreceedingWriters == null || !knownPreceedingWriters.contains(manipulatingWriter)) {
-                    newPreceedingWriters.add(manipulatingWriter);
-                }
-            }
-        }
-
-        // Step 2: See if new preceeding writers were already preceeded by this writer.
-        for (DependentWriter<?> newPreceedingWriter : newPreceedingWriters) {
-            // Reformulation: We have a new edge stating "manipulatingWriter preceeds writer".
-            // As the graph was acyclic, new cycles must involve the new edge.
-            // Thus, we want to find any path stating "writer preceeds manipulatingWriter".
-            Collection<List<DependentWriter<?>>> predecessorPaths = searchIsPreceededPaths(newPreceedingWriter, writer);
-
-            // If there are cycles, we need to break those up. The lowest-impact solution would be
-            // to flush the writer that preceeds the other writers anyway, i.e., is preceeded by this writer
-            // i.e., the second-to-last writer in any circle.
-            if (!predecessorPaths.isEmpty()) {
-                for (List<DependentWriter<?>> predecessorPath : predecessorPaths) {
-                    LOGGER.debug("Cycle detected: {}.", predecessorPath);
-                    DependentWriter<?> writerToFlush = predecessorPath.get(predecessorPath.size() - 2);
-                    try {
-                        writerToFlush.flush();
-                        ;
-                    } catch (SQLException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            }
+    /**
+     * Provides a read-only connection for a query whose tables have been {@link #flush(Collection) flushed}. The
+     * {@link ReadConnectionPool} is expected to be disabled unless readers do not block the writer (e.g., SQLite in
+     * WAL mode). As read-only connections see only committed data, none is provided while the
+     * {@link #getConnection() connection} holds uncommitted writes.
+     *
+     * @return a connection that must be released to the {@link #getReadConnectionPool() ReadConnectionPool} or
+     * {@code null} if the query should run on the {@link #getConnection() connection}
+     * @throws SQLException if a new connection could not be created
+     */
+    public Connection tryAcquireReadConnection() throws SQLException {
+        if (this.readConnectionPool == null || this.hasUncommittedWrites()) {
+            return null;
         }
-
-        notifyManipulation(writer, manipulatedTables);
-        notifyAccess(writer, accessedTables);
+        return this.readConnectionPool.tryAcquire();
     }
 
     /**
-     * Tell that a writer received a request to manipulate a certain table.
+     * Tells whether flushed batches are still uncommitted. Without a {@link GroupCommitter}, writers commit their
+     * batches when being flushed.
      *
-     * @param writer            is the writer that manipulates the table
-     * @param manipulatedTables are the tables to manipulate
+     * @return whether the {@link #getConnection() connection} holds uncommitted writes
      */
-    private void notifyManipulation(DependentWriter<?> writer, Collection<String> manipulatedTables) {
-        if (manipulatedTables.isEmpty()) {
-            return;
-        }
-
-        for (String manipulatedTable : manipulatedTables) {
-            manipulatedTable = canonicalizeTableName(manipulatedTable);
-            // In general, we assume that a manipulation does not effect accesses, which is of course not always true.
-            // Therefore, we still need to consider SQL interdependencies in the code.
-
-            // Thus, it suffices to mark the manipulation of this writer.
-            Set<DependentWriter<?>> adjacenceSet = this.manipulatingWriters.get(manipulatedTable);
-            if (adjacenceSet == null) {
-                adjacenceSet = new HashSet<>();
-                this.manipulatingWriters.put(manipulatedTable, adjacenceSet);
-            }
-            // Verify that we actually add this writer, i.e., that we have a new manipulated table.
-            if (adjacenceSet.add(writer)) {
-                LOGGER.trace("Manipulation: {} by {}", manipulatedTable, writer);
-            }
-            // In this case, we have new "edges" in the data-dependency graph and need to check for cycles.
-            // Check for cycles starting with these edges.
-        }
+    private boolean hasUncommittedWrites() {
+        GroupCommitter groupCommitter = this.groupCommitter;
+        return groupCommitter != null && groupCommitter.getNumPendingStatements() > 0;
     }
 
     /**
-     * Tell that a writer wants to access a table.
+     * Lets the writers of this instance commit their batches in groups rather than individually. Explicit
+     * {@link #flush()}es still commit right away. Latency-triggered commits take place when writers submit batches,
+     * when this instance is flushed (e.g., before a query), or in the background while the writers and flushes are
+     * idle, as they synchronize on this instance.
      *
-     * @param writer         is the writer that wants to perform the access
-     * @param accessedTables are the tables to be accessed
+     * @param maxPendingStatements is the number of uncommitted statements that triggers a commit
+     * @param maxLatencyMillis     is the maximum time in milliseconds that a batch may stay uncommitted
+     * @see GroupCommitter
      */
-    // TODO
-    private void notifyAccess(DependentWriter<?> writer, Collection<String> accessedTables) {
-        if (accessedTables.isEmpty()) {
-            return;
-        }
-
-        Set<DependentWriter<?>> preceedingWriters = null;
-        for (String accessedTable : accessedTables) {
-            accessedTable = canonicalizeTableName(accessedTable);
-            // Find out if this is a new access.
-            Set<DependentWriter<?>> adjacenceSet = this.accessingWriters.get(accessedTable);
-            if (adjacenceSet == null) {
-                adjacenceSet = new HashSet<>();
-                this.accessingWriters.put(accessedTable, adjacenceSet);
-            }
-            if (adjacenceSet.add(writer)) {
-                LOGGER.trace("Access: {} by {}", accessedTables, writer);
-            }
-
-            // In this case, we have new "edges" in the data-dependency graph.
-            Set<DependentWriter<?>> manipulatingWriters = this.manipulatingWriters.get(accessedTable);
-            if (manipulatingWriters != null) {
-                for (DependentWriter<?> manipulatingWriter : manipulatingWriters) {
-                    // Reflexive manipulation relationships are allowed, since batches maintain the order of their
-                    // queries.
-                    // Hence, we do not add them in the first place to the flush-order graph.
-                    if (manipulatingWriter == writer) {
-                        continue;
-                    }
-                    // Lazy-initialize preceeding writers.
-                    if (preceedingWriters == null) {
-                        preceedingWriters = this.preceedingWriters.get(writer);
-                        if (preceedingWriters == null) {
-                            preceedingWriters = new HashSet<>();
-                            this.preceedingWriters.put(writer, preceedingWriters);
-                        }
-                    }
-                    if (preceedingWriters.add(manipulatingWriter)) {
-                        LOGGER.trace("Preceed: {} must preceed {}.", manipulatingWriter, writer);
-                    }
-                }
-            }
-        }
+    public void enableGroupCommit(int maxPendingStatements, long maxLatencyMillis) {
+        Validate.isTrue(this.groupCommitter == null, "Group commit is already enabled.");
+        this.groupCommitter = new GroupCommitter(this.connection, maxPendingStatements, maxLatencyMillis, this);
     }
 
     /**
-     * Searches any path between the given writers, following the relationship "a is predecessor of b".
-     *
-     * @param startWriter  is the start point of the search
-     * @param targetWriter is the end point of the search
-     * @return all shortest paths
+     * @return the {@link GroupCommitter} of this instance or {@code null} if group commit is not enabled
      */
-    private Collection<List<DependentWriter<?>>> searchIsPreceededPaths(DependentWriter<?> startWriter, DependentWriter<?> targetWriter) {
-        Collection<List<DependentWriter<?>>> paths = new LinkedList<>();
-        LinkedList<DependentWriter<?>> visitedNodes = new LinkedList<>();
-        searchPaths(startWriter, targetWriter, visitedNodes, paths);
-        return paths;
+    public GroupCommitter getGroupCommitter() {
+        return this.groupCommitter;
+    }
+
+    public <TElement> DatabaseQuery<TElement> createQuery(Factory<TElement> locationQueryFactory) {
+        return locationQueryFactory.createQuery(this);
     }
 
     /**
-     * Recursively executed auxillary method to search paths between two nodes.
+     * Tell that a writer is about to add manipulations of and accesses to certain tables to its batch.
      *
-     * @param startWriter  is the currently investigated node to expand
-     * @param targetWriter is the target node of the search
-     * @param visitedNodes is the path that has been taken until the currently explored node
-     * @param paths        collects newly found paths to the target node
+     * @param writer            is the writer
+     * @param manipulatedTables are the tables to be manipulated
+     * @param accessedTables    are the tables to be accessed
      */
-    private void searchPaths(DependentWriter<?> startWriter, DependentWriter<?> targetWriter,
-                             LinkedList<DependentWriter<?>> visitedNodes,
-                             Collection<List<DependentWriter<?>>> paths) {
-
-        Set<DependentWriter<?>> preceedingWriters = this.preceedingWriters.get(startWriter);
-        if (preceedingWriters != null) {
-            visitedNodes.add(startWriter);
-            for (DependentWriter<?> preceedingWriter : preceedingWriters) {
-                if (preceedingWriter == targetWriter) {
-                    visitedNodes.add(preceedingWriter);
-                    paths.add(new ArrayList<>(visitedNodes));
-                    visitedNodes.removeLast();
-                } else if (!visitedNodes.contains(preceedingWriter)) {
-                    searchPaths(preceedingWriter, targetWriter, visitedNodes, paths);
+    public synchronized void notifyWriterAction(DependentWriter<?> writer, Collection<String> manipulatedTables,
+                                                Collection<String> accessedTables) {
+
+        if (accessedTables.isEmpty() && manipulatedTables.isEmpty()) {
+            return;
+        }
+        manipulatedTables = canonicalizeTableNames(manipulatedTables);
+        accessedTables = canonicalizeTableNames(accessedTables);
+
+        // Each new predecessor of the writer must not succeed it at the same time. As the graph is acyclic, any cycle
+        // would involve the writer. The lowest-impact solution to break such cycles is to flush the writer itself,
+        // which is safe as the new element has not been added to its batch yet.
+        for (DependentWriter<?> newPreceedingWriter : this.writerGraph.getNewPredecessors(writer, accessedTables)) {
+            if (this.writerGraph.isPreceding(writer, newPreceedingWriter)) {
+                LOGGER.debug("Cycle detected: {} and {} preceed each other.", writer, newPreceedingWriter);
+                try {
+                    writer.flush();
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
                 }
+                // Writers without statement do not register their flushes.
+                this.writerGraph.remove(writer);
+                break;
             }
-            visitedNodes.removeLast();
         }
 
+        this.writerGraph.register(writer, manipulatedTables, accessedTables);
+    }
+
+    private Collection<String> canonicalizeTableNames(Collection<String> tableNames) {
+        Collection<String> canonicalTableNames = new ArrayList<>(tableNames.size());
+        for (String tableName : tableNames) {
+            canonicalTableNames.add(canonicalizeTableName(tableName));
+        }
+        return canonicalTableNames;
     }
+
 //  TODO Delete code snippet.
 //	public void notifyTablesClear(DependentWriter<?> writer) {
 //		LOGGER.trace("Clear manipuations and accesses {}.", writer);
@@ -0,0 +1,174 @@
+package de.hpi.isg.mdms.db;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Maintains a bounded number of read-only connections to a database, so that queries need not be serialized through
+ * the single (writing) connection of a {@link DatabaseAccess}. This is only sensible if the database supports readers
+ * that do not block the writer, e.g., SQLite in WAL mode. Readers see only committed data.
+ * <p>This class is thread-safe.</p>
+ */
+public class ReadConnectionPool implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadConnectionPool.class);
+
+    /**
+     * Creates the pooled connections.
+     */
+    private final ConnectionFactory connectionFactory;
+
+    /**
+     * The maximum number of connections maintained by this pool.
+     */
+    private final int maxConnections;
+
+    /**
+     * Connections that are currently not in use.
+     */
+    private final ConcurrentLinkedQueue<Connection> idleConnections = new ConcurrentLinkedQueue<>();
+
+    /**
+     * All connections created by this pool.
+     */
+    private final Collection<Connection> allConnections = new ArrayList<>();
+
+    private boolean isClosed = false;
+
+    /**
+     * Tells whether connections may be handed out. Disable the pool whenever readers could block the writer.
+     */
+    private volatile boolean isEnabled = true;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param connectionFactory creates read-only connections; connections should be in auto-commit mode, so that
+     *                          they always see the latest committed data
+     * @param maxConnections    the maximum number of connections to create
+     */
+    public ReadConnectionPool(ConnectionFactory connectionFactory, int maxConnections) {
+        Validate.isTrue(maxConnections > 0);
+        this.connectionFactory = connectionFactory;
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Provides an unused connection. The connection must be given back via {@link #release(Connection)}.
+     *
+     * @return an unused connection or {@code null} if all connections are in use or the pool is disabled
+     * @throws SQLException if a new connection could not be created
+     */
+    public Connection tryAcquire() throws SQLException {
+        if (!this.isEnabled) {
+            return null;
+        }
+        Connection connection = this.idleConnections.poll();
+        if (connection != null) {
+            return connection;
+        }
+        synchronized (this.allConnections) {
+            Validate.isTrue(!this.isClosed, "Pool is closed.");
+            if (this.allConnections.size() >= this.maxConnections) {
+                return null;
+            }
+            connection = this.connectionFactory.createConnection();
+            this.allConnections.add(connection);
+            LOGGER.debug("Created read connection {}/{}.", this.allConnections.size(), this.maxConnections);
+            return connection;
+        }
+    }
+
+    /**
+     * Gives back a connection obtained via {@link #tryAcquire()}.
+     *
+     * @param connection the connection to give back
+     */
+    public void release(Connection connection) {
+        this.idleConnections.add(connection);
+        if (!this.isEnabled) {
+            this.closeIdleConnections();
+        }
+    }
+
+    /**
+     * Enables or disables this pool. Disabling closes all idle connections, so that they do not hold any database
+     * resources anymore. Connections that have been handed out are closed as soon as they are released.
+     *
+     * @param isEnabled whether connections may be handed out
+     */
+    public void setEnabled(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+        if (!isEnabled) {
+            this.closeIdleConnections();
+        }
+    }
+
+    private void closeIdleConnections() {
+        synchronized (this.allConnections) {
+            Connection connection;
+            while ((connection = this.idleConnections.poll()) != null) {
+                this.allConnections.remove(connection);
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    LOGGER.warn("Could not close read connection.", e);
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.isEnabled;
+    }
+
+    /**
+     * @return the maximum number of connections maintained by this pool
+     */
+    public int getMaxConnections() {
+        return this.maxConnections;
+    }
+
+    /**
+     * Closes all connections of this pool.
+     *
+     * @throws SQLException if any connection could not be closed
+     */
+    @Override
+    public void close() throws SQLException {
+        synchronized (this.allConnections) {
+            this.isClosed = true;
+            SQLException exception = null;
+            for (Connection connection : this.allConnections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    exception = e;
+                }
+            }
+            this.allConnections.clear();
+            this.idleConnections.clear();
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * Creates database connections.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+
+        Connection createConnection() throws SQLException;
+
+    }
+
+}
@@ -0,0 +1,325 @@
+package de.hpi.isg.mdms.db;
+
+import de.hpi.isg.mdms.db.write.DependentWriter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the {@link DependentWriter}s with pending batches and the order in which they have to be flushed.
+ * Whenever a writer accesses a table that is manipulated by another writer, the latter must be flushed first. These
+ * precedences form a directed acyclic graph that is maintained incrementally. A topological order of the graph is
+ * cached and only recomputed when a new precedence contradicts it.
+ * <p>Tables names are expected to be canonicalized by the caller.</p>
+ */
+class WriterDependencyGraph {
+
+    /**
+     * The writers with pending batches.
+     */
+    private final Map<DependentWriter<?>, Node> nodes = new LinkedHashMap<>();
+
+    /**
+     * Maps tables to the writers that have pending manipulations on them.
+     */
+    private final Map<String, Set<DependentWriter<?>>> manipulatingWriters = new HashMap<>();
+
+    /**
+     * A topological order of the writers or {@code null} if it needs to be recomputed. Writers that have been removed
+     * in the meantime leave {@code null} gaps.
+     */
+    private List<DependentWriter<?>> topologicalOrder = new ArrayList<>();
+
+    /**
+     * The positions of the registered writers in {@link #topologicalOrder}.
+     */
+    private Map<DependentWriter<?>, Integer> topologicalPositions = new HashMap<>();
+
+    /**
+     * The number of {@code null} gaps in the {@link #topologicalOrder}.
+     */
+    private int numTopologicalOrderGaps = 0;
+
+    /**
+     * Determines the writers that would have to precede the given writer if it accessed the given tables, but do
+     * not do so yet.
+     *
+     * @param writer         is the writer that is about to access tables
+     * @param accessedTables are the tables to be accessed
+     * @return the new preceding writers
+     */
+    Collection<DependentWriter<?>> getNewPredecessors(DependentWriter<?> writer, Collection<String> accessedTables) {
+        Node node = this.nodes.get(writer);
+        Collection<DependentWriter<?>> newPredecessors = new LinkedHashSet<>();
+        for (String accessedTable : accessedTables) {
+            Set<DependentWriter<?>> manipulatingWriters = this.manipulatingWriters.get(accessedTable);
+            if (manipulatingWriters == null) continue;
+            for (DependentWriter<?> manipulatingWriter : manipulatingWriters) {
+                // Batches maintain the order of their statements, so writers need not precede themselves.
+                if (manipulatingWriter == writer) continue;
+                if (node == null || !node.predecessors.contains(this.nodes.get(manipulatingWriter))) {
+                    newPredecessors.add(manipulatingWriter);
+                }
+            }
+        }
+        return newPredecessors;
+    }
+
+    /**
+     * Tells whether the second writer has to be flushed after the first writer, i.e., whether there is a path
+     * from the first to the second writer.
+     *
+     * @param writer             is the potentially preceding writer
+     * @param potentialSuccessor is the potentially succeeding writer
+     * @return whether the precedence exists
+     */
+    boolean isPreceding(DependentWriter<?> writer, DependentWriter<?> potentialSuccessor) {
+        Node startNode = this.nodes.get(writer), targetNode = this.nodes.get(potentialSuccessor);
+        if (startNode == null || targetNode == null || startNode == targetNode) return false;
+
+        // A valid topological order rules out most paths right away.
+        if (this.topologicalOrder != null) {
+            Integer startPosition = this.topologicalPositions.get(writer);
+            Integer targetPosition = this.topologicalPositions.get(potentialSuccessor);
+            if (startPosition != null && targetPosition != null && targetPosition < startPosition) return false;
+        }
+
+        Set<Node> visitedNodes = new HashSet<>();
+        Deque<Node> openNodes = new ArrayDeque<>();
+        openNodes.push(startNode);
+        while (!openNodes.isEmpty()) {
+            Node node = openNodes.pop();
+            for (Node successor : node.successors) {
+                if (successor == targetNode) return true;
+                if (visitedNodes.add(successor)) openNodes.push(successor);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registers that the given writer has pending batches that manipulate and access the given tables. The caller
+     * is responsible to avoid cycles, i.e., none of the new predecessors of the writer may succeed it.
+     *
+     * @param writer            is the writer
+     * @param manipulatedTables are tables that are manipulated by the writer
+     * @param accessedTables    are tables that are accessed by the writer
+     * @see #getNewPredecessors(DependentWriter, Collection)
+     */
+    void register(DependentWriter<?> writer, Collection<String> manipulatedTables, Collection<String> accessedTables) {
+        if (manipulatedTables.isEmpty() && accessedTables.isEmpty()) return;
+
+        Node node = this.nodes.get(writer);
+        if (node == null) {
+            node = new Node(writer);
+            this.nodes.put(writer, node);
+            // A writer without precedences can go anywhere in the topological order.
+            if (this.topologicalOrder != null) {
+                this.topologicalPositions.put(writer, this.topologicalOrder.size());
+                this.topologicalOrder.add(writer);
+            }
+        }
+
+        // Add precedences from the writers that manipulate the accessed tables.
+        for (DependentWriter<?> predecessor : this.getNewPredecessors(writer, accessedTables)) {
+            Node predecessorNode = this.nodes.get(predecessor);
+            node.predecessors.add(predecessorNode);
+            predecessorNode.successors.add(node);
+            if (this.topologicalOrder != null
+                    && this.topologicalPositions.get(predecessor) > this.topologicalPositions.get(writer)) {
+                this.invalidateTopologicalOrder();
+            }
+        }
+
+        // In general, we assume that a manipulation does not affect earlier accesses, which is of course not always
+        // true. Therefore, we still need to consider SQL interdependencies in the code.
+        for (String manipulatedTable : manipulatedTables) {
+            node.manipulatedTables.add(manipulatedTable);
+            this.manipulatingWriters.computeIfAbsent(manipulatedTable, key -> new HashSet<>()).add(writer);
+        }
+    }
+
+    /**
+     * Removes a writer along with all its precedences, e.g., because it has been flushed. Because any subset of a
+     * topological order is a topological order, too, the cached order remains valid. The writer only leaves a gap in
+     * it, which is compacted once there are more gaps than writers.
+     *
+     * @param writer that should be removed
+     * @return whether the writer was registered
+     */
+    boolean remove(DependentWriter<?> writer) {
+        Node node = this.nodes.remove(writer);
+        if (node == null) return false;
+        for (Node predecessor : node.predecessors) {
+            predecessor.successors.remove(node);
+        }
+        for (Node successor : node.successors) {
+            successor.predecessors.remove(node);
+        }
+        for (String manipulatedTable : node.manipulatedTables) {
+            Set<DependentWriter<?>> writers = this.manipulatingWriters.get(manipulatedTable);
+            if (writers != null && writers.remove(writer) && writers.isEmpty()) {
+                this.manipulatingWriters.remove(manipulatedTable);
+            }
+        }
+        if (this.topologicalOrder != null) {
+            this.topologicalOrder.set(this.topologicalPositions.remove(writer), null);
+            if (++this.numTopologicalOrderGaps > this.nodes.size()) this.compactTopologicalOrder();
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the given writer has pending batches
+     */
+    boolean contains(DependentWriter<?> writer) {
+        return this.nodes.containsKey(writer);
+    }
+
+    /**
+     * @return whether no writer has pending batches
+     */
+    boolean isEmpty() {
+        return this.nodes.isEmpty();
+    }
+
+    /**
+     * @return all writers with pending batches in a valid flush order
+     */
+    List<DependentWriter<?>> getFlushOrder() {
+        List<DependentWriter<?>> flushOrder = new ArrayList<>(this.nodes.size());
+        for (DependentWriter<?> writer : this.getTopologicalOrder()) {
+            if (writer != null) flushOrder.add(writer);
+        }
+        return flushOrder;
+    }
+
+    /**
+     * Determines all writers that have to be flushed before the given writer.
+     *
+     * @param writer whose predecessors are requested
+     * @return the (transitive) predecessors of the writer in a valid flush order
+     */
+    List<DependentWriter<?>> getPredecessors(DependentWriter<?> writer) {
+        Node node = this.nodes.get(writer);
+        if (node == null || node.predecessors.isEmpty()) return Collections.emptyList();
+
+        // Collect all ancestors.
+        Set<DependentWriter<?>> ancestors = new HashSet<>();
+        Deque<Node> openNodes = new ArrayDeque<>(node.predecessors);
+        while (!openNodes.isEmpty()) {
+            Node ancestor = openNodes.pop();
+            if (ancestors.add(ancestor.writer)) openNodes.addAll(ancestor.predecessors);
+        }
+
+        List<DependentWriter<?>> predecessors = new ArrayList<>(ancestors.size());
+        if (ancestors.size() == 1) {
+            predecessors.addAll(ancestors);
+        } else {
+            for (DependentWriter<?> candidate : this.getTopologicalOrder()) {
+                if (candidate != null && ancestors.contains(candidate)) predecessors.add(candidate);
+            }
+        }
+        return predecessors;
+    }
+
+    /**
+     * @return the writers that manipulate any of the given tables
+     */
+    Collection<DependentWriter<?>> getManipulatingWriters(Collection<String> tables) {
+        Collection<DependentWriter<?>> writers = new LinkedHashSet<>();
+        for (String table : tables) {
+            Set<DependentWriter<?>> manipulatingWriters = this.manipulatingWriters.get(table);
+            if (manipulatingWriters != null) writers.addAll(manipulatingWriters);
+        }
+        return writers;
+    }
+
+    private void invalidateTopologicalOrder() {
+        this.topologicalOrder = null;
+        this.topologicalPositions = null;
+        this.numTopologicalOrderGaps = 0;
+    }
+
+    /**
+     * Removes the gaps from the {@link #topologicalOrder} and updates the {@link #topologicalPositions} accordingly.
+     */
+    private void compactTopologicalOrder() {
+        List<DependentWriter<?>> order = new ArrayList<>(this.nodes.size());
+        for (DependentWriter<?> writer : this.topologicalOrder) {
+            if (writer == null) continue;
+            this.topologicalPositions.put(writer, order.size());
+            order.add(writer);
+        }
+        this.topologicalOrder = order;
+        this.numTopologicalOrderGaps = 0;
+    }
+
+    /**
+     * Provides the cached topological order or recomputes it if necessary.
+     *
+     * @return the topological order, which may contain {@code null} gaps for writers that have been removed
+     */
+    private List<DependentWriter<?>> getTopologicalOrder() {
+        if (this.topologicalOrder == null) {
+            // Kahn's algorithm.
+            List<DependentWriter<?>> order = new ArrayList<>(this.nodes.size());
+            Map<DependentWriter<?>, Integer> positions = new HashMap<>(this.nodes.size());
+            Map<Node, Integer> numOpenPredecessors = new HashMap<>(this.nodes.size());
+            Deque<Node> readyNodes = new ArrayDeque<>();
+            for (Node node : this.nodes.values()) {
+                if (node.predecessors.isEmpty()) readyNodes.add(node);
+                else numOpenPredecessors.put(node, node.predecessors.size());
+            }
+            while (!readyNodes.isEmpty()) {
+                Node node = readyNodes.poll();
+                positions.put(node.writer, order.size());
+                order.add(node.writer);
+                for (Node successor : node.successors) {
+                    int numRemainingPredecessors = numOpenPredecessors.merge(successor, -1, Integer::sum);
+                    if (numRemainingPredecessors == 0) readyNodes.add(successor);
+                }
+            }
+            if (order.size() != this.nodes.size()) {
+                throw new IllegalStateException("Cyclic precedences among writers.");
+            }
+            this.topologicalOrder = order;
+            this.topologicalPositions = positions;
+        }
+        return this.topologicalOrder;
+    }
+
+    /**
+     * Describes a writer with pending batches within the graph.
+     */
+    private static final class Node {
+
+        private final DependentWriter<?> writer;
+
+        /**
+         * Nodes whose writers must be flushed before this node's writer.
+         */
+        private final Set<Node> predecessors = new LinkedHashSet<>();
+
+        /**
+         * Nodes whose writers must be flushed after this node's writer.
+         */
+        private final Set<Node> successors = new LinkedHashSet<>();
+
+        private final Set<String> manipulatedTables = new HashSet<>();
+
+        private Node(DependentWriter<?> writer) {
+            this.writer = writer;
+        }
+    }
+}
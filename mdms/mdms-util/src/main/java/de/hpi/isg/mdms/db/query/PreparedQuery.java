@@ -1,31 +1,55 @@
 package de.hpi.isg.mdms.db.query;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.hpi.isg.mdms.db.DatabaseAccess;
+import de.hpi.isg.mdms.db.ReadConnectionPool;
 
-
+/**
+ * A {@link DatabaseQuery} that is backed by a {@link PreparedStatement}. If the {@link DatabaseAccess} has a
+ * {@link ReadConnectionPool}, the query runs on one of its connections whenever one is available. The connection is
+ * then given back to the pool as soon as the returned {@link ResultSet} is closed, so the {@link ResultSet}s must be
+ * closed after use.
+ */
 abstract public class PreparedQuery<T> extends DatabaseQuery<T> {
     
     private static final Logger LOGGER =  LoggerFactory.getLogger(PreparedQuery.class);
 
 	private final String sql;
 	
+	/**
+	 * The statement on the writing connection of the {@link DatabaseAccess}. This is to be lazy-initialized.
+	 */
 	protected PreparedStatement preparedStatement;
 
-	private List<String> queriedTables;
+	/**
+	 * The statements on the read-only connections of the {@link ReadConnectionPool}.
+	 */
+	private final Map<Connection, PreparedStatement> readStatements = new HashMap<>();
+
+	/**
+	 * The tables that are read by the query and thus need to be flushed before its execution.
+	 */
+	private final Collection<String> queriedTables;
 	
 	public PreparedQuery(DatabaseAccess databaseAccess, String sql, String... queriedTables) {
 		super(databaseAccess);
 		this.sql = sql;
-		this.queriedTables = Arrays.asList(queriedTables);
+		this.queriedTables = SQLTableParser.resolveQueriedTables(sql, Arrays.asList(queriedTables));
 	}
 	
 	private void ensureStatementPrepared() throws SQLException {
@@ -38,8 +62,12 @@ abstract public class PreparedQuery<T> extends DatabaseQuery<T> {
 	public ResultSet execute(T element) throws SQLException {
 	    LOGGER.trace("Query issued: {} with {}", this.sql, element);
 		this.databaseAccess.flush(this.queriedTables);
+		Connection readConnection = this.databaseAccess.tryAcquireReadConnection();
+		if (readConnection != null) {
+			return this.executeOnReadConnection(element, readConnection);
+		}
 		ensureStatementPrepared();
-		setStatementParameters(element);
+		setStatementParameters(element, this.preparedStatement);
 		long startTime = System.currentTimeMillis();
 		ResultSet resultSet = this.preparedStatement.executeQuery();
 		long endTime = System.currentTimeMillis();
@@ -47,13 +75,93 @@ abstract public class PreparedQuery<T> extends DatabaseQuery<T> {
         return resultSet;
 	}
 
-	abstract protected void setStatementParameters(T element) throws SQLException;
+	/**
+	 * Executes this query on a connection from the {@link ReadConnectionPool}.
+	 *
+	 * @param element        defines the query parameters
+	 * @param readConnection has been acquired from the {@link ReadConnectionPool} and is released when the returned
+	 *                       {@link ResultSet} is closed
+	 * @return the result set of the query
+	 */
+	private ResultSet executeOnReadConnection(T element, Connection readConnection) throws SQLException {
+		ReadConnectionPool readConnectionPool = this.databaseAccess.getReadConnectionPool();
+		ResultSet resultSet;
+		try {
+			PreparedStatement statement = this.getReadStatement(readConnection);
+			setStatementParameters(element, statement);
+			long startTime = System.currentTimeMillis();
+			resultSet = statement.executeQuery();
+			long endTime = System.currentTimeMillis();
+			LOGGER.trace("ResultSet available after {} ms on {}", (endTime - startTime), readConnection);
+		} catch (SQLException e) {
+			readConnectionPool.release(readConnection);
+			throw e;
+		}
+		return releaseOnClose(resultSet, readConnection, readConnectionPool);
+	}
+
+	/**
+	 * Provides the statement of this query on the given read-only connection. As connections may be closed by the
+	 * {@link ReadConnectionPool}, statements of closed connections are discarded.
+	 */
+	private PreparedStatement getReadStatement(Connection readConnection) throws SQLException {
+		synchronized (this.readStatements) {
+			PreparedStatement statement = this.readStatements.get(readConnection);
+			if (statement == null) {
+				for (Iterator<Connection> iterator = this.readStatements.keySet().iterator(); iterator.hasNext(); ) {
+					if (iterator.next().isClosed()) iterator.remove();
+				}
+				statement = readConnection.prepareStatement(this.sql);
+				this.readStatements.put(readConnection, statement);
+			}
+			return statement;
+		}
+	}
+
+	/**
+	 * Wraps the given {@link ResultSet}, such that closing it also releases the connection to the
+	 * {@link ReadConnectionPool}.
+	 */
+	private static ResultSet releaseOnClose(ResultSet resultSet, Connection readConnection,
+											ReadConnectionPool readConnectionPool) {
+		AtomicBoolean isReleased = new AtomicBoolean(false);
+		return (ResultSet) Proxy.newProxyInstance(
+				ResultSet.class.getClassLoader(),
+				new Class<?>[]{ResultSet.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("close") && method.getParameterCount() == 0) {
+						// The driver might have closed the ResultSet already, so release the connection in any case.
+						try {
+							resultSet.close();
+						} finally {
+							if (isReleased.compareAndSet(false, true)) {
+								readConnectionPool.release(readConnection);
+							}
+						}
+						return null;
+					}
+					try {
+						return method.invoke(resultSet, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				}
+		);
+	}
+
+	abstract protected void setStatementParameters(T element, PreparedStatement preparedStatement) throws SQLException;
 
 	@Override
 	public void close() throws SQLException {
 		if (this.preparedStatement != null) {
 			this.preparedStatement.close();
 		}
+		synchronized (this.readStatements) {
+			for (PreparedStatement statement : this.readStatements.values()) {
+				statement.close();
+			}
+			this.readStatements.clear();
+		}
 	}
 	
 }
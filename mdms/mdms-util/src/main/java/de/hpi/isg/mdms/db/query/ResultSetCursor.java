@@ -0,0 +1,181 @@
+package de.hpi.isg.mdms.db.query;
+
+import de.hpi.isg.mdms.db.DatabaseAccess;
+import de.hpi.isg.mdms.db.PreparedStatementAdapter;
+import de.hpi.isg.mdms.db.ReadConnectionPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@link ResultSetCursor} iterates a {@link ResultSet} in a forward-only fashion and converts each row into an
+ * object. Unlike {@link DatabaseQuery}s, each cursor holds its own statement, so that several cursors can be open at
+ * the same time and the rows need not be materialized. If the {@link DatabaseAccess} has a {@link ReadConnectionPool},
+ * the cursor runs on one of its connections whenever one is available.
+ * <p>Cursors must be closed after use. However, they also close themselves as soon as they are exhausted.</p>
+ *
+ * @param <T> the type of objects that are created from the rows
+ */
+public class ResultSetCursor<T> implements Iterator<T>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultSetCursor.class);
+
+    /**
+     * Number of rows to be fetched at once.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final PreparedStatement statement;
+
+    private final ResultSet resultSet;
+
+    private final RowReader<T> rowReader;
+
+    /**
+     * The pool from that the connection of the {@link #statement} was borrowed or {@code null}.
+     */
+    private final ReadConnectionPool readConnectionPool;
+
+    /**
+     * Whether the {@link #resultSet} is positioned on a row that has not been returned yet. {@code null} if this is
+     * not known.
+     */
+    private Boolean isRowAvailable;
+
+    private boolean isClosed = false;
+
+    private ResultSetCursor(PreparedStatement statement, ResultSet resultSet, RowReader<T> rowReader,
+                            ReadConnectionPool readConnectionPool) {
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.rowReader = rowReader;
+        this.readConnectionPool = readConnectionPool;
+    }
+
+    /**
+     * Opens a new cursor. Pending writes to the queried tables are flushed beforehand.
+     *
+     * @param databaseAccess   provides the database connection
+     * @param sql              the SQL query to execute
+     * @param parameterAdapter sets the parameters of the query
+     * @param parameter        the query parameters
+     * @param rowReader        converts rows into objects
+     * @param queriedTables    the tables that are read by the query; only used if they cannot be parsed from it
+     * @return the opened cursor
+     * @throws SQLException if the query could not be executed
+     */
+    public static <TParameter, T> ResultSetCursor<T> open(DatabaseAccess databaseAccess,
+                                                          String sql,
+                                                          PreparedStatementAdapter<TParameter> parameterAdapter,
+                                                          TParameter parameter,
+                                                          RowReader<T> rowReader,
+                                                          String... queriedTables) throws SQLException {
+        databaseAccess.flush(SQLTableParser.resolveQueriedTables(sql, Arrays.asList(queriedTables)));
+
+        // Prefer a read-only connection, so as not to interfere with the writes.
+        ReadConnectionPool readConnectionPool = databaseAccess.getReadConnectionPool();
+        Connection connection = databaseAccess.tryAcquireReadConnection();
+        if (connection == null) {
+            readConnectionPool = null;
+            connection = databaseAccess.getConnection();
+        }
+        LOGGER.trace("Opening cursor for {} on {}.", sql, connection);
+
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(DEFAULT_FETCH_SIZE);
+            parameterAdapter.translateParameter(parameter, statement);
+            return new ResultSetCursor<>(statement, statement.executeQuery(), rowReader, readConnectionPool);
+        } catch (SQLException e) {
+            if (statement != null) statement.close();
+            if (readConnectionPool != null) readConnectionPool.release(connection);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.isRowAvailable == null) {
+            if (this.isClosed) {
+                return false;
+            }
+            try {
+                this.isRowAvailable = this.resultSet.next();
+            } catch (SQLException e) {
+                throw new RuntimeException("Could not advance cursor.", e);
+            }
+            if (!this.isRowAvailable) {
+                this.close();
+            }
+        }
+        return this.isRowAvailable;
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        this.isRowAvailable = null;
+        try {
+            return this.rowReader.read(this.resultSet);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not read row.", e);
+        }
+    }
+
+    /**
+     * Exposes this cursor as a sequential {@link Stream}. Closing the {@link Stream} closes this cursor.
+     *
+     * @return the {@link Stream}
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(
+                this, Spliterator.ORDERED | Spliterator.NONNULL
+        );
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (this.isClosed) {
+            return;
+        }
+        this.isClosed = true;
+        try {
+            Connection connection = this.statement.getConnection();
+            this.resultSet.close();
+            this.statement.close();
+            if (this.readConnectionPool != null) {
+                this.readConnectionPool.release(connection);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not close cursor.", e);
+        }
+    }
+
+    /**
+     * Converts the current row of a {@link ResultSet} into an object.
+     *
+     * @param <T> the type of the created objects
+     */
+    @FunctionalInterface
+    public interface RowReader<T> {
+
+        T read(ResultSet resultSet) throws SQLException;
+
+    }
+
+}
@@ -78,7 +78,8 @@ public class SQLQuery extends DatabaseQuery<SQLQuery.Parameters> {
 		 * @param sql
 		 *            is a SQL query to execute
 		 * @param queriedTables
-		 *            are the tables that are queried by the SQL query
+		 *            are the tables that are queried by the SQL query; only used if they cannot be parsed from the
+		 *            SQL query
 		 */
 		public Parameters(String sql, String... queriedTables) {
 			this(sql, Arrays.asList(queriedTables));
@@ -90,11 +91,12 @@ public class SQLQuery extends DatabaseQuery<SQLQuery.Parameters> {
 		 * @param sql
 		 *            is a SQL query to execute
 		 * @param queriedTables
-		 *            are the tables that are queried by the SQL query
+		 *            are the tables that are queried by the SQL query; only used if they cannot be parsed from the
+		 *            SQL query
 		 */
 		public Parameters(String sql, Collection<String> queriedTables) {
 			this.sql = sql;
-			this.queriedTables = queriedTables;
+			this.queriedTables = SQLTableParser.resolveQueriedTables(sql, queriedTables);
 		}
 
 	}
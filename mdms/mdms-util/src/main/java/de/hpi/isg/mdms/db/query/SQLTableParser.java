@@ -0,0 +1,168 @@
+package de.hpi.isg.mdms.db.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Determines the tables that are read by a SQL query, so that only writers on those tables need to be flushed before
+ * the query is executed. The parser is deliberately lightweight: it collects the table references following
+ * {@code FROM} and {@code JOIN} keywords (including those in subqueries) and does not validate the query.
+ */
+public final class SQLTableParser {
+
+    /**
+     * Words that may follow a table reference and must hence not be mistaken for an alias.
+     */
+    private static final Set<String> NON_ALIAS_KEYWORDS = new HashSet<>(Arrays.asList(
+            "where", "join", "inner", "left", "right", "full", "outer", "cross", "natural", "on", "using", "group",
+            "order", "limit", "offset", "having", "union", "except", "intersect", "window", "as", "indexed", "not"
+    ));
+
+    private SQLTableParser() {
+    }
+
+    /**
+     * Parses the tables that are read by the given SQL query.
+     *
+     * @param sql is the SQL query
+     * @return the lower-cased names of the read tables in order of appearance
+     */
+    public static Set<String> parseQueriedTables(String sql) {
+        List<String> tokens = tokenize(sql);
+        Set<String> tables = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if ("from".equalsIgnoreCase(token) || "join".equalsIgnoreCase(token)) {
+                i = readTableList(tokens, i + 1, tables) - 1;
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Determines the tables to be flushed for a query. If the tables cannot be parsed from the SQL, the declared
+     * tables are used instead.
+     *
+     * @param sql            is the SQL query
+     * @param declaredTables are the tables that the issuer of the query declared to be queried
+     * @return the tables that are read by the query
+     */
+    public static Collection<String> resolveQueriedTables(String sql, Collection<String> declaredTables) {
+        Set<String> parsedTables = parseQueriedTables(sql);
+        return parsedTables.isEmpty() ? declaredTables : parsedTables;
+    }
+
+    /**
+     * Reads a comma-separated list of table references.
+     *
+     * @param tokens are the tokens of the query
+     * @param pos    is the position of the first table reference
+     * @param tables collects the referenced tables
+     * @return the position after the table references
+     */
+    private static int readTableList(List<String> tokens, int pos, Set<String> tables) {
+        while (pos < tokens.size()) {
+            // Subqueries are handled by the caller, which also scans their tokens.
+            if (!isIdentifier(tokens.get(pos))) return pos;
+
+            String name = unquote(tokens.get(pos++));
+            while (pos + 1 < tokens.size() && ".".equals(tokens.get(pos)) && isIdentifier(tokens.get(pos + 1))) {
+                name = unquote(tokens.get(pos + 1));
+                pos += 2;
+            }
+            // Table-valued functions are no tables.
+            if (pos < tokens.size() && "(".equals(tokens.get(pos))) return pos;
+            tables.add(name.toLowerCase());
+
+            // Skip the alias, if any.
+            if (pos < tokens.size() && "as".equalsIgnoreCase(tokens.get(pos))) {
+                pos += 2;
+            } else if (pos < tokens.size() && isIdentifier(tokens.get(pos))
+                    && !NON_ALIAS_KEYWORDS.contains(tokens.get(pos).toLowerCase())) {
+                pos++;
+            }
+
+            if (pos >= tokens.size() || !",".equals(tokens.get(pos))) return pos;
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Splits a SQL query into words, quoted identifiers, and single-character symbols. String literals and comments
+     * are dropped.
+     */
+    private static List<String> tokenize(String sql) {
+        List<String> tokens = new ArrayList<>();
+        int pos = 0;
+        while (pos < sql.length()) {
+            char c = sql.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '-' && sql.startsWith("--", pos)) {
+                int end = sql.indexOf('\n', pos);
+                pos = end == -1 ? sql.length() : end + 1;
+            } else if (c == '/' && sql.startsWith("/*", pos)) {
+                int end = sql.indexOf("*/", pos + 2);
+                pos = end == -1 ? sql.length() : end + 2;
+            } else if (c == '\'') {
+                pos = findClosingQuote(sql, pos, '\'');
+            } else if (c == '[' || c == '"' || c == '`') {
+                int end = findClosingQuote(sql, pos, c == '[' ? ']' : c);
+                tokens.add(sql.substring(pos, end));
+                pos = end;
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '$') {
+                int end = pos + 1;
+                while (end < sql.length() && (Character.isLetterOrDigit(sql.charAt(end))
+                        || sql.charAt(end) == '_' || sql.charAt(end) == '$')) {
+                    end++;
+                }
+                tokens.add(sql.substring(pos, end));
+                pos = end;
+            } else {
+                tokens.add(String.valueOf(c));
+                pos++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @return the position after the closing quote that matches the opening quote at {@code start}; doubled quotes
+     * are treated as escaped
+     */
+    private static int findClosingQuote(String sql, int start, char closingQuote) {
+        int pos = start + 1;
+        while (pos < sql.length()) {
+            if (sql.charAt(pos) == closingQuote) {
+                if (pos + 1 < sql.length() && sql.charAt(pos + 1) == closingQuote) {
+                    pos += 2;
+                    continue;
+                }
+                return pos + 1;
+            }
+            pos++;
+        }
+        return sql.length();
+    }
+
+    private static boolean isIdentifier(String token) {
+        char c = token.charAt(0);
+        return Character.isLetter(c) || c == '_' || c == '[' || c == '"' || c == '`';
+    }
+
+    private static String unquote(String token) {
+        char c = token.charAt(0);
+        if (c == '[' || c == '"' || c == '`') {
+            int end = token.length() > 1 ? token.length() - 1 : 1;
+            String closingQuote = c == '[' ? "]" : String.valueOf(c);
+            return token.substring(1, end).replace(closingQuote + closingQuote, closingQuote);
+        }
+        return token;
+    }
+}
@@ -1,5 +1,6 @@
 package de.hpi.isg.mdms.db.query;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 import de.hpi.isg.mdms.db.DatabaseAccess;
@@ -17,8 +18,8 @@ public class StrategyBasedPreparedQuery<T> extends PreparedQuery<T> {
 	}
 
 	@Override
-	protected void setStatementParameters(T element) throws SQLException {
-		this.preparedStatementAdapter.translateParameter(element, this.preparedStatement);
+	protected void setStatementParameters(T element, PreparedStatement preparedStatement) throws SQLException {
+		this.preparedStatementAdapter.translateParameter(element, preparedStatement);
 	}
 
 	public static class Factory<TElement> implements DatabaseQuery.Factory<StrategyBasedPreparedQuery<TElement>> {
@@ -6,6 +6,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +36,17 @@ public abstract class BatchWriter<T> extends DependentWriter<T> {
 	 */
 	private int curBatchSize;
 
+	/**
+	 * Is completed when the most recently flushed batch has been committed.
+	 */
+	private CompletableFuture<Void> lastCommit = CompletableFuture.completedFuture(null);
+
+	/**
+	 * Tells why an already flushed batch of this writer has been rolled back or is {@code null}. It is reported on
+	 * the next write or flush.
+	 */
+	private SQLException rollbackCause;
+
 	/**
 	 * Creates a new {@link de.hpi.isg.mdms.db.write.BatchWriter}.
 	 * @param databaseAccess see {@link DependentWriter#DependentWriter(java.sql.Statement, DatabaseAccess, java.util.Collection, java.util.Collection)}
@@ -53,6 +65,7 @@ public abstract class BatchWriter<T> extends DependentWriter<T> {
 	
 	@Override
 	public void doWrite(T element) throws SQLException {
+		reportRollback();
 		fireAboutToAddBatchElement();
 		addBatch(element);
 		if (++this.curBatchSize >= this.maxBatchSize) {
@@ -60,6 +73,30 @@ public abstract class BatchWriter<T> extends DependentWriter<T> {
 		}
 	}
 
+	/**
+	 * Adds all given elements to the batch. In contrast to repeated {@link #write(Object)} calls, the
+	 * {@link DatabaseAccess} is notified only once per batch, because no other writer can interleave here.
+	 */
+	@Override
+	public void writeAll(Iterable<? extends T> elements) throws SQLException {
+		synchronized (this.databaseAccess) {
+			reportRollback();
+			ensureStatementInitialized();
+			boolean isNotified = false;
+			for (T element : elements) {
+				if (!isNotified) {
+					fireAboutToAddBatchElement();
+					isNotified = true;
+				}
+				addBatch(element);
+				if (++this.curBatchSize >= this.maxBatchSize) {
+					flush();
+					isNotified = false;
+				}
+			}
+		}
+	}
+
 	abstract protected void addBatch(T element) throws SQLException;
 	
 	@Override
@@ -67,30 +104,68 @@ public abstract class BatchWriter<T> extends DependentWriter<T> {
 		if (this.curBatchSize > 0) {
 		    int batchSize = this.curBatchSize;
 		    long startTime = System.currentTimeMillis();
+		    GroupCommitter groupCommitter = this.databaseAccess.getGroupCommitter();
 		    try {
-    			int[] batchResults = this.statement.executeBatch();
-    			if (!this.statement.getConnection().getAutoCommit()) {
-    			    this.statement.getConnection().commit();
-    			}
-    			for (int result : batchResults) {
-    			    if (result == Statement.EXECUTE_FAILED) {
-    			        throw new SQLException("Batch execution returned error on one or more SQL statements.");
-    			    }
-    			}
+		        if (groupCommitter != null) {
+		            this.lastCommit = groupCommitter.submit(this, batchSize);
+		        } else {
+		            int[] batchResults = this.statement.executeBatch();
+		            if (!this.statement.getConnection().getAutoCommit()) {
+		                this.statement.getConnection().commit();
+		            }
+		            for (int result : batchResults) {
+		                if (result == Statement.EXECUTE_FAILED) {
+		                    throw new SQLException("Batch execution returned error on one or more SQL statements.");
+		                }
+		            }
+		        }
 		    } catch (SQLException e) {
+		        // The batch is discarded (and rolled back by the GroupCommitter), so do not try to execute it again.
+		        this.curBatchSize = 0;
+		        this.statement.clearBatch();
 		        throw new SQLException(String.format("Could not flush %s.", this), e);
 		    }
 			long endTime = System.currentTimeMillis();
 			LOGGER.debug("Flushed {} statements from {} in {} ms ", batchSize, this, endTime - startTime);
 		} else {
-			StringBuilder sb = new StringBuilder();
-			sb.append("Stack trace:");
-			for (StackTraceElement stackTraceElement : Thread.currentThread().getStackTrace()) {
-				sb.append("\n\t").append(stackTraceElement);
-			}
-			LOGGER.warn("Attempted to flush empty batch writer {}. {}", this, sb);
+			LOGGER.trace("Skipped flushing empty batch writer {}.", this);
 		}
 		this.curBatchSize = 0;
+		reportRollback();
+	}
+
+	/**
+	 * Notifies this writer that a flushed batch of it has been rolled back, because the batch of another writer in
+	 * the same transaction failed.
+	 *
+	 * @param cause is the failure that caused the rollback
+	 * @see GroupCommitter
+	 */
+	void handleRollback(SQLException cause) {
+		this.rollbackCause = cause;
+	}
+
+	/**
+	 * Throws an exception if a flushed batch has been rolled back since the last report.
+	 */
+	private void reportRollback() throws SQLException {
+		if (this.rollbackCause != null) {
+			SQLException cause = this.rollbackCause;
+			this.rollbackCause = null;
+			throw new SQLException(String.format("A flushed batch of %s has been rolled back.", this), cause);
+		}
+	}
+
+	/**
+	 * Flushes this writer without waiting for the batch to be committed. Unless the {@link DatabaseAccess} has a
+	 * {@link GroupCommitter}, flushing commits right away, though.
+	 *
+	 * @return a {@link CompletableFuture} that is completed when all batches of this writer have been committed
+	 * @throws SQLException if the flushing fails
+	 */
+	public CompletableFuture<Void> flushAsync() throws SQLException {
+		flush();
+		return this.lastCommit;
 	}
 	
 	/** Called when the batch was empty but is not anymore. */
@@ -31,6 +31,19 @@ abstract public class DatabaseWriter<T> implements AutoCloseable {
         doWrite(element);
     }
 
+    /**
+     * Writes all the given elements. Subclasses may override this method to reduce the per-element overhead.
+     *
+     * @param elements are the elements to write
+     * @throws java.sql.SQLException
+     */
+    public void writeAll(Iterable<? extends T> elements) throws SQLException {
+        ensureStatementInitialized();
+        for (T element : elements) {
+            doWrite(element);
+        }
+    }
+
     /**
      * Ensures that {@link #statement} is properly set up for write operation.
      * 
@@ -91,16 +91,36 @@ abstract public class DependentWriter<T> extends DatabaseWriter<T> {
 	}
 
 
+	/**
+	 * Writes the given element. Synchronizes on the {@link DatabaseAccess}, as queries may flush this writer from other
+	 * threads.
+	 */
+	@Override
+	public void write(T element) throws SQLException {
+		synchronized (this.databaseAccess) {
+			super.write(element);
+		}
+	}
+
+	@Override
+	public void writeAll(Iterable<? extends T> elements) throws SQLException {
+		synchronized (this.databaseAccess) {
+			super.writeAll(elements);
+		}
+	}
+
 	@Override
     public void flush() throws SQLException {
-        if (this.statement != null) {
-            // Logger.getGlobal().log(Level.INFO, String.format("Flushing %s.", this));
-            this.databaseAccess.prepareFlush(this);
-            try {
-                doFlush();
-            } catch (SQLException e) {
-                LOGGER.error("{} when flushing {}.", e.getClass().getSimpleName(), this);
-                throw e;
+        synchronized (this.databaseAccess) {
+            if (this.statement != null) {
+                // Logger.getGlobal().log(Level.INFO, String.format("Flushing %s.", this));
+                this.databaseAccess.prepareFlush(this);
+                try {
+                    doFlush();
+                } catch (SQLException e) {
+                    LOGGER.error("{} when flushing {}.", e.getClass().getSimpleName(), this);
+                    throw e;
+                }
             }
         }
     }
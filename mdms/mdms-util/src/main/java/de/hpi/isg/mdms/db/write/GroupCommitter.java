@@ -0,0 +1,287 @@
+package de.hpi.isg.mdms.db.write;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combines the batches of several {@link BatchWriter}s into a single transaction. Batches are executed right away
+ * but committed only when enough statements are pending or when the oldest pending batch has waited for a certain
+ * time.
+ * <p>The latency is checked whenever a batch is submitted or {@link #commitIfDue()} is called, which the
+ * {@link de.hpi.isg.mdms.db.DatabaseAccess} does on each flush. The underlying {@link Connection} is also used for
+ * statements that are not routed through this class, though. Therefore, overdue commits of an idle connection are
+ * only scheduled if there is a lock that guards the connection against concurrent use. Otherwise, the pending
+ * statements wait for the next access or for {@link #close()}.</p>
+ * <p>Submitting a batch yields a {@link CompletableFuture} that is completed as soon as the batch is durable, i.e.,
+ * has been committed, or completed exceptionally if the batch has been rolled back. In the latter case, the writers
+ * of the discarded batches are notified as well (see {@link BatchWriter#handleRollback(SQLException)}).</p>
+ */
+public class GroupCommitter implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitter.class);
+
+    public static final int DEFAULT_MAX_PENDING_STATEMENTS = 100000;
+
+    public static final long DEFAULT_MAX_LATENCY_MILLIS = 500;
+
+    /**
+     * The connection on which the batches are executed and committed.
+     */
+    private final Connection connection;
+
+    /**
+     * Commit as soon as this many statements are pending.
+     */
+    private final int maxPendingStatements;
+
+    /**
+     * Commit after this many milliseconds after the first pending batch has been executed.
+     */
+    private final long maxLatencyMillis;
+
+    /**
+     * The number of executed but uncommitted statements.
+     */
+    private int numPendingStatements = 0;
+
+    /**
+     * Is completed once the pending statements are committed or {@code null} if there are no pending statements.
+     */
+    private CompletableFuture<Void> pendingCommit;
+
+    /**
+     * The {@link System#nanoTime()} when the {@link #pendingCommit} is due.
+     */
+    private long commitDeadline;
+
+    /**
+     * The writers whose batches are part of the {@link #pendingCommit}.
+     */
+    private final Collection<BatchWriter<?>> pendingWriters = new LinkedHashSet<>();
+
+    /**
+     * Guards the {@link #connection} during scheduled commits or {@code null} if commits are not scheduled.
+     */
+    private final Object connectionLock;
+
+    /**
+     * Runs the scheduled commits or {@code null} if commits are not scheduled.
+     */
+    private final ScheduledExecutorService commitScheduler;
+
+    private boolean isClosed = false;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param connection           on which the batches are executed; auto-commit must be disabled
+     * @param maxPendingStatements is the number of pending statements that triggers a commit
+     * @param maxLatencyMillis     is the time in milliseconds after which pending batches should be committed
+     */
+    public GroupCommitter(Connection connection, int maxPendingStatements, long maxLatencyMillis) {
+        this(connection, maxPendingStatements, maxLatencyMillis, null);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param connection           on which the batches are executed; auto-commit must be disabled
+     * @param maxPendingStatements is the number of pending statements that triggers a commit
+     * @param maxLatencyMillis     is the time in milliseconds after which pending batches should be committed
+     * @param connectionLock       is held by all users of the connection, so that overdue commits can be scheduled
+     *                             on a background thread, or {@code null}
+     */
+    public GroupCommitter(Connection connection, int maxPendingStatements, long maxLatencyMillis,
+                          Object connectionLock) {
+        Validate.isTrue(maxPendingStatements > 0);
+        Validate.isTrue(maxLatencyMillis > 0);
+        this.connection = connection;
+        this.maxPendingStatements = maxPendingStatements;
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.connectionLock = connectionLock;
+        this.commitScheduler = connectionLock == null ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "group-committer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Executes the batch of the given {@link BatchWriter} as part of the current transaction. If the execution
+     * fails, the transaction is rolled back, so that the previously submitted batches are discarded as well.
+     *
+     * @param writer    whose batch shall be executed
+     * @param batchSize is the number of statements in the batch
+     * @return a {@link CompletableFuture} that is completed when the batch has been committed
+     * @throws SQLException if the batch could not be executed or a triggered commit failed
+     */
+    public synchronized CompletableFuture<Void> submit(BatchWriter<?> writer, int batchSize) throws SQLException {
+        Validate.isTrue(!this.isClosed, "%s is closed.", this);
+        try {
+            int[] batchResults = writer.statement.executeBatch();
+            for (int result : batchResults) {
+                if (result == Statement.EXECUTE_FAILED) {
+                    throw new SQLException("Batch execution returned error on one or more SQL statements.");
+                }
+            }
+        } catch (SQLException e) {
+            this.pendingWriters.remove(writer);
+            this.rollback(e);
+            throw e;
+        }
+
+        CompletableFuture<Void> commitFuture = this.pendingCommit;
+        if (commitFuture == null) {
+            commitFuture = this.pendingCommit = new CompletableFuture<>();
+            this.commitDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.maxLatencyMillis);
+            if (this.commitScheduler != null) {
+                final CompletableFuture<Void> scheduledCommit = commitFuture;
+                this.commitScheduler.schedule(() -> this.commitOverdue(scheduledCommit),
+                        this.maxLatencyMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        this.pendingWriters.add(writer);
+        this.numPendingStatements += batchSize;
+        if (this.numPendingStatements >= this.maxPendingStatements) {
+            this.commit();
+        } else {
+            this.commitIfDue();
+        }
+        return commitFuture;
+    }
+
+    /**
+     * Commits the pending statements if they have waited for the maximum latency.
+     *
+     * @return whether a commit took place
+     * @throws SQLException if the commit failed
+     */
+    public synchronized boolean commitIfDue() throws SQLException {
+        if (this.pendingCommit == null || System.nanoTime() - this.commitDeadline < 0) {
+            return false;
+        }
+        this.commit();
+        return true;
+    }
+
+    /**
+     * Commits all pending statements right away.
+     *
+     * @throws SQLException if the commit failed; the pending {@link CompletableFuture} is then completed
+     *                      exceptionally
+     */
+    public synchronized void commit() throws SQLException {
+        CompletableFuture<Void> commitFuture = this.pendingCommit;
+        if (commitFuture == null) {
+            return;
+        }
+        int numStatements = this.numPendingStatements;
+        this.pendingCommit = null;
+        this.numPendingStatements = 0;
+        this.pendingWriters.clear();
+
+        long startTime = System.currentTimeMillis();
+        try {
+            this.connection.commit();
+        } catch (SQLException e) {
+            commitFuture.completeExceptionally(e);
+            throw e;
+        }
+        long endTime = System.currentTimeMillis();
+        LOGGER.debug("Committed {} statements in {} ms.", numStatements, endTime - startTime);
+        commitFuture.complete(null);
+    }
+
+    /**
+     * Commits the given pending transaction unless it has been committed or rolled back in the meantime.
+     *
+     * @param overdueCommit is the {@link #pendingCommit} at the time of scheduling
+     */
+    private void commitOverdue(CompletableFuture<Void> overdueCommit) {
+        synchronized (this.connectionLock) {
+            synchronized (this) {
+                if (this.isClosed || this.pendingCommit != overdueCommit) return;
+                try {
+                    this.commit();
+                } catch (SQLException e) {
+                    LOGGER.error("Scheduled commit failed.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rolls back the current transaction after a failed batch and reports the failure via the pending
+     * {@link CompletableFuture} and to the writers whose batches have been discarded.
+     *
+     * @param cause is the failure of the batch
+     */
+    private void rollback(SQLException cause) {
+        CompletableFuture<Void> commitFuture = this.pendingCommit;
+        int numStatements = this.numPendingStatements;
+        this.pendingCommit = null;
+        this.numPendingStatements = 0;
+        try {
+            this.connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+        LOGGER.error("Rolled back {} pending statements after a failed batch.", numStatements, cause);
+        for (BatchWriter<?> writer : this.pendingWriters) {
+            writer.handleRollback(cause);
+        }
+        this.pendingWriters.clear();
+        if (commitFuture != null) {
+            commitFuture.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * @return a {@link CompletableFuture} that is completed when all currently pending statements are committed
+     */
+    public synchronized CompletableFuture<Void> getPendingCommit() {
+        return this.pendingCommit == null ? CompletableFuture.completedFuture(null) : this.pendingCommit;
+    }
+
+    /**
+     * @return the number of executed but uncommitted statements
+     */
+    public synchronized int getNumPendingStatements() {
+        return this.numPendingStatements;
+    }
+
+    /**
+     * Commits any pending statements.
+     *
+     * @throws SQLException if the final commit failed
+     */
+    @Override
+    public synchronized void close() throws SQLException {
+        if (this.isClosed) return;
+        try {
+            this.commit();
+        } finally {
+            this.isClosed = true;
+            if (this.commitScheduler != null) {
+                this.commitScheduler.shutdownNow();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GroupCommitter[maxPendingStatements=%d, maxLatency=%d ms]",
+                this.maxPendingStatements, this.maxLatencyMillis);
+    }
+}
@@ -3,10 +3,10 @@ package de.hpi.isg.mdms.model.common;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -18,7 +18,10 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
  */
 public abstract class AbstractHashCodeAndEquals {
 
-    private static Map<Class<?>, Set<String>> excludedFields = new HashMap<>();
+    /**
+     * Caches the excluded fields per class. As any thread might compare objects, this cache must be thread-safe.
+     */
+    private static final Map<Class<?>, Set<String>> excludedFields = new ConcurrentHashMap<>();
 
     /**
      * Uses Apache's {@link EqualsBuilder} to compute if the provided object is equal to this object. Fields can be
@@ -45,24 +48,22 @@ public abstract class AbstractHashCodeAndEquals {
      * @return
      */
     private Collection<String> getExlcudedFields() {
-        Set<String> excludes = excludedFields.get(getClass());
-        if (excludes == null) {
-            excludes = new HashSet<>();
+        return excludedFields.computeIfAbsent(this.getClass(), AbstractHashCodeAndEquals::collectExcludedFields);
+    }
 
-            Class<?> clazz = this.getClass();
-            while (clazz != null) {
-                for (final Field field : clazz.getDeclaredFields()) {
-                    final String name = field.getName();
-                    for (final Annotation a : field.getDeclaredAnnotations()) {
-                        if (a instanceof ExcludeHashCodeEquals) {
-                            excludes.add(name);
-                        }
+    private static Set<String> collectExcludedFields(Class<?> cls) {
+        Set<String> excludes = new HashSet<>();
+        Class<?> clazz = cls;
+        while (clazz != null) {
+            for (final Field field : clazz.getDeclaredFields()) {
+                final String name = field.getName();
+                for (final Annotation a : field.getDeclaredAnnotations()) {
+                    if (a instanceof ExcludeHashCodeEquals) {
+                        excludes.add(name);
                     }
                 }
-                clazz = clazz.getSuperclass();
             }
-
-            excludedFields.put(getClass(), excludes);
+            clazz = clazz.getSuperclass();
         }
         return excludes;
     }
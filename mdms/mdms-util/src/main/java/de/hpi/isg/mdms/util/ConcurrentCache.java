@@ -0,0 +1,377 @@
+package de.hpi.isg.mdms.util;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe cache with least-recently-used strategy that is bounded by the total weight of its entries rather
+ * than by their number. The cache is split into segments that are locked independently, so that concurrent readers
+ * only contend when they access the same segment. Each segment evicts its least recently used entries as soon as
+ * it exceeds its share of the maximum weight.
+ * <p>The weight of an entry is determined by a {@link Weigher} upon insertion and re-evaluated whenever the entry
+ * is accessed, so that values that grow after their insertion (e.g., lazily loaded collections) are accounted for.
+ * The {@link Weigher} is invoked while holding a segment lock and should therefore be cheap.</p>
+ *
+ * @param <K> is the type of the keys
+ * @param <V> is the type of the values
+ */
+public class ConcurrentCache<K, V> {
+
+    /**
+     * The number of segments that is used if not specified otherwise.
+     */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    private final Segment<K, V>[] segments;
+
+    private final int segmentMask;
+
+    private final Weigher<? super K, ? super V> weigher;
+
+    private volatile boolean isEvictionEnabled = true;
+
+    private final LongAdder hitCount = new LongAdder(), missCount = new LongAdder(), evictionCount = new LongAdder();
+
+    /**
+     * Creates a new cache, in which each entry has a weight of {@code 1}.
+     *
+     * @param maxEntries is the maximum number of entries
+     */
+    public ConcurrentCache(long maxEntries) {
+        this(maxEntries, (key, value) -> 1);
+    }
+
+    /**
+     * Creates a new cache with {@link #DEFAULT_CONCURRENCY_LEVEL}.
+     *
+     * @param maxWeight is the maximum total weight of the entries
+     * @param weigher   determines the weight of the entries
+     */
+    public ConcurrentCache(long maxWeight, Weigher<? super K, ? super V> weigher) {
+        this(maxWeight, weigher, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxWeight        is the maximum total weight of the entries
+     * @param weigher          determines the weight of the entries
+     * @param concurrencyLevel is the anticipated number of concurrently accessing threads
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentCache(long maxWeight, Weigher<? super K, ? super V> weigher, int concurrencyLevel) {
+        Validate.isTrue(maxWeight > 0, "The maximum weight must be positive.");
+        Validate.isTrue(concurrencyLevel > 0, "The concurrency level must be positive.");
+        this.weigher = Objects.requireNonNull(weigher);
+
+        // Use a power of two as number of segments, but do not split the weight into empty shares.
+        int numSegments = 1;
+        while (numSegments < concurrencyLevel && 2L * numSegments <= maxWeight) {
+            numSegments <<= 1;
+        }
+        this.segmentMask = numSegments - 1;
+        this.segments = new Segment[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            long segmentMaxWeight = maxWeight / numSegments + (i < maxWeight % numSegments ? 1 : 0);
+            this.segments[i] = new Segment<>(segmentMaxWeight);
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return this.segments[hash & this.segmentMask];
+    }
+
+    /**
+     * Looks up the value for the given key and marks it as recently used.
+     *
+     * @param key whose value shall be looked up
+     * @return the cached value or {@code null} if there is none
+     */
+    public V get(K key) {
+        Segment<K, V> segment = this.segmentFor(key);
+        segment.lock();
+        try {
+            Entry<V> entry = segment.map.get(key);
+            if (entry == null) {
+                this.missCount.increment();
+                return null;
+            }
+            this.hitCount.increment();
+            int newWeight = this.weigh(key, entry.value);
+            if (newWeight != entry.weight) {
+                segment.weight += newWeight - entry.weight;
+                entry.weight = newWeight;
+                this.evict(segment, key);
+            }
+            return entry.value;
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    /**
+     * Tells whether there is a value for the given key without marking it as recently used or affecting the
+     * statistics.
+     *
+     * @param key that shall be tested
+     * @return whether the key is cached
+     */
+    public boolean containsKey(K key) {
+        Segment<K, V> segment = this.segmentFor(key);
+        segment.lock();
+        try {
+            return segment.map.containsKey(key);
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    /**
+     * Puts a value into this cache and evicts least recently used entries if necessary. The new entry itself is
+     * never evicted by this operation.
+     *
+     * @param key   of the value
+     * @param value that shall be cached
+     * @return the value previously associated with the key or {@code null} if there is none
+     */
+    public V put(K key, V value) {
+        Objects.requireNonNull(value);
+        int weight = this.weigh(key, value);
+        Segment<K, V> segment = this.segmentFor(key);
+        segment.lock();
+        try {
+            Entry<V> oldEntry = segment.map.put(key, new Entry<>(value, weight));
+            segment.weight += weight;
+            if (oldEntry != null) {
+                segment.weight -= oldEntry.weight;
+            }
+            this.evict(segment, key);
+            return oldEntry == null ? null : oldEntry.value;
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    /**
+     * Removes the value for the given key from this cache.
+     *
+     * @param key whose value shall be removed
+     * @return the removed value or {@code null} if there was none
+     */
+    public V remove(K key) {
+        Segment<K, V> segment = this.segmentFor(key);
+        segment.lock();
+        try {
+            Entry<V> entry = segment.map.remove(key);
+            if (entry == null) return null;
+            segment.weight -= entry.weight;
+            return entry.value;
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries from this cache. Statistics are not reset.
+     */
+    public void clear() {
+        for (Segment<K, V> segment : this.segments) {
+            segment.lock();
+            try {
+                segment.map.clear();
+                segment.weight = 0;
+            } finally {
+                segment.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot of the cached values
+     */
+    public Collection<V> values() {
+        Collection<V> values = new ArrayList<>();
+        for (Segment<K, V> segment : this.segments) {
+            segment.lock();
+            try {
+                for (Entry<V> entry : segment.map.values()) {
+                    values.add(entry.value);
+                }
+            } finally {
+                segment.unlock();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : this.segments) {
+            segment.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the total weight of the cached entries as of their last access
+     */
+    public long getWeight() {
+        long weight = 0;
+        for (Segment<K, V> segment : this.segments) {
+            segment.lock();
+            try {
+                weight += segment.weight;
+            } finally {
+                segment.unlock();
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Enables or disables the eviction of entries. While eviction is disabled, the cache may grow beyond its
+     * maximum weight, which allows to keep a complete set of values. Excess entries are evicted upon the next
+     * modification of their segment after eviction has been re-enabled.
+     *
+     * @param evictionEnabled whether entries may be evicted
+     */
+    public void setEvictionEnabled(boolean evictionEnabled) {
+        this.isEvictionEnabled = evictionEnabled;
+    }
+
+    /**
+     * @return the current {@link Stats} of this cache
+     */
+    public Stats getStats() {
+        return new Stats(this.hitCount.sum(), this.missCount.sum(), this.evictionCount.sum());
+    }
+
+    private int weigh(K key, V value) {
+        int weight = this.weigher.weigh(key, value);
+        Validate.isTrue(weight >= 0, "Illegal weight %d for %s.", weight, key);
+        return weight;
+    }
+
+    /**
+     * Evicts least recently used entries from the given {@link Segment} until it complies with its maximum weight.
+     * Must be called while holding the lock of the segment.
+     *
+     * @param segment      that should be shrunk
+     * @param protectedKey is the key of an entry that must not be evicted
+     */
+    private void evict(Segment<K, V> segment, K protectedKey) {
+        if (!this.isEvictionEnabled) return;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = segment.map.entrySet().iterator();
+        while (segment.weight > segment.maxWeight && iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = iterator.next();
+            if (Objects.equals(eldest.getKey(), protectedKey)) continue;
+            iterator.remove();
+            segment.weight -= eldest.getValue().weight;
+            this.evictionCount.increment();
+        }
+    }
+
+    /**
+     * Determines the weight of cache entries.
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+
+        /**
+         * @return the non-negative weight of the given entry
+         */
+        int weigh(K key, V value);
+
+    }
+
+    /**
+     * Describes the usage of a {@link ConcurrentCache}.
+     */
+    public static final class Stats {
+
+        private final long hitCount, missCount, evictionCount;
+
+        private Stats(long hitCount, long missCount, long evictionCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+        }
+
+        public long getHitCount() {
+            return this.hitCount;
+        }
+
+        public long getMissCount() {
+            return this.missCount;
+        }
+
+        public long getEvictionCount() {
+            return this.evictionCount;
+        }
+
+        /**
+         * @return the ratio of lookups that were served from the cache or {@code 1} if there were no lookups
+         */
+        public double getHitRate() {
+            long requestCount = this.hitCount + this.missCount;
+            return requestCount == 0 ? 1d : this.hitCount / (double) requestCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Stats[hits=%d, misses=%d, evictions=%d, hit rate=%.2f]",
+                    this.hitCount, this.missCount, this.evictionCount, this.getHitRate());
+        }
+    }
+
+    /**
+     * A share of the cache that is guarded by its own lock.
+     */
+    @SuppressWarnings("serial")
+    private static final class Segment<K, V> extends ReentrantLock {
+
+        /**
+         * Keeps the entries in access order, i.e., the least recently used entry comes first.
+         */
+        private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final long maxWeight;
+
+        private long weight = 0;
+
+        private Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private int weight;
+
+        private Entry(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package de.hpi.isg.mdms.db;
+
+import de.hpi.isg.mdms.db.write.DependentWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link WriterDependencyGraph}.
+ */
+public class WriterDependencyGraphTest {
+
+    @Test
+    public void testOrdersWritersByTheirPrecedences() {
+        WriterDependencyGraph graph = new WriterDependencyGraph();
+        DependentWriter<?> columnWriter = mock(DependentWriter.class);
+        DependentWriter<?> tableWriter = mock(DependentWriter.class);
+        DependentWriter<?> schemaWriter = mock(DependentWriter.class);
+
+        // Register the writers in reverse order, so that the cached order has to be recomputed.
+        graph.register(columnWriter, Collections.singleton("column"), Collections.emptySet());
+        graph.register(tableWriter, Collections.singleton("table"), Collections.emptySet());
+        graph.register(schemaWriter, Collections.singleton("schema"), Collections.emptySet());
+        graph.register(columnWriter, Collections.emptySet(), Collections.singleton("table"));
+        graph.register(tableWriter, Collections.emptySet(), Collections.singleton("schema"));
+
+        Assert.assertEquals(Arrays.asList(schemaWriter, tableWriter, columnWriter), graph.getFlushOrder());
+        Assert.assertEquals(Arrays.asList(schemaWriter, tableWriter), graph.getPredecessors(columnWriter));
+        Assert.assertTrue(graph.isPreceding(schemaWriter, columnWriter));
+        Assert.assertFalse(graph.isPreceding(columnWriter, schemaWriter));
+        Assert.assertEquals(Collections.singleton(columnWriter),
+                graph.getNewPredecessors(schemaWriter, Collections.singleton("column")));
+        Assert.assertTrue(graph.getNewPredecessors(columnWriter, Collections.singleton("table")).isEmpty());
+    }
+
+    @Test
+    public void testRemovingWritersRemovesTheirPrecedences() {
+        WriterDependencyGraph graph = new WriterDependencyGraph();
+        DependentWriter<?> writer1 = mock(DependentWriter.class);
+        DependentWriter<?> writer2 = mock(DependentWriter.class);
+        graph.register(writer1, Collections.singleton("a"), Collections.emptySet());
+        graph.register(writer2, Collections.singleton("b"), Collections.singleton("a"));
+        Assert.assertEquals(Collections.singletonList(writer1), graph.getPredecessors(writer2));
+
+        Assert.assertTrue(graph.remove(writer1));
+        Assert.assertFalse(graph.remove(writer1));
+        Assert.assertTrue(graph.getPredecessors(writer2).isEmpty());
+        Assert.assertTrue(graph.getManipulatingWriters(Collections.singleton("a")).isEmpty());
+        Assert.assertEquals(Collections.singletonList(writer2), graph.getFlushOrder());
+
+        Assert.assertTrue(graph.remove(writer2));
+        Assert.assertTrue(graph.isEmpty());
+    }
+
+    @Test
+    public void testReregisteringWritersDoesNotGrowTheFlushOrder() throws Exception {
+        WriterDependencyGraph graph = new WriterDependencyGraph();
+        DependentWriter<?> writer1 = mock(DependentWriter.class);
+        DependentWriter<?> writer2 = mock(DependentWriter.class);
+        graph.register(writer1, Collections.singleton("a"), Collections.emptySet());
+        for (int i = 0; i < 1000; i++) {
+            graph.register(writer2, Collections.singleton("b"), Collections.singleton("a"));
+            Assert.assertEquals(Arrays.asList(writer1, writer2), graph.getFlushOrder());
+            Assert.assertEquals(Collections.singletonList(writer1), graph.getPredecessors(writer2));
+            Assert.assertTrue(graph.remove(writer2));
+        }
+
+        Field topologicalOrderField = WriterDependencyGraph.class.getDeclaredField("topologicalOrder");
+        topologicalOrderField.setAccessible(true);
+        Assert.assertTrue(((List<?>) topologicalOrderField.get(graph)).size() <= 3);
+        Assert.assertEquals(Collections.singletonList(writer1), graph.getFlushOrder());
+    }
+
+    @Test
+    public void testWritersDoNotPrecedeThemselves() {
+        WriterDependencyGraph graph = new WriterDependencyGraph();
+        DependentWriter<?> writer = mock(DependentWriter.class);
+        graph.register(writer, Collections.singleton("a"), Collections.singleton("a"));
+        Assert.assertTrue(graph.getPredecessors(writer).isEmpty());
+        Assert.assertEquals(Collections.singletonList(writer), graph.getFlushOrder());
+    }
+
+}
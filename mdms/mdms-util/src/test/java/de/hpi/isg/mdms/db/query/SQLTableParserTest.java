@@ -0,0 +1,61 @@
+package de.hpi.isg.mdms.db.query;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Tests for {@link SQLTableParser}.
+ */
+public class SQLTableParserTest {
+
+    private static Set<String> tables(String... tables) {
+        return new LinkedHashSet<>(Arrays.asList(tables));
+    }
+
+    @Test
+    public void testParsesSimpleQueries() {
+        Assert.assertEquals(tables("target"),
+                SQLTableParser.parseQueriedTables("select [id] from [Target] where [type_code]=?"));
+        Assert.assertEquals(tables("constraintcollection"),
+                SQLTableParser.parseQueriedTables("SELECT * FROM ConstraintCollection;"));
+    }
+
+    @Test
+    public void testParsesJoinsAndTableLists() {
+        Assert.assertEquals(tables("experiment", "experimentparameter", "algorithm"),
+                SQLTableParser.parseQueriedTables("select e.id from Experiment e, main.\"ExperimentParameter\" p "
+                        + "inner join [Algorithm] as a on e.algorithmId = a.id where p.experimentId = e.id"));
+        Assert.assertEquals(tables("a", "b"),
+                SQLTableParser.parseQueriedTables("select * from a, b left outer join a on a.x = b.x"));
+    }
+
+    @Test
+    public void testParsesSubqueries() {
+        Assert.assertEquals(tables("target", "constraintcollectionscope"),
+                SQLTableParser.parseQueriedTables("select * from (select * from Target) t "
+                        + "where t.id in (select [target] from [ConstraintCollectionScope])"));
+    }
+
+    @Test
+    public void testIgnoresLiteralsCommentsAndFunctions() {
+        Assert.assertEquals(tables("config"),
+                SQLTableParser.parseQueriedTables("select 'from Target' from Config -- from Code\n"
+                        + "/* join Location */ where [key] = 'x'"));
+        Assert.assertEquals(tables(),
+                SQLTableParser.parseQueriedTables("select value from json_each(?)"));
+    }
+
+    @Test
+    public void testFallsBackToDeclaredTables() {
+        Assert.assertEquals(Collections.singletonList("Target"),
+                SQLTableParser.resolveQueriedTables("PRAGMA table_info(Target);", Collections.singletonList("Target")));
+        Assert.assertEquals(tables("code"),
+                SQLTableParser.resolveQueriedTables("select * from Code", Collections.singletonList("Config")));
+    }
+
+}
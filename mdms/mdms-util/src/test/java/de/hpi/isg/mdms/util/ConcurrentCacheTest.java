@@ -0,0 +1,127 @@
+package de.hpi.isg.mdms.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link ConcurrentCache}.
+ */
+public class ConcurrentCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsedEntries() {
+        ConcurrentCache<Integer, String> cache = new ConcurrentCache<>(3, (key, value) -> 1, 1);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        Assert.assertEquals("a", cache.get(1));
+        cache.put(4, "d");
+
+        Assert.assertEquals(3, cache.size());
+        Assert.assertFalse(cache.containsKey(2));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a", "c", "d")), new HashSet<>(cache.values()));
+        Assert.assertEquals(1, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void testRespectsWeights() {
+        ConcurrentCache<Integer, String> cache = new ConcurrentCache<>(10, (key, value) -> value.length(), 1);
+        cache.put(1, "aaaa");
+        cache.put(2, "bbbb");
+        Assert.assertEquals(8, cache.getWeight());
+
+        cache.put(3, "ccc");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertFalse(cache.containsKey(1));
+        Assert.assertEquals(7, cache.getWeight());
+
+        // An entry that exceeds the maximum weight on its own is kept nonetheless.
+        cache.put(4, "dddddddddddd");
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("dddddddddddd", cache.get(4));
+    }
+
+    @Test
+    public void testReweighsEntriesOnAccess() {
+        ConcurrentCache<Integer, List<Integer>> cache = new ConcurrentCache<>(5, (key, value) -> value.size(), 1);
+        List<Integer> growingValue = new ArrayList<>();
+        cache.put(1, new ArrayList<>(Arrays.asList(1, 2)));
+        cache.put(2, growingValue);
+        Assert.assertEquals(2, cache.getWeight());
+
+        growingValue.addAll(Arrays.asList(1, 2, 3, 4));
+        Assert.assertSame(growingValue, cache.get(2));
+        Assert.assertFalse(cache.containsKey(1));
+        Assert.assertEquals(4, cache.getWeight());
+    }
+
+    @Test
+    public void testKeepsAllEntriesIfEvictionIsDisabled() {
+        ConcurrentCache<Integer, String> cache = new ConcurrentCache<>(2, (key, value) -> 1, 1);
+        cache.setEvictionEnabled(false);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, String.valueOf(i));
+        }
+        Assert.assertEquals(10, cache.size());
+
+        cache.setEvictionEnabled(true);
+        cache.put(10, "10");
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testCountsHitsAndMisses() {
+        ConcurrentCache<Integer, String> cache = new ConcurrentCache<>(10);
+        cache.put(1, "a");
+        cache.get(1);
+        cache.get(1);
+        cache.get(2);
+        cache.containsKey(3);
+
+        ConcurrentCache.Stats stats = cache.getStats();
+        Assert.assertEquals(2, stats.getHitCount());
+        Assert.assertEquals(1, stats.getMissCount());
+        Assert.assertEquals(2 / 3d, stats.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        final int numThreads = 8, numOperations = 10000, maxWeight = 100;
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(maxWeight);
+        AtomicInteger numCorruptValues = new AtomicInteger();
+        Collection<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            final int offset = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < numOperations; i++) {
+                    int key = (i * 31 + offset) % 500;
+                    Integer value = cache.get(key);
+                    if (value == null) {
+                        cache.put(key, -key);
+                    } else if (value != -key) {
+                        numCorruptValues.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(0, numCorruptValues.get());
+        Assert.assertTrue(cache.getWeight() <= maxWeight);
+        Assert.assertEquals(cache.size(), cache.getWeight());
+        ConcurrentCache.Stats stats = cache.getStats();
+        Assert.assertEquals(numThreads * numOperations, stats.getHitCount() + stats.getMissCount());
+    }
+
+}